@@ -1,5 +1,6 @@
 package com.voituri.ridesharing.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +14,48 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Message message = new Message();
+
+    private final Retention retention = new Retention();
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    private final RefreshToken refreshToken = new RefreshToken();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final RateLimit rateLimit = new RateLimit();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Message getMessage() {
+        return message;
+    }
+
+    public Retention getRetention() {
+        return retention;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    public RefreshToken getRefreshToken() {
+        return refreshToken;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +70,252 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Message {
+
+        private final WriteBehind writeBehind = new WriteBehind();
+
+        public WriteBehind getWriteBehind() {
+            return writeBehind;
+        }
+
+        public static class WriteBehind {
+
+            private boolean enabled = false;
+
+            private int queueCapacity = 10_000;
+
+            private int batchSize = 25;
+
+            private Duration flushInterval = Duration.ofMillis(50);
+
+            private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getFlushInterval() {
+                return flushInterval;
+            }
+
+            public void setFlushInterval(Duration flushInterval) {
+                this.flushInterval = flushInterval;
+            }
+
+            public Duration getShutdownTimeout() {
+                return shutdownTimeout;
+            }
+
+            public void setShutdownTimeout(Duration shutdownTimeout) {
+                this.shutdownTimeout = shutdownTimeout;
+            }
+        }
+    }
+
+    public static class Retention {
+
+        private String cron = "0 30 1 * * ?";
+
+        private Duration notificationMaxAge = Duration.ofDays(30);
+
+        private Duration messageMaxAge = Duration.ofDays(90);
+
+        private int chunkSize = 500;
+
+        private Duration pause = Duration.ofMillis(200);
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public Duration getNotificationMaxAge() {
+            return notificationMaxAge;
+        }
+
+        public void setNotificationMaxAge(Duration notificationMaxAge) {
+            this.notificationMaxAge = notificationMaxAge;
+        }
+
+        public Duration getMessageMaxAge() {
+            return messageMaxAge;
+        }
+
+        public void setMessageMaxAge(Duration messageMaxAge) {
+            this.messageMaxAge = messageMaxAge;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public Duration getPause() {
+            return pause;
+        }
+
+        public void setPause(Duration pause) {
+            this.pause = pause;
+        }
+    }
+
+    public static class JwtCache {
+
+        private boolean enabled = true;
+
+        private int maxSize = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class RefreshToken {
+
+        private Duration accessTokenValidity = Duration.ofMinutes(15);
+
+        private int revocationFilterSize = 100_000;
+
+        public Duration getAccessTokenValidity() {
+            return accessTokenValidity;
+        }
+
+        public void setAccessTokenValidity(Duration accessTokenValidity) {
+            this.accessTokenValidity = accessTokenValidity;
+        }
+
+        public int getRevocationFilterSize() {
+            return revocationFilterSize;
+        }
+
+        public void setRevocationFilterSize(int revocationFilterSize) {
+            this.revocationFilterSize = revocationFilterSize;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        private int queueCapacity = 50;
+
+        private Duration retryAfter = Duration.ofSeconds(2);
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    public static class RateLimit {
+
+        private boolean enabled = true;
+
+        private final Bucket perIp = new Bucket(300, 150);
+
+        private final Bucket perPrincipal = new Bucket(100, 50);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Bucket getPerIp() {
+            return perIp;
+        }
+
+        public Bucket getPerPrincipal() {
+            return perPrincipal;
+        }
+
+        public static class Bucket {
+
+            private int capacity;
+
+            private int refillPerSecond;
+
+            Bucket(int capacity, int refillPerSecond) {
+                this.capacity = capacity;
+                this.refillPerSecond = refillPerSecond;
+            }
+
+            public int getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(int capacity) {
+                this.capacity = capacity;
+            }
+
+            public int getRefillPerSecond() {
+                return refillPerSecond;
+            }
+
+            public void setRefillPerSecond(int refillPerSecond) {
+                this.refillPerSecond = refillPerSecond;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -51,6 +51,7 @@ public class CacheConfiguration {
             createCache(cm, com.voituri.ridesharing.domain.Authority.class.getName());
             createCache(cm, com.voituri.ridesharing.domain.User.class.getName() + ".authorities");
             createCache(cm, com.voituri.ridesharing.domain.Member.class.getName());
+            createCache(cm, com.voituri.ridesharing.repository.MemberRepository.MEMBER_IDS_BY_LOGIN_CACHE);
             createCache(cm, com.voituri.ridesharing.domain.Member.class.getName() + ".rides");
             createCache(cm, com.voituri.ridesharing.domain.Member.class.getName() + ".notifications");
             createCache(cm, com.voituri.ridesharing.domain.Member.class.getName() + ".ratingsGivens");
@@ -61,8 +62,10 @@ public class CacheConfiguration {
             createCache(cm, com.voituri.ridesharing.domain.Ride.class.getName() + ".messages");
             createCache(cm, com.voituri.ridesharing.domain.RideRequest.class.getName());
             createCache(cm, com.voituri.ridesharing.domain.Notification.class.getName());
+            createCache(cm, com.voituri.ridesharing.domain.SavedSearch.class.getName());
             createCache(cm, com.voituri.ridesharing.domain.Message.class.getName());
             createCache(cm, com.voituri.ridesharing.domain.Rating.class.getName());
+            createCache(cm, com.voituri.ridesharing.service.recurrence.RideOccurrenceCache.RIDE_OCCURRENCES_CACHE);
             // jhipster-needle-ehcache-add-entry
         };
     }
@@ -3,8 +3,16 @@ package com.voituri.ridesharing.config;
 import static com.voituri.ridesharing.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.proc.BadJWSException;
 import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jwt.proc.BadJWTException;
 import com.voituri.ridesharing.management.SecurityMetersService;
+import com.voituri.ridesharing.security.JwtPrevalidator;
+import com.voituri.ridesharing.security.TokenRevocations;
+import com.voituri.ridesharing.security.VerifiedJwtCache;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
@@ -12,8 +20,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
@@ -22,34 +36,80 @@ public class SecurityJwtConfiguration {
 
     private final Logger log = LoggerFactory.getLogger(SecurityJwtConfiguration.class);
 
+    /**
+     * Clock skew allowed on the {@code exp} claim, the default of the {@link NimbusJwtDecoder}.
+     */
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
     @Value("${jhipster.security.authentication.jwt.base64-secret}")
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public JwtDecoder jwtDecoder(
+        SecurityMetersService metersService,
+        VerifiedJwtCache verifiedJwtCache,
+        TokenRevocations tokenRevocations
+    ) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
+        JwtPrevalidator prevalidator = new JwtPrevalidator(Clock.systemUTC(), CLOCK_SKEW);
         return token -> {
-            try {
-                return jwtDecoder.decode(token);
-            } catch (Exception e) {
-                if (e.getMessage().contains("Invalid signature")) {
-                    metersService.trackTokenInvalidSignature();
-                } else if (e.getMessage().contains("Jwt expired at")) {
-                    metersService.trackTokenExpired();
-                } else if (
-                    e.getMessage().contains("Invalid JWT serialization") ||
-                    e.getMessage().contains("Malformed token") ||
-                    e.getMessage().contains("Invalid unsecured/JWS/JWE")
-                ) {
-                    metersService.trackTokenMalformed();
-                } else {
-                    log.error("Unknown JWT error {}", e.getMessage());
+            // Reject garbage and expired tokens before hashing or verifying them
+            JwtPrevalidator.Outcome outcome = prevalidator.check(token);
+            if (outcome != JwtPrevalidator.Outcome.WELL_FORMED) {
+                switch (outcome) {
+                    case EXPIRED -> metersService.trackTokenExpired();
+                    case UNSUPPORTED -> metersService.trackTokenUnsupported();
+                    default -> metersService.trackTokenMalformed();
                 }
-                throw e;
+                throw new RejectedJwtException(outcome);
             }
+            Jwt jwt = verifiedJwtCache.get(token, encoded -> {
+                try {
+                    return jwtDecoder.decode(encoded);
+                } catch (JwtException e) {
+                    trackDecodingFailure(e, metersService);
+                    throw e;
+                }
+            });
+            return checkNotRevoked(jwt, tokenRevocations);
         };
     }
 
+    /**
+     * Count a failure of the {@link NimbusJwtDecoder} by its type, and by the Nimbus exception it wraps: its message is
+     * meant for humans and may be {@code null}.
+     */
+    private void trackDecodingFailure(JwtException e, SecurityMetersService metersService) {
+        if (e instanceof JwtValidationException validationException) {
+            if (validationException.getErrors().stream().anyMatch(SecurityJwtConfiguration::isExpiry)) {
+                metersService.trackTokenExpired();
+            } else {
+                log.error("Unknown JWT validation error {}", validationException.getErrors());
+            }
+        } else if (e instanceof BadJwtException && e.getCause() instanceof BadJWSException) {
+            metersService.trackTokenInvalidSignature();
+        } else if (e instanceof BadJwtException && (e.getCause() instanceof ParseException || e.getCause() instanceof BadJWTException)) {
+            metersService.trackTokenMalformed();
+        } else {
+            log.error("Unknown JWT error {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether an error of the {@link JwtTimestampValidator}, the default validator of the decoder, reports an expired token
+     * rather than one used before its {@code nbf}.
+     */
+    private static boolean isExpiry(OAuth2Error error) {
+        return error.getDescription() != null && error.getDescription().startsWith("Jwt expired");
+    }
+
+    private static Jwt checkNotRevoked(Jwt jwt, TokenRevocations tokenRevocations) {
+        if (tokenRevocations.isRevoked(jwt.getId())) {
+            throw new BadJwtException("Token revoked");
+        }
+        return jwt;
+    }
+
     @Bean
     public JwtEncoder jwtEncoder() {
         return new NimbusJwtEncoder(new ImmutableSecret<>(getSecretKey()));
@@ -59,4 +119,22 @@ public class SecurityJwtConfiguration {
         byte[] keyBytes = Base64.from(jwtKey).decode();
         return new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
     }
+
+    /**
+     * Rejection of a token by the {@link JwtPrevalidator}: its cause is known and says all there is to say, so no stack trace
+     * is captured.
+     */
+    private static final class RejectedJwtException extends BadJwtException {
+
+        private static final long serialVersionUID = 1L;
+
+        RejectedJwtException(JwtPrevalidator.Outcome outcome) {
+            super("Token rejected: " + outcome);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.voituri.ridesharing.config;
+
+import com.voituri.ridesharing.web.websocket.RideChatHandler;
+import java.util.Optional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import tech.jhipster.config.JHipsterProperties;
+
+@Configuration
+@EnableWebSocket
+public class WebsocketConfiguration implements WebSocketConfigurer {
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final RideChatHandler rideChatHandler;
+
+    public WebsocketConfiguration(JHipsterProperties jHipsterProperties, RideChatHandler rideChatHandler) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.rideChatHandler = rideChatHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        String[] allowedOrigins = Optional.ofNullable(jHipsterProperties.getCors().getAllowedOrigins())
+            .map(origins -> origins.toArray(new String[0]))
+            .orElse(new String[0]);
+        registry.addHandler(rideChatHandler, RideChatHandler.PATH).addInterceptors(rideChatHandler).setAllowedOrigins(allowedOrigins);
+    }
+}
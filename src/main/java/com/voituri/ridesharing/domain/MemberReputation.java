@@ -0,0 +1,148 @@
+package com.voituri.ridesharing.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * The aggregates of the {@link Rating}s received by a {@link Member}.
+ * <p>
+ * The row is only written by atomic increments (see {@link com.voituri.ridesharing.repository.MemberReputationBulkRepository}),
+ * never through the persistence context, hence the entity is immutable and not cached.
+ */
+@Entity
+@Immutable
+@Table(name = "member_reputation")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class MemberReputation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Lowest score of a rating.
+     */
+    public static final int MIN_SCORE = 1;
+
+    /**
+     * Highest score of a rating.
+     */
+    public static final int MAX_SCORE = 5;
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum;
+
+    @Column(name = "score_1", nullable = false)
+    private Long score1;
+
+    @Column(name = "score_2", nullable = false)
+    private Long score2;
+
+    @Column(name = "score_3", nullable = false)
+    private Long score3;
+
+    @Column(name = "score_4", nullable = false)
+    private Long score4;
+
+    @Column(name = "score_5", nullable = false)
+    private Long score5;
+
+    public Long getMemberId() {
+        return this.memberId;
+    }
+
+    public MemberReputation memberId(Long memberId) {
+        this.setMemberId(memberId);
+        return this;
+    }
+
+    public void setMemberId(Long memberId) {
+        this.memberId = memberId;
+    }
+
+    public Long getRatingCount() {
+        return this.ratingCount;
+    }
+
+    public MemberReputation ratingCount(Long ratingCount) {
+        this.setRatingCount(ratingCount);
+        return this;
+    }
+
+    public void setRatingCount(Long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public Long getScoreSum() {
+        return this.scoreSum;
+    }
+
+    public MemberReputation scoreSum(Long scoreSum) {
+        this.setScoreSum(scoreSum);
+        return this;
+    }
+
+    public void setScoreSum(Long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    /**
+     * Number of ratings with a given score.
+     *
+     * @param score the score, from {@value #MIN_SCORE} to {@value #MAX_SCORE}.
+     * @return the number of ratings.
+     */
+    public Long getScoreCount(int score) {
+        return switch (score) {
+            case 1 -> score1;
+            case 2 -> score2;
+            case 3 -> score3;
+            case 4 -> score4;
+            case 5 -> score5;
+            default -> throw new IllegalArgumentException("Invalid score: " + score);
+        };
+    }
+
+    public MemberReputation scoreCounts(Long score1, Long score2, Long score3, Long score4, Long score5) {
+        this.score1 = score1;
+        this.score2 = score2;
+        this.score3 = score3;
+        this.score4 = score4;
+        this.score5 = score5;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MemberReputation)) {
+            return false;
+        }
+        return getMemberId() != null && getMemberId().equals(((MemberReputation) o).getMemberId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MemberReputation{" +
+            "memberId=" + getMemberId() +
+            ", ratingCount=" + getRatingCount() +
+            ", scoreSum=" + getScoreSum() +
+            ", histogram=[" + score1 + ", " + score2 + ", " + score3 + ", " + score4 + ", " + score5 + "]" +
+            "}";
+    }
+}
@@ -0,0 +1,154 @@
+package com.voituri.ridesharing.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A refresh token, exchanged for a new access token and a new refresh token.
+ * <p>
+ * Only the SHA-256 of the token is stored. The tokens issued from the same login share a session, so that presenting a token
+ * that was already used revokes the whole session: the token was stolen, or leaked.
+ */
+@Entity
+@Table(name = "refresh_token")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class RefreshToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "token_hash", length = 64, nullable = false, unique = true)
+    private String tokenHash;
+
+    @NotNull
+    @Size(max = 36)
+    @Column(name = "session", length = 36, nullable = false)
+    private String session;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @NotNull
+    @Column(name = "revoked", nullable = false)
+    private Boolean revoked = false;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private User user;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public RefreshToken id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return this.tokenHash;
+    }
+
+    public RefreshToken tokenHash(String tokenHash) {
+        this.setTokenHash(tokenHash);
+        return this;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getSession() {
+        return this.session;
+    }
+
+    public RefreshToken session(String session) {
+        this.setSession(session);
+        return this;
+    }
+
+    public void setSession(String session) {
+        this.session = session;
+    }
+
+    public Instant getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    public RefreshToken expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Boolean getRevoked() {
+        return this.revoked;
+    }
+
+    public RefreshToken revoked(Boolean revoked) {
+        this.setRevoked(revoked);
+        return this;
+    }
+
+    public void setRevoked(Boolean revoked) {
+        this.revoked = revoked;
+    }
+
+    public User getUser() {
+        return this.user;
+    }
+
+    public RefreshToken user(User user) {
+        this.setUser(user);
+        return this;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RefreshToken)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((RefreshToken) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+            "id=" + getId() +
+            ", session='" + getSession() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            ", revoked='" + getRevoked() + "'" +
+            "}";
+    }
+}
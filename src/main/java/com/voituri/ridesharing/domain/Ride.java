@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -45,6 +46,38 @@ public class Ride implements Serializable {
     @Column(name = "recurring")
     private Boolean recurring;
 
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    @Column(name = "start_latitude")
+    private Double startLatitude;
+
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    @Column(name = "start_longitude")
+    private Double startLongitude;
+
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    @Column(name = "end_latitude")
+    private Double endLatitude;
+
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    @Column(name = "end_longitude")
+    private Double endLongitude;
+
+    @Min(value = 0)
+    @Column(name = "available_seats", updatable = false)
+    private Integer availableSeats;
+
+    @Size(max = 27)
+    @Pattern(regexp = "^(MON|TUE|WED|THU|FRI|SAT|SUN)(,(MON|TUE|WED|THU|FRI|SAT|SUN))*$")
+    @Column(name = "recurrence_days", length = 27)
+    private String recurrenceDays;
+
+    @Column(name = "recurrence_until")
+    private LocalDate recurrenceUntil;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "ride")
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "ride" }, allowSetters = true)
@@ -139,6 +172,97 @@ public class Ride implements Serializable {
         this.recurring = recurring;
     }
 
+    public Double getStartLatitude() {
+        return this.startLatitude;
+    }
+
+    public Ride startLatitude(Double startLatitude) {
+        this.setStartLatitude(startLatitude);
+        return this;
+    }
+
+    public void setStartLatitude(Double startLatitude) {
+        this.startLatitude = startLatitude;
+    }
+
+    public Double getStartLongitude() {
+        return this.startLongitude;
+    }
+
+    public Ride startLongitude(Double startLongitude) {
+        this.setStartLongitude(startLongitude);
+        return this;
+    }
+
+    public void setStartLongitude(Double startLongitude) {
+        this.startLongitude = startLongitude;
+    }
+
+    public Double getEndLatitude() {
+        return this.endLatitude;
+    }
+
+    public Ride endLatitude(Double endLatitude) {
+        this.setEndLatitude(endLatitude);
+        return this;
+    }
+
+    public void setEndLatitude(Double endLatitude) {
+        this.endLatitude = endLatitude;
+    }
+
+    public Double getEndLongitude() {
+        return this.endLongitude;
+    }
+
+    public Ride endLongitude(Double endLongitude) {
+        this.setEndLongitude(endLongitude);
+        return this;
+    }
+
+    public void setEndLongitude(Double endLongitude) {
+        this.endLongitude = endLongitude;
+    }
+
+    public Integer getAvailableSeats() {
+        return this.availableSeats;
+    }
+
+    public Ride availableSeats(Integer availableSeats) {
+        this.setAvailableSeats(availableSeats);
+        return this;
+    }
+
+    public void setAvailableSeats(Integer availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+
+    public String getRecurrenceDays() {
+        return this.recurrenceDays;
+    }
+
+    public Ride recurrenceDays(String recurrenceDays) {
+        this.setRecurrenceDays(recurrenceDays);
+        return this;
+    }
+
+    public void setRecurrenceDays(String recurrenceDays) {
+        this.recurrenceDays = recurrenceDays;
+    }
+
+    public LocalDate getRecurrenceUntil() {
+        return this.recurrenceUntil;
+    }
+
+    public Ride recurrenceUntil(LocalDate recurrenceUntil) {
+        this.setRecurrenceUntil(recurrenceUntil);
+        return this;
+    }
+
+    public void setRecurrenceUntil(LocalDate recurrenceUntil) {
+        this.recurrenceUntil = recurrenceUntil;
+    }
+
     public Set<RideRequest> getRequests() {
         return this.requests;
     }
@@ -243,6 +367,13 @@ public class Ride implements Serializable {
             ", startTime='" + getStartTime() + "'" +
             ", endTime='" + getEndTime() + "'" +
             ", recurring='" + getRecurring() + "'" +
+            ", startLatitude=" + getStartLatitude() +
+            ", startLongitude=" + getStartLongitude() +
+            ", endLatitude=" + getEndLatitude() +
+            ", endLongitude=" + getEndLongitude() +
+            ", availableSeats=" + getAvailableSeats() +
+            ", recurrenceDays='" + getRecurrenceDays() + "'" +
+            ", recurrenceUntil='" + getRecurrenceUntil() + "'" +
             "}";
     }
 }
@@ -33,10 +33,18 @@ public class RideRequest implements Serializable {
     @Column(name = "request_time", nullable = false)
     private ZonedDateTime requestTime;
 
+    @Min(value = 1)
+    @Column(name = "seats")
+    private Integer seats;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "requests", "messages", "member" }, allowSetters = true)
     private Ride ride;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnoreProperties(value = { "profile", "rides", "notifications", "ratingsGivens", "ratingsReceiveds" }, allowSetters = true)
+    private Member member;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -78,6 +86,19 @@ public class RideRequest implements Serializable {
         this.requestTime = requestTime;
     }
 
+    public Integer getSeats() {
+        return this.seats;
+    }
+
+    public RideRequest seats(Integer seats) {
+        this.setSeats(seats);
+        return this;
+    }
+
+    public void setSeats(Integer seats) {
+        this.seats = seats;
+    }
+
     public Ride getRide() {
         return this.ride;
     }
@@ -91,6 +112,19 @@ public class RideRequest implements Serializable {
         return this;
     }
 
+    public Member getMember() {
+        return this.member;
+    }
+
+    public void setMember(Member member) {
+        this.member = member;
+    }
+
+    public RideRequest member(Member member) {
+        this.setMember(member);
+        return this;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -117,6 +151,7 @@ public class RideRequest implements Serializable {
             "id=" + getId() +
             ", status='" + getStatus() + "'" +
             ", requestTime='" + getRequestTime() + "'" +
+            ", seats=" + getSeats() +
             "}";
     }
 }
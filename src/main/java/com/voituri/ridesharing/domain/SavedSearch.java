@@ -0,0 +1,238 @@
+package com.voituri.ridesharing.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+/**
+ * A SavedSearch: a trip a rider wants to be notified about when a matching ride is published.
+ */
+@Entity
+@Table(name = "saved_search")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SavedSearch implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @Size(max = 100)
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @NotNull
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    @Column(name = "from_latitude", nullable = false)
+    private Double fromLatitude;
+
+    @NotNull
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    @Column(name = "from_longitude", nullable = false)
+    private Double fromLongitude;
+
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    @Column(name = "to_latitude")
+    private Double toLatitude;
+
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    @Column(name = "to_longitude")
+    private Double toLongitude;
+
+    @NotNull
+    @DecimalMin(value = "0.1")
+    @DecimalMax(value = "25")
+    @Column(name = "radius_km", nullable = false)
+    private Double radiusKm;
+
+    @NotNull
+    @Column(name = "depart_after", nullable = false)
+    private ZonedDateTime departAfter;
+
+    @NotNull
+    @Column(name = "depart_before", nullable = false)
+    private ZonedDateTime departBefore;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnoreProperties(value = { "profile", "rides", "notifications", "ratingsGivens", "ratingsReceiveds" }, allowSetters = true)
+    private Member member;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public SavedSearch id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public SavedSearch name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getFromLatitude() {
+        return this.fromLatitude;
+    }
+
+    public SavedSearch fromLatitude(Double fromLatitude) {
+        this.setFromLatitude(fromLatitude);
+        return this;
+    }
+
+    public void setFromLatitude(Double fromLatitude) {
+        this.fromLatitude = fromLatitude;
+    }
+
+    public Double getFromLongitude() {
+        return this.fromLongitude;
+    }
+
+    public SavedSearch fromLongitude(Double fromLongitude) {
+        this.setFromLongitude(fromLongitude);
+        return this;
+    }
+
+    public void setFromLongitude(Double fromLongitude) {
+        this.fromLongitude = fromLongitude;
+    }
+
+    public Double getToLatitude() {
+        return this.toLatitude;
+    }
+
+    public SavedSearch toLatitude(Double toLatitude) {
+        this.setToLatitude(toLatitude);
+        return this;
+    }
+
+    public void setToLatitude(Double toLatitude) {
+        this.toLatitude = toLatitude;
+    }
+
+    public Double getToLongitude() {
+        return this.toLongitude;
+    }
+
+    public SavedSearch toLongitude(Double toLongitude) {
+        this.setToLongitude(toLongitude);
+        return this;
+    }
+
+    public void setToLongitude(Double toLongitude) {
+        this.toLongitude = toLongitude;
+    }
+
+    public Double getRadiusKm() {
+        return this.radiusKm;
+    }
+
+    public SavedSearch radiusKm(Double radiusKm) {
+        this.setRadiusKm(radiusKm);
+        return this;
+    }
+
+    public void setRadiusKm(Double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+
+    public ZonedDateTime getDepartAfter() {
+        return this.departAfter;
+    }
+
+    public SavedSearch departAfter(ZonedDateTime departAfter) {
+        this.setDepartAfter(departAfter);
+        return this;
+    }
+
+    public void setDepartAfter(ZonedDateTime departAfter) {
+        this.departAfter = departAfter;
+    }
+
+    public ZonedDateTime getDepartBefore() {
+        return this.departBefore;
+    }
+
+    public SavedSearch departBefore(ZonedDateTime departBefore) {
+        this.setDepartBefore(departBefore);
+        return this;
+    }
+
+    public void setDepartBefore(ZonedDateTime departBefore) {
+        this.departBefore = departBefore;
+    }
+
+    public Member getMember() {
+        return this.member;
+    }
+
+    public void setMember(Member member) {
+        this.member = member;
+    }
+
+    public SavedSearch member(Member member) {
+        this.setMember(member);
+        return this;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SavedSearch)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((SavedSearch) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SavedSearch{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", fromLatitude=" + getFromLatitude() +
+            ", fromLongitude=" + getFromLongitude() +
+            ", toLatitude=" + getToLatitude() +
+            ", toLongitude=" + getToLongitude() +
+            ", radiusKm=" + getRadiusKm() +
+            ", departAfter='" + getDepartAfter() + "'" +
+            ", departBefore='" + getDepartBefore() + "'" +
+            "}";
+    }
+}
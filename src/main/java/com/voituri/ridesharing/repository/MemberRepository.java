@@ -1,7 +1,10 @@
 package com.voituri.ridesharing.repository;
 
 import com.voituri.ridesharing.domain.Member;
+import java.util.Optional;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,12 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface MemberRepository extends JpaRepository<Member, Long> {}
+public interface MemberRepository extends JpaRepository<Member, Long> {
+    String MEMBER_IDS_BY_LOGIN_CACHE = "memberIdsByLogin";
+
+    Optional<Member> findOneByLogin(String login);
+
+    @Cacheable(cacheNames = MEMBER_IDS_BY_LOGIN_CACHE, unless = "#result == null")
+    @Query("select member.id from Member member where member.login = :login")
+    Optional<Long> findIdByLogin(@Param("login") String login);
+}
@@ -0,0 +1,15 @@
+package com.voituri.ridesharing.repository;
+
+/**
+ * Atomic increments of the rating aggregates of a member.
+ */
+public interface MemberReputationBulkRepository {
+    /**
+     * Add ratings to, or remove ratings from, the aggregates of a member, creating them on the first rating.
+     *
+     * @param memberId the id of the rated member.
+     * @param score the score of the ratings, from {@code 1} to {@code 5}.
+     * @param delta the number of ratings, negative if they were removed.
+     */
+    void addRatings(Long memberId, int score, long delta);
+}
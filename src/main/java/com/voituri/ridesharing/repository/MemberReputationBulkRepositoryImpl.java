@@ -0,0 +1,65 @@
+package com.voituri.ridesharing.repository;
+
+import com.voituri.ridesharing.domain.MemberReputation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Implementation of {@link MemberReputationBulkRepository}.
+ * <p>
+ * Each change is a single {@code update ... set column = column + delta} statement, so concurrent ratings of a member never
+ * lose an update. The first rating of a member locks the member row before inserting the aggregates, so that concurrent
+ * first ratings insert them only once.
+ */
+public class MemberReputationBulkRepositoryImpl implements MemberReputationBulkRepository {
+
+    private static final String UPDATE =
+        "update member_reputation set rating_count = rating_count + :delta, score_sum = score_sum + :sumDelta, " +
+        "score_1 = score_1 + :delta1, score_2 = score_2 + :delta2, score_3 = score_3 + :delta3, " +
+        "score_4 = score_4 + :delta4, score_5 = score_5 + :delta5 where member_id = :memberId";
+
+    private static final String INSERT =
+        "insert into member_reputation (member_id, rating_count, score_sum, score_1, score_2, score_3, score_4, score_5) " +
+        "values (:memberId, :delta, :sumDelta, :delta1, :delta2, :delta3, :delta4, :delta5)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void addRatings(Long memberId, int score, long delta) {
+        if (score < MemberReputation.MIN_SCORE || score > MemberReputation.MAX_SCORE) {
+            throw new IllegalArgumentException("Invalid score: " + score);
+        }
+        if (execute(UPDATE, memberId, score, delta) > 0) {
+            return;
+        }
+        entityManager
+            .createNativeQuery("select id from member where id = :memberId for update")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(MemberReputation.class)
+            .setParameter("memberId", memberId)
+            .getResultList();
+        if (execute(UPDATE, memberId, score, delta) == 0) {
+            execute(INSERT, memberId, score, delta);
+        }
+    }
+
+    /**
+     * Run a statement declaring only the (uncached) aggregates as query space, so that Hibernate does not evict any cache
+     * region on its behalf.
+     */
+    private int execute(String sql, Long memberId, int score, long delta) {
+        NativeQuery<?> query = entityManager
+            .createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(MemberReputation.class)
+            .setParameter("memberId", memberId)
+            .setParameter("delta", delta)
+            .setParameter("sumDelta", delta * score);
+        for (int s = MemberReputation.MIN_SCORE; s <= MemberReputation.MAX_SCORE; s++) {
+            query.setParameter("delta" + s, s == score ? delta : 0L);
+        }
+        return query.executeUpdate();
+    }
+}
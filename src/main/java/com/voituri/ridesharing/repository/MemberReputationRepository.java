@@ -0,0 +1,12 @@
+package com.voituri.ridesharing.repository;
+
+import com.voituri.ridesharing.domain.MemberReputation;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the MemberReputation entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface MemberReputationRepository extends MemberReputationBulkRepository, JpaRepository<MemberReputation, Long> {}
@@ -0,0 +1,42 @@
+package com.voituri.ridesharing.repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based purge of the messages of archived rides.
+ * <p>
+ * Unlike JPQL bulk statements, which make Hibernate drop the whole {@code Message} cache region, the deletes leave the
+ * second-level cache untouched: the caller evicts the entries of the messages it deleted.
+ */
+public interface MessageBulkRepository {
+    /**
+     * Find a chunk of archived rides still holding messages, in id order. A ride is archived once it arrived (or left, if
+     * it has no end time) before the cutoff and, if it is recurring, once its recurrence ended before the cutoff.
+     *
+     * @param cutoff the time before which the rides arrived.
+     * @param afterId the last ride id of the previous chunk, or {@code null} for the first chunk.
+     * @param limit the maximal number of rides to return.
+     * @return the ids of the rides.
+     */
+    List<Long> findArchivedRideIdsWithMessages(ZonedDateTime cutoff, Long afterId, int limit);
+
+    /**
+     * Find a chunk of the messages of some rides, in id order.
+     *
+     * @param rideIds the ids of the rides.
+     * @param after the last message of the previous chunk, or {@code null} for the first chunk.
+     * @param limit the maximal number of messages to return.
+     * @return the messages, with their ride as owner.
+     */
+    List<PurgeCandidate> findByRides(Collection<Long> rideIds, PurgeCandidate after, int limit);
+
+    /**
+     * Delete messages.
+     *
+     * @param ids the ids of the messages.
+     * @return the number of deleted messages.
+     */
+    int deleteByIds(Collection<Long> ids);
+}
@@ -0,0 +1,84 @@
+package com.voituri.ridesharing.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Implementation of {@link MessageBulkRepository}.
+ * <p>
+ * The deletes are native statements declaring a query space that matches no entity, so that Hibernate does not evict any
+ * cache region on their behalf. Large id lists are split into chunks of {@value #CHUNK_SIZE}.
+ */
+public class MessageBulkRepositoryImpl implements MessageBulkRepository {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String NO_QUERY_SPACE = "";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findArchivedRideIdsWithMessages(ZonedDateTime cutoff, Long afterId, int limit) {
+        TypedQuery<Long> query = entityManager.createQuery(
+            "select ride.id from Ride ride " +
+            "where (ride.endTime < :cutoff or (ride.endTime is null and ride.startTime < :cutoff)) " +
+            "and (ride.recurring is null or ride.recurring = false or ride.recurrenceUntil < :cutoffDate) " +
+            "and ride.id > :afterId " +
+            "and exists (select message.id from Message message where message.ride = ride) " +
+            "order by ride.id asc",
+            Long.class
+        );
+        return query
+            .setParameter("cutoff", cutoff)
+            .setParameter("cutoffDate", cutoff.toLocalDate())
+            .setParameter("afterId", afterId != null ? afterId : Long.MIN_VALUE)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public List<PurgeCandidate> findByRides(Collection<Long> rideIds, PurgeCandidate after, int limit) {
+        if (rideIds.isEmpty()) {
+            return List.of();
+        }
+        TypedQuery<Object[]> query = entityManager.createQuery(
+            "select message.id, message.timestamp, message.ride.id from Message message " +
+            "where message.ride.id in :rideIds and message.id > :afterId order by message.id asc",
+            Object[].class
+        );
+        return query
+            .setParameter("rideIds", rideIds)
+            .setParameter("afterId", after != null ? after.id() : Long.MIN_VALUE)
+            .setMaxResults(limit)
+            .getResultStream()
+            .map(row -> new PurgeCandidate((Long) row[0], (ZonedDateTime) row[1], (Long) row[2]))
+            .toList();
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Pending changes must reach the database before it is written behind the back of the persistence context
+        entityManager.flush();
+        List<Long> all = new ArrayList<>(ids);
+        int count = 0;
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            count += entityManager
+                .createNativeQuery("delete from message where id in (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(NO_QUERY_SPACE)
+                .setParameterList("ids", all.subList(from, Math.min(all.size(), from + CHUNK_SIZE)))
+                .executeUpdate();
+        }
+        return count;
+    }
+}
@@ -1,7 +1,14 @@
 package com.voituri.ridesharing.repository;
 
 import com.voituri.ridesharing.domain.Message;
+import jakarta.persistence.QueryHint;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,69 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface MessageRepository extends JpaRepository<Message, Long> {}
+public interface MessageRepository extends MessageBulkRepository, JpaRepository<Message, Long> {
+    @Query("select message from Message message order by message.timestamp asc, message.id asc")
+    List<Message> findFirstPage(Limit limit);
+
+    @Query(
+        "select message from Message message where message.timestamp >= :timestamp " +
+        "and (message.timestamp > :timestamp or message.id > :id) " +
+        "order by message.timestamp asc, message.id asc"
+    )
+    List<Message> findPageAfter(@Param("timestamp") ZonedDateTime timestamp, @Param("id") Long id, Limit limit);
+
+    @Query(
+        "select message.id as id, message.content as content, message.timestamp as timestamp from Message message " +
+        "where message.ride.id = :rideId order by message.timestamp desc, message.id desc"
+    )
+    List<MessageSummary> findLatestByRide(@Param("rideId") Long rideId, Limit limit);
+
+    @Query(
+        "select message.id as id, message.content as content, message.timestamp as timestamp from Message message " +
+        "where message.ride.id = :rideId and message.timestamp <= :timestamp " +
+        "and (message.timestamp < :timestamp or message.id < :id) " +
+        "order by message.timestamp desc, message.id desc"
+    )
+    List<MessageSummary> findByRideBefore(
+        @Param("rideId") Long rideId,
+        @Param("timestamp") ZonedDateTime timestamp,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    @Query(
+        "select message.ride.id as rideId, count(message) as count from Message message " +
+        "where message.ride is not null group by message.ride.id"
+    )
+    List<RideCount> countByRide();
+
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+        }
+    )
+    @Query("select message from Message message order by message.id asc")
+    Stream<Message> streamAll();
+
+    /**
+     * Projection of a message, without its ride.
+     */
+    interface MessageSummary {
+        Long getId();
+
+        String getContent();
+
+        ZonedDateTime getTimestamp();
+    }
+
+    /**
+     * Projection of a number of messages of a ride.
+     */
+    interface RideCount {
+        Long getRideId();
+
+        long getCount();
+    }
+}
@@ -0,0 +1,67 @@
+package com.voituri.ridesharing.repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based writes on the notifications of a member, and on the expired notifications.
+ * <p>
+ * Unlike JPQL bulk statements, which make Hibernate drop the whole {@code Notification} cache region, these writes leave
+ * the second-level cache untouched: the caller evicts the entries of the notifications it changed.
+ */
+public interface NotificationBulkRepository {
+    /**
+     * Find the notifications of a member matching a selection.
+     *
+     * @param memberId the id of the member.
+     * @param ids the ids of the notifications, or {@code null} for any notification.
+     * @param before the time before which the notifications were sent, or {@code null} for any time.
+     * @return the id and read state of the matching notifications.
+     */
+    List<NotificationState> findStatesByMember(Long memberId, Collection<Long> ids, ZonedDateTime before);
+
+    /**
+     * Mark notifications of a member as read.
+     *
+     * @param memberId the id of the member.
+     * @param ids the ids of the notifications; the ones of other members, and the ones already read, are left alone.
+     * @return the number of notifications which were unread.
+     */
+    int markReadByMember(Long memberId, Collection<Long> ids);
+
+    /**
+     * Delete notifications of a member.
+     *
+     * @param memberId the id of the member.
+     * @param ids the ids of the notifications; the ones of other members are left alone.
+     * @return the number of deleted notifications.
+     */
+    int deleteByMember(Long memberId, Collection<Long> ids);
+
+    /**
+     * Find a chunk of the read notifications sent before a cutoff, in {@code (timestamp, id)} order.
+     *
+     * @param cutoff the time before which the notifications were sent.
+     * @param after the last notification of the previous chunk, or {@code null} for the first chunk.
+     * @param limit the maximal number of notifications to return.
+     * @return the notifications, with their member as owner.
+     */
+    List<PurgeCandidate> findReadBefore(ZonedDateTime cutoff, PurgeCandidate after, int limit);
+
+    /**
+     * Delete notifications, whoever they belong to.
+     *
+     * @param ids the ids of the notifications.
+     * @return the number of deleted notifications.
+     */
+    int deleteByIds(Collection<Long> ids);
+
+    /**
+     * Read state of a notification.
+     *
+     * @param id the id of the notification.
+     * @param read whether the notification is read; {@code null} means unread.
+     */
+    record NotificationState(Long id, Boolean read) {}
+}
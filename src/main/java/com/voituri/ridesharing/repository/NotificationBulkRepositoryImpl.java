@@ -0,0 +1,115 @@
+package com.voituri.ridesharing.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Implementation of {@link NotificationBulkRepository}.
+ * <p>
+ * The writes are native statements declaring a query space that matches no entity, so that Hibernate does not evict any
+ * cache region on their behalf. Large id lists are split into chunks of {@value #CHUNK_SIZE}.
+ */
+public class NotificationBulkRepositoryImpl implements NotificationBulkRepository {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String NO_QUERY_SPACE = "";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<NotificationState> findStatesByMember(Long memberId, Collection<Long> ids, ZonedDateTime before) {
+        StringBuilder jpql = new StringBuilder(
+            "select notification.id, notification.read from Notification notification where notification.member.id = :memberId"
+        );
+        if (ids != null) {
+            jpql.append(" and notification.id in :ids");
+        }
+        if (before != null) {
+            jpql.append(" and notification.timestamp < :before");
+        }
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        query.setParameter("memberId", memberId);
+        if (ids != null) {
+            query.setParameter("ids", ids);
+        }
+        if (before != null) {
+            query.setParameter("before", before);
+        }
+        return query.getResultStream().map(row -> new NotificationState((Long) row[0], (Boolean) row[1])).toList();
+    }
+
+    @Override
+    public int markReadByMember(Long memberId, Collection<Long> ids) {
+        // Only the unread ones, so that concurrent calls do not both count the same notifications
+        return execute(
+            "update notification set read = true where member_id = :memberId and id in (:ids) and (read is null or read = false)",
+            memberId,
+            ids
+        );
+    }
+
+    @Override
+    public int deleteByMember(Long memberId, Collection<Long> ids) {
+        return execute("delete from notification where member_id = :memberId and id in (:ids)", memberId, ids);
+    }
+
+    @Override
+    public List<PurgeCandidate> findReadBefore(ZonedDateTime cutoff, PurgeCandidate after, int limit) {
+        StringBuilder jpql = new StringBuilder(
+            "select notification.id, notification.timestamp, notification.member.id from Notification notification " +
+            "where notification.read = true and notification.timestamp < :cutoff"
+        );
+        if (after != null) {
+            jpql.append(
+                " and notification.timestamp >= :timestamp and (notification.timestamp > :timestamp or notification.id > :id)"
+            );
+        }
+        jpql.append(" order by notification.timestamp asc, notification.id asc");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        query.setParameter("cutoff", cutoff);
+        if (after != null) {
+            query.setParameter("timestamp", after.timestamp());
+            query.setParameter("id", after.id());
+        }
+        return query
+            .setMaxResults(limit)
+            .getResultStream()
+            .map(row -> new PurgeCandidate((Long) row[0], (ZonedDateTime) row[1], (Long) row[2]))
+            .toList();
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        return execute("delete from notification where id in (:ids)", null, ids);
+    }
+
+    private int execute(String sql, Long memberId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Pending changes must reach the database before it is written behind the back of the persistence context
+        entityManager.flush();
+        List<Long> all = new ArrayList<>(ids);
+        int count = 0;
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            NativeQuery<?> query = entityManager
+                .createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(NO_QUERY_SPACE)
+                .setParameterList("ids", all.subList(from, Math.min(all.size(), from + CHUNK_SIZE)));
+            if (memberId != null) {
+                query.setParameter("memberId", memberId);
+            }
+            count += query.executeUpdate();
+        }
+        return count;
+    }
+}
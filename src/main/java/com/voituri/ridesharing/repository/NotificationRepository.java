@@ -1,7 +1,10 @@
 package com.voituri.ridesharing.repository;
 
 import com.voituri.ridesharing.domain.Notification;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,26 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {}
+public interface NotificationRepository extends NotificationBulkRepository, JpaRepository<Notification, Long> {
+    @Query(
+        "select notification.member.id as memberId, count(notification) as count from Notification notification " +
+        "where notification.member is not null and (notification.read = false or notification.read is null) " +
+        "group by notification.member.id"
+    )
+    List<MemberCount> countUnreadByMember();
+
+    @Query(
+        "select notification from Notification notification " +
+        "where notification.member.id = :memberId and notification.id > :afterId order by notification.id desc"
+    )
+    List<Notification> findLatestByMemberAfter(@Param("memberId") Long memberId, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Projection of a number of notifications of a member.
+     */
+    interface MemberCount {
+        Long getMemberId();
+
+        long getCount();
+    }
+}
@@ -0,0 +1,12 @@
+package com.voituri.ridesharing.repository;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A row eligible for purge, as read by the retention job, which also uses it as the keyset cursor of the next chunk.
+ *
+ * @param id the id of the row.
+ * @param timestamp the time the row was written.
+ * @param ownerId the id of the entity holding the row in a cached collection (member of a notification, ride of a message).
+ */
+public record PurgeCandidate(Long id, ZonedDateTime timestamp, Long ownerId) {}
@@ -1,6 +1,11 @@
 package com.voituri.ridesharing.repository;
 
 import com.voituri.ridesharing.domain.Rating;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +14,18 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface RatingRepository extends JpaRepository<Rating, Long> {}
+public interface RatingRepository extends JpaRepository<Rating, Long> {
+    List<Rating> findAllByOrderByIdAsc(Limit limit);
+
+    List<Rating> findAllByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+        }
+    )
+    @Query("select rating from Rating rating order by rating.id asc")
+    Stream<Rating> streamAll();
+}
@@ -0,0 +1,34 @@
+package com.voituri.ridesharing.repository;
+
+import com.voituri.ridesharing.domain.RefreshToken;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the RefreshToken entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    @EntityGraph(attributePaths = { "user", "user.authorities" })
+    Optional<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    /**
+     * Mark a token as used, unless it already was: only one of concurrent rotations of the same token succeeds.
+     *
+     * @return {@code 1} if the token was marked, {@code 0} if it already was.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshToken token set token.revoked = true where token.id = :id and token.revoked = false")
+    int revoke(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshToken token set token.revoked = true where token.session = :session and token.revoked = false")
+    int revokeSession(@Param("session") String session);
+
+    @Modifying
+    @Query("delete from RefreshToken token where token.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,26 @@
+package com.voituri.ridesharing.repository;
+
+import com.voituri.ridesharing.domain.RevokedToken;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the RevokedToken entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    @Query("select token.jti from RevokedToken token where token.expiresAt > :now")
+    List<String> findJtisNotExpired(@Param("now") Instant now);
+
+    @Query("select token.jti from RevokedToken token where token.revokedAt >= :since")
+    List<String> findJtisRevokedSince(@Param("since") Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken token where token.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
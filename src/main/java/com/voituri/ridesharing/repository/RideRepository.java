@@ -1,7 +1,15 @@
 package com.voituri.ridesharing.repository;
 
 import com.voituri.ridesharing.domain.Ride;
+import jakarta.persistence.QueryHint;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +17,72 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface RideRepository extends JpaRepository<Ride, Long> {}
+public interface RideRepository extends JpaRepository<Ride, Long>, JpaSpecificationExecutor<Ride> {
+    List<Ride> findAllByStartLatitudeNotNullAndStartLongitudeNotNull();
+
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+        }
+    )
+    @Query("select ride from Ride ride order by ride.id asc")
+    Stream<Ride> streamAll();
+
+    @Query("select ride.availableSeats from Ride ride where ride.id = :id")
+    Optional<Integer> findAvailableSeatsById(@Param("id") Long id);
+
+    @Modifying
+    @Query(
+        "update Ride ride set ride.availableSeats = ride.availableSeats - :seats where ride.id = :id and ride.availableSeats >= :seats"
+    )
+    int decrementAvailableSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    @Modifying
+    @Query(
+        "update Ride ride set ride.availableSeats = ride.availableSeats + :seats where ride.id = :id and ride.availableSeats is not null"
+    )
+    int incrementAvailableSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    @Query(
+        "select ride.id from Ride ride where ride.id in :ids and (ride.member.id = :memberId or exists " +
+        "(select rideRequest.id from RideRequest rideRequest where rideRequest.ride = ride and rideRequest.member.id = :memberId))"
+    )
+    List<Long> findIdsDrivenOrRequestedByMember(@Param("ids") Collection<Long> ids, @Param("memberId") Long memberId);
+
+    @Query("select ride.id as id, ride.startLocation as startLocation, ride.endLocation as endLocation from Ride ride")
+    List<RideLocations> findAllLocations();
+
+    @Query(
+        "select ride.id as id, ride.member.id as driverId, ride.startLocation as startLocation, ride.startTime as startTime, " +
+        "ride.endTime as endTime from Ride ride where ride.member is not null"
+    )
+    List<RideDrive> findAllDrives();
+
+    /**
+     * Projection of the endpoints names of a ride.
+     */
+    interface RideLocations {
+        Long getId();
+
+        String getStartLocation();
+
+        String getEndLocation();
+    }
+
+    /**
+     * Projection of a ride as seen from its driver.
+     */
+    interface RideDrive {
+        Long getId();
+
+        Long getDriverId();
+
+        String getStartLocation();
+
+        ZonedDateTime getStartTime();
+
+        ZonedDateTime getEndTime();
+    }
+}
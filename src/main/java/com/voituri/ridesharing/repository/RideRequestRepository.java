@@ -1,7 +1,9 @@
 package com.voituri.ridesharing.repository;
 
 import com.voituri.ridesharing.domain.RideRequest;
+import java.util.List;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,10 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface RideRequestRepository extends JpaRepository<RideRequest, Long> {}
+public interface RideRequestRepository extends JpaRepository<RideRequest, Long> {
+    @Query(
+        "select distinct rideRequest.member.id from RideRequest rideRequest " +
+        "where rideRequest.ride.id = :rideId and rideRequest.member is not null"
+    )
+    List<Long> findRequesterIdsByRideId(@Param("rideId") Long rideId);
+}
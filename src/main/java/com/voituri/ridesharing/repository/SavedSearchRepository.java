@@ -0,0 +1,16 @@
+package com.voituri.ridesharing.repository;
+
+import com.voituri.ridesharing.domain.SavedSearch;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SavedSearch entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    List<SavedSearch> findAllByDepartBeforeGreaterThanEqual(ZonedDateTime departBefore);
+}
@@ -0,0 +1,128 @@
+package com.voituri.ridesharing.security;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} running the hashing and the verification of the passwords on a dedicated, bounded pool of threads.
+ * <p>
+ * BCrypt is slow on purpose, so a burst of logins would otherwise occupy the request threads and the processors at the
+ * expense of every other request. Here at most {@code application.password-hashing.threads} passwords are processed at once,
+ * and at most {@code application.password-hashing.queue-capacity} wait for their turn: any other call fails right away with a
+ * {@link PasswordHashingUnavailableException}, answered with a {@code 503 Service Unavailable} and a {@code Retry-After}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    static final String METER_PREFIX = "security.password-hashing";
+
+    private final PasswordEncoder delegate;
+
+    private final Duration retryAfter;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Counter rejected;
+
+    private final Timer waits;
+
+    public BoundedPasswordEncoder(
+        PasswordEncoder delegate,
+        ApplicationProperties.PasswordHashing properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.retryAfter = properties.getRetryAfter();
+        int threads = Math.max(1, properties.getThreads());
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+            daemonThreadFactory()
+        );
+        this.rejected = Counter.builder(METER_PREFIX + ".rejected")
+            .description("Number of password checks refused because too many were in progress")
+            .register(meterRegistry);
+        this.waits = Timer.builder(METER_PREFIX + ".wait")
+            .description("Time a password check waited for a hashing thread")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".queue.size", executor.getQueue(), BlockingQueue::size)
+            .description("Number of password checks waiting for a hashing thread")
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Number of password checks in progress")
+            .register(meterRegistry);
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waits.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException(retryAfter);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.voituri.ridesharing.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Cheap structural checks run on a token before its signature is verified, so that garbage and expired tokens are
+ * rejected without parsing them into JSON objects nor building exceptions.
+ * <p>
+ * A token is only accepted here if it is a compact JWS: three base64url segments, the first two encoding JSON objects,
+ * and a non empty signature. Its {@code exp} claim, if any, is then read straight from the decoded payload, with the same
+ * clock skew as the decoder; only a top-level {@code exp} member is the claim, one nested in another claim is ignored.
+ * Whatever passes these checks still goes through the full verification; in particular an expired token is reported as
+ * such even if its signature is invalid, since the signature is not checked here.
+ */
+public final class JwtPrevalidator {
+
+    /**
+     * Outcome of the checks.
+     */
+    public enum Outcome {
+        /**
+         * The token looks like a JWS and is not expired: it must still be verified.
+         */
+        WELL_FORMED,
+        /**
+         * The token is not a compact JWS.
+         */
+        MALFORMED,
+        /**
+         * The token is a JWE or an unsecured JWT, which are not supported.
+         */
+        UNSUPPORTED,
+        /**
+         * The {@code exp} claim of the token is past.
+         */
+        EXPIRED,
+    }
+
+    /**
+     * Base64url encoding of {@code {"}, which starts the header and the payload of any token we issue.
+     */
+    private static final String JSON_OBJECT_PREFIX = "ey";
+
+    private final Clock clock;
+
+    private final long clockSkewSeconds;
+
+    public JwtPrevalidator(Clock clock, Duration clockSkew) {
+        this.clock = clock;
+        this.clockSkewSeconds = clockSkew.toSeconds();
+    }
+
+    /**
+     * Check a token.
+     *
+     * @param token the encoded token.
+     * @return the outcome of the checks.
+     */
+    public Outcome check(String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0) {
+            return Outcome.MALFORMED;
+        }
+        if (token.indexOf('.', payloadEnd + 1) >= 0) {
+            // Five segments: a JWE
+            return Outcome.UNSUPPORTED;
+        }
+        if (!isJsonSegment(token, 0, headerEnd) || !isJsonSegment(token, headerEnd + 1, payloadEnd)) {
+            return Outcome.MALFORMED;
+        }
+        if (payloadEnd == token.length() - 1) {
+            // No signature: an unsecured JWT
+            return Outcome.UNSUPPORTED;
+        }
+        if (!isBase64UrlSegment(token, payloadEnd + 1, token.length())) {
+            return Outcome.MALFORMED;
+        }
+        byte[] payload;
+        try {
+            payload = Base64.getUrlDecoder().decode(token.substring(headerEnd + 1, payloadEnd));
+        } catch (IllegalArgumentException e) {
+            return Outcome.MALFORMED;
+        }
+        long exp = readExp(payload);
+        if (exp >= 0 && exp < clock.instant().getEpochSecond() - clockSkewSeconds) {
+            return Outcome.EXPIRED;
+        }
+        return Outcome.WELL_FORMED;
+    }
+
+    private static boolean isJsonSegment(String token, int start, int end) {
+        return token.startsWith(JSON_OBJECT_PREFIX, start) && isBase64UrlSegment(token, start, end);
+    }
+
+    private static boolean isBase64UrlSegment(String token, int start, int end) {
+        // A single character left over cannot encode a byte
+        if (end <= start || (end - start) % 4 == 1) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = token.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read the {@code exp} claim of a payload, without parsing the rest of it: the payload is only scanned for the strings and
+     * the nesting of its values, so that an {@code exp} member of a nested object, or an {@code "exp"} string value, is not
+     * taken for the claim.
+     *
+     * @return the claim in seconds since the epoch, {@code -1} if it is missing or not a plain integer, in which case the
+     * decoder decides.
+     */
+    private static long readExp(byte[] payload) {
+        int depth = 0;
+        boolean keyExpected = false;
+        for (int i = 0; i < payload.length; i++) {
+            byte b = payload[i];
+            if (b == '"') {
+                int end = skipString(payload, i + 1);
+                if (end >= payload.length) {
+                    return -1;
+                }
+                if (depth == 1 && keyExpected && isExp(payload, i + 1, end)) {
+                    int colon = skipWhitespace(payload, end + 1);
+                    if (colon < payload.length && payload[colon] == ':') {
+                        return readInteger(payload, skipWhitespace(payload, colon + 1));
+                    }
+                }
+                keyExpected = false;
+                i = end;
+            } else if (b == '{' || b == '[') {
+                depth++;
+                keyExpected = b == '{';
+            } else if (b == '}' || b == ']') {
+                depth--;
+            } else if (b == ',') {
+                keyExpected = true;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the quote closing the string starting at {@code start}, or the length of the payload if it is not
+     * closed.
+     */
+    private static int skipString(byte[] payload, int start) {
+        int i = start;
+        while (i < payload.length && payload[i] != '"') {
+            i += payload[i] == '\\' ? 2 : 1;
+        }
+        return Math.min(i, payload.length);
+    }
+
+    private static boolean isExp(byte[] payload, int start, int end) {
+        return end - start == 3 && payload[start] == 'e' && payload[start + 1] == 'x' && payload[start + 2] == 'p';
+    }
+
+    private static long readInteger(byte[] payload, int start) {
+        long value = 0;
+        int i = start;
+        for (; i < payload.length && payload[i] >= '0' && payload[i] <= '9'; i++) {
+            if (i - start == 18) {
+                return -1;
+            }
+            value = value * 10 + (payload[i] - '0');
+        }
+        boolean fraction = i < payload.length && (payload[i] == '.' || payload[i] == 'e' || payload[i] == 'E');
+        return i > start && !fraction ? value : -1;
+    }
+
+    private static int skipWhitespace(byte[] payload, int i) {
+        while (i < payload.length && (payload[i] == ' ' || payload[i] == '\t' || payload[i] == '\n' || payload[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,25 @@
+package com.voituri.ridesharing.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a password cannot be hashed nor verified right now, because the {@link BoundedPasswordEncoder} is saturated.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public PasswordHashingUnavailableException(Duration retryAfter) {
+        super("Too many password checks in progress, retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return how long the client should wait before retrying.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,147 @@
+package com.voituri.ridesharing.security;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import com.voituri.ridesharing.domain.RevokedToken;
+import com.voituri.ridesharing.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * The access tokens revoked before their expiry, checked on every authenticated request.
+ * <p>
+ * The revocations are stored in the {@link RevokedToken} table, and mirrored in a {@link BloomFilter} so that the tokens that
+ * were not revoked, that is nearly all of them, are told apart without querying the database. Only the few tokens the filter
+ * reports, revoked or false positives, are looked up. Until the filter is first built every token is looked up.
+ * <p>
+ * The filter of each instance polls the revocations made by the other instances every {@value #SYNC_INTERVAL_SECONDS}
+ * seconds, and is rebuilt every {@value #REBUILD_INTERVAL_MINUTES} minutes to forget the expired ones.
+ */
+@Component
+public class TokenRevocations {
+
+    static final String METER_PREFIX = "security.jwt.revocations";
+
+    private static final long SYNC_INTERVAL_SECONDS = 10;
+
+    private static final long REBUILD_INTERVAL_MINUTES = 60;
+
+    /**
+     * How far before the last poll the next one looks, for the revocations committed after their timestamp was taken.
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocations.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final int expectedRevocations;
+
+    private final Counter revokedLookups;
+
+    private final Counter falsePositiveLookups;
+
+    private volatile BloomFilter filter;
+
+    private volatile Instant syncedAt;
+
+    public TokenRevocations(
+        RevokedTokenRepository revokedTokenRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = applicationProperties.getRefreshToken().getRevocationFilterSize();
+        this.revokedLookups = Counter.builder(METER_PREFIX + ".lookups")
+            .description("Number of tokens looked up in the revocation store")
+            .tag("result", "revoked")
+            .register(meterRegistry);
+        this.falsePositiveLookups = Counter.builder(METER_PREFIX + ".lookups")
+            .description("Number of tokens looked up in the revocation store")
+            .tag("result", "false-positive")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Whether an access token was revoked.
+     *
+     * @param jti the id of the token, may be {@code null}.
+     * @return {@code true} if the token was revoked; a token without id cannot be revoked.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti)) {
+            return false;
+        }
+        boolean revoked = revokedTokenRepository.existsById(jti);
+        (revoked ? revokedLookups : falsePositiveLookups).increment();
+        return revoked;
+    }
+
+    /**
+     * Revoke an access token until its expiry.
+     *
+     * @param jti the id of the token, may be {@code null}.
+     * @param expiresAt the expiry of the token, may be {@code null}.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(now)) {
+            return;
+        }
+        log.debug("Revoking access token {}", jti);
+        revokedTokenRepository.save(new RevokedToken().jti(jti).expiresAt(expiresAt).revokedAt(now));
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(jti);
+        }
+    }
+
+    /**
+     * Rebuild the filter from the revocations that did not expire, and purge the others.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = REBUILD_INTERVAL_MINUTES, fixedDelay = REBUILD_INTERVAL_MINUTES, timeUnit = TimeUnit.MINUTES)
+    public void rebuild() {
+        Instant now = Instant.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        List<String> jtis = revokedTokenRepository.findJtisNotExpired(now);
+        BloomFilter next = new BloomFilter(Math.max(expectedRevocations, 2 * jtis.size()), FALSE_POSITIVE_RATE);
+        jtis.forEach(next::add);
+        filter = next;
+        syncedAt = now;
+        log.debug("Rebuilt the revocation filter with {} tokens, purged {} expired ones", jtis.size(), purged);
+    }
+
+    /**
+     * Add to the filter the revocations made by the other instances since the previous poll.
+     */
+    @Scheduled(initialDelay = SYNC_INTERVAL_SECONDS, fixedDelay = SYNC_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void sync() {
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        if (current.isSaturated()) {
+            rebuild();
+            return;
+        }
+        Instant now = Instant.now();
+        revokedTokenRepository.findJtisRevokedSince(syncedAt.minus(SYNC_OVERLAP)).forEach(current::add);
+        syncedAt = now;
+    }
+}
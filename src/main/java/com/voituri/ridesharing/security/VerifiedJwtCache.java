@@ -0,0 +1,164 @@
+package com.voituri.ridesharing.security;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the already verified {@link Jwt}s, so that a token presented again is neither re-parsed nor re-signed.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token, so the cache does not keep plain tokens as keys, and are dropped as soon as
+ * the token expires: a cached token is never accepted past its {@code exp}. The cache holds at most
+ * {@code application.jwt-cache.max-size} tokens; when it is full, the expired tokens are dropped first, then the ones
+ * expiring first.
+ * <p>
+ * The cache does not know about revocations: a cached token must still be checked against the {@link TokenRevocations}.
+ */
+@Component
+public class VerifiedJwtCache {
+
+    static final String METER_PREFIX = "security.jwt.cache";
+
+    /**
+     * Share of the entries dropped at once when the cache is full, so that the cost of an eviction is amortized.
+     */
+    private static final double EVICTION_RATIO = 0.1;
+
+    private final ApplicationProperties.JwtCache properties;
+
+    private final Clock clock;
+
+    private final ConcurrentMap<String, Jwt> verified = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    @Autowired
+    public VerifiedJwtCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(applicationProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    VerifiedJwtCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = applicationProperties.getJwtCache();
+        this.clock = clock;
+        this.hits = Counter.builder(METER_PREFIX + ".requests")
+            .description("Number of token verifications served by the cache")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder(METER_PREFIX + ".requests")
+            .description("Number of token verifications that had to decode the token")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".size", verified, Map::size).description("Number of verified tokens in cache").register(meterRegistry);
+    }
+
+    /**
+     * Get the verified form of a token, decoding it on a miss. The token is hashed once, whether it is cached or not.
+     *
+     * @param token the encoded token.
+     * @param decoder the verification of a token that is not cached, or has expired since; its failures are propagated.
+     * @return the verified token.
+     */
+    public Jwt get(String token, Function<String, Jwt> decoder) {
+        if (!properties.isEnabled()) {
+            return decoder.apply(token);
+        }
+        String key = key(token);
+        Jwt jwt = verified.get(key);
+        if (jwt != null && !isExpired(jwt.getExpiresAt())) {
+            hits.increment();
+            return jwt;
+        }
+        if (jwt != null) {
+            verified.remove(key, jwt);
+        }
+        misses.increment();
+        jwt = decoder.apply(token);
+        put(key, jwt);
+        return jwt;
+    }
+
+    /**
+     * Cache a verified token. A token without expiry or already expired is not cached.
+     */
+    private void put(String key, Jwt jwt) {
+        if (jwt.getExpiresAt() == null || isExpired(jwt.getExpiresAt())) {
+            return;
+        }
+        if (verified.size() >= properties.getMaxSize()) {
+            evict();
+        }
+        verified.put(key, jwt);
+    }
+
+    /**
+     * Drop every cached token.
+     */
+    public void clear() {
+        verified.clear();
+    }
+
+    /**
+     * Number of tokens currently cached.
+     *
+     * @return the number of cached tokens.
+     */
+    public int size() {
+        return verified.size();
+    }
+
+    private boolean isExpired(Instant expiresAt) {
+        return !clock.instant().isBefore(expiresAt);
+    }
+
+    /**
+     * Drop the expired entries and, if the cache is still full, the entries expiring first. Concurrent
+     * callers do not wait for an eviction in progress.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            verified.entrySet().removeIf(entry -> isExpired(entry.getValue().getExpiresAt()));
+            int excess = verified.size() - properties.getMaxSize() + (int) Math.ceil(properties.getMaxSize() * EVICTION_RATIO);
+            if (excess > 0) {
+                List<Map.Entry<String, Jwt>> entries = new ArrayList<>(verified.entrySet());
+                entries.sort(Comparator.comparing(entry -> entry.getValue().getExpiresAt()));
+                entries.stream().limit(excess).forEach(entry -> verified.remove(entry.getKey(), entry.getValue()));
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static String key(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
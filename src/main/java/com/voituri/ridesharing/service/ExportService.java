@@ -0,0 +1,249 @@
+package com.voituri.ridesharing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voituri.ridesharing.repository.MessageRepository;
+import com.voituri.ridesharing.repository.RatingRepository;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.dto.MessageDTO;
+import com.voituri.ridesharing.service.dto.RatingDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.mapper.MessageMapper;
+import com.voituri.ridesharing.service.mapper.RatingMapper;
+import com.voituri.ridesharing.service.mapper.RideMapper;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service streaming whole tables out as NDJSON or CSV, for analytics.
+ * <p>
+ * Rows are read through a JDBC cursor (see the {@code streamAll} repository methods), written one by one, and the
+ * persistence context is cleared every {@value #CLEAR_INTERVAL} rows, so the memory used by an export does not depend on
+ * the size of the table.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    /**
+     * Number of rows after which the output is flushed and the persistence context is cleared.
+     */
+    static final int CLEAR_INTERVAL = 500;
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Optional<Format> fromName(String name) {
+            return parse(Format.class, name);
+        }
+    }
+
+    /**
+     * Exportable entities, named after their REST resource.
+     */
+    public enum ExportedEntity {
+        RIDES,
+        RATINGS,
+        MESSAGES;
+
+        public static Optional<ExportedEntity> fromName(String name) {
+            return parse(ExportedEntity.class, name);
+        }
+    }
+
+    private static final List<Column<RideDTO>> RIDE_COLUMNS = List.of(
+        new Column<>("id", RideDTO::getId),
+        new Column<>("startLocation", RideDTO::getStartLocation),
+        new Column<>("endLocation", RideDTO::getEndLocation),
+        new Column<>("startTime", RideDTO::getStartTime),
+        new Column<>("endTime", RideDTO::getEndTime),
+        new Column<>("recurring", RideDTO::getRecurring),
+        new Column<>("startLatitude", RideDTO::getStartLatitude),
+        new Column<>("startLongitude", RideDTO::getStartLongitude),
+        new Column<>("endLatitude", RideDTO::getEndLatitude),
+        new Column<>("endLongitude", RideDTO::getEndLongitude),
+        new Column<>("availableSeats", RideDTO::getAvailableSeats),
+        new Column<>("recurrenceDays", RideDTO::getRecurrenceDays),
+        new Column<>("recurrenceUntil", RideDTO::getRecurrenceUntil),
+        new Column<>("memberId", ride -> ride.getMember() != null ? ride.getMember().getId() : null)
+    );
+
+    private static final List<Column<RatingDTO>> RATING_COLUMNS = List.of(
+        new Column<>("id", RatingDTO::getId),
+        new Column<>("score", RatingDTO::getScore),
+        new Column<>("feedback", RatingDTO::getFeedback),
+        new Column<>("giverId", rating -> rating.getGiver() != null ? rating.getGiver().getId() : null),
+        new Column<>("receiverId", rating -> rating.getReceiver() != null ? rating.getReceiver().getId() : null)
+    );
+
+    private static final List<Column<MessageDTO>> MESSAGE_COLUMNS = List.of(
+        new Column<>("id", MessageDTO::getId),
+        new Column<>("content", MessageDTO::getContent),
+        new Column<>("timestamp", MessageDTO::getTimestamp),
+        new Column<>("rideId", message -> message.getRide() != null ? message.getRide().getId() : null)
+    );
+
+    private final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final RideRepository rideRepository;
+
+    private final RideMapper rideMapper;
+
+    private final RatingRepository ratingRepository;
+
+    private final RatingMapper ratingMapper;
+
+    private final MessageRepository messageRepository;
+
+    private final MessageMapper messageMapper;
+
+    public ExportService(
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        RideRepository rideRepository,
+        RideMapper rideMapper,
+        RatingRepository ratingRepository,
+        RatingMapper ratingMapper,
+        MessageRepository messageRepository,
+        MessageMapper messageMapper
+    ) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.rideRepository = rideRepository;
+        this.rideMapper = rideMapper;
+        this.ratingRepository = ratingRepository;
+        this.ratingMapper = ratingMapper;
+        this.messageRepository = messageRepository;
+        this.messageMapper = messageMapper;
+    }
+
+    /**
+     * Write all the rows of an entity to a stream.
+     *
+     * @param entity the entity to export.
+     * @param format the output format.
+     * @param out the stream to write to; it is flushed but not closed.
+     * @return the number of exported rows.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long export(ExportedEntity entity, Format format, OutputStream out) throws IOException {
+        log.debug("Request to export {} as {}", entity, format);
+        return switch (entity) {
+            case RIDES -> {
+                try (Stream<RideDTO> rides = rideRepository.streamAll().map(rideMapper::toDto)) {
+                    yield write(rides, RIDE_COLUMNS, format, out);
+                }
+            }
+            case RATINGS -> {
+                try (Stream<RatingDTO> ratings = ratingRepository.streamAll().map(ratingMapper::toDto)) {
+                    yield write(ratings, RATING_COLUMNS, format, out);
+                }
+            }
+            case MESSAGES -> {
+                try (Stream<MessageDTO> messages = messageRepository.streamAll().map(messageMapper::toDto)) {
+                    yield write(messages, MESSAGE_COLUMNS, format, out);
+                }
+            }
+        };
+    }
+
+    private <D> long write(Stream<D> rows, List<Column<D>> columns, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writeCsvRow(writer, columns.stream().map(Column::name).toList());
+        }
+        long count = 0;
+        Iterator<D> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            D row = iterator.next();
+            if (format == Format.CSV) {
+                writeCsvRow(writer, columns.stream().map(column -> column.value().apply(row)).toList());
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+            if (++count % CLEAR_INTERVAL == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} rows", count);
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value instanceof ZonedDateTime dateTime) {
+                writer.write(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime));
+            } else if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static <T extends Enum<T>> Optional<T> parse(Class<T> type, String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Enum.valueOf(type, name.toUpperCase(Locale.ROOT).replace('-', '_')));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private record Column<D>(String name, Function<D, Object> value) {}
+}
@@ -0,0 +1,131 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.domain.MemberReputation;
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.MemberReputationRepository;
+import com.voituri.ridesharing.service.dto.ReputationDTO;
+import com.voituri.ridesharing.service.leaderboard.DriverLeaderboard;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service maintaining the reputation of the {@link com.voituri.ridesharing.domain.Member}s: the count, sum, mean and
+ * histogram of the scores of the {@link com.voituri.ridesharing.domain.Rating}s they received.
+ * <p>
+ * The aggregates are kept in the {@link MemberReputation} table and updated by {@link RatingService} in the transaction
+ * that writes the rating, so a reputation is read with a single primary key lookup. The {@link DriverLeaderboard} is told
+ * about the change once it is committed.
+ */
+@Service
+@Transactional
+public class MemberReputationService {
+
+    private final Logger log = LoggerFactory.getLogger(MemberReputationService.class);
+
+    private final MemberReputationRepository memberReputationRepository;
+
+    private final MemberRepository memberRepository;
+
+    private final DriverLeaderboard driverLeaderboard;
+
+    public MemberReputationService(
+        MemberReputationRepository memberReputationRepository,
+        MemberRepository memberRepository,
+        DriverLeaderboard driverLeaderboard
+    ) {
+        this.memberReputationRepository = memberReputationRepository;
+        this.memberRepository = memberRepository;
+        this.driverLeaderboard = driverLeaderboard;
+    }
+
+    /**
+     * Count a new rating.
+     *
+     * @param memberId the id of the rated member, may be {@code null}.
+     * @param score the score of the rating, may be {@code null}.
+     */
+    public void addRating(Long memberId, Integer score) {
+        addRatings(memberId, score, 1);
+    }
+
+    /**
+     * Uncount a rating that was changed or deleted.
+     *
+     * @param memberId the id of the rated member, may be {@code null}.
+     * @param score the score of the rating, may be {@code null}.
+     */
+    public void removeRating(Long memberId, Integer score) {
+        addRatings(memberId, score, -1);
+    }
+
+    private void addRatings(Long memberId, Integer score, long delta) {
+        // A rating without receiver or with an invalid score is not counted (and the latter is rejected on flush anyway)
+        if (memberId == null || score == null || score < MemberReputation.MIN_SCORE || score > MemberReputation.MAX_SCORE) {
+            return;
+        }
+        log.debug("Request to add {} Ratings of score {} to Member : {}", delta, score, memberId);
+        memberReputationRepository.addRatings(memberId, score, delta);
+        TransactionHooks.afterCommit(() -> driverLeaderboard.addRatings(memberId, score, delta));
+    }
+
+    /**
+     * Get the reputation of a member.
+     *
+     * @param memberId the id of the member.
+     * @return the reputation, empty if the member does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ReputationDTO> findByMember(Long memberId) {
+        log.debug("Request to get the reputation of Member : {}", memberId);
+        Optional<ReputationDTO> reputation = memberReputationRepository.findById(memberId).map(MemberReputationService::toDto);
+        if (reputation.isPresent() || !memberRepository.existsById(memberId)) {
+            return reputation;
+        }
+        return Optional.of(toDto(new MemberReputation().memberId(memberId)));
+    }
+
+    /**
+     * Get the reputation of several members at once.
+     *
+     * @param memberIds the ids of the members.
+     * @return the reputations by member id; a member that was never rated has an empty reputation.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ReputationDTO> findByMembers(Collection<Long> memberIds) {
+        Map<Long, ReputationDTO> reputations = new HashMap<>();
+        memberReputationRepository
+            .findAllById(memberIds)
+            .forEach(reputation -> reputations.put(reputation.getMemberId(), toDto(reputation)));
+        for (Long memberId : memberIds) {
+            reputations.computeIfAbsent(memberId, id -> toDto(new MemberReputation().memberId(id)));
+        }
+        return reputations;
+    }
+
+    static ReputationDTO toDto(MemberReputation reputation) {
+        ReputationDTO dto = new ReputationDTO();
+        dto.setMemberId(reputation.getMemberId());
+        long count = valueOf(reputation.getRatingCount());
+        long sum = valueOf(reputation.getScoreSum());
+        dto.setRatingCount(count);
+        dto.setScoreSum(sum);
+        dto.setMean(count > 0 ? (double) sum / count : null);
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int score = MemberReputation.MIN_SCORE; score <= MemberReputation.MAX_SCORE; score++) {
+            histogram.put(score, valueOf(reputation.getScoreCount(score)));
+        }
+        dto.setHistogram(histogram);
+        return dto;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0;
+    }
+}
@@ -3,18 +3,26 @@ package com.voituri.ridesharing.service;
 import com.voituri.ridesharing.domain.Member;
 import com.voituri.ridesharing.repository.MemberRepository;
 import com.voituri.ridesharing.service.dto.MemberDTO;
+import com.voituri.ridesharing.service.dto.ReputationDTO;
 import com.voituri.ridesharing.service.mapper.MemberMapper;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link com.voituri.ridesharing.domain.Member}.
+ * <p>
+ * The returned members carry their reputation, as maintained by the {@link MemberReputationService}. Every write clears the
+ * cache of the member ids by login once it is committed, since a login may change or move to another member.
  */
 @Service
 @Transactional
@@ -26,9 +34,20 @@ public class MemberService {
 
     private final MemberMapper memberMapper;
 
-    public MemberService(MemberRepository memberRepository, MemberMapper memberMapper) {
+    private final MemberReputationService memberReputationService;
+
+    private final CacheManager cacheManager;
+
+    public MemberService(
+        MemberRepository memberRepository,
+        MemberMapper memberMapper,
+        MemberReputationService memberReputationService,
+        CacheManager cacheManager
+    ) {
         this.memberRepository = memberRepository;
         this.memberMapper = memberMapper;
+        this.memberReputationService = memberReputationService;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -41,7 +60,8 @@ public class MemberService {
         log.debug("Request to save Member : {}", memberDTO);
         Member member = memberMapper.toEntity(memberDTO);
         member = memberRepository.save(member);
-        return memberMapper.toDto(member);
+        clearMemberCaches();
+        return withReputation(memberMapper.toDto(member));
     }
 
     /**
@@ -54,7 +74,8 @@ public class MemberService {
         log.debug("Request to update Member : {}", memberDTO);
         Member member = memberMapper.toEntity(memberDTO);
         member = memberRepository.save(member);
-        return memberMapper.toDto(member);
+        clearMemberCaches();
+        return withReputation(memberMapper.toDto(member));
     }
 
     /**
@@ -70,11 +91,13 @@ public class MemberService {
             .findById(memberDTO.getId())
             .map(existingMember -> {
                 memberMapper.partialUpdate(existingMember, memberDTO);
+                clearMemberCaches();
 
                 return existingMember;
             })
             .map(memberRepository::save)
-            .map(memberMapper::toDto);
+            .map(memberMapper::toDto)
+            .map(this::withReputation);
     }
 
     /**
@@ -85,7 +108,14 @@ public class MemberService {
     @Transactional(readOnly = true)
     public List<MemberDTO> findAll() {
         log.debug("Request to get all Members");
-        return memberRepository.findAll().stream().map(memberMapper::toDto).collect(Collectors.toCollection(LinkedList::new));
+        List<MemberDTO> members = memberRepository
+            .findAll()
+            .stream()
+            .map(memberMapper::toDto)
+            .collect(Collectors.toCollection(LinkedList::new));
+        Map<Long, ReputationDTO> reputations = memberReputationService.findByMembers(members.stream().map(MemberDTO::getId).toList());
+        members.forEach(member -> member.setReputation(reputations.get(member.getId())));
+        return members;
     }
 
     /**
@@ -97,7 +127,7 @@ public class MemberService {
     @Transactional(readOnly = true)
     public Optional<MemberDTO> findOne(Long id) {
         log.debug("Request to get Member : {}", id);
-        return memberRepository.findById(id).map(memberMapper::toDto);
+        return memberRepository.findById(id).map(memberMapper::toDto).map(this::withReputation);
     }
 
     /**
@@ -108,5 +138,16 @@ public class MemberService {
     public void delete(Long id) {
         log.debug("Request to delete Member : {}", id);
         memberRepository.deleteById(id);
+        clearMemberCaches();
+    }
+
+    private void clearMemberCaches() {
+        Cache memberIdsByLogin = Objects.requireNonNull(cacheManager.getCache(MemberRepository.MEMBER_IDS_BY_LOGIN_CACHE));
+        TransactionHooks.afterCommit(memberIdsByLogin::clear);
+    }
+
+    private MemberDTO withReputation(MemberDTO member) {
+        memberReputationService.findByMember(member.getId()).ifPresent(member::setReputation);
+        return member;
     }
 }
@@ -2,19 +2,35 @@ package com.voituri.ridesharing.service;
 
 import com.voituri.ridesharing.domain.Message;
 import com.voituri.ridesharing.repository.MessageRepository;
+import com.voituri.ridesharing.repository.MessageRepository.MessageSummary;
+import com.voituri.ridesharing.service.chat.RideChatHub;
 import com.voituri.ridesharing.service.dto.MessageDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
 import com.voituri.ridesharing.service.mapper.MessageMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.ZonedDateTime;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link com.voituri.ridesharing.domain.Message}.
+ * <p>
+ * New messages are published to the {@link RideChatHub} once their transaction is committed. When write-behind is enabled,
+ * they are handed to the {@link MessageWriteBehindQueue} instead, and published once the queue has inserted them. The
+ * time taken to acknowledge a new message is published as the {@code message.write.ack} timer, tagged by mode.
  */
 @Service
 @Transactional
@@ -26,22 +42,61 @@ public class MessageService {
 
     private final MessageMapper messageMapper;
 
-    public MessageService(MessageRepository messageRepository, MessageMapper messageMapper) {
+    private final RideChatHub rideChatHub;
+
+    private final MessageWriteBehindQueue messageWriteBehindQueue;
+
+    private final UnreadCounters unreadCounters;
+
+    private final Timer syncAck;
+
+    private final Timer writeBehindAck;
+
+    public MessageService(
+        MessageRepository messageRepository,
+        MessageMapper messageMapper,
+        RideChatHub rideChatHub,
+        MessageWriteBehindQueue messageWriteBehindQueue,
+        UnreadCounters unreadCounters,
+        MeterRegistry meterRegistry
+    ) {
         this.messageRepository = messageRepository;
         this.messageMapper = messageMapper;
+        this.rideChatHub = rideChatHub;
+        this.messageWriteBehindQueue = messageWriteBehindQueue;
+        this.unreadCounters = unreadCounters;
+        this.syncAck = ackTimer(meterRegistry, "sync");
+        this.writeBehindAck = ackTimer(meterRegistry, "write-behind");
+    }
+
+    private static Timer ackTimer(MeterRegistry meterRegistry, String mode) {
+        return Timer.builder(MessageWriteBehindQueue.METER_PREFIX + ".ack")
+            .description("Time taken to acknowledge a new message")
+            .tag("mode", mode)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
     }
 
     /**
      * Save a message.
      *
      * @param messageDTO the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or the queued entity, without id, if it was handed to the write-behind queue.
      */
     public MessageDTO save(MessageDTO messageDTO) {
         log.debug("Request to save Message : {}", messageDTO);
+        long start = System.nanoTime();
+        if (messageDTO.getId() == null && messageWriteBehindQueue.offer(messageDTO)) {
+            writeBehindAck.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return messageDTO;
+        }
         Message message = messageMapper.toEntity(messageDTO);
         message = messageRepository.save(message);
-        return messageMapper.toDto(message);
+        MessageDTO result = messageMapper.toDto(message);
+        unreadCounters.addRideMessages(rideId(message), 1);
+        TransactionHooks.afterCommit(() -> rideChatHub.publish(result));
+        syncAck.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
     }
 
     /**
@@ -52,8 +107,10 @@ public class MessageService {
      */
     public MessageDTO update(MessageDTO messageDTO) {
         log.debug("Request to update Message : {}", messageDTO);
+        Long previousRideId = messageRepository.findById(messageDTO.getId()).map(MessageService::rideId).orElse(null);
         Message message = messageMapper.toEntity(messageDTO);
         message = messageRepository.save(message);
+        countMove(previousRideId, message);
         return messageMapper.toDto(message);
     }
 
@@ -69,23 +126,72 @@ public class MessageService {
         return messageRepository
             .findById(messageDTO.getId())
             .map(existingMessage -> {
+                Long previousRideId = rideId(existingMessage);
                 messageMapper.partialUpdate(existingMessage, messageDTO);
 
-                return existingMessage;
+                Message message = messageRepository.save(existingMessage);
+                countMove(previousRideId, message);
+                return message;
             })
-            .map(messageRepository::save)
             .map(messageMapper::toDto);
     }
 
     /**
-     * Get all the messages.
+     * Get a page of the messages, ordered by timestamp and id.
+     *
+     * @param afterTimestamp the timestamp of the last message of the previous page, or {@code null} for the first page.
+     * @param afterId the id of the last message of the previous page, or {@code null} for the first page.
+     * @param limit the maximal number of entities.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<MessageDTO> findAllAfter(ZonedDateTime afterTimestamp, Long afterId, int limit) {
+        log.debug("Request to get a page of Messages after : {}, {}", afterTimestamp, afterId);
+        List<Message> messages = afterTimestamp == null || afterId == null
+            ? messageRepository.findFirstPage(Limit.of(limit + 1))
+            : messageRepository.findPageAfter(afterTimestamp, afterId, Limit.of(limit + 1));
+        boolean hasNext = messages.size() > limit;
+        List<MessageDTO> content = messages
+            .stream()
+            .limit(limit)
+            .map(messageMapper::toDto)
+            .collect(Collectors.toCollection(LinkedList::new));
+        return new SliceImpl<>(content, Pageable.ofSize(limit), hasNext);
+    }
+
+    /**
+     * Get a page of the messages of a ride, newest first.
+     * <p>
+     * Messages are projected straight from the {@code (ride_id, timestamp, id)} index range, without loading the entities.
      *
-     * @return the list of entities.
+     * @param rideId the id of the ride.
+     * @param beforeTimestamp the timestamp of the last message of the previous page, or {@code null} for the first page.
+     * @param beforeId the id of the last message of the previous page, or {@code null} for the first page.
+     * @param limit the maximal number of messages.
+     * @return the slice of messages.
      */
     @Transactional(readOnly = true)
-    public List<MessageDTO> findAll() {
-        log.debug("Request to get all Messages");
-        return messageRepository.findAll().stream().map(messageMapper::toDto).collect(Collectors.toCollection(LinkedList::new));
+    public Slice<MessageDTO> findAllByRideBefore(Long rideId, ZonedDateTime beforeTimestamp, Long beforeId, int limit) {
+        log.debug("Request to get a page of the Messages of Ride {} before : {}, {}", rideId, beforeTimestamp, beforeId);
+        List<MessageSummary> messages = beforeTimestamp == null || beforeId == null
+            ? messageRepository.findLatestByRide(rideId, Limit.of(limit + 1))
+            : messageRepository.findByRideBefore(rideId, beforeTimestamp, beforeId, Limit.of(limit + 1));
+        boolean hasNext = messages.size() > limit;
+        RideDTO ride = new RideDTO();
+        ride.setId(rideId);
+        List<MessageDTO> content = messages
+            .stream()
+            .limit(limit)
+            .map(message -> {
+                MessageDTO messageDTO = new MessageDTO();
+                messageDTO.setId(message.getId());
+                messageDTO.setContent(message.getContent());
+                messageDTO.setTimestamp(message.getTimestamp());
+                messageDTO.setRide(ride);
+                return messageDTO;
+            })
+            .collect(Collectors.toCollection(LinkedList::new));
+        return new SliceImpl<>(content, Pageable.ofSize(limit), hasNext);
     }
 
     /**
@@ -107,6 +213,23 @@ public class MessageService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Message : {}", id);
-        messageRepository.deleteById(id);
+        messageRepository
+            .findById(id)
+            .ifPresent(message -> {
+                unreadCounters.addRideMessages(rideId(message), -1);
+                messageRepository.delete(message);
+            });
+    }
+
+    private void countMove(Long previousRideId, Message message) {
+        Long rideId = rideId(message);
+        if (!Objects.equals(previousRideId, rideId)) {
+            unreadCounters.addRideMessages(previousRideId, -1);
+            unreadCounters.addRideMessages(rideId, 1);
+        }
+    }
+
+    private static Long rideId(Message message) {
+        return message.getRide() != null ? message.getRide().getId() : null;
     }
 }
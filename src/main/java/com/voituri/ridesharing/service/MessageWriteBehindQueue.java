@@ -0,0 +1,277 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import com.voituri.ridesharing.domain.Message;
+import com.voituri.ridesharing.repository.MessageRepository;
+import com.voituri.ridesharing.service.chat.RideChatHub;
+import com.voituri.ridesharing.service.dto.MessageDTO;
+import com.voituri.ridesharing.service.mapper.MessageMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind queue of the new {@link Message}s, used by {@link MessageService#save(MessageDTO)} when
+ * {@code application.message.write-behind.enabled} is set.
+ * <p>
+ * A message is acknowledged as soon as it is in the bounded queue. A dedicated writer thread inserts the queued messages in
+ * one transaction per batch, so that Hibernate sends them as JDBC batches: a batch is written once it reaches
+ * {@code batch-size} messages, or once its oldest message has waited {@code flush-interval}. Committed messages are then
+ * counted in the {@link UnreadCounters} and published to the {@link RideChatHub}. When the queue is full, or once the
+ * application is stopping, {@link #offer} refuses the message and the caller saves it synchronously.
+ * <p>
+ * On shutdown, the queue is closed after the web server has stopped taking requests, and the writer flushes what is left
+ * before the data source is closed. If the writer has not drained the queue within {@code shutdown-timeout}, the stopping
+ * thread inserts the remaining messages itself, so that a slow database delays the shutdown rather than losing messages.
+ * <p>
+ * Delivery is at most once: a message that cannot be inserted on its own, such as a message of a ride deleted meanwhile,
+ * is logged and counted in {@code message.write.failures}, but the client that was acknowledged is not told.
+ */
+@Component
+public class MessageWriteBehindQueue implements SmartLifecycle {
+
+    /**
+     * Lifecycle phase: lower than the web server's, so that the queue stops after it and before the data source closes.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    static final String METER_PREFIX = "message.write";
+
+    /**
+     * Longest time the writer waits on the queue, so that it notices a stop quickly.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Logger log = LoggerFactory.getLogger(MessageWriteBehindQueue.class);
+
+    private final ApplicationProperties.Message.WriteBehind properties;
+
+    private final MessageRepository messageRepository;
+
+    private final MessageMapper messageMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final RideChatHub rideChatHub;
+
+    private final UnreadCounters unreadCounters;
+
+    private final BlockingQueue<Pending> queue;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final DistributionSummary batchSizes;
+
+    private final Timer commitDelay;
+
+    private final Counter failures;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public MessageWriteBehindQueue(
+        ApplicationProperties applicationProperties,
+        MessageRepository messageRepository,
+        MessageMapper messageMapper,
+        PlatformTransactionManager transactionManager,
+        RideChatHub rideChatHub,
+        UnreadCounters unreadCounters,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = applicationProperties.getMessage().getWriteBehind();
+        this.messageRepository = messageRepository;
+        this.messageMapper = messageMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rideChatHub = rideChatHub;
+        this.unreadCounters = unreadCounters;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.batchSizes = DistributionSummary.builder(METER_PREFIX + ".batch.size")
+            .description("Number of messages inserted per write-behind batch")
+            .register(meterRegistry);
+        this.commitDelay = Timer.builder(METER_PREFIX + ".commit.delay")
+            .description("Time between the acknowledgement of a write-behind message and its commit")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.failures = Counter.builder(METER_PREFIX + ".failures")
+            .description("Number of write-behind messages that could not be inserted")
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".queue.size", queue, BlockingQueue::size)
+            .description("Number of messages waiting to be inserted")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a new message for insertion.
+     *
+     * @param message the message, without id.
+     * @return {@code true} if the message was queued, {@code false} if the caller has to save it itself: write-behind is
+     * disabled or stopped, or the queue is full.
+     */
+    public boolean offer(MessageDTO message) {
+        lock.readLock().lock();
+        try {
+            return running && queue.offer(new Pending(message, System.nanoTime()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "message-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info(
+            "Started the message write-behind queue, with batches of {} messages every {} ms",
+            properties.getBatchSize(),
+            properties.getFlushInterval().toMillis()
+        );
+    }
+
+    @Override
+    public void stop() {
+        lock.writeLock().lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        joinWriter();
+        List<Pending> remaining = new ArrayList<>(queue.size());
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("The message writer is late, inserting the {} remaining messages synchronously", remaining.size());
+            int batchSize = Math.max(1, properties.getBatchSize());
+            for (int start = 0; start < remaining.size(); start += batchSize) {
+                write(remaining.subList(start, Math.min(start + batchSize, remaining.size())));
+            }
+            // Let the writer finish the batch it was inserting, before the data source is closed
+            joinWriter();
+        }
+        if (writer.isAlive()) {
+            log.error("Stopped the message write-behind queue while the writer is still inserting a batch");
+        } else {
+            log.info("Stopped the message write-behind queue");
+        }
+    }
+
+    private void joinWriter() {
+        try {
+            // A timeout of 0 would wait forever
+            writer.join(Math.max(1, properties.getShutdownTimeout().toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Number of messages waiting to be inserted.
+     *
+     * @return the size of the queue.
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    private void writeLoop() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<Pending> batch = new ArrayList<>(batchSize);
+        // Once stopped, keep going until the queue is drained
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(Math.min(flushIntervalNanos, MAX_WAIT_NANOS), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.queuedAt() + flushIntervalNanos;
+                while (true) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Pending next = queue.poll(Math.min(remaining, MAX_WAIT_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    void write(List<Pending> batch) {
+        List<Message> saved;
+        try {
+            saved = transactionTemplate.execute(status -> messageRepository.saveAll(toEntities(batch)));
+        } catch (RuntimeException e) {
+            // Do not lose the whole batch because of one message, such as a message of a ride deleted meanwhile
+            log.warn("Could not insert a batch of {} messages, inserting them one by one: {}", batch.size(), e.getMessage());
+            saved = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                try {
+                    saved.add(transactionTemplate.execute(status -> messageRepository.save(messageMapper.toEntity(pending.message()))));
+                } catch (RuntimeException single) {
+                    log.error("Could not insert message {}: {}", pending.message(), single.getMessage());
+                    failures.increment();
+                }
+            }
+        }
+        long now = System.nanoTime();
+        batchSizes.record(saved.size());
+        for (Pending pending : batch) {
+            commitDelay.record(now - pending.queuedAt(), TimeUnit.NANOSECONDS);
+        }
+        for (Message message : saved) {
+            MessageDTO messageDTO = messageMapper.toDto(message);
+            unreadCounters.addRideMessages(messageDTO.getRide() != null ? messageDTO.getRide().getId() : null, 1);
+            rideChatHub.publish(messageDTO);
+        }
+    }
+
+    private List<Message> toEntities(List<Pending> batch) {
+        // Entities are created for each attempt: a failed attempt leaves generated ids on them
+        return batch.stream().map(pending -> messageMapper.toEntity(pending.message())).toList();
+    }
+
+    record Pending(MessageDTO message, long queuedAt) {}
+}
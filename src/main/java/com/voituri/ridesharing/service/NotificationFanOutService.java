@@ -0,0 +1,170 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.domain.Notification;
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.NotificationRepository;
+import com.voituri.ridesharing.repository.RideRequestRepository;
+import com.voituri.ridesharing.service.dto.NotificationDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.mapper.NotificationMapper;
+import com.voituri.ridesharing.service.notification.NotificationHub;
+import jakarta.persistence.EntityManager;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service creating the same kind of {@link Notification} for many members at once, such as the requesters of a
+ * {@link com.voituri.ridesharing.domain.Ride} that is rescheduled or cancelled.
+ * <p>
+ * The recipients are resolved with one query, the members are referenced without being loaded, and the notifications are
+ * inserted in JDBC batches of {@value #BATCH_SIZE} statements, with their ids taken from the pooled
+ * {@code sequence_generator}: notifying 500 members costs a handful of round-trips in a single transaction. Once committed,
+ * the notifications are counted by the {@link UnreadCounters} and pushed to the live streams of their members.
+ */
+@Service
+@Transactional
+public class NotificationFanOutService {
+
+    /**
+     * JDBC batch size used while inserting the notifications of a fan-out.
+     */
+    static final int BATCH_SIZE = 100;
+
+    /**
+     * Maximal length of a notification message.
+     */
+    static final int MAX_MESSAGE_LENGTH = 255;
+
+    /**
+     * Changes of a ride its requesters are notified of.
+     */
+    public enum RideEvent {
+        RESCHEDULED,
+        CANCELLED,
+    }
+
+    private final Logger log = LoggerFactory.getLogger(NotificationFanOutService.class);
+
+    private final EntityManager entityManager;
+
+    private final NotificationRepository notificationRepository;
+
+    private final NotificationMapper notificationMapper;
+
+    private final MemberRepository memberRepository;
+
+    private final RideRequestRepository rideRequestRepository;
+
+    private final UnreadCounters unreadCounters;
+
+    private final NotificationHub notificationHub;
+
+    public NotificationFanOutService(
+        EntityManager entityManager,
+        NotificationRepository notificationRepository,
+        NotificationMapper notificationMapper,
+        MemberRepository memberRepository,
+        RideRequestRepository rideRequestRepository,
+        UnreadCounters unreadCounters,
+        NotificationHub notificationHub
+    ) {
+        this.entityManager = entityManager;
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+        this.memberRepository = memberRepository;
+        this.rideRequestRepository = rideRequestRepository;
+        this.unreadCounters = unreadCounters;
+        this.notificationHub = notificationHub;
+    }
+
+    /**
+     * Notify the members who requested a ride of a change of that ride. The driver of the ride is not notified.
+     *
+     * @param ride the ride, as it is after the change.
+     * @param event the change.
+     * @return the number of created notifications.
+     */
+    public int notifyRequesters(RideDTO ride, RideEvent event) {
+        log.debug("Request to notify the requesters of Ride {} that it is {}", ride.getId(), event);
+        Long driverId = ride.getMember() != null ? ride.getMember().getId() : null;
+        String message = message(ride, event);
+        List<PendingNotification> notifications = new ArrayList<>();
+        for (Long memberId : rideRequestRepository.findRequesterIdsByRideId(ride.getId())) {
+            if (!Objects.equals(memberId, driverId)) {
+                notifications.add(new PendingNotification(memberId, message));
+            }
+        }
+        return create(notifications);
+    }
+
+    /**
+     * Create unread notifications in one batch.
+     *
+     * @param notifications the recipients and messages of the notifications.
+     * @return the number of created notifications.
+     */
+    public int create(List<PendingNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        ZonedDateTime now = ZonedDateTime.now();
+        List<Notification> entities = new ArrayList<>(notifications.size());
+        for (PendingNotification notification : notifications) {
+            entities.add(
+                new Notification()
+                    .message(truncate(notification.message()))
+                    .timestamp(now)
+                    .read(false)
+                    .member(memberRepository.getReferenceById(notification.memberId()))
+            );
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(BATCH_SIZE);
+        try {
+            notificationRepository.saveAll(entities);
+            // Flush while the larger batch size applies
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+
+        for (PendingNotification notification : notifications) {
+            unreadCounters.addUnreadNotifications(notification.memberId(), 1);
+        }
+        List<NotificationDTO> created = entities.stream().map(notificationMapper::toDto).toList();
+        TransactionHooks.afterCommit(() -> created.forEach(notificationHub::publish));
+        log.debug("Created {} notifications", created.size());
+        return created.size();
+    }
+
+    private static String message(RideDTO ride, RideEvent event) {
+        String route = "Your ride from " + ride.getStartLocation() + " to " + ride.getEndLocation();
+        String startTime = ride.getStartTime() != null ? DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ride.getStartTime()) : "?";
+        return switch (event) {
+            case RESCHEDULED -> route + " now leaves on " + startTime;
+            case CANCELLED -> route + " on " + startTime + " is cancelled";
+        };
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    /**
+     * A notification to create.
+     *
+     * @param memberId the id of the recipient.
+     * @param message the message of the notification.
+     */
+    public record PendingNotification(Long memberId, String message) {}
+}
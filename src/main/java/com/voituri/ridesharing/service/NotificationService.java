@@ -1,12 +1,23 @@
 package com.voituri.ridesharing.service;
 
+import com.voituri.ridesharing.domain.Member;
 import com.voituri.ridesharing.domain.Notification;
+import com.voituri.ridesharing.repository.NotificationBulkRepository.NotificationState;
 import com.voituri.ridesharing.repository.NotificationRepository;
 import com.voituri.ridesharing.service.dto.NotificationDTO;
+import com.voituri.ridesharing.service.dto.NotificationSelectionDTO;
 import com.voituri.ridesharing.service.mapper.NotificationMapper;
+import com.voituri.ridesharing.service.notification.NotificationHub;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -14,20 +25,46 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link com.voituri.ridesharing.domain.Notification}.
+ * <p>
+ * Every write reports the change of the number of unread notifications of the members involved to the {@link UnreadCounters},
+ * and the created notifications are pushed to the live streams of their member through the {@link NotificationHub}.
+ * <p>
+ * The bulk operations on the notifications of a member run as set-based statements, after which only the second-level
+ * cache entries of the affected notifications are evicted.
  */
 @Service
 @Transactional
 public class NotificationService {
 
+    /**
+     * Maximal number of missed notifications delivered to a resuming stream.
+     */
+    static final int MAX_REPLAY = 100;
+
     private final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
     private final NotificationRepository notificationRepository;
 
     private final NotificationMapper notificationMapper;
 
-    public NotificationService(NotificationRepository notificationRepository, NotificationMapper notificationMapper) {
+    private final UnreadCounters unreadCounters;
+
+    private final NotificationHub notificationHub;
+
+    private final EntityManager entityManager;
+
+    public NotificationService(
+        NotificationRepository notificationRepository,
+        NotificationMapper notificationMapper,
+        UnreadCounters unreadCounters,
+        NotificationHub notificationHub,
+        EntityManager entityManager
+    ) {
         this.notificationRepository = notificationRepository;
         this.notificationMapper = notificationMapper;
+        this.unreadCounters = unreadCounters;
+        this.notificationHub = notificationHub;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -40,7 +77,37 @@ public class NotificationService {
         log.debug("Request to save Notification : {}", notificationDTO);
         Notification notification = notificationMapper.toEntity(notificationDTO);
         notification = notificationRepository.save(notification);
-        return notificationMapper.toDto(notification);
+        countChange(null, false, notification);
+        NotificationDTO result = notificationMapper.toDto(notification);
+        TransactionHooks.afterCommit(() -> notificationHub.publish(result));
+        return result;
+    }
+
+    /**
+     * Subscribe to the notifications of a member, resuming after the last notification received by the subscriber.
+     * <p>
+     * At most the {@value #MAX_REPLAY} latest missed notifications are delivered; a client that missed more than that is
+     * expected to page through {@code GET /api/notifications}.
+     *
+     * @param memberId the id of the member.
+     * @param lastEventId the id of the last notification received by the subscriber, or {@code null} for a new stream.
+     * @param subscriber the receiver of the notifications.
+     * @return the subscription, to be cancelled when the stream is closed.
+     */
+    @Transactional(readOnly = true)
+    public NotificationHub.Subscription subscribe(long memberId, Long lastEventId, NotificationHub.Subscriber subscriber) {
+        log.debug("Request to subscribe to the Notifications of Member {} after {}", memberId, lastEventId);
+        // Subscribe before looking for the missed notifications, so that none is published in between unseen
+        NotificationHub.Subscription subscription = notificationHub.subscribe(memberId, subscriber);
+        List<NotificationDTO> missed = new ArrayList<>();
+        if (lastEventId != null) {
+            for (Notification notification : notificationRepository.findLatestByMemberAfter(memberId, lastEventId, Limit.of(MAX_REPLAY))) {
+                missed.add(notificationMapper.toDto(notification));
+            }
+            Collections.reverse(missed);
+        }
+        subscription.start(missed);
+        return subscription;
     }
 
     /**
@@ -51,8 +118,12 @@ public class NotificationService {
      */
     public NotificationDTO update(NotificationDTO notificationDTO) {
         log.debug("Request to update Notification : {}", notificationDTO);
+        Optional<Notification> previous = notificationRepository.findById(notificationDTO.getId());
+        Long previousMemberId = previous.map(NotificationService::memberId).orElse(null);
+        boolean previousUnread = previous.map(NotificationService::isUnread).orElse(false);
         Notification notification = notificationMapper.toEntity(notificationDTO);
         notification = notificationRepository.save(notification);
+        countChange(previousMemberId, previousUnread, notification);
         return notificationMapper.toDto(notification);
     }
 
@@ -68,11 +139,14 @@ public class NotificationService {
         return notificationRepository
             .findById(notificationDTO.getId())
             .map(existingNotification -> {
+                Long previousMemberId = memberId(existingNotification);
+                boolean previousUnread = isUnread(existingNotification);
                 notificationMapper.partialUpdate(existingNotification, notificationDTO);
 
-                return existingNotification;
+                Notification notification = notificationRepository.save(existingNotification);
+                countChange(previousMemberId, previousUnread, notification);
+                return notification;
             })
-            .map(notificationRepository::save)
             .map(notificationMapper::toDto);
     }
 
@@ -107,6 +181,90 @@ public class NotificationService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Notification : {}", id);
-        notificationRepository.deleteById(id);
+        notificationRepository
+            .findById(id)
+            .ifPresent(notification -> {
+                countChange(memberId(notification), isUnread(notification), null);
+                notificationRepository.delete(notification);
+            });
+    }
+
+    /**
+     * Mark notifications of a member as read.
+     *
+     * @param memberId the id of the member.
+     * @param selection the notifications to mark; an empty selection marks them all.
+     * @return the number of notifications which were unread.
+     */
+    public int markRead(long memberId, NotificationSelectionDTO selection) {
+        log.debug("Request to mark Notifications of Member {} as read : {}", memberId, selection);
+        List<Long> unreadIds = notificationRepository
+            .findStatesByMember(memberId, selection.getIds(), selection.getBefore())
+            .stream()
+            .filter(state -> !Boolean.TRUE.equals(state.read()))
+            .map(NotificationState::id)
+            .toList();
+        // The update only counts the notifications still unread, which a concurrent call may have marked meanwhile
+        int count = notificationRepository.markReadByMember(memberId, unreadIds);
+        // The cached collection of the member only holds ids, which did not change
+        evictAfterBulkOperation(memberId, unreadIds, false);
+        unreadCounters.addUnreadNotifications(memberId, -count);
+        return count;
+    }
+
+    /**
+     * Delete notifications of a member.
+     *
+     * @param memberId the id of the member.
+     * @param selection the notifications to delete; an empty selection deletes them all.
+     * @return the number of deleted notifications.
+     */
+    public int deleteAll(long memberId, NotificationSelectionDTO selection) {
+        log.debug("Request to delete Notifications of Member {} : {}", memberId, selection);
+        List<NotificationState> states = notificationRepository.findStatesByMember(memberId, selection.getIds(), selection.getBefore());
+        List<Long> ids = states.stream().map(NotificationState::id).toList();
+        int count = notificationRepository.deleteByMember(memberId, ids);
+        evictAfterBulkOperation(memberId, ids, true);
+        long unread = states.stream().filter(state -> !Boolean.TRUE.equals(state.read())).count();
+        unreadCounters.addUnreadNotifications(memberId, -unread);
+        return count;
+    }
+
+    /**
+     * Evict the changed notifications from the second-level cache now, for the current transaction, and again once it is
+     * committed, in case a concurrent transaction cached their previous state meanwhile.
+     */
+    private void evictAfterBulkOperation(long memberId, Collection<Long> ids, boolean membershipChanged) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        Runnable eviction = () -> {
+            for (Long id : ids) {
+                cache.evict(Notification.class, id);
+            }
+            if (membershipChanged) {
+                cache.unwrap(org.hibernate.Cache.class).evictCollectionData(Member.class.getName() + ".notifications", memberId);
+            }
+        };
+        eviction.run();
+        TransactionHooks.afterCommit(eviction);
+    }
+
+    private void countChange(Long previousMemberId, boolean previousUnread, Notification notification) {
+        if (previousUnread) {
+            unreadCounters.addUnreadNotifications(previousMemberId, -1);
+        }
+        if (notification != null && isUnread(notification)) {
+            unreadCounters.addUnreadNotifications(memberId(notification), 1);
+        }
+    }
+
+    private static Long memberId(Notification notification) {
+        return notification.getMember() != null ? notification.getMember().getId() : null;
+    }
+
+    static boolean isUnread(Notification notification) {
+        return !Boolean.TRUE.equals(notification.getRead());
     }
 }
@@ -10,11 +10,18 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link com.voituri.ridesharing.domain.Rating}.
+ * <p>
+ * Every write also updates the reputation of the rated member, in the same transaction, through the
+ * {@link MemberReputationService}.
  */
 @Service
 @Transactional
@@ -26,9 +33,12 @@ public class RatingService {
 
     private final RatingMapper ratingMapper;
 
-    public RatingService(RatingRepository ratingRepository, RatingMapper ratingMapper) {
+    private final MemberReputationService memberReputationService;
+
+    public RatingService(RatingRepository ratingRepository, RatingMapper ratingMapper, MemberReputationService memberReputationService) {
         this.ratingRepository = ratingRepository;
         this.ratingMapper = ratingMapper;
+        this.memberReputationService = memberReputationService;
     }
 
     /**
@@ -41,6 +51,7 @@ public class RatingService {
         log.debug("Request to save Rating : {}", ratingDTO);
         Rating rating = ratingMapper.toEntity(ratingDTO);
         rating = ratingRepository.save(rating);
+        memberReputationService.addRating(receiverId(rating), rating.getScore());
         return ratingMapper.toDto(rating);
     }
 
@@ -52,8 +63,10 @@ public class RatingService {
      */
     public RatingDTO update(RatingDTO ratingDTO) {
         log.debug("Request to update Rating : {}", ratingDTO);
+        Optional<Counted> previous = ratingRepository.findById(ratingDTO.getId()).map(Counted::of);
         Rating rating = ratingMapper.toEntity(ratingDTO);
         rating = ratingRepository.save(rating);
+        countChange(previous.orElse(null), rating);
         return ratingMapper.toDto(rating);
     }
 
@@ -69,7 +82,9 @@ public class RatingService {
         return ratingRepository
             .findById(ratingDTO.getId())
             .map(existingRating -> {
+                Counted previous = Counted.of(existingRating);
                 ratingMapper.partialUpdate(existingRating, ratingDTO);
+                countChange(previous, existingRating);
 
                 return existingRating;
             })
@@ -78,14 +93,25 @@ public class RatingService {
     }
 
     /**
-     * Get all the ratings.
+     * Get a page of the ratings, ordered by id.
      *
-     * @return the list of entities.
+     * @param afterId the id of the last rating of the previous page, or {@code null} for the first page.
+     * @param limit the maximal number of entities.
+     * @return the slice of entities.
      */
     @Transactional(readOnly = true)
-    public List<RatingDTO> findAll() {
-        log.debug("Request to get all Ratings");
-        return ratingRepository.findAll().stream().map(ratingMapper::toDto).collect(Collectors.toCollection(LinkedList::new));
+    public Slice<RatingDTO> findAllAfter(Long afterId, int limit) {
+        log.debug("Request to get a page of Ratings after : {}", afterId);
+        List<Rating> ratings = afterId == null
+            ? ratingRepository.findAllByOrderByIdAsc(Limit.of(limit + 1))
+            : ratingRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1));
+        boolean hasNext = ratings.size() > limit;
+        List<RatingDTO> content = ratings
+            .stream()
+            .limit(limit)
+            .map(ratingMapper::toDto)
+            .collect(Collectors.toCollection(LinkedList::new));
+        return new SliceImpl<>(content, Pageable.ofSize(limit), hasNext);
     }
 
     /**
@@ -107,6 +133,36 @@ public class RatingService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Rating : {}", id);
-        ratingRepository.deleteById(id);
+        ratingRepository
+            .findById(id)
+            .ifPresent(rating -> {
+                Counted previous = Counted.of(rating);
+                ratingRepository.delete(rating);
+                memberReputationService.removeRating(previous.receiverId(), previous.score());
+            });
+    }
+
+    private void countChange(Counted previous, Rating rating) {
+        Counted current = Counted.of(rating);
+        if (current.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            memberReputationService.removeRating(previous.receiverId(), previous.score());
+        }
+        memberReputationService.addRating(current.receiverId(), current.score());
+    }
+
+    private static Long receiverId(Rating rating) {
+        return rating.getReceiver() != null ? rating.getReceiver().getId() : null;
+    }
+
+    /**
+     * What the reputation of the rated member counts of a rating.
+     */
+    private record Counted(Long receiverId, Integer score) {
+        static Counted of(Rating rating) {
+            return new Counted(RatingService.receiverId(rating), rating.getScore());
+        }
     }
 }
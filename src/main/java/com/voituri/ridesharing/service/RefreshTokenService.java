@@ -0,0 +1,159 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.domain.Authority;
+import com.voituri.ridesharing.domain.RefreshToken;
+import com.voituri.ridesharing.domain.User;
+import com.voituri.ridesharing.repository.RefreshTokenRepository;
+import com.voituri.ridesharing.repository.UserRepository;
+import com.voituri.ridesharing.security.TokenRevocations;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for managing the {@link RefreshToken}s.
+ * <p>
+ * A refresh token can be used once: it is exchanged for a new one of the same session, which expires when the session does.
+ * Using a token twice revokes its session.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final TokenRevocations tokenRevocations;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        UserRepository userRepository,
+        TokenRevocations tokenRevocations
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.tokenRevocations = tokenRevocations;
+    }
+
+    /**
+     * A refresh token, as handed to the client.
+     *
+     * @param value the token.
+     * @param session the session of the token, shared by the tokens it is rotated into.
+     * @param expiresAt the expiry of the session.
+     */
+    public record IssuedToken(String value, String session, Instant expiresAt) {}
+
+    /**
+     * A refresh token rotated into a new one.
+     *
+     * @param login the login of the user of the token.
+     * @param authorities the current authorities of the user.
+     * @param token the new token.
+     */
+    public record Rotation(String login, Set<String> authorities, IssuedToken token) {}
+
+    /**
+     * Start a new session for a user who just authenticated.
+     *
+     * @param login the login of the user.
+     * @param validity the duration of the session.
+     * @return the first refresh token of the session.
+     */
+    public IssuedToken create(String login, Duration validity) {
+        User user = userRepository.findOneByLogin(login).orElseThrow(() -> new IllegalStateException("User could not be found"));
+        log.debug("Request to create a refresh token for User : {}", login);
+        return save(user, UUID.randomUUID().toString(), Instant.now().plus(validity));
+    }
+
+    /**
+     * Exchange a refresh token for a new one.
+     *
+     * @param value the token.
+     * @return the rotation, empty if the token is unknown, expired, already used, or its user is deactivated.
+     */
+    public Optional<Rotation> rotate(String value) {
+        Optional<RefreshToken> found = refreshTokenRepository.findOneByTokenHash(hash(value));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken token = found.orElseThrow();
+        User user = token.getUser();
+        if (!token.getExpiresAt().isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        // Read before the updates below detach the user
+        Set<String> authorities = user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet());
+        if (Boolean.TRUE.equals(token.getRevoked()) || refreshTokenRepository.revoke(token.getId()) == 0) {
+            log.warn("Refresh token of session {} of User {} used twice, revoking the session", token.getSession(), user.getLogin());
+            refreshTokenRepository.revokeSession(token.getSession());
+            return Optional.empty();
+        }
+        if (!user.isActivated()) {
+            refreshTokenRepository.revokeSession(token.getSession());
+            return Optional.empty();
+        }
+        return Optional.of(new Rotation(user.getLogin(), authorities, save(user, token.getSession(), token.getExpiresAt())));
+    }
+
+    /**
+     * End a session: its refresh tokens and the given access token are revoked.
+     *
+     * @param session the session, may be {@code null}.
+     * @param jti the id of the access token, may be {@code null}.
+     * @param expiresAt the expiry of the access token, may be {@code null}.
+     */
+    public void revoke(String session, String jti, Instant expiresAt) {
+        log.debug("Request to revoke session : {}", session);
+        if (session != null) {
+            refreshTokenRepository.revokeSession(session);
+        }
+        tokenRevocations.revoke(jti, expiresAt);
+    }
+
+    /**
+     * Expired refresh tokens are deleted every day, at 01:15 (am).
+     */
+    @Scheduled(cron = "0 15 1 * * ?")
+    public void removeExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        log.debug("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private IssuedToken save(User user, String session, Instant expiresAt) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken().tokenHash(hash(value)).session(session).expiresAt(expiresAt).user(user));
+        return new IssuedToken(value, session, expiresAt);
+    }
+
+    static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
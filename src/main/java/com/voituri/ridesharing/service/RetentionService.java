@@ -0,0 +1,240 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.Message;
+import com.voituri.ridesharing.domain.Notification;
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.repository.MessageRepository;
+import com.voituri.ridesharing.repository.NotificationRepository;
+import com.voituri.ridesharing.repository.PurgeCandidate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service purging the rows nobody reads anymore: the read {@link Notification}s older than
+ * {@code application.retention.notification-max-age}, and the {@link Message}s of the rides archived for longer than
+ * {@code application.retention.message-max-age}.
+ * <p>
+ * Rows are walked with a keyset cursor and deleted in chunks of {@code application.retention.chunk-size}, each in its own
+ * short transaction, with a pause between two chunks: a purge never holds locks for long nor sends a burst of changes to
+ * the replicas. The second-level cache entries of the deleted rows are evicted one by one, the unread counters are kept in
+ * line, and the number of purged rows and the latency of each chunk are published as metrics.
+ */
+@Service
+public class RetentionService {
+
+    static final String METER_PREFIX = "retention";
+
+    private final Logger log = LoggerFactory.getLogger(RetentionService.class);
+
+    private final ApplicationProperties.Retention properties;
+
+    private final NotificationRepository notificationRepository;
+
+    private final MessageRepository messageRepository;
+
+    private final UnreadCounters unreadCounters;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Meters notificationMeters;
+
+    private final Meters messageMeters;
+
+    public RetentionService(
+        ApplicationProperties applicationProperties,
+        NotificationRepository notificationRepository,
+        MessageRepository messageRepository,
+        UnreadCounters unreadCounters,
+        EntityManagerFactory entityManagerFactory,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = applicationProperties.getRetention();
+        this.notificationRepository = notificationRepository;
+        this.messageRepository = messageRepository;
+        this.unreadCounters = unreadCounters;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationMeters = new Meters(meterRegistry, "notification");
+        this.messageMeters = new Meters(meterRegistry, "message");
+    }
+
+    /**
+     * Purge the expired notifications and messages.
+     * <p>
+     * This is scheduled by {@code application.retention.cron}, everyday at 01:30 (am) by default.
+     */
+    @Scheduled(cron = "${application.retention.cron:-}")
+    public void purge() {
+        long start = System.currentTimeMillis();
+        ZonedDateTime now = ZonedDateTime.now();
+        long notifications = purgeNotifications(now.minus(properties.getNotificationMaxAge()));
+        long messages = purgeMessages(now.minus(properties.getMessageMaxAge()));
+        log.info("Purged {} notifications and {} messages in {} ms", notifications, messages, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Delete the read notifications sent before a cutoff.
+     *
+     * @param cutoff the time before which the notifications were sent.
+     * @return the number of deleted notifications.
+     */
+    public long purgeNotifications(ZonedDateTime cutoff) {
+        log.debug("Request to purge the read Notifications sent before {}", cutoff);
+        int chunkSize = chunkSize();
+        long count = 0;
+        PurgeCandidate after = null;
+        while (true) {
+            PurgeCandidate cursor = after;
+            List<PurgeCandidate> chunk = notificationMeters.time(() ->
+                transactionTemplate.execute(status -> {
+                    List<PurgeCandidate> candidates = notificationRepository.findReadBefore(cutoff, cursor, chunkSize);
+                    int deleted = notificationRepository.deleteByIds(ids(candidates));
+                    evictAfterCommit(Notification.class, Member.class.getName() + ".notifications", candidates);
+                    notificationMeters.purged(deleted);
+                    return candidates;
+                })
+            );
+            count += chunk.size();
+            if (chunk.size() < chunkSize || !pause()) {
+                return count;
+            }
+            after = chunk.get(chunk.size() - 1);
+        }
+    }
+
+    /**
+     * Delete the messages of the rides archived before a cutoff.
+     *
+     * @param cutoff the time before which the rides arrived.
+     * @return the number of deleted messages.
+     */
+    public long purgeMessages(ZonedDateTime cutoff) {
+        log.debug("Request to purge the Messages of the Rides archived before {}", cutoff);
+        int chunkSize = chunkSize();
+        long count = 0;
+        Long afterRideId = null;
+        while (true) {
+            List<Long> rideIds = messageRepository.findArchivedRideIdsWithMessages(cutoff, afterRideId, chunkSize);
+            PurgeCandidate after = null;
+            while (!rideIds.isEmpty()) {
+                PurgeCandidate cursor = after;
+                List<PurgeCandidate> chunk = messageMeters.time(() ->
+                    transactionTemplate.execute(status -> {
+                        List<PurgeCandidate> candidates = messageRepository.findByRides(rideIds, cursor, chunkSize);
+                        int deleted = messageRepository.deleteByIds(ids(candidates));
+                        evictAfterCommit(Message.class, Ride.class.getName() + ".messages", candidates);
+                        byOwner(candidates).forEach((rideId, messages) -> unreadCounters.addRideMessages(rideId, -messages));
+                        messageMeters.purged(deleted);
+                        return candidates;
+                    })
+                );
+                count += chunk.size();
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                if (!pause()) {
+                    return count;
+                }
+                after = chunk.get(chunk.size() - 1);
+            }
+            if (rideIds.size() < chunkSize) {
+                return count;
+            }
+            afterRideId = rideIds.get(rideIds.size() - 1);
+        }
+    }
+
+    private int chunkSize() {
+        return Math.max(1, properties.getChunkSize());
+    }
+
+    /**
+     * Wait between two chunks.
+     *
+     * @return {@code false} if the purge has to stop, because the thread was interrupted.
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Purge interrupted");
+            return false;
+        }
+    }
+
+    private void evictAfterCommit(Class<?> entity, String collectionRole, List<PurgeCandidate> candidates) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<PurgeCandidate> evicted = new ArrayList<>(candidates);
+        TransactionHooks.afterCommit(() -> {
+            org.hibernate.Cache cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+            for (PurgeCandidate candidate : evicted) {
+                cache.evictEntityData(entity, candidate.id());
+            }
+            byOwner(evicted).keySet().forEach(ownerId -> cache.evictCollectionData(collectionRole, ownerId));
+        });
+    }
+
+    private static List<Long> ids(List<PurgeCandidate> candidates) {
+        return candidates.stream().map(PurgeCandidate::id).toList();
+    }
+
+    private static Map<Long, Long> byOwner(List<PurgeCandidate> candidates) {
+        return candidates
+            .stream()
+            .map(PurgeCandidate::ownerId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    private static final class Meters {
+
+        private final Counter purged;
+
+        private final Timer chunks;
+
+        private Meters(MeterRegistry registry, String table) {
+            this.purged = Counter.builder(METER_PREFIX + ".purged")
+                .description("Number of rows deleted by the retention purge")
+                .tag("table", table)
+                .register(registry);
+            this.chunks = Timer.builder(METER_PREFIX + ".chunk")
+                .description("Time to select and delete a chunk of expired rows, transaction included")
+                .tag("table", table)
+                .publishPercentileHistogram()
+                .register(registry);
+        }
+
+        private void purged(int count) {
+            purged.increment(count);
+        }
+
+        private <T> T time(Supplier<T> chunk) {
+            return chunks.record(chunk);
+        }
+    }
+}
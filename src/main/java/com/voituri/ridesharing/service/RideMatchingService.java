@@ -0,0 +1,203 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.dto.RideMatchDTO;
+import com.voituri.ridesharing.service.geo.GeoUtils;
+import com.voituri.ridesharing.service.geo.RideIntervalIndex;
+import com.voituri.ridesharing.service.geo.RideIntervalIndex.RideInterval;
+import com.voituri.ridesharing.service.geo.RouteCorridor;
+import com.voituri.ridesharing.service.mapper.RideMapper;
+import com.voituri.ridesharing.service.recurrence.RideOccurrenceCache;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service matching a trip (origin, destination and departure window) with the open {@link Ride}s.
+ * <p>
+ * Candidates are first narrowed down by the {@link RideIntervalIndex} to the rides on the road during the departure
+ * window, then by a corridor check of the trip endpoints against the ride route. The remaining rides are ranked by how much
+ * of the trip they cover, how far the rider has to walk to their route, and how close the estimated pickup time is to the
+ * middle of the departure window. For a recurring ride, the occurrence with the best pickup time is used.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RideMatchingService {
+
+    private static final double CORRIDOR_OVERLAP_WEIGHT = 0.5;
+
+    private static final double DETOUR_WEIGHT = 0.2;
+
+    private static final double TIME_WEIGHT = 0.3;
+
+    /**
+     * Minimal half-width of the departure window used to normalize the time distance, in seconds.
+     */
+    private static final long MIN_HALF_WINDOW_SECONDS = 15 * 60;
+
+    private static final long NO_PICKUP = Long.MIN_VALUE;
+
+    private final Logger log = LoggerFactory.getLogger(RideMatchingService.class);
+
+    private final RideIntervalIndex rideIntervalIndex;
+
+    private final RideRepository rideRepository;
+
+    private final RideMapper rideMapper;
+
+    private final RideOccurrenceCache rideOccurrenceCache;
+
+    public RideMatchingService(
+        RideIntervalIndex rideIntervalIndex,
+        RideRepository rideRepository,
+        RideMapper rideMapper,
+        RideOccurrenceCache rideOccurrenceCache
+    ) {
+        this.rideIntervalIndex = rideIntervalIndex;
+        this.rideRepository = rideRepository;
+        this.rideMapper = rideMapper;
+        this.rideOccurrenceCache = rideOccurrenceCache;
+    }
+
+    /**
+     * Find the best rides for a trip.
+     *
+     * @param fromLat the latitude of the trip origin.
+     * @param fromLon the longitude of the trip origin.
+     * @param toLat the latitude of the trip destination.
+     * @param toLon the longitude of the trip destination.
+     * @param departAfter the start of the departure window.
+     * @param departBefore the end of the departure window.
+     * @param corridorKm the maximal distance between the trip endpoints and the ride route, in kilometers.
+     * @param limit the maximal number of matches to return.
+     * @return the matches, best first.
+     */
+    public List<RideMatchDTO> match(
+        double fromLat,
+        double fromLon,
+        double toLat,
+        double toLon,
+        ZonedDateTime departAfter,
+        ZonedDateTime departBefore,
+        double corridorKm,
+        int limit
+    ) {
+        log.debug("Request to match Rides from ({}, {}) to ({}, {})", fromLat, fromLon, toLat, toLon);
+        List<RideInterval> candidates = rideIntervalIndex.overlapping(departAfter, departBefore);
+        double tripKm = GeoUtils.distanceKm(fromLat, fromLon, toLat, toLon);
+        long windowStart = departAfter.toEpochSecond();
+        long windowEnd = departBefore.toEpochSecond();
+
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+        for (RideInterval ride : candidates) {
+            Candidate candidate = score(ride, fromLat, fromLon, toLat, toLon, tripKm, windowStart, windowEnd, corridorKm);
+            if (candidate != null) {
+                best.add(candidate);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        if (best.isEmpty()) {
+            return new LinkedList<>();
+        }
+
+        List<Candidate> ranked = new ArrayList<>(best);
+        ranked.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        Map<Long, RideDTO> rides = rideRepository
+            .findAllById(ranked.stream().map(Candidate::rideId).toList())
+            .stream()
+            .map(rideMapper::toDto)
+            .collect(Collectors.toMap(RideDTO::getId, Function.identity()));
+        return ranked
+            .stream()
+            .filter(candidate -> rides.containsKey(candidate.rideId()))
+            .map(candidate -> toDto(candidate, rides.get(candidate.rideId()), departAfter))
+            .collect(Collectors.toCollection(LinkedList::new));
+    }
+
+    private Candidate score(
+        RideInterval ride,
+        double fromLat,
+        double fromLon,
+        double toLat,
+        double toLon,
+        double tripKm,
+        long windowStart,
+        long windowEnd,
+        double corridorKm
+    ) {
+        RouteCorridor corridor = new RouteCorridor(ride.startLat(), ride.startLon(), ride.endLat(), ride.endLon(), corridorKm);
+        if (!corridor.mayContain(fromLat, fromLon) || !corridor.mayContain(toLat, toLon)) {
+            return null;
+        }
+        RouteCorridor.Projection pickup = corridor.project(fromLat, fromLon);
+        RouteCorridor.Projection dropoff = pickup != null ? corridor.project(toLat, toLon) : null;
+        if (dropoff == null || dropoff.fraction() <= pickup.fraction()) {
+            return null;
+        }
+
+        double sharedKm = (dropoff.fraction() - pickup.fraction()) * corridor.lengthKm();
+        double overlap = tripKm == 0 ? 1 : Math.min(1, sharedKm / tripKm);
+        double detour = (pickup.offsetKm() + dropoff.offsetKm()) / (2 * corridorKm);
+
+        long pickupTime = pickupTime(ride, pickup.fraction(), windowStart, windowEnd);
+        if (pickupTime == NO_PICKUP) {
+            return null;
+        }
+        double halfWindow = Math.max((windowEnd - windowStart) / 2.0, MIN_HALF_WINDOW_SECONDS);
+        double timeDistance = Math.min(1, Math.abs(pickupTime - (windowStart + windowEnd) / 2.0) / (2 * halfWindow));
+
+        double score = CORRIDOR_OVERLAP_WEIGHT * overlap + DETOUR_WEIGHT * (1 - detour) + TIME_WEIGHT * (1 - timeDistance);
+        return new Candidate(ride.id(), score, overlap, pickup.offsetKm(), dropoff.offsetKm(), pickupTime);
+    }
+
+    private long pickupTime(RideInterval ride, double fraction, long windowStart, long windowEnd) {
+        if (ride.recurrence() == null) {
+            return ride.start() + Math.round(fraction * (ride.end() - ride.start()));
+        }
+        long duration = ride.recurrence().durationSeconds();
+        double middle = (windowStart + windowEnd) / 2.0;
+        long best = NO_PICKUP;
+        for (long start : rideOccurrenceCache.startsBetween(ride.id(), ride.recurrence(), windowStart - duration, windowEnd)) {
+            long pickupTime = start + Math.round(fraction * duration);
+            if (best == NO_PICKUP || Math.abs(pickupTime - middle) < Math.abs(best - middle)) {
+                best = pickupTime;
+            }
+        }
+        return best;
+    }
+
+    private static RideMatchDTO toDto(Candidate candidate, RideDTO ride, ZonedDateTime reference) {
+        RideMatchDTO match = new RideMatchDTO();
+        match.setRide(ride);
+        match.setScore(candidate.score());
+        match.setCorridorOverlap(candidate.corridorOverlap());
+        match.setPickupDistanceKm(candidate.pickupDistanceKm());
+        match.setDropoffDistanceKm(candidate.dropoffDistanceKm());
+        match.setEstimatedPickupTime(Instant.ofEpochSecond(candidate.pickupTime()).atZone(reference.getZone()));
+        return match;
+    }
+
+    private record Candidate(
+        long rideId,
+        double score,
+        double corridorOverlap,
+        double pickupDistanceKm,
+        double dropoffDistanceKm,
+        long pickupTime
+    ) {}
+}
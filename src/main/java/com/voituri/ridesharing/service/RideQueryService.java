@@ -0,0 +1,163 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.domain.*; // for static metamodels
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.criteria.RideCriteria;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.mapper.RideMapper;
+import jakarta.persistence.criteria.JoinType;
+import java.time.ZonedDateTime;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Ride} entities in the database.
+ * The main input is a {@link RideCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Slice} of {@link RideDTO} which fulfills the criteria, ordered by start time and id, so that the
+ * pages are read with a keyset predicate instead of an offset.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RideQueryService extends QueryService<Ride> {
+
+    private static final Sort KEYSET_ORDER = Sort.by(Ride_.START_TIME, Ride_.ID);
+
+    private final Logger log = LoggerFactory.getLogger(RideQueryService.class);
+
+    private final RideRepository rideRepository;
+
+    private final RideMapper rideMapper;
+
+    public RideQueryService(RideRepository rideRepository, RideMapper rideMapper) {
+        this.rideRepository = rideRepository;
+        this.rideMapper = rideMapper;
+    }
+
+    /**
+     * Return a page of {@link RideDTO} which matches the criteria from the database.
+     *
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param afterStartTime the start time of the last ride of the previous page, or {@code null} for the first page.
+     * @param afterId the id of the last ride of the previous page, or {@code null} for the first page.
+     * @param limit the maximal number of entities.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<RideDTO> findByCriteria(RideCriteria criteria, ZonedDateTime afterStartTime, Long afterId, int limit) {
+        log.debug("find by criteria : {}, after: {}, {}", criteria, afterStartTime, afterId);
+        Specification<Ride> specification = createSpecification(criteria);
+        if (afterStartTime != null && afterId != null) {
+            specification = specification.and(after(afterStartTime, afterId));
+        }
+        List<Ride> rides = rideRepository.findBy(specification, query -> query.sortBy(KEYSET_ORDER).limit(limit + 1).all());
+        boolean hasNext = rides.size() > limit;
+        List<RideDTO> content = rides
+            .stream()
+            .limit(limit)
+            .map(rideMapper::toDto)
+            .collect(Collectors.toCollection(LinkedList::new));
+        return new SliceImpl<>(content, Pageable.ofSize(limit), hasNext);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(RideCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Ride> specification = createSpecification(criteria);
+        return rideRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link RideCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Ride> createSpecification(RideCriteria criteria) {
+        Specification<Ride> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Ride_.id));
+            }
+            if (criteria.getStartLocation() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getStartLocation(), Ride_.startLocation));
+            }
+            if (criteria.getEndLocation() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getEndLocation(), Ride_.endLocation));
+            }
+            if (criteria.getStartTime() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getStartTime(), Ride_.startTime));
+            }
+            if (criteria.getEndTime() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getEndTime(), Ride_.endTime));
+            }
+            if (criteria.getRecurring() != null) {
+                specification = specification.and(buildSpecification(criteria.getRecurring(), Ride_.recurring));
+            }
+            if (criteria.getStartLatitude() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getStartLatitude(), Ride_.startLatitude));
+            }
+            if (criteria.getStartLongitude() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getStartLongitude(), Ride_.startLongitude));
+            }
+            if (criteria.getEndLatitude() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getEndLatitude(), Ride_.endLatitude));
+            }
+            if (criteria.getEndLongitude() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getEndLongitude(), Ride_.endLongitude));
+            }
+            if (criteria.getAvailableSeats() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getAvailableSeats(), Ride_.availableSeats));
+            }
+            if (criteria.getRecurrenceDays() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getRecurrenceDays(), Ride_.recurrenceDays));
+            }
+            if (criteria.getRecurrenceUntil() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getRecurrenceUntil(), Ride_.recurrenceUntil));
+            }
+            if (criteria.getRequestsId() != null) {
+                specification = specification.and(
+                    buildSpecification(criteria.getRequestsId(), root -> root.join(Ride_.requests, JoinType.LEFT).get(RideRequest_.id))
+                );
+            }
+            if (criteria.getMessagesId() != null) {
+                specification = specification.and(
+                    buildSpecification(criteria.getMessagesId(), root -> root.join(Ride_.messages, JoinType.LEFT).get(Message_.id))
+                );
+            }
+            if (criteria.getMemberId() != null) {
+                // Filter on the foreign key column itself, so that the (member_id, start_time, id) index is used without a join.
+                specification = specification.and(buildSpecification(criteria.getMemberId(), root -> root.get(Ride_.member).get(Member_.id)));
+            }
+        }
+        return specification;
+    }
+
+    private static Specification<Ride> after(ZonedDateTime startTime, Long id) {
+        return (root, query, builder) ->
+            builder.and(
+                builder.greaterThanOrEqualTo(root.get(Ride_.startTime), startTime),
+                builder.or(builder.greaterThan(root.get(Ride_.startTime), startTime), builder.greaterThan(root.get(Ride_.id), id))
+            );
+    }
+}
@@ -1,9 +1,14 @@
 package com.voituri.ridesharing.service;
 
+import com.voituri.ridesharing.domain.Member;
 import com.voituri.ridesharing.domain.RideRequest;
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.RideRepository;
 import com.voituri.ridesharing.repository.RideRequestRepository;
+import com.voituri.ridesharing.security.SecurityUtils;
 import com.voituri.ridesharing.service.dto.RideRequestDTO;
 import com.voituri.ridesharing.service.mapper.RideRequestMapper;
+import java.time.ZonedDateTime;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,27 +16,53 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Service Implementation for managing {@link com.voituri.ridesharing.domain.RideRequest}.
+ * <p>
+ * A ride request holds seats of its ride while it is {@value #BOOKED_STATUS} with a number of seats, as created by a
+ * booking. Updating or deleting it gives the seats back to the ride when it stops holding them, and takes them again when
+ * it starts holding them.
  */
 @Service
 @Transactional
 public class RideRequestService {
 
+    /**
+     * Status of the ride requests created by a booking.
+     */
+    public static final String BOOKED_STATUS = "ACCEPTED";
+
     private final Logger log = LoggerFactory.getLogger(RideRequestService.class);
 
     private final RideRequestRepository rideRequestRepository;
 
     private final RideRequestMapper rideRequestMapper;
 
-    public RideRequestService(RideRequestRepository rideRequestRepository, RideRequestMapper rideRequestMapper) {
+    private final RideRepository rideRepository;
+
+    private final SeatInventory seatInventory;
+
+    private final MemberRepository memberRepository;
+
+    public RideRequestService(
+        RideRequestRepository rideRequestRepository,
+        RideRequestMapper rideRequestMapper,
+        RideRepository rideRepository,
+        SeatInventory seatInventory,
+        MemberRepository memberRepository
+    ) {
         this.rideRequestRepository = rideRequestRepository;
         this.rideRequestMapper = rideRequestMapper;
+        this.rideRepository = rideRepository;
+        this.seatInventory = seatInventory;
+        this.memberRepository = memberRepository;
     }
 
     /**
-     * Save a rideRequest.
+     * Save a rideRequest. A ride request without member is assigned to the member of the current user, if any.
      *
      * @param rideRequestDTO the entity to save.
      * @return the persisted entity.
@@ -39,10 +70,56 @@ public class RideRequestService {
     public RideRequestDTO save(RideRequestDTO rideRequestDTO) {
         log.debug("Request to save RideRequest : {}", rideRequestDTO);
         RideRequest rideRequest = rideRequestMapper.toEntity(rideRequestDTO);
+        if (rideRequest.getMember() == null) {
+            rideRequest.setMember(currentMember());
+        }
         rideRequest = rideRequestRepository.save(rideRequest);
+        moveSeats(Optional.empty(), HeldSeats.of(rideRequest));
         return rideRequestMapper.toDto(rideRequest);
     }
 
+    /**
+     * Book seats on a ride, and record the booking as an accepted rideRequest of the member of the current user.
+     * <p>
+     * Sold-out rides are turned down by the {@link SeatInventory} without touching the database. Otherwise the seats are
+     * taken by a single conditional update, which cannot overbook however many bookings run concurrently.
+     *
+     * @param rideId the id of the ride.
+     * @param seats the number of seats to book.
+     * @return the created rideRequest, or empty if the ride does not exist.
+     * @throws SeatsUnavailableException if the ride has not enough seats left, or no seat capacity.
+     */
+    public Optional<RideRequestDTO> book(Long rideId, int seats) {
+        log.debug("Request to book {} seats on Ride : {}", seats, rideId);
+        if (!seatInventory.tryAcquire(rideId, seats)) {
+            throw new SeatsUnavailableException();
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        seatInventory.evict(rideId);
+                    }
+                }
+            }
+        );
+        if (rideRepository.decrementAvailableSeats(rideId, seats) == 0) {
+            if (!rideRepository.existsById(rideId)) {
+                return Optional.empty();
+            }
+            throw new SeatsUnavailableException();
+        }
+        RideRequest rideRequest = new RideRequest()
+            .status(BOOKED_STATUS)
+            .requestTime(ZonedDateTime.now())
+            .ride(rideRepository.getReferenceById(rideId))
+            .member(currentMember())
+            .seats(seats);
+        rideRequest = rideRequestRepository.save(rideRequest);
+        return Optional.of(rideRequestMapper.toDto(rideRequest));
+    }
+
     /**
      * Update a rideRequest.
      *
@@ -51,8 +128,10 @@ public class RideRequestService {
      */
     public RideRequestDTO update(RideRequestDTO rideRequestDTO) {
         log.debug("Request to update RideRequest : {}", rideRequestDTO);
+        Optional<HeldSeats> heldBefore = rideRequestRepository.findById(rideRequestDTO.getId()).flatMap(HeldSeats::of);
         RideRequest rideRequest = rideRequestMapper.toEntity(rideRequestDTO);
         rideRequest = rideRequestRepository.save(rideRequest);
+        moveSeats(heldBefore, HeldSeats.of(rideRequest));
         return rideRequestMapper.toDto(rideRequest);
     }
 
@@ -68,7 +147,9 @@ public class RideRequestService {
         return rideRequestRepository
             .findById(rideRequestDTO.getId())
             .map(existingRideRequest -> {
+                Optional<HeldSeats> heldBefore = HeldSeats.of(existingRideRequest);
                 rideRequestMapper.partialUpdate(existingRideRequest, rideRequestDTO);
+                moveSeats(heldBefore, HeldSeats.of(existingRideRequest));
 
                 return existingRideRequest;
             })
@@ -107,6 +188,48 @@ public class RideRequestService {
      */
     public void delete(Long id) {
         log.debug("Request to delete RideRequest : {}", id);
+        Optional<HeldSeats> heldBefore = rideRequestRepository.findById(id).flatMap(HeldSeats::of);
         rideRequestRepository.deleteById(id);
+        moveSeats(heldBefore, Optional.empty());
+    }
+
+    /**
+     * Give back the seats a ride request held, and take the ones it holds now, if they differ.
+     *
+     * @throws SeatsUnavailableException if the ride has not enough seats left for the ones the ride request holds now.
+     */
+    private void moveSeats(Optional<HeldSeats> before, Optional<HeldSeats> after) {
+        if (before.equals(after)) {
+            return;
+        }
+        before.ifPresent(held -> {
+            rideRepository.incrementAvailableSeats(held.rideId(), held.seats());
+            TransactionHooks.afterCommit(() -> seatInventory.evict(held.rideId()));
+        });
+        after.ifPresent(held -> {
+            if (rideRepository.decrementAvailableSeats(held.rideId(), held.seats()) == 0) {
+                throw new SeatsUnavailableException();
+            }
+            TransactionHooks.afterCommit(() -> seatInventory.evict(held.rideId()));
+        });
+    }
+
+    /**
+     * The seats held by a ride request.
+     */
+    private record HeldSeats(Long rideId, int seats) {
+        static Optional<HeldSeats> of(RideRequest rideRequest) {
+            if (!BOOKED_STATUS.equals(rideRequest.getStatus()) || rideRequest.getSeats() == null || rideRequest.getRide() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new HeldSeats(rideRequest.getRide().getId(), rideRequest.getSeats()));
+        }
+    }
+
+    private Member currentMember() {
+        return SecurityUtils.getCurrentUserLogin()
+            .flatMap(memberRepository::findIdByLogin)
+            .map(memberRepository::getReferenceById)
+            .orElse(null);
     }
 }
@@ -2,8 +2,21 @@ package com.voituri.ridesharing.service;
 
 import com.voituri.ridesharing.domain.Ride;
 import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.NotificationFanOutService.RideEvent;
 import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.geo.RideIntervalIndex;
+import com.voituri.ridesharing.service.geo.RideSearchCache;
+import com.voituri.ridesharing.service.geo.RideSearchCache.SearchKey;
+import com.voituri.ridesharing.service.geo.RideSpatialIndex;
+import com.voituri.ridesharing.service.leaderboard.DriverLeaderboard;
+import com.voituri.ridesharing.service.location.LocationTrie;
 import com.voituri.ridesharing.service.mapper.RideMapper;
+import com.voituri.ridesharing.service.recurrence.RideOccurrenceCache;
+import com.voituri.ridesharing.service.recurrence.RideRecurrence;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +28,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link com.voituri.ridesharing.domain.Ride}.
+ * <p>
+ * The requesters of a ride are notified when its start time changes and when it is deleted.
  */
 @Service
 @Transactional
@@ -26,13 +41,52 @@ public class RideService {
 
     private final RideMapper rideMapper;
 
-    public RideService(RideRepository rideRepository, RideMapper rideMapper) {
+    private final RideSpatialIndex rideSpatialIndex;
+
+    private final RideIntervalIndex rideIntervalIndex;
+
+    private final SeatInventory seatInventory;
+
+    private final RideOccurrenceCache rideOccurrenceCache;
+
+    private final SavedSearchService savedSearchService;
+
+    private final LocationTrie locationTrie;
+
+    private final RideSearchCache rideSearchCache;
+
+    private final NotificationFanOutService notificationFanOutService;
+
+    private final DriverLeaderboard driverLeaderboard;
+
+    public RideService(
+        RideRepository rideRepository,
+        RideMapper rideMapper,
+        RideSpatialIndex rideSpatialIndex,
+        RideIntervalIndex rideIntervalIndex,
+        SeatInventory seatInventory,
+        RideOccurrenceCache rideOccurrenceCache,
+        SavedSearchService savedSearchService,
+        LocationTrie locationTrie,
+        RideSearchCache rideSearchCache,
+        NotificationFanOutService notificationFanOutService,
+        DriverLeaderboard driverLeaderboard
+    ) {
         this.rideRepository = rideRepository;
         this.rideMapper = rideMapper;
+        this.rideSpatialIndex = rideSpatialIndex;
+        this.rideIntervalIndex = rideIntervalIndex;
+        this.seatInventory = seatInventory;
+        this.rideOccurrenceCache = rideOccurrenceCache;
+        this.savedSearchService = savedSearchService;
+        this.locationTrie = locationTrie;
+        this.rideSearchCache = rideSearchCache;
+        this.notificationFanOutService = notificationFanOutService;
+        this.driverLeaderboard = driverLeaderboard;
     }
 
     /**
-     * Save a ride.
+     * Save a ride, and notify the members whose saved searches match it.
      *
      * @param rideDTO the entity to save.
      * @return the persisted entity.
@@ -41,24 +95,34 @@ public class RideService {
         log.debug("Request to save Ride : {}", rideDTO);
         Ride ride = rideMapper.toEntity(rideDTO);
         ride = rideRepository.save(ride);
-        return rideMapper.toDto(ride);
+        RideDTO result = rideMapper.toDto(ride);
+        index(result);
+        savedSearchService.percolate(result);
+        return result;
     }
 
     /**
-     * Update a ride.
+     * Update a ride, and notify its requesters if its start time changes. The available seats are kept: they are only
+     * changed by the guarded updates of the bookings.
      *
      * @param rideDTO the entity to save.
      * @return the persisted entity.
      */
     public RideDTO update(RideDTO rideDTO) {
         log.debug("Request to update Ride : {}", rideDTO);
+        Optional<Ride> existingRide = rideRepository.findById(rideDTO.getId());
+        ZonedDateTime previousStartTime = existingRide.map(Ride::getStartTime).orElse(null);
         Ride ride = rideMapper.toEntity(rideDTO);
+        ride.setAvailableSeats(existingRide.map(Ride::getAvailableSeats).orElse(null));
         ride = rideRepository.save(ride);
-        return rideMapper.toDto(ride);
+        RideDTO result = rideMapper.toDto(ride);
+        index(result);
+        notifyIfRescheduled(previousStartTime, result);
+        return result;
     }
 
     /**
-     * Partially update a ride.
+     * Partially update a ride, and notify its requesters if its start time changes. The available seats are kept.
      *
      * @param rideDTO the entity to update partially.
      * @return the persisted entity.
@@ -69,23 +133,56 @@ public class RideService {
         return rideRepository
             .findById(rideDTO.getId())
             .map(existingRide -> {
+                ZonedDateTime previousStartTime = existingRide.getStartTime();
                 rideMapper.partialUpdate(existingRide, rideDTO);
 
-                return existingRide;
-            })
-            .map(rideRepository::save)
-            .map(rideMapper::toDto);
+                RideDTO result = rideMapper.toDto(rideRepository.save(existingRide));
+                index(result);
+                notifyIfRescheduled(previousStartTime, result);
+                return result;
+            });
     }
 
     /**
-     * Get all the rides.
+     * Search the geocoded rides around an origin and, optionally, a destination. The ids of the matching rides are cached
+     * by the {@link RideSearchCache}.
      *
-     * @return the list of entities.
+     * @param fromLat the latitude of the origin.
+     * @param fromLon the longitude of the origin.
+     * @param toLat the latitude of the destination, or {@code null}.
+     * @param toLon the longitude of the destination, or {@code null}.
+     * @param radiusKm the search radius around each endpoint, in kilometers.
+     * @param departAfter the lower bound of the departure time, or {@code null}.
+     * @param departBefore the upper bound of the departure time, or {@code null}.
+     * @param limit the maximal number of rides to return: the ones with the earliest (next) departures.
+     * @return the list of matching entities, ordered by departure time.
      */
     @Transactional(readOnly = true)
-    public List<RideDTO> findAll() {
-        log.debug("Request to get all Rides");
-        return rideRepository.findAll().stream().map(rideMapper::toDto).collect(Collectors.toCollection(LinkedList::new));
+    public List<RideDTO> search(
+        double fromLat,
+        double fromLon,
+        Double toLat,
+        Double toLon,
+        double radiusKm,
+        ZonedDateTime departAfter,
+        ZonedDateTime departBefore,
+        int limit
+    ) {
+        log.debug("Request to search Rides around ({}, {}) within {} km", fromLat, fromLon, radiusKm);
+        SearchKey key = RideSearchCache.key(fromLat, fromLon, toLat, toLon, radiusKm, departAfter, departBefore);
+        List<Long> ids = rideSearchCache.get(key, () ->
+            rideSpatialIndex.search(key.fromLat(), key.fromLon(), key.toLat(), key.toLon(), key.radiusKm(), departAfter, departBefore)
+        );
+        if (ids.isEmpty()) {
+            return new LinkedList<>();
+        }
+        // The cached ids are ordered by (next) departure, so only the first ones are loaded
+        return rideRepository
+            .findAllById(ids.size() > limit ? ids.subList(0, limit) : ids)
+            .stream()
+            .map(rideMapper::toDto)
+            .sorted(Comparator.comparing(RideDTO::getStartTime).thenComparing(RideDTO::getId))
+            .collect(Collectors.toCollection(LinkedList::new));
     }
 
     /**
@@ -101,12 +198,78 @@ public class RideService {
     }
 
     /**
-     * Delete the ride by id.
+     * Get the departures of a ride within a window: its occurrences if it is recurring, its only departure otherwise.
+     *
+     * @param id the id of the entity.
+     * @param from the start of the window.
+     * @param to the end of the window.
+     * @return the departure times, in ascending order, or empty if the ride does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<ZonedDateTime>> findOccurrences(Long id, ZonedDateTime from, ZonedDateTime to) {
+        log.debug("Request to get the occurrences of Ride : {}", id);
+        return rideRepository
+            .findById(id)
+            .map(ride -> {
+                RideRecurrence recurrence = RideRecurrence.of(
+                    ride.getRecurring(),
+                    ride.getStartTime(),
+                    ride.getEndTime(),
+                    ride.getRecurrenceDays(),
+                    ride.getRecurrenceUntil()
+                );
+                if (recurrence == null) {
+                    return ride.getStartTime().isBefore(from) || ride.getStartTime().isAfter(to)
+                        ? new LinkedList<>()
+                        : new LinkedList<>(List.of(ride.getStartTime()));
+                }
+                return Arrays.stream(rideOccurrenceCache.startsBetween(id, recurrence, from.toEpochSecond(), to.toEpochSecond()))
+                    .mapToObj(start -> Instant.ofEpochSecond(start).atZone(ride.getStartTime().getZone()))
+                    .collect(Collectors.toCollection(LinkedList::new));
+            });
+    }
+
+    /**
+     * Delete the ride by id, and notify its requesters that it is cancelled.
      *
      * @param id the id of the entity.
      */
     public void delete(Long id) {
         log.debug("Request to delete Ride : {}", id);
+        rideRepository
+            .findById(id)
+            .map(rideMapper::toDto)
+            .ifPresent(ride -> notificationFanOutService.notifyRequesters(ride, RideEvent.CANCELLED));
         rideRepository.deleteById(id);
+        TransactionHooks.afterCommit(() -> {
+            rideSpatialIndex.remove(id);
+            rideIntervalIndex.remove(id);
+            seatInventory.evict(id);
+            rideOccurrenceCache.evict(id);
+            locationTrie.remove(id);
+            rideSearchCache.invalidate(id);
+            driverLeaderboard.remove(id);
+        });
+    }
+
+    private void notifyIfRescheduled(ZonedDateTime previousStartTime, RideDTO ride) {
+        if (previousStartTime != null && ride.getStartTime() != null && !previousStartTime.isEqual(ride.getStartTime())) {
+            notificationFanOutService.notifyRequesters(ride, RideEvent.RESCHEDULED);
+        }
+    }
+
+    /**
+     * Update the in-memory views of a ride once it is committed, so that they never show a write that is rolled back.
+     */
+    private void index(RideDTO rideDTO) {
+        TransactionHooks.afterCommit(() -> {
+            rideOccurrenceCache.evict(rideDTO.getId());
+            rideSpatialIndex.put(rideDTO);
+            rideIntervalIndex.put(rideDTO);
+            seatInventory.evict(rideDTO.getId());
+            locationTrie.put(rideDTO);
+            rideSearchCache.invalidate(rideDTO);
+            driverLeaderboard.put(rideDTO);
+        });
     }
 }
@@ -0,0 +1,240 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.domain.SavedSearch;
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.SavedSearchRepository;
+import com.voituri.ridesharing.security.SecurityUtils;
+import com.voituri.ridesharing.service.NotificationFanOutService.PendingNotification;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.dto.SavedSearchDTO;
+import com.voituri.ridesharing.service.geo.GeoUtils;
+import com.voituri.ridesharing.service.geo.SavedSearchIndex;
+import com.voituri.ridesharing.service.geo.SavedSearchIndex.SavedSearchMatch;
+import com.voituri.ridesharing.service.mapper.SavedSearchMapper;
+import com.voituri.ridesharing.service.recurrence.RideOccurrenceCache;
+import com.voituri.ridesharing.service.recurrence.RideRecurrence;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link com.voituri.ridesharing.domain.SavedSearch}.
+ * <p>
+ * Saved searches are mirrored, once committed, in the {@link SavedSearchIndex}, which {@link #percolate(RideDTO)} uses to
+ * notify the riders interested in a new ride.
+ */
+@Service
+@Transactional
+public class SavedSearchService {
+
+    /**
+     * How far ahead the occurrences of a new recurring ride are percolated.
+     */
+    static final Duration PERCOLATION_HORIZON = Duration.ofDays(60);
+
+    private final Logger log = LoggerFactory.getLogger(SavedSearchService.class);
+
+    private final SavedSearchRepository savedSearchRepository;
+
+    private final SavedSearchMapper savedSearchMapper;
+
+    private final SavedSearchIndex savedSearchIndex;
+
+    private final MemberRepository memberRepository;
+
+    private final RideOccurrenceCache rideOccurrenceCache;
+
+    private final NotificationFanOutService notificationFanOutService;
+
+    public SavedSearchService(
+        SavedSearchRepository savedSearchRepository,
+        SavedSearchMapper savedSearchMapper,
+        SavedSearchIndex savedSearchIndex,
+        MemberRepository memberRepository,
+        RideOccurrenceCache rideOccurrenceCache,
+        NotificationFanOutService notificationFanOutService
+    ) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.savedSearchMapper = savedSearchMapper;
+        this.savedSearchIndex = savedSearchIndex;
+        this.memberRepository = memberRepository;
+        this.rideOccurrenceCache = rideOccurrenceCache;
+        this.notificationFanOutService = notificationFanOutService;
+    }
+
+    /**
+     * Save a savedSearch. A saved search without member is assigned to the member of the current user, if any.
+     *
+     * @param savedSearchDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public SavedSearchDTO save(SavedSearchDTO savedSearchDTO) {
+        log.debug("Request to save SavedSearch : {}", savedSearchDTO);
+        SavedSearch savedSearch = savedSearchMapper.toEntity(savedSearchDTO);
+        if (savedSearch.getMember() == null) {
+            SecurityUtils.getCurrentUserLogin().flatMap(memberRepository::findOneByLogin).ifPresent(savedSearch::setMember);
+        }
+        savedSearch = savedSearchRepository.save(savedSearch);
+        SavedSearchDTO result = savedSearchMapper.toDto(savedSearch);
+        TransactionHooks.afterCommit(() -> savedSearchIndex.put(result));
+        return result;
+    }
+
+    /**
+     * Update a savedSearch.
+     *
+     * @param savedSearchDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public SavedSearchDTO update(SavedSearchDTO savedSearchDTO) {
+        log.debug("Request to update SavedSearch : {}", savedSearchDTO);
+        SavedSearch savedSearch = savedSearchMapper.toEntity(savedSearchDTO);
+        savedSearch = savedSearchRepository.save(savedSearch);
+        SavedSearchDTO result = savedSearchMapper.toDto(savedSearch);
+        TransactionHooks.afterCommit(() -> savedSearchIndex.put(result));
+        return result;
+    }
+
+    /**
+     * Partially update a savedSearch.
+     *
+     * @param savedSearchDTO the entity to update partially.
+     * @return the persisted entity.
+     */
+    public Optional<SavedSearchDTO> partialUpdate(SavedSearchDTO savedSearchDTO) {
+        log.debug("Request to partially update SavedSearch : {}", savedSearchDTO);
+
+        return savedSearchRepository
+            .findById(savedSearchDTO.getId())
+            .map(existingSavedSearch -> {
+                savedSearchMapper.partialUpdate(existingSavedSearch, savedSearchDTO);
+
+                return existingSavedSearch;
+            })
+            .map(savedSearchRepository::save)
+            .map(savedSearchMapper::toDto)
+            .map(result -> {
+                TransactionHooks.afterCommit(() -> savedSearchIndex.put(result));
+                return result;
+            });
+    }
+
+    /**
+     * Get all the savedSearches.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<SavedSearchDTO> findAll(Pageable pageable) {
+        log.debug("Request to get all SavedSearches");
+        return savedSearchRepository.findAll(pageable).map(savedSearchMapper::toDto);
+    }
+
+    /**
+     * Get one savedSearch by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<SavedSearchDTO> findOne(Long id) {
+        log.debug("Request to get SavedSearch : {}", id);
+        return savedSearchRepository.findById(id).map(savedSearchMapper::toDto);
+    }
+
+    /**
+     * Delete the savedSearch by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete SavedSearch : {}", id);
+        savedSearchRepository.deleteById(id);
+        TransactionHooks.afterCommit(() -> savedSearchIndex.remove(id));
+    }
+
+    /**
+     * Notify the members whose saved searches match a new ride. A recurring ride is matched on its occurrences over the
+     * next {@link #PERCOLATION_HORIZON}. Each saved search is notified at most once, and the notifications are created in
+     * one batch by the {@link NotificationFanOutService}.
+     *
+     * @param ride the new ride.
+     * @return the number of created notifications.
+     */
+    public int percolate(RideDTO ride) {
+        if (ride.getId() == null || ride.getStartTime() == null || !GeoUtils.isValid(ride.getStartLatitude(), ride.getStartLongitude())) {
+            return 0;
+        }
+        Long driverId = ride.getMember() != null ? ride.getMember().getId() : null;
+        Map<Long, SavedSearchMatch> matches = new LinkedHashMap<>();
+        Map<Long, Long> departures = new LinkedHashMap<>();
+        for (long departure : departures(ride)) {
+            for (SavedSearchMatch match : savedSearchIndex.percolate(
+                ride.getStartLatitude(),
+                ride.getStartLongitude(),
+                ride.getEndLatitude(),
+                ride.getEndLongitude(),
+                departure
+            )) {
+                if (match.memberId() != null && !Objects.equals(match.memberId(), driverId)) {
+                    matches.putIfAbsent(match.savedSearchId(), match);
+                    departures.putIfAbsent(match.savedSearchId(), departure);
+                }
+            }
+        }
+        if (matches.isEmpty()) {
+            return 0;
+        }
+
+        List<PendingNotification> notifications = new ArrayList<>(matches.size());
+        for (SavedSearchMatch match : matches.values()) {
+            ZonedDateTime departure = Instant.ofEpochSecond(departures.get(match.savedSearchId())).atZone(ride.getStartTime().getZone());
+            notifications.add(new PendingNotification(match.memberId(), message(ride, match, departure)));
+        }
+        int created = notificationFanOutService.create(notifications);
+        log.debug("Ride {} matched {} saved searches", ride.getId(), created);
+        return created;
+    }
+
+    private long[] departures(RideDTO ride) {
+        RideRecurrence recurrence = RideRecurrence.of(
+            ride.getRecurring(),
+            ride.getStartTime(),
+            ride.getEndTime(),
+            ride.getRecurrenceDays(),
+            ride.getRecurrenceUntil()
+        );
+        if (recurrence == null) {
+            return new long[] { ride.getStartTime().toEpochSecond() };
+        }
+        long from = Instant.now().getEpochSecond();
+        long to = Math.min(savedSearchIndex.latestDeparture(), from + PERCOLATION_HORIZON.toSeconds());
+        return to < from ? new long[0] : rideOccurrenceCache.startsBetween(ride.getId(), recurrence, from, to);
+    }
+
+    private static String message(RideDTO ride, SavedSearchMatch match, ZonedDateTime departure) {
+        return (
+            "New ride from " +
+            ride.getStartLocation() +
+            " to " +
+            ride.getEndLocation() +
+            " on " +
+            DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(departure) +
+            (match.name() != null ? " matches your saved search \"" + match.name() + "\"" : " matches your saved search")
+        );
+    }
+}
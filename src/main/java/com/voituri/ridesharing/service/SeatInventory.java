@@ -0,0 +1,106 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.repository.RideRepository;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory view of the seats still available on each {@link com.voituri.ridesharing.domain.Ride}, used to turn down
+ * bookings on sold-out rides without a database round trip.
+ * <p>
+ * Each ride has its own lock-free counter, loaded lazily from the database and decremented with a compare-and-set loop, so
+ * concurrent bookings on different rides never contend, and bookings on the same ride never block each other. The counter is
+ * only a hint: the database update in {@link RideRequestService#book(Long, int)} remains the source of truth. It may be too
+ * high (another instance booked seats), which only costs a database round trip, and is evicted whenever it may be too low
+ * (a booking was rolled back or cancelled, or the ride was updated). Since seats may also be freed on another instance, a
+ * counter is reloaded once it is older than {@value #COUNTER_TTL_SECONDS} seconds: a ride is never reported sold out for
+ * longer than that after its seats are freed.
+ */
+@Component
+public class SeatInventory {
+
+    static final long COUNTER_TTL_SECONDS = 5;
+
+    private final RideRepository rideRepository;
+
+    private final LongSupplier nanoTime;
+
+    private final ConcurrentMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SeatInventory(RideRepository rideRepository) {
+        this(rideRepository, System::nanoTime);
+    }
+
+    SeatInventory(RideRepository rideRepository, LongSupplier nanoTime) {
+        this.rideRepository = rideRepository;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Take seats from the counter of a ride.
+     *
+     * @param rideId the id of the ride.
+     * @param seats the number of seats to take.
+     * @return {@code false} if the ride is known to be sold out, {@code true} if the booking may go on to the database.
+     */
+    public boolean tryAcquire(Long rideId, int seats) {
+        Counter counter = counters.get(rideId);
+        if (counter == null || nanoTime.getAsLong() - counter.loadedAt() >= TimeUnit.SECONDS.toNanos(COUNTER_TTL_SECONDS)) {
+            counter = load(rideId, counter);
+            if (counter == null) {
+                // Unknown ride, or ride without seat capacity: let the database decide.
+                return true;
+            }
+        }
+        AtomicInteger available = counter.seats();
+        int current;
+        do {
+            current = available.get();
+            if (current < seats) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - seats));
+        return true;
+    }
+
+    /**
+     * Forget the counter of a ride, so that it is reloaded from the database on the next booking.
+     *
+     * @param rideId the id of the ride.
+     */
+    public void evict(Long rideId) {
+        counters.remove(rideId);
+    }
+
+    /**
+     * Load the counter of a ride from the database, outside of any lock of the map, and install it unless another booking
+     * did so meanwhile.
+     *
+     * @return the counter to use, or {@code null} if the ride is unknown or has no seat capacity.
+     */
+    private Counter load(Long rideId, Counter stale) {
+        Optional<Integer> available = rideRepository.findAvailableSeatsById(rideId);
+        if (available.isEmpty()) {
+            if (stale != null) {
+                counters.remove(rideId, stale);
+            }
+            return null;
+        }
+        Counter loaded = new Counter(new AtomicInteger(available.orElseThrow()), nanoTime.getAsLong());
+        boolean installed = stale == null ? counters.putIfAbsent(rideId, loaded) == null : counters.replace(rideId, stale, loaded);
+        if (installed) {
+            return loaded;
+        }
+        Counter current = counters.get(rideId);
+        return current != null ? current : loaded;
+    }
+
+    private record Counter(AtomicInteger seats, long loadedAt) {}
+}
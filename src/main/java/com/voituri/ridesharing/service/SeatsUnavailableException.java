@@ -0,0 +1,10 @@
+package com.voituri.ridesharing.service;
+
+public class SeatsUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SeatsUnavailableException() {
+        super("Not enough seats available on this ride!");
+    }
+}
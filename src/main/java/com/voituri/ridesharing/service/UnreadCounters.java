@@ -0,0 +1,152 @@
+package com.voituri.ridesharing.service;
+
+import com.voituri.ridesharing.repository.MessageRepository;
+import com.voituri.ridesharing.repository.NotificationRepository;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory counters of the unread {@link com.voituri.ridesharing.domain.Notification}s of each member, and of the
+ * {@link com.voituri.ridesharing.domain.Message}s of each ride chat, so that badges are served without a database round trip.
+ * <p>
+ * Each key has its own {@link LongAdder}, so concurrent writes never contend. The writers ({@link NotificationService},
+ * {@link MessageService}, ...) report deltas, which are applied once their transaction commits. Since other instances write
+ * to the same tables, the counters are reconciled with the database when the application is ready, and then every
+ * {@value #RECONCILE_INTERVAL_MINUTES} minutes.
+ */
+@Component
+public class UnreadCounters {
+
+    static final long RECONCILE_INTERVAL_MINUTES = 5;
+
+    private final Logger log = LoggerFactory.getLogger(UnreadCounters.class);
+
+    private final NotificationRepository notificationRepository;
+
+    private final MessageRepository messageRepository;
+
+    private final ConcurrentMap<Long, LongAdder> unreadNotifications = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, LongAdder> rideMessages = new ConcurrentHashMap<>();
+
+    public UnreadCounters(NotificationRepository notificationRepository, MessageRepository messageRepository) {
+        this.notificationRepository = notificationRepository;
+        this.messageRepository = messageRepository;
+    }
+
+    /**
+     * Report a change of the number of unread notifications of a member.
+     *
+     * @param memberId the id of the member, may be {@code null}.
+     * @param delta the number of notifications that became unread, negative if they became read or were deleted.
+     */
+    public void addUnreadNotifications(Long memberId, long delta) {
+        add(unreadNotifications, memberId, delta);
+    }
+
+    /**
+     * Report a change of the number of messages of a ride.
+     *
+     * @param rideId the id of the ride, may be {@code null}.
+     * @param delta the number of new messages, negative if messages were deleted.
+     */
+    public void addRideMessages(Long rideId, long delta) {
+        add(rideMessages, rideId, delta);
+    }
+
+    /**
+     * Number of unread notifications of a member.
+     *
+     * @param memberId the id of the member.
+     * @return the number of unread notifications.
+     */
+    public long unreadNotifications(Long memberId) {
+        return get(unreadNotifications, memberId);
+    }
+
+    /**
+     * Number of messages of a ride.
+     *
+     * @param rideId the id of the ride.
+     * @return the number of messages.
+     */
+    public long rideMessages(Long rideId) {
+        return get(rideMessages, rideId);
+    }
+
+    /**
+     * Align the counters with the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+        initialDelay = RECONCILE_INTERVAL_MINUTES,
+        fixedDelay = RECONCILE_INTERVAL_MINUTES,
+        timeUnit = TimeUnit.MINUTES
+    )
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        Map<Long, Long> before = snapshot(unreadNotifications);
+        Map<Long, Long> actual = new HashMap<>();
+        notificationRepository.countUnreadByMember().forEach(count -> actual.put(count.getMemberId(), count.getCount()));
+        int fixedNotifications = reconcile(unreadNotifications, before, actual);
+
+        before = snapshot(rideMessages);
+        actual.clear();
+        messageRepository.countByRide().forEach(count -> actual.put(count.getRideId(), count.getCount()));
+        int fixedRides = reconcile(rideMessages, before, actual);
+        log.debug(
+            "Reconciled the unread counters, correcting {} member and {} ride counters, in {} ms",
+            fixedNotifications,
+            fixedRides,
+            System.currentTimeMillis() - start
+        );
+    }
+
+    private static void add(ConcurrentMap<Long, LongAdder> counters, Long key, long delta) {
+        if (key == null || delta == 0) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> counters.computeIfAbsent(key, k -> new LongAdder()).add(delta));
+    }
+
+    private static long get(ConcurrentMap<Long, LongAdder> counters, Long key) {
+        LongAdder counter = key != null ? counters.get(key) : null;
+        return counter != null ? Math.max(0, counter.sum()) : 0;
+    }
+
+    private static Map<Long, Long> snapshot(ConcurrentMap<Long, LongAdder> counters) {
+        Map<Long, Long> snapshot = new HashMap<>();
+        counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+        return snapshot;
+    }
+
+    /**
+     * Move each counter by the difference between the database and the counter as it was before the database was read, so
+     * that the deltas applied while the database was read are kept.
+     */
+    private static int reconcile(ConcurrentMap<Long, LongAdder> counters, Map<Long, Long> before, Map<Long, Long> actual) {
+        Set<Long> keys = new HashSet<>(before.keySet());
+        keys.addAll(actual.keySet());
+        int fixed = 0;
+        for (Long key : keys) {
+            long correction = actual.getOrDefault(key, 0L) - before.getOrDefault(key, 0L);
+            if (correction != 0) {
+                counters.computeIfAbsent(key, k -> new LongAdder()).add(correction);
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+}
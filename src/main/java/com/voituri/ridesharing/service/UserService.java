@@ -21,11 +21,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
  * Service class for managing users.
+ * <p>
+ * Passwords are hashed outside of any database transaction: a hash may wait in the bounded hashing queue, and it must not
+ * hold a connection of the pool while it does.
  */
 @Service
 @Transactional
@@ -41,16 +47,20 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final TransactionTemplate transactionTemplate;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        PlatformTransactionManager transactionManager
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -67,18 +77,26 @@ public class UserService {
             });
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<User> completePasswordReset(String newPassword, String key) {
         log.debug("Reset user password for reset key {}", key);
-        return userRepository
-            .findOneByResetKey(key)
-            .filter(user -> user.getResetDate().isAfter(Instant.now().minus(1, ChronoUnit.DAYS)))
-            .map(user -> {
-                user.setPassword(passwordEncoder.encode(newPassword));
+        if (transactionTemplate.execute(status -> findOneByValidResetKey(key)).isEmpty()) {
+            return Optional.empty();
+        }
+        String encryptedPassword = passwordEncoder.encode(newPassword);
+        return transactionTemplate.execute(status ->
+            findOneByValidResetKey(key).map(user -> {
+                user.setPassword(encryptedPassword);
                 user.setResetKey(null);
                 user.setResetDate(null);
                 this.clearUserCaches(user);
                 return user;
-            });
+            })
+        );
+    }
+
+    private Optional<User> findOneByValidResetKey(String key) {
+        return userRepository.findOneByResetKey(key).filter(user -> user.getResetDate().isAfter(Instant.now().minus(1, ChronoUnit.DAYS)));
     }
 
     public Optional<User> requestPasswordReset(String mail) {
@@ -93,7 +111,13 @@ public class UserService {
             });
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User registerUser(AdminUserDTO userDTO, String password) {
+        String encryptedPassword = passwordEncoder.encode(password);
+        return transactionTemplate.execute(status -> registerUserWithEncryptedPassword(userDTO, encryptedPassword));
+    }
+
+    private User registerUserWithEncryptedPassword(AdminUserDTO userDTO, String encryptedPassword) {
         userRepository
             .findOneByLogin(userDTO.getLogin().toLowerCase())
             .ifPresent(existingUser -> {
@@ -111,7 +135,6 @@ public class UserService {
                 }
             });
         User newUser = new User();
-        String encryptedPassword = passwordEncoder.encode(password);
         newUser.setLogin(userDTO.getLogin().toLowerCase());
         // new user gets initially a generated password
         newUser.setPassword(encryptedPassword);
@@ -145,7 +168,13 @@ public class UserService {
         return true;
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User createUser(AdminUserDTO userDTO) {
+        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
+        return transactionTemplate.execute(status -> createUserWithEncryptedPassword(userDTO, encryptedPassword));
+    }
+
+    private User createUserWithEncryptedPassword(AdminUserDTO userDTO, String encryptedPassword) {
         User user = new User();
         user.setLogin(userDTO.getLogin().toLowerCase());
         user.setFirstName(userDTO.getFirstName());
@@ -159,7 +188,6 @@ public class UserService {
         } else {
             user.setLangKey(userDTO.getLangKey());
         }
-        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
         user.setPassword(encryptedPassword);
         user.setResetKey(RandomUtil.generateResetKey());
         user.setResetDate(Instant.now());
@@ -254,20 +282,32 @@ public class UserService {
             });
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void changePassword(String currentClearTextPassword, String newPassword) {
-        SecurityUtils.getCurrentUserLogin()
-            .flatMap(userRepository::findOneByLogin)
-            .ifPresent(user -> {
-                String currentEncryptedPassword = user.getPassword();
-                if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
-                    throw new InvalidPasswordException();
-                }
-                String encryptedPassword = passwordEncoder.encode(newPassword);
-                user.setPassword(encryptedPassword);
-                this.clearUserCaches(user);
-                log.debug("Changed password for User: {}", user);
-            });
+        Optional<String> login = SecurityUtils.getCurrentUserLogin();
+        Optional<String> currentEncryptedPassword = transactionTemplate.execute(status ->
+            login.flatMap(userRepository::findOneByLogin).map(User::getPassword)
+        );
+        if (currentEncryptedPassword.isEmpty()) {
+            return;
+        }
+        if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword.orElseThrow())) {
+            throw new InvalidPasswordException();
+        }
+        String encryptedPassword = passwordEncoder.encode(newPassword);
+        transactionTemplate.executeWithoutResult(status ->
+            login
+                .flatMap(userRepository::findOneByLogin)
+                .ifPresent(user -> {
+                    // The current password was checked against this hash: refuse if it changed in between
+                    if (!user.getPassword().equals(currentEncryptedPassword.orElseThrow())) {
+                        throw new InvalidPasswordException();
+                    }
+                    user.setPassword(encryptedPassword);
+                    this.clearUserCaches(user);
+                    log.debug("Changed password for User: {}", user);
+                })
+        );
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,206 @@
+package com.voituri.ridesharing.service.chat;
+
+import com.voituri.ridesharing.service.dto.MessageDTO;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hub fanning out the new messages of a {@link com.voituri.ridesharing.domain.Ride} to the connections subscribed to its chat.
+ * <p>
+ * Each subscription has its own bounded queue, drained by at most one delivery thread at a time, so publishing never waits
+ * for a connection and a slow connection only delays itself. A subscription whose queue is full is cancelled and told so:
+ * its client is expected to reconnect and catch up from the message history.
+ */
+@Component
+public class RideChatHub {
+
+    /**
+     * Maximal number of messages waiting to be delivered to a subscription.
+     */
+    static final int QUEUE_CAPACITY = 256;
+
+    private static final int DELIVERY_THREADS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    private final Logger log = LoggerFactory.getLogger(RideChatHub.class);
+
+    private final ConcurrentMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    public RideChatHub() {
+        this(Executors.newFixedThreadPool(DELIVERY_THREADS, daemonThreadFactory()));
+    }
+
+    RideChatHub(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ride-chat-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Subscribe to the new messages of a ride.
+     *
+     * @param rideId the id of the ride.
+     * @param subscriber the receiver of the messages.
+     * @return the subscription, to be cancelled when the connection is closed.
+     */
+    public Subscription subscribe(long rideId, Subscriber subscriber) {
+        Subscription subscription = new Subscription(rideId, subscriber);
+        subscriptions.computeIfAbsent(rideId, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        log.debug("Subscribed to the chat of Ride {}", rideId);
+        return subscription;
+    }
+
+    /**
+     * Queue a message for delivery to the subscribers of its ride.
+     *
+     * @param message the message, with its ride.
+     */
+    public void publish(MessageDTO message) {
+        if (message.getRide() == null || message.getRide().getId() == null) {
+            return;
+        }
+        Set<Subscription> rideSubscriptions = subscriptions.get(message.getRide().getId());
+        if (rideSubscriptions != null) {
+            for (Subscription subscription : rideSubscriptions) {
+                subscription.offer(message);
+            }
+        }
+    }
+
+    /**
+     * Number of live subscriptions, for all the rides.
+     *
+     * @return the number of subscriptions.
+     */
+    public int size() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.rideId, (key, rideSubscriptions) -> {
+            rideSubscriptions.remove(subscription);
+            return rideSubscriptions.isEmpty() ? null : rideSubscriptions;
+        });
+    }
+
+    /**
+     * Receiver of the messages of a ride chat, typically a client connection.
+     */
+    public interface Subscriber {
+        /**
+         * Deliver a message. Called by one thread at a time, in publication order.
+         *
+         * @param message the message.
+         * @throws Exception if the message cannot be delivered; the subscription is then cancelled.
+         */
+        void deliver(MessageDTO message) throws Exception;
+
+        /**
+         * Called once when the subscription is cancelled because messages were published faster than they were delivered.
+         */
+        void overflow();
+    }
+
+    /**
+     * A subscription to the chat of a ride.
+     */
+    public final class Subscription {
+
+        private final long rideId;
+
+        private final Subscriber subscriber;
+
+        private final Queue<MessageDTO> queue = new ArrayDeque<>();
+
+        private boolean draining;
+
+        private boolean cancelled;
+
+        private Subscription(long rideId, Subscriber subscriber) {
+            this.rideId = rideId;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Stop receiving messages. Messages still queued are dropped.
+         */
+        public void cancel() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                queue.clear();
+            }
+            unregister(this);
+        }
+
+        private void offer(MessageDTO message) {
+            boolean overflow = false;
+            boolean schedule = false;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (queue.size() >= QUEUE_CAPACITY) {
+                    overflow = true;
+                } else {
+                    queue.add(message);
+                    schedule = !draining;
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                log.debug("Chat subscription to Ride {} is too slow, cancelling it", rideId);
+                cancel();
+                subscriber.overflow();
+            } else if (schedule) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    cancel();
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                MessageDTO message;
+                synchronized (this) {
+                    message = cancelled ? null : queue.poll();
+                    if (message == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    subscriber.deliver(message);
+                } catch (Exception e) {
+                    log.debug("Could not deliver a chat message of Ride {}: {}", rideId, e.getMessage());
+                    cancel();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * In-process fan-out of the ride chat messages to their live subscribers.
+ */
+package com.voituri.ridesharing.service.chat;
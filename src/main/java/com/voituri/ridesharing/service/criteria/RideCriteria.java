@@ -0,0 +1,485 @@
+package com.voituri.ridesharing.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+import org.springdoc.core.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.voituri.ridesharing.domain.Ride} entity. This class is used
+ * in {@link com.voituri.ridesharing.web.rest.RideResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /rides?id.greaterThan=5&attr1.contains=something&attr2.specified=false}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class RideCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter startLocation;
+
+    private StringFilter endLocation;
+
+    private ZonedDateTimeFilter startTime;
+
+    private ZonedDateTimeFilter endTime;
+
+    private BooleanFilter recurring;
+
+    private DoubleFilter startLatitude;
+
+    private DoubleFilter startLongitude;
+
+    private DoubleFilter endLatitude;
+
+    private DoubleFilter endLongitude;
+
+    private IntegerFilter availableSeats;
+
+    private StringFilter recurrenceDays;
+
+    private LocalDateFilter recurrenceUntil;
+
+    private LongFilter requestsId;
+
+    private LongFilter messagesId;
+
+    private LongFilter memberId;
+
+    private Boolean distinct;
+
+    public RideCriteria() {}
+
+    public RideCriteria(RideCriteria other) {
+        this.id = other.optionalId().map(LongFilter::copy).orElse(null);
+        this.startLocation = other.optionalStartLocation().map(StringFilter::copy).orElse(null);
+        this.endLocation = other.optionalEndLocation().map(StringFilter::copy).orElse(null);
+        this.startTime = other.optionalStartTime().map(ZonedDateTimeFilter::copy).orElse(null);
+        this.endTime = other.optionalEndTime().map(ZonedDateTimeFilter::copy).orElse(null);
+        this.recurring = other.optionalRecurring().map(BooleanFilter::copy).orElse(null);
+        this.startLatitude = other.optionalStartLatitude().map(DoubleFilter::copy).orElse(null);
+        this.startLongitude = other.optionalStartLongitude().map(DoubleFilter::copy).orElse(null);
+        this.endLatitude = other.optionalEndLatitude().map(DoubleFilter::copy).orElse(null);
+        this.endLongitude = other.optionalEndLongitude().map(DoubleFilter::copy).orElse(null);
+        this.availableSeats = other.optionalAvailableSeats().map(IntegerFilter::copy).orElse(null);
+        this.recurrenceDays = other.optionalRecurrenceDays().map(StringFilter::copy).orElse(null);
+        this.recurrenceUntil = other.optionalRecurrenceUntil().map(LocalDateFilter::copy).orElse(null);
+        this.requestsId = other.optionalRequestsId().map(LongFilter::copy).orElse(null);
+        this.messagesId = other.optionalMessagesId().map(LongFilter::copy).orElse(null);
+        this.memberId = other.optionalMemberId().map(LongFilter::copy).orElse(null);
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public RideCriteria copy() {
+        return new RideCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public Optional<LongFilter> optionalId() {
+        return Optional.ofNullable(id);
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            setId(new LongFilter());
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getStartLocation() {
+        return startLocation;
+    }
+
+    public Optional<StringFilter> optionalStartLocation() {
+        return Optional.ofNullable(startLocation);
+    }
+
+    public StringFilter startLocation() {
+        if (startLocation == null) {
+            setStartLocation(new StringFilter());
+        }
+        return startLocation;
+    }
+
+    public void setStartLocation(StringFilter startLocation) {
+        this.startLocation = startLocation;
+    }
+
+    public StringFilter getEndLocation() {
+        return endLocation;
+    }
+
+    public Optional<StringFilter> optionalEndLocation() {
+        return Optional.ofNullable(endLocation);
+    }
+
+    public StringFilter endLocation() {
+        if (endLocation == null) {
+            setEndLocation(new StringFilter());
+        }
+        return endLocation;
+    }
+
+    public void setEndLocation(StringFilter endLocation) {
+        this.endLocation = endLocation;
+    }
+
+    public ZonedDateTimeFilter getStartTime() {
+        return startTime;
+    }
+
+    public Optional<ZonedDateTimeFilter> optionalStartTime() {
+        return Optional.ofNullable(startTime);
+    }
+
+    public ZonedDateTimeFilter startTime() {
+        if (startTime == null) {
+            setStartTime(new ZonedDateTimeFilter());
+        }
+        return startTime;
+    }
+
+    public void setStartTime(ZonedDateTimeFilter startTime) {
+        this.startTime = startTime;
+    }
+
+    public ZonedDateTimeFilter getEndTime() {
+        return endTime;
+    }
+
+    public Optional<ZonedDateTimeFilter> optionalEndTime() {
+        return Optional.ofNullable(endTime);
+    }
+
+    public ZonedDateTimeFilter endTime() {
+        if (endTime == null) {
+            setEndTime(new ZonedDateTimeFilter());
+        }
+        return endTime;
+    }
+
+    public void setEndTime(ZonedDateTimeFilter endTime) {
+        this.endTime = endTime;
+    }
+
+    public BooleanFilter getRecurring() {
+        return recurring;
+    }
+
+    public Optional<BooleanFilter> optionalRecurring() {
+        return Optional.ofNullable(recurring);
+    }
+
+    public BooleanFilter recurring() {
+        if (recurring == null) {
+            setRecurring(new BooleanFilter());
+        }
+        return recurring;
+    }
+
+    public void setRecurring(BooleanFilter recurring) {
+        this.recurring = recurring;
+    }
+
+    public DoubleFilter getStartLatitude() {
+        return startLatitude;
+    }
+
+    public Optional<DoubleFilter> optionalStartLatitude() {
+        return Optional.ofNullable(startLatitude);
+    }
+
+    public DoubleFilter startLatitude() {
+        if (startLatitude == null) {
+            setStartLatitude(new DoubleFilter());
+        }
+        return startLatitude;
+    }
+
+    public void setStartLatitude(DoubleFilter startLatitude) {
+        this.startLatitude = startLatitude;
+    }
+
+    public DoubleFilter getStartLongitude() {
+        return startLongitude;
+    }
+
+    public Optional<DoubleFilter> optionalStartLongitude() {
+        return Optional.ofNullable(startLongitude);
+    }
+
+    public DoubleFilter startLongitude() {
+        if (startLongitude == null) {
+            setStartLongitude(new DoubleFilter());
+        }
+        return startLongitude;
+    }
+
+    public void setStartLongitude(DoubleFilter startLongitude) {
+        this.startLongitude = startLongitude;
+    }
+
+    public DoubleFilter getEndLatitude() {
+        return endLatitude;
+    }
+
+    public Optional<DoubleFilter> optionalEndLatitude() {
+        return Optional.ofNullable(endLatitude);
+    }
+
+    public DoubleFilter endLatitude() {
+        if (endLatitude == null) {
+            setEndLatitude(new DoubleFilter());
+        }
+        return endLatitude;
+    }
+
+    public void setEndLatitude(DoubleFilter endLatitude) {
+        this.endLatitude = endLatitude;
+    }
+
+    public DoubleFilter getEndLongitude() {
+        return endLongitude;
+    }
+
+    public Optional<DoubleFilter> optionalEndLongitude() {
+        return Optional.ofNullable(endLongitude);
+    }
+
+    public DoubleFilter endLongitude() {
+        if (endLongitude == null) {
+            setEndLongitude(new DoubleFilter());
+        }
+        return endLongitude;
+    }
+
+    public void setEndLongitude(DoubleFilter endLongitude) {
+        this.endLongitude = endLongitude;
+    }
+
+    public IntegerFilter getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public Optional<IntegerFilter> optionalAvailableSeats() {
+        return Optional.ofNullable(availableSeats);
+    }
+
+    public IntegerFilter availableSeats() {
+        if (availableSeats == null) {
+            setAvailableSeats(new IntegerFilter());
+        }
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(IntegerFilter availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+
+    public StringFilter getRecurrenceDays() {
+        return recurrenceDays;
+    }
+
+    public Optional<StringFilter> optionalRecurrenceDays() {
+        return Optional.ofNullable(recurrenceDays);
+    }
+
+    public StringFilter recurrenceDays() {
+        if (recurrenceDays == null) {
+            setRecurrenceDays(new StringFilter());
+        }
+        return recurrenceDays;
+    }
+
+    public void setRecurrenceDays(StringFilter recurrenceDays) {
+        this.recurrenceDays = recurrenceDays;
+    }
+
+    public LocalDateFilter getRecurrenceUntil() {
+        return recurrenceUntil;
+    }
+
+    public Optional<LocalDateFilter> optionalRecurrenceUntil() {
+        return Optional.ofNullable(recurrenceUntil);
+    }
+
+    public LocalDateFilter recurrenceUntil() {
+        if (recurrenceUntil == null) {
+            setRecurrenceUntil(new LocalDateFilter());
+        }
+        return recurrenceUntil;
+    }
+
+    public void setRecurrenceUntil(LocalDateFilter recurrenceUntil) {
+        this.recurrenceUntil = recurrenceUntil;
+    }
+
+    public LongFilter getRequestsId() {
+        return requestsId;
+    }
+
+    public Optional<LongFilter> optionalRequestsId() {
+        return Optional.ofNullable(requestsId);
+    }
+
+    public LongFilter requestsId() {
+        if (requestsId == null) {
+            setRequestsId(new LongFilter());
+        }
+        return requestsId;
+    }
+
+    public void setRequestsId(LongFilter requestsId) {
+        this.requestsId = requestsId;
+    }
+
+    public LongFilter getMessagesId() {
+        return messagesId;
+    }
+
+    public Optional<LongFilter> optionalMessagesId() {
+        return Optional.ofNullable(messagesId);
+    }
+
+    public LongFilter messagesId() {
+        if (messagesId == null) {
+            setMessagesId(new LongFilter());
+        }
+        return messagesId;
+    }
+
+    public void setMessagesId(LongFilter messagesId) {
+        this.messagesId = messagesId;
+    }
+
+    public LongFilter getMemberId() {
+        return memberId;
+    }
+
+    public Optional<LongFilter> optionalMemberId() {
+        return Optional.ofNullable(memberId);
+    }
+
+    public LongFilter memberId() {
+        if (memberId == null) {
+            setMemberId(new LongFilter());
+        }
+        return memberId;
+    }
+
+    public void setMemberId(LongFilter memberId) {
+        this.memberId = memberId;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public Optional<Boolean> optionalDistinct() {
+        return Optional.ofNullable(distinct);
+    }
+
+    public Boolean distinct() {
+        if (distinct == null) {
+            setDistinct(true);
+        }
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final RideCriteria that = (RideCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(startLocation, that.startLocation) &&
+            Objects.equals(endLocation, that.endLocation) &&
+            Objects.equals(startTime, that.startTime) &&
+            Objects.equals(endTime, that.endTime) &&
+            Objects.equals(recurring, that.recurring) &&
+            Objects.equals(startLatitude, that.startLatitude) &&
+            Objects.equals(startLongitude, that.startLongitude) &&
+            Objects.equals(endLatitude, that.endLatitude) &&
+            Objects.equals(endLongitude, that.endLongitude) &&
+            Objects.equals(availableSeats, that.availableSeats) &&
+            Objects.equals(recurrenceDays, that.recurrenceDays) &&
+            Objects.equals(recurrenceUntil, that.recurrenceUntil) &&
+            Objects.equals(requestsId, that.requestsId) &&
+            Objects.equals(messagesId, that.messagesId) &&
+            Objects.equals(memberId, that.memberId) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+            id,
+            startLocation,
+            endLocation,
+            startTime,
+            endTime,
+            recurring,
+            startLatitude,
+            startLongitude,
+            endLatitude,
+            endLongitude,
+            availableSeats,
+            recurrenceDays,
+            recurrenceUntil,
+            requestsId,
+            messagesId,
+            memberId,
+            distinct
+        );
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RideCriteria{" +
+            optionalId().map(f -> "id=" + f + ", ").orElse("") +
+            optionalStartLocation().map(f -> "startLocation=" + f + ", ").orElse("") +
+            optionalEndLocation().map(f -> "endLocation=" + f + ", ").orElse("") +
+            optionalStartTime().map(f -> "startTime=" + f + ", ").orElse("") +
+            optionalEndTime().map(f -> "endTime=" + f + ", ").orElse("") +
+            optionalRecurring().map(f -> "recurring=" + f + ", ").orElse("") +
+            optionalStartLatitude().map(f -> "startLatitude=" + f + ", ").orElse("") +
+            optionalStartLongitude().map(f -> "startLongitude=" + f + ", ").orElse("") +
+            optionalEndLatitude().map(f -> "endLatitude=" + f + ", ").orElse("") +
+            optionalEndLongitude().map(f -> "endLongitude=" + f + ", ").orElse("") +
+            optionalAvailableSeats().map(f -> "availableSeats=" + f + ", ").orElse("") +
+            optionalRecurrenceDays().map(f -> "recurrenceDays=" + f + ", ").orElse("") +
+            optionalRecurrenceUntil().map(f -> "recurrenceUntil=" + f + ", ").orElse("") +
+            optionalRequestsId().map(f -> "requestsId=" + f + ", ").orElse("") +
+            optionalMessagesId().map(f -> "messagesId=" + f + ", ").orElse("") +
+            optionalMemberId().map(f -> "memberId=" + f + ", ").orElse("") +
+            optionalDistinct().map(f -> "distinct=" + f + ", ").orElse("") +
+        "}";
+    }
+}
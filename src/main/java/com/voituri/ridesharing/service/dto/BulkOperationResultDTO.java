@@ -0,0 +1,35 @@
+package com.voituri.ridesharing.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the outcome of a bulk operation: the number of entities it affected.
+ */
+public class BulkOperationResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int count;
+
+    public BulkOperationResultDTO() {}
+
+    public BulkOperationResultDTO(int count) {
+        this.count = count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkOperationResultDTO{" +
+            "count=" + getCount() +
+            "}";
+    }
+}
@@ -0,0 +1,101 @@
+package com.voituri.ridesharing.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for a driver ranked on the leaderboard.
+ */
+public class LeaderboardEntryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int rank;
+
+    private Long memberId;
+
+    private String login;
+
+    private double score;
+
+    private long ratingCount;
+
+    private Double meanRating;
+
+    private long completedRides;
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public Long getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(Long memberId) {
+        this.memberId = memberId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    /**
+     * Bayesian-adjusted rating: the mean rating, pulled towards the mean of all ratings when the driver has few of them.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    /**
+     * Raw mean rating, {@code null} if the driver was never rated.
+     */
+    public Double getMeanRating() {
+        return meanRating;
+    }
+
+    public void setMeanRating(Double meanRating) {
+        this.meanRating = meanRating;
+    }
+
+    public long getCompletedRides() {
+        return completedRides;
+    }
+
+    public void setCompletedRides(long completedRides) {
+        this.completedRides = completedRides;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LeaderboardEntryDTO{" +
+            "rank=" + getRank() +
+            ", memberId=" + getMemberId() +
+            ", login='" + getLogin() + "'" +
+            ", score=" + getScore() +
+            ", ratingCount=" + getRatingCount() +
+            ", meanRating=" + getMeanRating() +
+            ", completedRides=" + getCompletedRides() +
+            "}";
+    }
+}
@@ -0,0 +1,66 @@
+package com.voituri.ridesharing.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO representing a location name suggested for the endpoints of a {@link com.voituri.ridesharing.domain.Ride}.
+ */
+public class LocationSuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String location;
+
+    private long rides;
+
+    public LocationSuggestionDTO() {}
+
+    public LocationSuggestionDTO(String location, long rides) {
+        this.location = location;
+        this.rides = rides;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public long getRides() {
+        return rides;
+    }
+
+    public void setRides(long rides) {
+        this.rides = rides;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LocationSuggestionDTO)) {
+            return false;
+        }
+
+        LocationSuggestionDTO that = (LocationSuggestionDTO) o;
+        return rides == that.rides && Objects.equals(location, that.location);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(location, rides);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LocationSuggestionDTO{" +
+            "location='" + getLocation() + "'" +
+            ", rides=" + getRides() +
+            "}";
+    }
+}
@@ -27,6 +27,8 @@ public class MemberDTO implements Serializable {
 
     private ProfileDTO profile;
 
+    private ReputationDTO reputation;
+
     public Long getId() {
         return id;
     }
@@ -75,6 +77,14 @@ public class MemberDTO implements Serializable {
         this.profile = profile;
     }
 
+    public ReputationDTO getReputation() {
+        return reputation;
+    }
+
+    public void setReputation(ReputationDTO reputation) {
+        this.reputation = reputation;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -106,6 +116,7 @@ public class MemberDTO implements Serializable {
             ", email='" + getEmail() + "'" +
             ", activated='" + getActivated() + "'" +
             ", profile=" + getProfile() +
+            ", reputation=" + getReputation() +
             "}";
     }
 }
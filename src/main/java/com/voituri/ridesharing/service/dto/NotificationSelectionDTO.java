@@ -0,0 +1,65 @@
+package com.voituri.ridesharing.service.dto;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO selecting notifications of the current member for a bulk operation: the given ones, the ones sent before a given
+ * time, or both criteria combined. An empty selection selects all the notifications.
+ */
+public class NotificationSelectionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> ids;
+
+    private ZonedDateTime before;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public ZonedDateTime getBefore() {
+        return before;
+    }
+
+    public void setBefore(ZonedDateTime before) {
+        this.before = before;
+    }
+
+    public boolean isEmpty() {
+        return ids == null && before == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NotificationSelectionDTO)) {
+            return false;
+        }
+        NotificationSelectionDTO that = (NotificationSelectionDTO) o;
+        return Objects.equals(ids, that.ids) && Objects.equals(before, that.before);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ids, before);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NotificationSelectionDTO{" +
+            "ids=" + getIds() +
+            ", before='" + getBefore() + "'" +
+            "}";
+    }
+}
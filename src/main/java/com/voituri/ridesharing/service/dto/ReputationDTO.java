@@ -0,0 +1,81 @@
+package com.voituri.ridesharing.service.dto;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A DTO for the reputation of a {@link com.voituri.ridesharing.domain.Member}: the aggregates of the ratings they received.
+ */
+public class ReputationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long memberId;
+
+    private long ratingCount;
+
+    private long scoreSum;
+
+    private Double mean;
+
+    private Map<Integer, Long> histogram = new LinkedHashMap<>();
+
+    public Long getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(Long memberId) {
+        this.memberId = memberId;
+    }
+
+    public long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    /**
+     * Mean score, {@code null} if the member was never rated.
+     */
+    public Double getMean() {
+        return mean;
+    }
+
+    public void setMean(Double mean) {
+        this.mean = mean;
+    }
+
+    /**
+     * Number of ratings per score, from {@code 1} to {@code 5}.
+     */
+    public Map<Integer, Long> getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(Map<Integer, Long> histogram) {
+        this.histogram = histogram;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReputationDTO{" +
+            "memberId=" + getMemberId() +
+            ", ratingCount=" + getRatingCount() +
+            ", scoreSum=" + getScoreSum() +
+            ", mean=" + getMean() +
+            ", histogram=" + getHistogram() +
+            "}";
+    }
+}
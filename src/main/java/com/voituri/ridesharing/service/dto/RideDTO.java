@@ -2,6 +2,7 @@ package com.voituri.ridesharing.service.dto;
 
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.Objects;
 
@@ -26,6 +27,31 @@ public class RideDTO implements Serializable {
 
     private Boolean recurring;
 
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    private Double startLatitude;
+
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    private Double startLongitude;
+
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    private Double endLatitude;
+
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    private Double endLongitude;
+
+    @Min(value = 0)
+    private Integer availableSeats;
+
+    @Size(max = 27)
+    @Pattern(regexp = "^(MON|TUE|WED|THU|FRI|SAT|SUN)(,(MON|TUE|WED|THU|FRI|SAT|SUN))*$")
+    private String recurrenceDays;
+
+    private LocalDate recurrenceUntil;
+
     private MemberDTO member;
 
     public Long getId() {
@@ -76,6 +102,62 @@ public class RideDTO implements Serializable {
         this.recurring = recurring;
     }
 
+    public Double getStartLatitude() {
+        return startLatitude;
+    }
+
+    public void setStartLatitude(Double startLatitude) {
+        this.startLatitude = startLatitude;
+    }
+
+    public Double getStartLongitude() {
+        return startLongitude;
+    }
+
+    public void setStartLongitude(Double startLongitude) {
+        this.startLongitude = startLongitude;
+    }
+
+    public Double getEndLatitude() {
+        return endLatitude;
+    }
+
+    public void setEndLatitude(Double endLatitude) {
+        this.endLatitude = endLatitude;
+    }
+
+    public Double getEndLongitude() {
+        return endLongitude;
+    }
+
+    public void setEndLongitude(Double endLongitude) {
+        this.endLongitude = endLongitude;
+    }
+
+    public Integer getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(Integer availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+
+    public String getRecurrenceDays() {
+        return recurrenceDays;
+    }
+
+    public void setRecurrenceDays(String recurrenceDays) {
+        this.recurrenceDays = recurrenceDays;
+    }
+
+    public LocalDate getRecurrenceUntil() {
+        return recurrenceUntil;
+    }
+
+    public void setRecurrenceUntil(LocalDate recurrenceUntil) {
+        this.recurrenceUntil = recurrenceUntil;
+    }
+
     public MemberDTO getMember() {
         return member;
     }
@@ -115,6 +197,13 @@ public class RideDTO implements Serializable {
             ", startTime='" + getStartTime() + "'" +
             ", endTime='" + getEndTime() + "'" +
             ", recurring='" + getRecurring() + "'" +
+            ", startLatitude=" + getStartLatitude() +
+            ", startLongitude=" + getStartLongitude() +
+            ", endLatitude=" + getEndLatitude() +
+            ", endLongitude=" + getEndLongitude() +
+            ", availableSeats=" + getAvailableSeats() +
+            ", recurrenceDays='" + getRecurrenceDays() + "'" +
+            ", recurrenceUntil='" + getRecurrenceUntil() + "'" +
             ", member=" + getMember() +
             "}";
     }
@@ -0,0 +1,85 @@
+package com.voituri.ridesharing.service.dto;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * A DTO representing a candidate {@link com.voituri.ridesharing.domain.Ride} for a trip, with its matching score.
+ */
+public class RideMatchDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private RideDTO ride;
+
+    private double score;
+
+    private double corridorOverlap;
+
+    private double pickupDistanceKm;
+
+    private double dropoffDistanceKm;
+
+    private ZonedDateTime estimatedPickupTime;
+
+    public RideDTO getRide() {
+        return ride;
+    }
+
+    public void setRide(RideDTO ride) {
+        this.ride = ride;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public double getCorridorOverlap() {
+        return corridorOverlap;
+    }
+
+    public void setCorridorOverlap(double corridorOverlap) {
+        this.corridorOverlap = corridorOverlap;
+    }
+
+    public double getPickupDistanceKm() {
+        return pickupDistanceKm;
+    }
+
+    public void setPickupDistanceKm(double pickupDistanceKm) {
+        this.pickupDistanceKm = pickupDistanceKm;
+    }
+
+    public double getDropoffDistanceKm() {
+        return dropoffDistanceKm;
+    }
+
+    public void setDropoffDistanceKm(double dropoffDistanceKm) {
+        this.dropoffDistanceKm = dropoffDistanceKm;
+    }
+
+    public ZonedDateTime getEstimatedPickupTime() {
+        return estimatedPickupTime;
+    }
+
+    public void setEstimatedPickupTime(ZonedDateTime estimatedPickupTime) {
+        this.estimatedPickupTime = estimatedPickupTime;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RideMatchDTO{" +
+            "ride=" + getRide() +
+            ", score=" + getScore() +
+            ", corridorOverlap=" + getCorridorOverlap() +
+            ", pickupDistanceKm=" + getPickupDistanceKm() +
+            ", dropoffDistanceKm=" + getDropoffDistanceKm() +
+            ", estimatedPickupTime='" + getEstimatedPickupTime() + "'" +
+            "}";
+    }
+}
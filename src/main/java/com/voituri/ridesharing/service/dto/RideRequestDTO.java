@@ -19,8 +19,13 @@ public class RideRequestDTO implements Serializable {
     @NotNull
     private ZonedDateTime requestTime;
 
+    @Min(value = 1)
+    private Integer seats;
+
     private RideDTO ride;
 
+    private MemberDTO member;
+
     public Long getId() {
         return id;
     }
@@ -45,6 +50,14 @@ public class RideRequestDTO implements Serializable {
         this.requestTime = requestTime;
     }
 
+    public Integer getSeats() {
+        return seats;
+    }
+
+    public void setSeats(Integer seats) {
+        this.seats = seats;
+    }
+
     public RideDTO getRide() {
         return ride;
     }
@@ -53,6 +66,14 @@ public class RideRequestDTO implements Serializable {
         this.ride = ride;
     }
 
+    public MemberDTO getMember() {
+        return member;
+    }
+
+    public void setMember(MemberDTO member) {
+        this.member = member;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -81,7 +102,9 @@ public class RideRequestDTO implements Serializable {
             "id=" + getId() +
             ", status='" + getStatus() + "'" +
             ", requestTime='" + getRequestTime() + "'" +
+            ", seats=" + getSeats() +
             ", ride=" + getRide() +
+            ", member=" + getMember() +
             "}";
     }
 }
@@ -0,0 +1,167 @@
+package com.voituri.ridesharing.service.dto;
+
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.voituri.ridesharing.domain.SavedSearch} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SavedSearchDTO implements Serializable {
+
+    private Long id;
+
+    @Size(max = 100)
+    private String name;
+
+    @NotNull
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    private Double fromLatitude;
+
+    @NotNull
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    private Double fromLongitude;
+
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    private Double toLatitude;
+
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    private Double toLongitude;
+
+    @NotNull
+    @DecimalMin(value = "0.1")
+    @DecimalMax(value = "25")
+    private Double radiusKm;
+
+    @NotNull
+    private ZonedDateTime departAfter;
+
+    @NotNull
+    private ZonedDateTime departBefore;
+
+    private MemberDTO member;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getFromLatitude() {
+        return fromLatitude;
+    }
+
+    public void setFromLatitude(Double fromLatitude) {
+        this.fromLatitude = fromLatitude;
+    }
+
+    public Double getFromLongitude() {
+        return fromLongitude;
+    }
+
+    public void setFromLongitude(Double fromLongitude) {
+        this.fromLongitude = fromLongitude;
+    }
+
+    public Double getToLatitude() {
+        return toLatitude;
+    }
+
+    public void setToLatitude(Double toLatitude) {
+        this.toLatitude = toLatitude;
+    }
+
+    public Double getToLongitude() {
+        return toLongitude;
+    }
+
+    public void setToLongitude(Double toLongitude) {
+        this.toLongitude = toLongitude;
+    }
+
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(Double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+
+    public ZonedDateTime getDepartAfter() {
+        return departAfter;
+    }
+
+    public void setDepartAfter(ZonedDateTime departAfter) {
+        this.departAfter = departAfter;
+    }
+
+    public ZonedDateTime getDepartBefore() {
+        return departBefore;
+    }
+
+    public void setDepartBefore(ZonedDateTime departBefore) {
+        this.departBefore = departBefore;
+    }
+
+    public MemberDTO getMember() {
+        return member;
+    }
+
+    public void setMember(MemberDTO member) {
+        this.member = member;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SavedSearchDTO)) {
+            return false;
+        }
+
+        SavedSearchDTO savedSearchDTO = (SavedSearchDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, savedSearchDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SavedSearchDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", fromLatitude=" + getFromLatitude() +
+            ", fromLongitude=" + getFromLongitude() +
+            ", toLatitude=" + getToLatitude() +
+            ", toLongitude=" + getToLongitude() +
+            ", radiusKm=" + getRadiusKm() +
+            ", departAfter='" + getDepartAfter() + "'" +
+            ", departBefore='" + getDepartBefore() + "'" +
+            ", member=" + getMember() +
+            "}";
+    }
+}
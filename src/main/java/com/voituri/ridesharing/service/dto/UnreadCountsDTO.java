@@ -0,0 +1,62 @@
+package com.voituri.ridesharing.service.dto;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A DTO representing the badge counts of the current member: its unread notifications, and the number of messages of the
+ * ride chats it follows.
+ */
+public class UnreadCountsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long notifications;
+
+    private Map<Long, Long> rideMessages = new LinkedHashMap<>();
+
+    public long getNotifications() {
+        return notifications;
+    }
+
+    public void setNotifications(long notifications) {
+        this.notifications = notifications;
+    }
+
+    public Map<Long, Long> getRideMessages() {
+        return rideMessages;
+    }
+
+    public void setRideMessages(Map<Long, Long> rideMessages) {
+        this.rideMessages = rideMessages;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UnreadCountsDTO)) {
+            return false;
+        }
+
+        UnreadCountsDTO that = (UnreadCountsDTO) o;
+        return notifications == that.notifications && Objects.equals(rideMessages, that.rideMessages);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(notifications, rideMessages);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UnreadCountsDTO{" +
+            "notifications=" + getNotifications() +
+            ", rideMessages=" + getRideMessages() +
+            "}";
+    }
+}
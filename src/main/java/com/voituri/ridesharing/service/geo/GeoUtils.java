@@ -0,0 +1,48 @@
+package com.voituri.ridesharing.service.geo;
+
+/**
+ * Utility class for great-circle computations on WGS84 coordinates.
+ */
+public final class GeoUtils {
+
+    /**
+     * Mean Earth radius, in kilometers.
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /**
+     * Length of one degree of latitude, in kilometers.
+     */
+    public static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private GeoUtils() {}
+
+    /**
+     * Compute the haversine distance between two points.
+     *
+     * @param lat1 the latitude of the first point, in degrees.
+     * @param lon1 the longitude of the first point, in degrees.
+     * @param lat2 the latitude of the second point, in degrees.
+     * @param lon2 the longitude of the second point, in degrees.
+     * @return the distance in kilometers.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Check that a latitude/longitude pair is present and within the WGS84 bounds.
+     *
+     * @param lat the latitude, in degrees.
+     * @param lon the longitude, in degrees.
+     * @return {@code true} if both values are usable for distance computations.
+     */
+    public static boolean isValid(Double lat, Double lon) {
+        return lat != null && lon != null && lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180;
+    }
+}
@@ -0,0 +1,407 @@
+package com.voituri.ridesharing.service.geo;
+
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.recurrence.RideRecurrence;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory interval tree over the {@code [startTime, endTime]} interval of the geocoded {@link Ride}s.
+ * <p>
+ * The tree is a treap ordered by start time, where each node also keeps the latest end time of its subtree, so that an
+ * overlap query only descends into subtrees that can contain a match: it costs {@code O(log n + k)} for {@code k} results.
+ * A ride without end time is indexed as an instant, and a recurring ride spans from its first departure to the end of
+ * its last occurrence. Each entry carries the ride endpoints and recurrence rule, so that the caller can run its route and
+ * occurrence checks without loading the rides.
+ * <p>
+ * A recurring ride without end date would span forever and defeat the pruning of every subtree holding it, so it is kept
+ * out of the tree, in buckets by day of week of its departures. It is returned for any window holding one of its days,
+ * give or take the largest zone offset and its duration, and the caller checks its actual occurrences.
+ * <p>
+ * The index is loaded from the database once the application is ready and is kept up to date by
+ * {@link com.voituri.ridesharing.service.RideService}.
+ */
+@Component
+public class RideIntervalIndex {
+
+    private final Logger log = LoggerFactory.getLogger(RideIntervalIndex.class);
+
+    private final RideRepository rideRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, RideInterval> entries = new HashMap<>();
+
+    private final Map<DayOfWeek, Map<Long, RideInterval>> openEndedByDay = new EnumMap<>(DayOfWeek.class);
+
+    private long openEndedMaxDuration;
+
+    private Node root;
+
+    public RideIntervalIndex(RideRepository rideRepository) {
+        this.rideRepository = rideRepository;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            openEndedByDay.put(day, new HashMap<>());
+        }
+    }
+
+    /**
+     * Load every geocoded ride into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            root = null;
+            entries.clear();
+            openEndedByDay.values().forEach(Map::clear);
+            openEndedMaxDuration = 0;
+            for (Ride ride : rideRepository.findAllByStartLatitudeNotNullAndStartLongitudeNotNull()) {
+                RideInterval entry = toInterval(
+                    ride.getId(),
+                    ride.getStartTime(),
+                    ride.getEndTime(),
+                    ride.getStartLatitude(),
+                    ride.getStartLongitude(),
+                    ride.getEndLatitude(),
+                    ride.getEndLongitude(),
+                    RideRecurrence.of(
+                        ride.getRecurring(),
+                        ride.getStartTime(),
+                        ride.getEndTime(),
+                        ride.getRecurrenceDays(),
+                        ride.getRecurrenceUntil()
+                    )
+                );
+                if (entry != null) {
+                    entries.put(entry.id(), entry);
+                    add(entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} ride intervals in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Add or replace a ride in the index. A ride without start time or without geocoded endpoints is removed from the index.
+     *
+     * @param ride the ride to index.
+     */
+    public void put(RideDTO ride) {
+        if (ride.getId() == null) {
+            return;
+        }
+        RideInterval entry = toInterval(
+            ride.getId(),
+            ride.getStartTime(),
+            ride.getEndTime(),
+            ride.getStartLatitude(),
+            ride.getStartLongitude(),
+            ride.getEndLatitude(),
+            ride.getEndLongitude(),
+            RideRecurrence.of(ride.getRecurring(), ride.getStartTime(), ride.getEndTime(), ride.getRecurrenceDays(), ride.getRecurrenceUntil())
+        );
+        lock.writeLock().lock();
+        try {
+            RideInterval previous = entry != null ? entries.put(entry.id(), entry) : entries.remove(ride.getId());
+            if (previous != null) {
+                delete(previous);
+            }
+            if (entry != null) {
+                add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a ride from the index.
+     *
+     * @param id the id of the ride.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            RideInterval previous = entries.remove(id);
+            if (previous != null) {
+                delete(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the rides whose interval overlaps {@code [from, to]}, along with the recurring rides without end date which may
+     * leave in that window.
+     *
+     * @param from the start of the window.
+     * @param to the end of the window.
+     * @return the overlapping rides, ordered by start time.
+     */
+    public List<RideInterval> overlapping(ZonedDateTime from, ZonedDateTime to) {
+        List<RideInterval> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            collect(root, from.toEpochSecond(), to.toEpochSecond(), result);
+            if (collectOpenEnded(from.toEpochSecond(), to.toEpochSecond(), result)) {
+                result.sort(RideIntervalIndex::compare);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Number of rides currently held by the index.
+     *
+     * @return the number of indexed rides.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static RideInterval toInterval(
+        Long id,
+        ZonedDateTime startTime,
+        ZonedDateTime endTime,
+        Double startLat,
+        Double startLon,
+        Double endLat,
+        Double endLon,
+        RideRecurrence recurrence
+    ) {
+        if (startTime == null || !GeoUtils.isValid(startLat, startLon) || !GeoUtils.isValid(endLat, endLon)) {
+            return null;
+        }
+        long start = startTime.toEpochSecond();
+        long end = endTime != null ? Math.max(start, endTime.toEpochSecond()) : start;
+        if (recurrence != null) {
+            end = Math.max(end, recurrence.lastEnd());
+        }
+        return new RideInterval(id, start, end, startLat, startLon, endLat, endLon, recurrence);
+    }
+
+    private void add(RideInterval entry) {
+        if (isOpenEnded(entry)) {
+            for (DayOfWeek day : departureDays(entry.recurrence())) {
+                openEndedByDay.get(day).put(entry.id(), entry);
+            }
+            openEndedMaxDuration = Math.max(openEndedMaxDuration, entry.recurrence().durationSeconds());
+        } else {
+            root = insert(root, new Node(entry));
+        }
+    }
+
+    private void delete(RideInterval entry) {
+        if (isOpenEnded(entry)) {
+            for (DayOfWeek day : departureDays(entry.recurrence())) {
+                openEndedByDay.get(day).remove(entry.id());
+            }
+        } else {
+            root = delete(root, entry);
+        }
+    }
+
+    private static boolean isOpenEnded(RideInterval entry) {
+        return entry.recurrence() != null && entry.recurrence().until() == null;
+    }
+
+    private static Set<DayOfWeek> departureDays(RideRecurrence recurrence) {
+        // The first departure is an occurrence even off the days of the rule
+        Set<DayOfWeek> days = EnumSet.copyOf(recurrence.days());
+        days.add(recurrence.start().getDayOfWeek());
+        return days;
+    }
+
+    /**
+     * Add the open-ended rides which may leave in {@code [from, to]}: the ones with a departure day among the local days
+     * of the window, widened by the largest zone offset and by the longest occurrence, which may have left before it.
+     *
+     * @return whether any ride was added.
+     */
+    private boolean collectOpenEnded(long from, long to, List<RideInterval> result) {
+        long margin = ZoneOffset.MAX.getTotalSeconds();
+        long first = Math.floorDiv(from - openEndedMaxDuration - margin, Duration.ofDays(1).toSeconds());
+        long last = Math.floorDiv(to + margin, Duration.ofDays(1).toSeconds());
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (long day = first; day <= last && days.size() < 7; day++) {
+            days.add(LocalDate.ofEpochDay(day).getDayOfWeek());
+        }
+        Set<Long> added = new HashSet<>();
+        for (DayOfWeek day : days) {
+            for (RideInterval entry : openEndedByDay.get(day).values()) {
+                if (entry.start() <= to && added.add(entry.id())) {
+                    result.add(entry);
+                }
+            }
+        }
+        return !added.isEmpty();
+    }
+
+    private static void collect(Node node, long from, long to, List<RideInterval> result) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.entry.start() > to) {
+            return;
+        }
+        if (node.entry.end() >= from) {
+            result.add(node.entry);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private static int compare(RideInterval a, RideInterval b) {
+        int result = Long.compare(a.start(), b.start());
+        return result != 0 ? result : Long.compare(a.id(), b.id());
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.entry, node.entry) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, RideInterval entry) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(entry, node.entry);
+        if (cmp < 0) {
+            node.left = delete(node.left, entry);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, entry);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        return pivot;
+    }
+
+    private static final class Node {
+
+        private final RideInterval entry;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(RideInterval entry) {
+            this.entry = entry;
+            this.maxEnd = entry.end();
+        }
+
+        private void update() {
+            long max = entry.end();
+            if (left != null && left.maxEnd > max) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > max) {
+                max = right.maxEnd;
+            }
+            maxEnd = max;
+        }
+    }
+
+    /**
+     * A ride as held by the index.
+     *
+     * @param id the id of the ride.
+     * @param start the (first) departure time, in epoch seconds.
+     * @param end the (last) arrival time, in epoch seconds.
+     * @param startLat the latitude of the start point.
+     * @param startLon the longitude of the start point.
+     * @param endLat the latitude of the end point.
+     * @param endLon the longitude of the end point.
+     * @param recurrence the recurrence rule of the ride, or {@code null} if it only leaves once.
+     */
+    public record RideInterval(
+        long id,
+        long start,
+        long end,
+        double startLat,
+        double startLon,
+        double endLat,
+        double endLon,
+        RideRecurrence recurrence
+    ) {}
+}
@@ -0,0 +1,323 @@
+package com.voituri.ridesharing.service.geo;
+
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.recurrence.RideRecurrence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the ride search results, as ordered lists of ride ids, keyed by the normalized search parameters.
+ * <p>
+ * Entries are registered under the grid cells overlapped by their search circle, and under the rides they contain. When a
+ * ride is written, only the entries it could enter (same cell, and the exact search checks pass) or leave (it is part of
+ * their result) are evicted: the rest of the cache survives writes, which a Hibernate query cache, flushed on any write to the
+ * table, would not. Entries also expire after {@value #TTL_SECONDS} seconds, since the upcoming occurrences of recurring
+ * rides move with the clock.
+ * <p>
+ * Requests, invalidations, size and hit ratio are published as {@value #METER_PREFIX}.* meters.
+ */
+@Component
+public class RideSearchCache {
+
+    /**
+     * Maximal number of cached searches; the least recently used one is evicted first.
+     */
+    static final int MAX_ENTRIES = 10_000;
+
+    /**
+     * Time to live of a cached search, in seconds.
+     */
+    static final long TTL_SECONDS = 300;
+
+    /**
+     * Size of an invalidation cell, in degrees.
+     */
+    static final double CELL_SIZE_DEGREES = 0.5;
+
+    static final String METER_PREFIX = "ride.search.cache";
+
+    private static final int LON_CELLS = (int) Math.ceil(360 / CELL_SIZE_DEGREES);
+
+    private static final double COORDINATE_SCALE = 1e4;
+
+    private final Map<SearchKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<Long, Set<SearchKey>> byCell = new HashMap<>();
+
+    private final Map<Long, Set<SearchKey>> byRide = new HashMap<>();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter invalidations;
+
+    private long generation;
+
+    public RideSearchCache(MeterRegistry registry) {
+        this.hits = Counter.builder(METER_PREFIX + ".requests")
+            .description("Ride searches looked up in the result cache")
+            .tag("result", "hit")
+            .register(registry);
+        this.misses = Counter.builder(METER_PREFIX + ".requests")
+            .description("Ride searches looked up in the result cache")
+            .tag("result", "miss")
+            .register(registry);
+        this.invalidations = Counter.builder(METER_PREFIX + ".invalidations")
+            .description("Cached ride searches evicted because a ride was written")
+            .register(registry);
+        Gauge.builder(METER_PREFIX + ".size", this, RideSearchCache::size).description("Cached ride searches").register(registry);
+        Gauge.builder(METER_PREFIX + ".hit.ratio", this, RideSearchCache::hitRatio)
+            .description("Ratio of the ride searches served from the result cache")
+            .register(registry);
+    }
+
+    /**
+     * Build the normalized key of a search: coordinates are rounded to 4 decimals (about 11 m), the radius to the meter
+     * and the window to the second. The search must then be run with the key values, so that its result only depends on
+     * the key.
+     *
+     * @param fromLat the latitude of the origin.
+     * @param fromLon the longitude of the origin.
+     * @param toLat the latitude of the destination, or {@code null}.
+     * @param toLon the longitude of the destination, or {@code null}.
+     * @param radiusKm the search radius, in kilometers.
+     * @param departAfter the lower bound of the departure time, or {@code null}.
+     * @param departBefore the upper bound of the departure time, or {@code null}.
+     * @return the key.
+     */
+    public static SearchKey key(
+        double fromLat,
+        double fromLon,
+        Double toLat,
+        Double toLon,
+        double radiusKm,
+        ZonedDateTime departAfter,
+        ZonedDateTime departBefore
+    ) {
+        boolean hasDestination = toLat != null && toLon != null;
+        return new SearchKey(
+            round(fromLat),
+            round(fromLon),
+            hasDestination ? round(toLat) : null,
+            hasDestination ? round(toLon) : null,
+            Math.round(radiusKm * 1000) / 1000.0,
+            departAfter != null ? departAfter.toEpochSecond() : null,
+            departBefore != null ? departBefore.toEpochSecond() : null
+        );
+    }
+
+    /**
+     * Get the result of a search, running it on a miss.
+     *
+     * @param key the normalized search parameters.
+     * @param search the search to run on a miss.
+     * @return the ids of the matching rides.
+     */
+    public List<Long> get(SearchKey key, Supplier<List<Long>> search) {
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                hits.increment();
+                return entry.rideIds;
+            }
+            if (entry != null) {
+                unlink(key, entry);
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        List<Long> rideIds = List.copyOf(search.get());
+        synchronized (this) {
+            // A ride written while the search was running may be missing from its result: do not cache it.
+            if (generation == loadGeneration) {
+                Entry previous = entries.get(key);
+                if (previous != null) {
+                    unlink(key, previous);
+                }
+                link(key, new Entry(rideIds, now + TTL_SECONDS * 1000, cells(key)));
+            }
+        }
+        return rideIds;
+    }
+
+    /**
+     * Evict the searches whose result may change because a ride was saved: those it now matches, and those it was part of.
+     *
+     * @param ride the saved ride.
+     */
+    public synchronized void invalidate(RideDTO ride) {
+        generation++;
+        Set<SearchKey> evicted = new HashSet<>(byRide.getOrDefault(ride.getId(), Set.of()));
+        if (GeoUtils.isValid(ride.getStartLatitude(), ride.getStartLongitude()) && ride.getStartTime() != null) {
+            boolean recurring =
+                RideRecurrence.of(ride.getRecurring(), ride.getStartTime(), ride.getEndTime(), ride.getRecurrenceDays(), ride.getRecurrenceUntil()) !=
+                null;
+            long departure = ride.getStartTime().toEpochSecond();
+            for (SearchKey key : byCell.getOrDefault(cellKey(ride.getStartLatitude(), ride.getStartLongitude()), Set.of())) {
+                if (key.matches(ride, departure, recurring)) {
+                    evicted.add(key);
+                }
+            }
+        }
+        evict(evicted);
+    }
+
+    /**
+     * Evict the searches a deleted ride was part of.
+     *
+     * @param rideId the id of the deleted ride.
+     */
+    public synchronized void invalidate(Long rideId) {
+        generation++;
+        evict(new HashSet<>(byRide.getOrDefault(rideId, Set.of())));
+    }
+
+    /**
+     * Number of cached searches.
+     *
+     * @return the number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Ratio of the lookups served from the cache since startup.
+     *
+     * @return the hit ratio, between 0 and 1.
+     */
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private void evict(Set<SearchKey> keys) {
+        for (SearchKey key : keys) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                unlink(key, entry);
+                invalidations.increment();
+            }
+        }
+    }
+
+    private void link(SearchKey key, Entry entry) {
+        entries.put(key, entry);
+        for (long cell : entry.cells) {
+            byCell.computeIfAbsent(cell, k -> new HashSet<>()).add(key);
+        }
+        for (Long rideId : entry.rideIds) {
+            byRide.computeIfAbsent(rideId, k -> new HashSet<>()).add(key);
+        }
+        if (entries.size() > MAX_ENTRIES) {
+            Iterator<Map.Entry<SearchKey, Entry>> eldest = entries.entrySet().iterator();
+            Map.Entry<SearchKey, Entry> removed = eldest.next();
+            unlink(removed.getKey(), removed.getValue());
+        }
+    }
+
+    private void unlink(SearchKey key, Entry entry) {
+        entries.remove(key);
+        for (long cell : entry.cells) {
+            removePosting(byCell, cell, key);
+        }
+        for (Long rideId : entry.rideIds) {
+            removePosting(byRide, rideId, key);
+        }
+    }
+
+    private static void removePosting(Map<Long, Set<SearchKey>> postings, Long id, SearchKey key) {
+        Set<SearchKey> keys = postings.get(id);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                postings.remove(id);
+            }
+        }
+    }
+
+    private static long[] cells(SearchKey key) {
+        double latDelta = key.radiusKm() / GeoUtils.KM_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(key.fromLat()) + latDelta)));
+        double lonDelta = Math.min(180, latDelta / Math.max(cosLat, 1e-6));
+        int minLat = latIndex(Math.max(-90, key.fromLat() - latDelta));
+        int maxLat = latIndex(Math.min(90, key.fromLat() + latDelta));
+        int firstLon = lonIndex(key.fromLon() - lonDelta);
+        int lonSpan = Math.min(LON_CELLS, lonIndex(key.fromLon() + lonDelta) - firstLon + 1);
+        long[] cells = new long[(maxLat - minLat + 1) * lonSpan];
+        int i = 0;
+        for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+            for (int lon = 0; lon < lonSpan; lon++) {
+                cells[i++] = cellKey(latIdx, Math.floorMod(firstLon + lon, LON_CELLS));
+            }
+        }
+        return cells;
+    }
+
+    private static long cellKey(double lat, double lon) {
+        return cellKey(latIndex(lat), Math.floorMod(lonIndex(lon), LON_CELLS));
+    }
+
+    private static long cellKey(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | lonIdx;
+    }
+
+    private static int latIndex(double lat) {
+        return Math.min((int) Math.ceil(180 / CELL_SIZE_DEGREES) - 1, (int) Math.floor((lat + 90) / CELL_SIZE_DEGREES));
+    }
+
+    private static int lonIndex(double lon) {
+        return (int) Math.floor((lon + 180) / CELL_SIZE_DEGREES);
+    }
+
+    private static double round(double coordinate) {
+        return Math.round(coordinate * COORDINATE_SCALE) / COORDINATE_SCALE;
+    }
+
+    private record Entry(List<Long> rideIds, long expiresAt, long[] cells) {}
+
+    /**
+     * Normalized parameters of a ride search.
+     *
+     * @param fromLat the latitude of the origin.
+     * @param fromLon the longitude of the origin.
+     * @param toLat the latitude of the destination, or {@code null}.
+     * @param toLon the longitude of the destination, or {@code null}.
+     * @param radiusKm the search radius, in kilometers.
+     * @param departAfter the lower bound of the departure time in epoch seconds, or {@code null}.
+     * @param departBefore the upper bound of the departure time in epoch seconds, or {@code null}.
+     */
+    public record SearchKey(
+        double fromLat,
+        double fromLon,
+        Double toLat,
+        Double toLon,
+        double radiusKm,
+        Long departAfter,
+        Long departBefore
+    ) {
+        private boolean matches(RideDTO ride, long departure, boolean recurring) {
+            return (
+                GeoUtils.distanceKm(fromLat, fromLon, ride.getStartLatitude(), ride.getStartLongitude()) <= radiusKm &&
+                (toLat == null ||
+                    (GeoUtils.isValid(ride.getEndLatitude(), ride.getEndLongitude()) &&
+                        GeoUtils.distanceKm(toLat, toLon, ride.getEndLatitude(), ride.getEndLongitude()) <= radiusKm)) &&
+                (recurring || ((departAfter == null || departure >= departAfter) && (departBefore == null || departure <= departBefore)))
+            );
+        }
+    }
+}
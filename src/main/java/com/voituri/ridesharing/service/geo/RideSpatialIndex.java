@@ -0,0 +1,277 @@
+package com.voituri.ridesharing.service.geo;
+
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.recurrence.RideOccurrenceCache;
+import com.voituri.ridesharing.service.recurrence.RideRecurrence;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory grid index over the start point of geocoded {@link Ride}s.
+ * <p>
+ * The globe is cut into fixed-size latitude/longitude cells. A radius query only visits the cells overlapping the bounding
+ * box of the search circle, then checks the exact distance (and the optional destination and departure window) on the
+ * candidates it finds there. Rides without coordinates are not indexed. A recurring ride matches the departure window if one of
+ * its occurrences does, as expanded by the {@link RideOccurrenceCache}.
+ * <p>
+ * The index is loaded from the database once the application is ready and is kept up to date by
+ * {@link com.voituri.ridesharing.service.RideService}.
+ */
+@Component
+public class RideSpatialIndex {
+
+    /**
+     * Size of a grid cell, in degrees (about 5.5 km along a meridian).
+     */
+    static final double CELL_SIZE_DEGREES = 0.05;
+
+    private static final int LAT_CELLS = (int) Math.ceil(180 / CELL_SIZE_DEGREES);
+
+    private static final int LON_CELLS = (int) Math.ceil(360 / CELL_SIZE_DEGREES);
+
+    private final Logger log = LoggerFactory.getLogger(RideSpatialIndex.class);
+
+    private final RideRepository rideRepository;
+
+    private final RideOccurrenceCache rideOccurrenceCache;
+
+    private final ConcurrentMap<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, IndexedRide> rides = new ConcurrentHashMap<>();
+
+    public RideSpatialIndex(RideRepository rideRepository, RideOccurrenceCache rideOccurrenceCache) {
+        this.rideRepository = rideRepository;
+        this.rideOccurrenceCache = rideOccurrenceCache;
+    }
+
+    /**
+     * Load every geocoded ride into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        cells.clear();
+        rides.clear();
+        for (Ride ride : rideRepository.findAllByStartLatitudeNotNullAndStartLongitudeNotNull()) {
+            put(
+                ride.getId(),
+                ride.getStartLatitude(),
+                ride.getStartLongitude(),
+                ride.getEndLatitude(),
+                ride.getEndLongitude(),
+                ride.getStartTime(),
+                RideRecurrence.of(
+                    ride.getRecurring(),
+                    ride.getStartTime(),
+                    ride.getEndTime(),
+                    ride.getRecurrenceDays(),
+                    ride.getRecurrenceUntil()
+                )
+            );
+        }
+        log.info("Indexed {} geocoded rides in {} ms", rides.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Add or replace a ride in the index. A ride whose start point is not geocoded is removed from the index.
+     *
+     * @param ride the ride to index.
+     */
+    public void put(RideDTO ride) {
+        if (ride.getId() == null) {
+            return;
+        }
+        put(
+            ride.getId(),
+            ride.getStartLatitude(),
+            ride.getStartLongitude(),
+            ride.getEndLatitude(),
+            ride.getEndLongitude(),
+            ride.getStartTime(),
+            RideRecurrence.of(ride.getRecurring(), ride.getStartTime(), ride.getEndTime(), ride.getRecurrenceDays(), ride.getRecurrenceUntil())
+        );
+    }
+
+    private void put(
+        Long id,
+        Double startLat,
+        Double startLon,
+        Double endLat,
+        Double endLon,
+        ZonedDateTime startTime,
+        RideRecurrence recurrence
+    ) {
+        if (!GeoUtils.isValid(startLat, startLon)) {
+            remove(id);
+            return;
+        }
+        IndexedRide entry = new IndexedRide(
+            id,
+            startLat,
+            startLon,
+            GeoUtils.isValid(endLat, endLon) ? endLat : Double.NaN,
+            GeoUtils.isValid(endLat, endLon) ? endLon : Double.NaN,
+            startTime != null ? startTime.toEpochSecond() : Long.MIN_VALUE,
+            recurrence,
+            cellKey(startLat, startLon)
+        );
+        IndexedRide previous = rides.put(id, entry);
+        if (previous != null && previous.cell != entry.cell) {
+            removeFromCell(previous);
+        }
+        cells.computeIfAbsent(entry.cell, key -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    /**
+     * Remove a ride from the index.
+     *
+     * @param id the id of the ride.
+     */
+    public void remove(Long id) {
+        IndexedRide previous = rides.remove(id);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+    }
+
+    private void removeFromCell(IndexedRide entry) {
+        cells.computeIfPresent(entry.cell, (key, ids) -> {
+            ids.remove(entry.id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Find the rides starting within {@code radiusKm} of a point.
+     *
+     * @param fromLat the latitude of the origin.
+     * @param fromLon the longitude of the origin.
+     * @param toLat the latitude of the destination, or {@code null} to accept any destination.
+     * @param toLon the longitude of the destination, or {@code null} to accept any destination.
+     * @param radiusKm the maximal distance between the requested and the ride endpoints, in kilometers.
+     * @param departAfter the lower bound of the departure time (inclusive), or {@code null}; recurring rides are then
+     * only matched on their upcoming occurrences.
+     * @param departBefore the upper bound of the departure time (inclusive), or {@code null}.
+     * @return the ids of the matching rides, ordered by (next matching) departure time.
+     */
+    public List<Long> search(
+        double fromLat,
+        double fromLon,
+        Double toLat,
+        Double toLon,
+        double radiusKm,
+        ZonedDateTime departAfter,
+        ZonedDateTime departBefore
+    ) {
+        boolean checkDestination = toLat != null && toLon != null;
+        long after = departAfter != null ? departAfter.toEpochSecond() : Long.MIN_VALUE;
+        long before = departBefore != null ? departBefore.toEpochSecond() : Long.MAX_VALUE;
+
+        long upcoming = departAfter != null ? after : Instant.now().getEpochSecond();
+
+        List<Match> matches = new ArrayList<>();
+        for (IndexedRide entry : candidates(fromLat, fromLon, radiusKm)) {
+            if (
+                GeoUtils.distanceKm(fromLat, fromLon, entry.startLat, entry.startLon) <= radiusKm &&
+                (!checkDestination ||
+                    (!Double.isNaN(entry.endLat) && GeoUtils.distanceKm(toLat, toLon, entry.endLat, entry.endLon) <= radiusKm))
+            ) {
+                if (entry.recurrence == null) {
+                    if (entry.startEpochSecond >= after && entry.startEpochSecond <= before) {
+                        matches.add(new Match(entry.id, entry.startEpochSecond));
+                    }
+                } else {
+                    OptionalLong departure = rideOccurrenceCache.firstStartBetween(entry.id, entry.recurrence, upcoming, before);
+                    if (departure.isPresent()) {
+                        matches.add(new Match(entry.id, departure.getAsLong()));
+                    }
+                }
+            }
+        }
+        matches.sort(Comparator.comparingLong(Match::departure).thenComparingLong(Match::id));
+        return matches.stream().map(Match::id).toList();
+    }
+
+    private List<IndexedRide> candidates(double lat, double lon, double radiusKm) {
+        double latDelta = radiusKm / GeoUtils.KM_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(lat) + latDelta)));
+        double lonDelta = Math.min(180, latDelta / Math.max(cosLat, 1e-6));
+
+        int minLat = latIndex(Math.max(-90, lat - latDelta));
+        int maxLat = latIndex(Math.min(90, lat + latDelta));
+        int firstLon = lonIndex(lon - lonDelta);
+        int lonSpan = lonDelta >= 180 ? LON_CELLS : (int) Math.ceil(2 * lonDelta / CELL_SIZE_DEGREES) + 1;
+
+        // A very large radius would visit more cells than there are rides: scan the rides instead.
+        if ((long) (maxLat - minLat + 1) * lonSpan > rides.size()) {
+            return new ArrayList<>(rides.values());
+        }
+        List<IndexedRide> result = new ArrayList<>();
+        for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+            for (int i = 0; i < Math.min(lonSpan, LON_CELLS); i++) {
+                Set<Long> ids = cells.get(cellKey(latIdx, Math.floorMod(firstLon + i, LON_CELLS)));
+                if (ids != null) {
+                    for (Long id : ids) {
+                        IndexedRide entry = rides.get(id);
+                        if (entry != null) {
+                            result.add(entry);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of rides currently held by the index.
+     *
+     * @return the number of indexed rides.
+     */
+    public int size() {
+        return rides.size();
+    }
+
+    private static long cellKey(double lat, double lon) {
+        return cellKey(latIndex(lat), Math.floorMod(lonIndex(lon), LON_CELLS));
+    }
+
+    private static long cellKey(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | lonIdx;
+    }
+
+    private static int latIndex(double lat) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((lat + 90) / CELL_SIZE_DEGREES));
+    }
+
+    private static int lonIndex(double lon) {
+        return (int) Math.floor((lon + 180) / CELL_SIZE_DEGREES);
+    }
+
+    private record IndexedRide(
+        long id,
+        double startLat,
+        double startLon,
+        double endLat,
+        double endLon,
+        long startEpochSecond,
+        RideRecurrence recurrence,
+        long cell
+    ) {}
+
+    private record Match(long id, long departure) {}
+}
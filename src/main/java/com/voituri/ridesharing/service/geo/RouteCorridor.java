@@ -0,0 +1,95 @@
+package com.voituri.ridesharing.service.geo;
+
+/**
+ * Straight-line corridor around a ride, from its start point to its end point.
+ * <p>
+ * Points are projected on the segment in a local equirectangular plane, which is accurate enough at the scale of a
+ * ride and avoids any trigonometry in the hot path beyond the cosine computed once per corridor.
+ */
+public final class RouteCorridor {
+
+    private final double startLat;
+    private final double startLon;
+    private final double kmPerDegreeLon;
+    private final double dx;
+    private final double dy;
+    private final double lengthSquared;
+    private final double widthKm;
+    private final double minLat;
+    private final double maxLat;
+    private final double minLon;
+    private final double maxLon;
+
+    /**
+     * Build the corridor of a ride.
+     *
+     * @param startLat the latitude of the ride start point.
+     * @param startLon the longitude of the ride start point.
+     * @param endLat the latitude of the ride end point.
+     * @param endLon the longitude of the ride end point.
+     * @param widthKm the maximal distance between a point and the ride segment for the point to be in the corridor.
+     */
+    public RouteCorridor(double startLat, double startLon, double endLat, double endLon, double widthKm) {
+        this.startLat = startLat;
+        this.startLon = startLon;
+        this.kmPerDegreeLon = GeoUtils.KM_PER_DEGREE * Math.cos(Math.toRadians((startLat + endLat) / 2));
+        this.dx = (endLon - startLon) * kmPerDegreeLon;
+        this.dy = (endLat - startLat) * GeoUtils.KM_PER_DEGREE;
+        this.lengthSquared = dx * dx + dy * dy;
+        this.widthKm = widthKm;
+        double latMargin = widthKm / GeoUtils.KM_PER_DEGREE;
+        double lonMargin = widthKm / Math.max(kmPerDegreeLon, 1e-6);
+        this.minLat = Math.min(startLat, endLat) - latMargin;
+        this.maxLat = Math.max(startLat, endLat) + latMargin;
+        this.minLon = Math.min(startLon, endLon) - lonMargin;
+        this.maxLon = Math.max(startLon, endLon) + lonMargin;
+    }
+
+    /**
+     * Cheap bounding-box check, to be used before {@link #project(double, double)}.
+     *
+     * @param lat the latitude of the point.
+     * @param lon the longitude of the point.
+     * @return {@code false} if the point is certainly outside the corridor.
+     */
+    public boolean mayContain(double lat, double lon) {
+        return lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon;
+    }
+
+    /**
+     * Project a point on the ride segment.
+     *
+     * @param lat the latitude of the point.
+     * @param lon the longitude of the point.
+     * @return the projection, or {@code null} if the point is outside the corridor.
+     */
+    public Projection project(double lat, double lon) {
+        if (!mayContain(lat, lon)) {
+            return null;
+        }
+        double px = (lon - startLon) * kmPerDegreeLon;
+        double py = (lat - startLat) * GeoUtils.KM_PER_DEGREE;
+        double fraction = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared));
+        double ox = px - fraction * dx;
+        double oy = py - fraction * dy;
+        double offsetKm = Math.sqrt(ox * ox + oy * oy);
+        return offsetKm <= widthKm ? new Projection(fraction, offsetKm) : null;
+    }
+
+    /**
+     * Length of the ride segment.
+     *
+     * @return the length in kilometers.
+     */
+    public double lengthKm() {
+        return Math.sqrt(lengthSquared);
+    }
+
+    /**
+     * Position of a point projected on the ride segment.
+     *
+     * @param fraction the position along the segment, from {@code 0} (start) to {@code 1} (end).
+     * @param offsetKm the distance between the point and the segment, in kilometers.
+     */
+    public record Projection(double fraction, double offsetKm) {}
+}
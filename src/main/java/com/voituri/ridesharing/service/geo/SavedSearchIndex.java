@@ -0,0 +1,278 @@
+package com.voituri.ridesharing.service.geo;
+
+import com.voituri.ridesharing.domain.SavedSearch;
+import com.voituri.ridesharing.repository.SavedSearchRepository;
+import com.voituri.ridesharing.service.dto.SavedSearchDTO;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory reverse index of the {@link SavedSearch}es, used to find the riders interested in a new ride.
+ * <p>
+ * Each saved search is registered under every (grid cell, time bucket) pair its origin circle and departure window
+ * overlap. Percolating a ride then only reads the saved searches registered under the cell of its start point and the
+ * bucket of its departure time, and runs the exact checks on them: the cost does not depend on the number of saved
+ * searches, only on how many of them share the ride cell and bucket.
+ * <p>
+ * Saved searches whose window is over are not loaded. The index is loaded from the database once the application is ready
+ * and is kept up to date by {@link com.voituri.ridesharing.service.SavedSearchService}.
+ */
+@Component
+public class SavedSearchIndex {
+
+    /**
+     * Size of a grid cell, in degrees (about 28 km along a meridian).
+     */
+    static final double CELL_SIZE_DEGREES = 0.25;
+
+    /**
+     * Length of a time bucket, in seconds.
+     */
+    static final long BUCKET_SECONDS = 6 * 60 * 60;
+
+    private static final int LAT_CELLS = (int) Math.ceil(180 / CELL_SIZE_DEGREES);
+
+    private static final int LON_CELLS = (int) Math.ceil(360 / CELL_SIZE_DEGREES);
+
+    private final Logger log = LoggerFactory.getLogger(SavedSearchIndex.class);
+
+    private final SavedSearchRepository savedSearchRepository;
+
+    private final ConcurrentMap<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, IndexedSearch> searches = new ConcurrentHashMap<>();
+
+    private final AtomicLong latestDeparture = new AtomicLong(Long.MIN_VALUE);
+
+    public SavedSearchIndex(SavedSearchRepository savedSearchRepository) {
+        this.savedSearchRepository = savedSearchRepository;
+    }
+
+    /**
+     * Load every saved search whose window is not over into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        postings.clear();
+        searches.clear();
+        for (SavedSearch savedSearch : savedSearchRepository.findAllByDepartBeforeGreaterThanEqual(ZonedDateTime.now())) {
+            put(
+                savedSearch.getId(),
+                savedSearch.getMember() != null ? savedSearch.getMember().getId() : null,
+                savedSearch.getName(),
+                savedSearch.getFromLatitude(),
+                savedSearch.getFromLongitude(),
+                savedSearch.getToLatitude(),
+                savedSearch.getToLongitude(),
+                savedSearch.getRadiusKm(),
+                savedSearch.getDepartAfter(),
+                savedSearch.getDepartBefore()
+            );
+        }
+        log.info("Indexed {} saved searches in {} ms", searches.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Add or replace a saved search in the index.
+     *
+     * @param savedSearch the saved search to index.
+     */
+    public void put(SavedSearchDTO savedSearch) {
+        if (savedSearch.getId() == null) {
+            return;
+        }
+        put(
+            savedSearch.getId(),
+            savedSearch.getMember() != null ? savedSearch.getMember().getId() : null,
+            savedSearch.getName(),
+            savedSearch.getFromLatitude(),
+            savedSearch.getFromLongitude(),
+            savedSearch.getToLatitude(),
+            savedSearch.getToLongitude(),
+            savedSearch.getRadiusKm(),
+            savedSearch.getDepartAfter(),
+            savedSearch.getDepartBefore()
+        );
+    }
+
+    private void put(
+        Long id,
+        Long memberId,
+        String name,
+        Double fromLat,
+        Double fromLon,
+        Double toLat,
+        Double toLon,
+        Double radiusKm,
+        ZonedDateTime departAfter,
+        ZonedDateTime departBefore
+    ) {
+        remove(id);
+        if (!GeoUtils.isValid(fromLat, fromLon) || radiusKm == null || departAfter == null || departBefore == null) {
+            return;
+        }
+        boolean checkDestination = GeoUtils.isValid(toLat, toLon);
+        long after = departAfter.toEpochSecond();
+        long before = departBefore.toEpochSecond();
+        IndexedSearch entry = new IndexedSearch(
+            id,
+            memberId,
+            name,
+            fromLat,
+            fromLon,
+            checkDestination ? toLat : Double.NaN,
+            checkDestination ? toLon : Double.NaN,
+            radiusKm,
+            after,
+            before,
+            postingKeys(fromLat, fromLon, radiusKm, after, before)
+        );
+        searches.put(id, entry);
+        for (long key : entry.keys) {
+            postings.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        latestDeparture.accumulateAndGet(before, Math::max);
+    }
+
+    /**
+     * Remove a saved search from the index.
+     *
+     * @param id the id of the saved search.
+     */
+    public void remove(Long id) {
+        IndexedSearch previous = searches.remove(id);
+        if (previous != null) {
+            for (long key : previous.keys) {
+                postings.computeIfPresent(key, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    /**
+     * Find the saved searches matched by a ride departure.
+     *
+     * @param startLat the latitude of the ride start point.
+     * @param startLon the longitude of the ride start point.
+     * @param endLat the latitude of the ride end point, or {@code null}.
+     * @param endLon the longitude of the ride end point, or {@code null}.
+     * @param departure the departure time, in epoch seconds.
+     * @return the matched saved searches.
+     */
+    public List<SavedSearchMatch> percolate(double startLat, double startLon, Double endLat, Double endLon, long departure) {
+        Set<Long> ids = postings.get(postingKey(latIndex(startLat), Math.floorMod(lonIndex(startLon), LON_CELLS), bucket(departure)));
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        boolean hasDestination = GeoUtils.isValid(endLat, endLon);
+        List<SavedSearchMatch> matches = new ArrayList<>();
+        for (Long id : ids) {
+            IndexedSearch entry = searches.get(id);
+            if (
+                entry != null &&
+                departure >= entry.after &&
+                departure <= entry.before &&
+                GeoUtils.distanceKm(startLat, startLon, entry.fromLat, entry.fromLon) <= entry.radiusKm &&
+                (Double.isNaN(entry.toLat) ||
+                    (hasDestination && GeoUtils.distanceKm(endLat, endLon, entry.toLat, entry.toLon) <= entry.radiusKm))
+            ) {
+                matches.add(new SavedSearchMatch(entry.id, entry.memberId, entry.name));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Latest end of the departure window of the indexed saved searches, as an upper bound for the departures worth
+     * percolating.
+     *
+     * @return the latest departure time in epoch seconds, or {@link Long#MIN_VALUE} if the index is empty.
+     */
+    public long latestDeparture() {
+        return latestDeparture.get();
+    }
+
+    /**
+     * Number of saved searches currently held by the index.
+     *
+     * @return the number of indexed saved searches.
+     */
+    public int size() {
+        return searches.size();
+    }
+
+    private static long[] postingKeys(double lat, double lon, double radiusKm, long after, long before) {
+        double latDelta = radiusKm / GeoUtils.KM_PER_DEGREE;
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(lat) + latDelta)));
+        double lonDelta = Math.min(180, latDelta / Math.max(cosLat, 1e-6));
+
+        int minLat = latIndex(Math.max(-90, lat - latDelta));
+        int maxLat = latIndex(Math.min(90, lat + latDelta));
+        int firstLon = lonIndex(lon - lonDelta);
+        int lonSpan = Math.min(LON_CELLS, lonIndex(lon + lonDelta) - firstLon + 1);
+        long firstBucket = bucket(after);
+        long lastBucket = bucket(before);
+
+        List<Long> keys = new ArrayList<>();
+        for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+            for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+                for (int i = 0; i < lonSpan; i++) {
+                    keys.add(postingKey(latIdx, Math.floorMod(firstLon + i, LON_CELLS), bucket));
+                }
+            }
+        }
+        return keys.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long postingKey(int latIdx, int lonIdx, long bucket) {
+        return (bucket << 21) | ((long) latIdx << 11) | lonIdx;
+    }
+
+    private static long bucket(long epochSecond) {
+        return Math.floorDiv(epochSecond, BUCKET_SECONDS);
+    }
+
+    private static int latIndex(double lat) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((lat + 90) / CELL_SIZE_DEGREES));
+    }
+
+    private static int lonIndex(double lon) {
+        return (int) Math.floor((lon + 180) / CELL_SIZE_DEGREES);
+    }
+
+    private record IndexedSearch(
+        long id,
+        Long memberId,
+        String name,
+        double fromLat,
+        double fromLon,
+        double toLat,
+        double toLon,
+        double radiusKm,
+        long after,
+        long before,
+        long[] keys
+    ) {}
+
+    /**
+     * A saved search matched by a ride.
+     *
+     * @param savedSearchId the id of the saved search.
+     * @param memberId the id of the member who saved the search, or {@code null}.
+     * @param name the name of the saved search, or {@code null}.
+     */
+    public record SavedSearchMatch(long savedSearchId, Long memberId, String name) {}
+}
@@ -0,0 +1,4 @@
+/**
+ * Geospatial helpers and in-memory indexes used by the ride services.
+ */
+package com.voituri.ridesharing.service.geo;
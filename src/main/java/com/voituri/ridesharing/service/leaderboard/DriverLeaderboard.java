@@ -0,0 +1,422 @@
+package com.voituri.ridesharing.service.leaderboard;
+
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.MemberReputation;
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.MemberReputationRepository;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.repository.RideRepository.RideDrive;
+import com.voituri.ridesharing.service.dto.LeaderboardEntryDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.location.LocationTrie;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory ranking of the drivers, by Bayesian-adjusted rating, then by number of completed rides.
+ * <p>
+ * The adjusted rating of a driver is {@code (PRIOR_WEIGHT * m + sum) / (PRIOR_WEIGHT + count)}, where {@code m} is the mean
+ * of all the ratings, so that a driver with a handful of perfect ratings does not outrank one with hundreds of good ones.
+ * A ride is completed once it arrived (or left, if it has no end time), and its region is its folded start location (see
+ * {@link LocationTrie#fold(String)}). Only the drivers with at least one completed ride are ranked.
+ * <p>
+ * The drivers are kept in sorted trees, one overall and one per region, so that a change re-positions the driver in
+ * {@code O(log n)} and the top {@code k} are read in {@code O(log n + k)}. The index is kept up to date by
+ * {@link com.voituri.ridesharing.service.MemberReputationService} and {@link com.voituri.ridesharing.service.RideService},
+ * and the rides are marked completed by a tick every minute. Since other instances write too, and since {@code m} drifts,
+ * the index is rebuilt from the database when the application is ready, and then every {@value #REBUILD_INTERVAL_MINUTES}
+ * minutes. The changes reported while a rebuild reads the database are applied at once, and replayed on what it read once
+ * swapped in, so that none of them is lost.
+ */
+@Component
+public class DriverLeaderboard {
+
+    /**
+     * Maximal number of drivers returned by a lookup.
+     */
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * Weight of the mean of all the ratings in the adjusted rating of a driver, as a number of ratings.
+     */
+    static final double PRIOR_WEIGHT = 10;
+
+    static final long REBUILD_INTERVAL_MINUTES = 60;
+
+    private static final double DEFAULT_PRIOR_MEAN = (MemberReputation.MIN_SCORE + MemberReputation.MAX_SCORE) / 2.0;
+
+    private static final Comparator<Driver> BY_RANK = Comparator.comparingDouble((Driver driver) -> driver.score)
+        .reversed()
+        .thenComparing(Comparator.comparingLong((Driver driver) -> driver.completedRides).reversed())
+        .thenComparingLong(driver -> driver.memberId);
+
+    private static final Comparator<Drive> BY_ARRIVAL = Comparator.comparingLong((Drive drive) -> drive.arrival).thenComparingLong(
+        drive -> drive.rideId
+    );
+
+    private final Logger log = LoggerFactory.getLogger(DriverLeaderboard.class);
+
+    private final MemberReputationRepository memberReputationRepository;
+
+    private final RideRepository rideRepository;
+
+    private final MemberRepository memberRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Driver> drivers = new HashMap<>();
+
+    private final Map<Long, Drive> drives = new HashMap<>();
+
+    private final NavigableSet<Drive> upcoming = new TreeSet<>(BY_ARRIVAL);
+
+    private final NavigableSet<Driver> ranking = new TreeSet<>(BY_RANK);
+
+    private final Map<String, NavigableSet<Driver>> regions = new HashMap<>();
+
+    private double priorMean = DEFAULT_PRIOR_MEAN;
+
+    /**
+     * Changes reported since the running rebuild started reading the database, or {@code null} if no rebuild is running.
+     */
+    private List<Runnable> pendingChanges;
+
+    public DriverLeaderboard(
+        MemberReputationRepository memberReputationRepository,
+        RideRepository rideRepository,
+        MemberRepository memberRepository
+    ) {
+        this.memberReputationRepository = memberReputationRepository;
+        this.rideRepository = rideRepository;
+        this.memberRepository = memberRepository;
+    }
+
+    /**
+     * Load the ratings and the rides of every driver into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = REBUILD_INTERVAL_MINUTES, fixedDelay = REBUILD_INTERVAL_MINUTES, timeUnit = TimeUnit.MINUTES)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<MemberReputation> reputations = null;
+        List<RideDrive> rides = null;
+        try {
+            reputations = memberReputationRepository.findAll();
+            rides = rideRepository.findAllDrives();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rides != null) {
+                    load(reputations, rides, Instant.now().getEpochSecond());
+                }
+                List<Runnable> changes = pendingChanges;
+                pendingChanges = null;
+                changes.forEach(Runnable::run);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Ranked {} drivers in {} ms", size(), System.currentTimeMillis() - start);
+    }
+
+    private void load(List<MemberReputation> reputations, List<RideDrive> rides, long now) {
+        drivers.clear();
+        drives.clear();
+        upcoming.clear();
+        ranking.clear();
+        regions.clear();
+        long count = 0;
+        long sum = 0;
+        for (MemberReputation reputation : reputations) {
+            Driver driver = driver(reputation.getMemberId());
+            driver.ratingCount = valueOf(reputation.getRatingCount());
+            driver.scoreSum = valueOf(reputation.getScoreSum());
+            count += driver.ratingCount;
+            sum += driver.scoreSum;
+        }
+        priorMean = count > 0 ? (double) sum / count : DEFAULT_PRIOR_MEAN;
+        for (RideDrive ride : rides) {
+            Drive drive = toDrive(ride.getId(), ride.getDriverId(), ride.getStartLocation(), ride.getStartTime(), ride.getEndTime());
+            if (drive != null) {
+                add(drive, now);
+            }
+        }
+        drivers.values().forEach(driver -> driver.score = score(driver));
+        drivers.values().forEach(this::link);
+    }
+
+    /**
+     * Report a change of the ratings received by a member.
+     *
+     * @param memberId the id of the rated member.
+     * @param score the score of the ratings.
+     * @param delta the number of ratings, negative if they were removed.
+     */
+    public void addRatings(Long memberId, int score, long delta) {
+        apply(() -> {
+            Driver driver = driver(memberId);
+            unlink(driver);
+            driver.ratingCount += delta;
+            driver.scoreSum += delta * score;
+            driver.score = score(driver);
+            link(driver);
+        });
+    }
+
+    /**
+     * Add or replace a ride in the index. A ride without driver or start time is removed from the index.
+     *
+     * @param ride the ride to index.
+     */
+    public void put(RideDTO ride) {
+        if (ride.getId() == null) {
+            return;
+        }
+        Drive drive = toDrive(
+            ride.getId(),
+            ride.getMember() != null ? ride.getMember().getId() : null,
+            ride.getStartLocation(),
+            ride.getStartTime(),
+            ride.getEndTime()
+        );
+        long now = Instant.now().getEpochSecond();
+        apply(() -> {
+            Drive previous = drives.get(ride.getId());
+            if (previous != null) {
+                withDriver(previous.driverId, () -> remove(previous));
+            }
+            if (drive != null) {
+                withDriver(drive.driverId, () -> add(drive, now));
+            }
+        });
+    }
+
+    /**
+     * Remove a ride from the index.
+     *
+     * @param id the id of the ride.
+     */
+    public void remove(Long id) {
+        apply(() -> {
+            Drive previous = drives.get(id);
+            if (previous != null) {
+                withDriver(previous.driverId, () -> remove(previous));
+            }
+        });
+    }
+
+    /**
+     * Count the rides that arrived since the previous tick.
+     */
+    @Scheduled(initialDelay = 1, fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void completeArrivedRides() {
+        completeRidesArrivedBy(Instant.now().getEpochSecond());
+    }
+
+    void completeRidesArrivedBy(long now) {
+        lock.writeLock().lock();
+        try {
+            while (!upcoming.isEmpty() && upcoming.first().arrival <= now) {
+                Drive drive = upcoming.pollFirst();
+                withDriver(drive.driverId, () -> complete(drive, 1));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the best ranked drivers.
+     *
+     * @param region the region of the drivers, or {@code null} for all the regions.
+     * @param limit the maximal number of drivers, at most {@link #MAX_LIMIT}.
+     * @return the drivers, best first.
+     */
+    public List<LeaderboardEntryDTO> top(String region, int limit) {
+        List<LeaderboardEntryDTO> entries = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            NavigableSet<Driver> ranked = region != null ? regions.get(LocationTrie.fold(region)) : ranking;
+            if (ranked != null) {
+                Iterator<Driver> iterator = ranked.iterator();
+                while (iterator.hasNext() && entries.size() < Math.min(limit, MAX_LIMIT)) {
+                    entries.add(toDto(iterator.next(), entries.size() + 1));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!entries.isEmpty()) {
+            Map<Long, String> logins = memberRepository
+                .findAllById(entries.stream().map(LeaderboardEntryDTO::getMemberId).toList())
+                .stream()
+                .collect(Collectors.toMap(Member::getId, Member::getLogin));
+            entries.forEach(entry -> entry.setLogin(logins.get(entry.getMemberId())));
+        }
+        return entries;
+    }
+
+    /**
+     * Number of drivers currently ranked.
+     *
+     * @return the number of ranked drivers.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a change now, and keep it for replay if a rebuild is reading the database.
+     */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Driver driver(Long memberId) {
+        return drivers.computeIfAbsent(memberId, id -> {
+            Driver driver = new Driver(id);
+            driver.score = score(driver);
+            return driver;
+        });
+    }
+
+    /**
+     * Apply a change to the rides of a driver, re-positioning the driver in the rankings.
+     */
+    private void withDriver(Long memberId, Runnable change) {
+        Driver driver = driver(memberId);
+        unlink(driver);
+        change.run();
+        link(driver);
+    }
+
+    private void add(Drive drive, long now) {
+        drives.put(drive.rideId, drive);
+        if (drive.arrival <= now) {
+            complete(drive, 1);
+        } else {
+            upcoming.add(drive);
+        }
+    }
+
+    private void remove(Drive drive) {
+        drives.remove(drive.rideId);
+        if (!upcoming.remove(drive)) {
+            complete(drive, -1);
+        }
+    }
+
+    private void complete(Drive drive, int delta) {
+        Driver driver = driver(drive.driverId);
+        driver.completedRides += delta;
+        if (!drive.region.isEmpty()) {
+            driver.regions.merge(drive.region, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private void unlink(Driver driver) {
+        ranking.remove(driver);
+        for (String region : driver.regions.keySet()) {
+            NavigableSet<Driver> ranked = regions.get(region);
+            if (ranked != null) {
+                ranked.remove(driver);
+                if (ranked.isEmpty()) {
+                    regions.remove(region);
+                }
+            }
+        }
+    }
+
+    private void link(Driver driver) {
+        if (driver.completedRides <= 0) {
+            return;
+        }
+        ranking.add(driver);
+        for (String region : driver.regions.keySet()) {
+            regions.computeIfAbsent(region, key -> new TreeSet<>(BY_RANK)).add(driver);
+        }
+    }
+
+    private double score(Driver driver) {
+        return (PRIOR_WEIGHT * priorMean + driver.scoreSum) / (PRIOR_WEIGHT + Math.max(0, driver.ratingCount));
+    }
+
+    private static Drive toDrive(Long rideId, Long driverId, String startLocation, ZonedDateTime startTime, ZonedDateTime endTime) {
+        if (driverId == null || startTime == null) {
+            return null;
+        }
+        long arrival = (endTime != null && endTime.isAfter(startTime) ? endTime : startTime).toEpochSecond();
+        return new Drive(rideId, driverId, LocationTrie.fold(startLocation), arrival);
+    }
+
+    private static LeaderboardEntryDTO toDto(Driver driver, int rank) {
+        LeaderboardEntryDTO entry = new LeaderboardEntryDTO();
+        entry.setRank(rank);
+        entry.setMemberId(driver.memberId);
+        entry.setScore(driver.score);
+        entry.setRatingCount(driver.ratingCount);
+        entry.setMeanRating(driver.ratingCount > 0 ? (double) driver.scoreSum / driver.ratingCount : null);
+        entry.setCompletedRides(driver.completedRides);
+        return entry;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * A driver, as held by the rankings. Its sort fields are only changed while it is out of the rankings.
+     */
+    private static final class Driver {
+
+        private final long memberId;
+        private final Map<String, Integer> regions = new HashMap<>();
+        private long ratingCount;
+        private long scoreSum;
+        private long completedRides;
+        private double score;
+
+        private Driver(long memberId) {
+            this.memberId = memberId;
+        }
+    }
+
+    private record Drive(long rideId, long driverId, String region, long arrival) {}
+}
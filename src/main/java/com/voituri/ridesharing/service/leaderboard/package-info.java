@@ -0,0 +1,4 @@
+/**
+ * In-memory ranking of the drivers, used for the leaderboard.
+ */
+package com.voituri.ridesharing.service.leaderboard;
@@ -0,0 +1,276 @@
+package com.voituri.ridesharing.service.location;
+
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.repository.RideRepository.RideLocations;
+import com.voituri.ridesharing.service.dto.LocationSuggestionDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory prefix trie of the distinct start and end locations of the {@link Ride}s, weighted by the number of rides
+ * using them.
+ * <p>
+ * Locations are folded (accents stripped, lower-cased, whitespace collapsed) before being indexed, so that spellings which
+ * only differ by case or accents are grouped together; the most used spelling is the one suggested. Every node keeps its
+ * {@value #MAX_SUGGESTIONS} heaviest locations, so a lookup only walks down the prefix and never visits the subtree below it.
+ * An update recomputes these lists along the path of the changed location only.
+ * <p>
+ * The trie is loaded from the database once the application is ready and is kept up to date by
+ * {@link com.voituri.ridesharing.service.RideService}.
+ */
+@Component
+public class LocationTrie {
+
+    /**
+     * Maximal number of suggestions kept per node, and returned by a lookup.
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Comparator<Location> BY_WEIGHT = Comparator.comparingLong((Location location) -> location.weight)
+        .reversed()
+        .thenComparing(location -> location.key);
+
+    private final Logger log = LoggerFactory.getLogger(LocationTrie.class);
+
+    private final RideRepository rideRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, RideEndpoints> rides = new HashMap<>();
+
+    private Node root = new Node();
+
+    public LocationTrie(RideRepository rideRepository) {
+        this.rideRepository = rideRepository;
+    }
+
+    /**
+     * Load the locations of every ride into the trie.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            rides.clear();
+            for (RideLocations ride : rideRepository.findAllLocations()) {
+                RideEndpoints endpoints = new RideEndpoints(ride.getStartLocation(), ride.getEndLocation());
+                rides.put(ride.getId(), endpoints);
+                add(endpoints, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed the locations of {} rides in {} ms", rides.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Add or replace the locations of a ride.
+     *
+     * @param ride the ride to index.
+     */
+    public void put(RideDTO ride) {
+        if (ride.getId() == null) {
+            return;
+        }
+        RideEndpoints endpoints = new RideEndpoints(ride.getStartLocation(), ride.getEndLocation());
+        lock.writeLock().lock();
+        try {
+            RideEndpoints previous = rides.put(ride.getId(), endpoints);
+            if (!endpoints.equals(previous)) {
+                if (previous != null) {
+                    add(previous, -1);
+                }
+                add(endpoints, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the locations of a ride.
+     *
+     * @param id the id of the ride.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            RideEndpoints previous = rides.remove(id);
+            if (previous != null) {
+                add(previous, -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suggest the most used locations starting with a prefix, ignoring case and accents.
+     *
+     * @param prefix the prefix typed by the user.
+     * @param limit the maximal number of suggestions, at most {@link #MAX_SUGGESTIONS}.
+     * @return the suggestions, most used first.
+     */
+    public List<LocationSuggestionDTO> suggest(String prefix, int limit) {
+        String key = fold(prefix);
+        List<LocationSuggestionDTO> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node != null) {
+                for (Location location : node.top.subList(0, Math.min(limit, node.top.size()))) {
+                    result.add(new LocationSuggestionDTO(location.spelling, location.weight));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Number of distinct (folded) locations currently held by the trie.
+     *
+     * @return the number of locations.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return root.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fold a location name: strip the accents, lower-case it and collapse the whitespace.
+     *
+     * @param location the location name.
+     * @return the folded name, empty if {@code location} is {@code null} or blank.
+     */
+    public static String fold(String location) {
+        if (location == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(location, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void add(RideEndpoints endpoints, int delta) {
+        add(endpoints.start(), delta);
+        add(endpoints.end(), delta);
+    }
+
+    private void add(String spelling, int delta) {
+        String key = fold(spelling);
+        if (key.isEmpty()) {
+            return;
+        }
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = path[i].children.get(key.charAt(i));
+            if (child == null) {
+                if (delta < 0) {
+                    return;
+                }
+                child = new Node();
+                path[i].children.put(key.charAt(i), child);
+            }
+            path[i + 1] = child;
+        }
+
+        Node leaf = path[key.length()];
+        if (leaf.location == null) {
+            if (delta < 0) {
+                return;
+            }
+            leaf.location = new Location(key);
+        }
+        leaf.location.add(spelling.trim(), delta);
+        if (leaf.location.weight <= 0) {
+            leaf.location = null;
+        }
+
+        for (int i = key.length(); i >= 0; i--) {
+            Node node = path[i];
+            node.refresh();
+            if (i > 0 && node.location == null && node.children.isEmpty()) {
+                path[i - 1].children.remove(key.charAt(i - 1));
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>();
+        private Location location;
+        private List<Location> top = List.of();
+        private int count;
+
+        private void refresh() {
+            List<Location> candidates = new ArrayList<>();
+            int total = 0;
+            if (location != null) {
+                candidates.add(location);
+                total++;
+            }
+            for (Node child : children.values()) {
+                candidates.addAll(child.top);
+                total += child.count;
+            }
+            candidates.sort(BY_WEIGHT);
+            top = List.copyOf(candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())));
+            count = total;
+        }
+    }
+
+    private static final class Location {
+
+        private final String key;
+        private final Map<String, Long> spellings = new HashMap<>();
+        private long weight;
+        private String spelling;
+
+        private Location(String key) {
+            this.key = key;
+        }
+
+        private void add(String spelling, int delta) {
+            spellings.merge(spelling, (long) delta, (a, b) -> a + b > 0 ? a + b : null);
+            weight += delta;
+            this.spelling = spellings
+                .entrySet()
+                .stream()
+                .max(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+        }
+    }
+
+    private record RideEndpoints(String start, String end) {}
+}
@@ -0,0 +1,4 @@
+/**
+ * In-memory index of the ride location names, used for autocompletion.
+ */
+package com.voituri.ridesharing.service.location;
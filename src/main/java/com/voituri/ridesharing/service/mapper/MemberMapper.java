@@ -12,6 +12,7 @@ import org.mapstruct.*;
 @Mapper(componentModel = "spring")
 public interface MemberMapper extends EntityMapper<MemberDTO, Member> {
     @Mapping(target = "profile", source = "profile", qualifiedByName = "profileId")
+    @Mapping(target = "reputation", ignore = true)
     MemberDTO toDto(Member s);
 
     @Named("profileId")
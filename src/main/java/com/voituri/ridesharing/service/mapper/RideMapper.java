@@ -14,6 +14,12 @@ public interface RideMapper extends EntityMapper<RideDTO, Ride> {
     @Mapping(target = "member", source = "member", qualifiedByName = "memberId")
     RideDTO toDto(Ride s);
 
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "availableSeats", ignore = true)
+    void partialUpdate(@MappingTarget Ride entity, RideDTO dto);
+
     @Named("memberId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
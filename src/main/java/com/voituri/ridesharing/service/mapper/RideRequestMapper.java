@@ -1,7 +1,9 @@
 package com.voituri.ridesharing.service.mapper;
 
+import com.voituri.ridesharing.domain.Member;
 import com.voituri.ridesharing.domain.Ride;
 import com.voituri.ridesharing.domain.RideRequest;
+import com.voituri.ridesharing.service.dto.MemberDTO;
 import com.voituri.ridesharing.service.dto.RideDTO;
 import com.voituri.ridesharing.service.dto.RideRequestDTO;
 import org.mapstruct.*;
@@ -12,10 +14,16 @@ import org.mapstruct.*;
 @Mapper(componentModel = "spring")
 public interface RideRequestMapper extends EntityMapper<RideRequestDTO, RideRequest> {
     @Mapping(target = "ride", source = "ride", qualifiedByName = "rideId")
+    @Mapping(target = "member", source = "member", qualifiedByName = "memberId")
     RideRequestDTO toDto(RideRequest s);
 
     @Named("rideId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
     RideDTO toDtoRideId(Ride ride);
+
+    @Named("memberId")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    MemberDTO toDtoMemberId(Member member);
 }
@@ -0,0 +1,21 @@
+package com.voituri.ridesharing.service.mapper;
+
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.SavedSearch;
+import com.voituri.ridesharing.service.dto.MemberDTO;
+import com.voituri.ridesharing.service.dto.SavedSearchDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link SavedSearch} and its DTO {@link SavedSearchDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface SavedSearchMapper extends EntityMapper<SavedSearchDTO, SavedSearch> {
+    @Mapping(target = "member", source = "member", qualifiedByName = "memberId")
+    SavedSearchDTO toDto(SavedSearch s);
+
+    @Named("memberId")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    MemberDTO toDtoMemberId(Member member);
+}
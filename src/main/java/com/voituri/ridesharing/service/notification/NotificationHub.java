@@ -0,0 +1,291 @@
+package com.voituri.ridesharing.service.notification;
+
+import com.voituri.ridesharing.service.dto.NotificationDTO;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hub pushing the new notifications of a {@link com.voituri.ridesharing.domain.Member} to the streams opened by that member.
+ * <p>
+ * Each subscription has its own bounded queue, drained by at most one delivery thread at a time, so publishing never waits
+ * for a stream and a slow stream only delays itself. A subscription whose queue is full is cancelled and told so: its client
+ * is expected to reconnect and resume from the last notification it received.
+ * <p>
+ * A subscription starts paused, so that the notifications missed by a resuming client can be delivered first: the
+ * notifications published meanwhile are queued, and the ones also found in the missed list are dropped when it is
+ * {@linkplain Subscription#start(List) started}.
+ * <p>
+ * Heartbeats go through the same queue, so that a stream is only ever written by its delivery thread and a stuck stream
+ * never delays the others.
+ */
+@Component
+public class NotificationHub {
+
+    /**
+     * Maximal number of notifications waiting to be delivered to a subscription.
+     */
+    static final int QUEUE_CAPACITY = 256;
+
+    private static final int DELIVERY_THREADS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    private final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    private final ConcurrentMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    public NotificationHub() {
+        this(Executors.newFixedThreadPool(DELIVERY_THREADS, daemonThreadFactory()));
+    }
+
+    NotificationHub(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("notification-push-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Subscribe to the new notifications of a member. Nothing is delivered until the subscription is
+     * {@linkplain Subscription#start(List) started}.
+     *
+     * @param memberId the id of the member.
+     * @param subscriber the receiver of the notifications.
+     * @return the paused subscription, to be cancelled when the stream is closed.
+     */
+    public Subscription subscribe(long memberId, Subscriber subscriber) {
+        Subscription subscription = new Subscription(memberId, subscriber);
+        subscriptions.computeIfAbsent(memberId, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        log.debug("Subscribed to the notifications of Member {}", memberId);
+        return subscription;
+    }
+
+    /**
+     * Queue a notification for delivery to the subscribers of its member.
+     *
+     * @param notification the notification, with its member.
+     */
+    public void publish(NotificationDTO notification) {
+        if (notification.getMember() == null || notification.getMember().getId() == null) {
+            return;
+        }
+        Set<Subscription> memberSubscriptions = subscriptions.get(notification.getMember().getId());
+        if (memberSubscriptions != null) {
+            for (Subscription subscription : memberSubscriptions) {
+                subscription.offer(notification);
+            }
+        }
+    }
+
+    /**
+     * Number of live subscriptions, for all the members.
+     *
+     * @return the number of subscriptions.
+     */
+    public int size() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.memberId, (key, memberSubscriptions) -> {
+            memberSubscriptions.remove(subscription);
+            return memberSubscriptions.isEmpty() ? null : memberSubscriptions;
+        });
+    }
+
+    /**
+     * Receiver of the notifications of a member, typically a client stream.
+     */
+    public interface Subscriber {
+        /**
+         * Deliver a notification. Called by one thread at a time, in publication order.
+         *
+         * @param notification the notification.
+         * @throws Exception if the notification cannot be delivered; the subscription is then cancelled.
+         */
+        void deliver(NotificationDTO notification) throws Exception;
+
+        /**
+         * Send a heartbeat. Called by the same threads as {@link #deliver(NotificationDTO)}, once the notifications queued
+         * before it are delivered.
+         *
+         * @throws Exception if the heartbeat cannot be sent; the subscription is then cancelled.
+         */
+        void heartbeat() throws Exception;
+
+        /**
+         * Called once when the subscription is cancelled because notifications were published faster than they were delivered.
+         */
+        void overflow();
+    }
+
+    /**
+     * A subscription to the notifications of a member.
+     */
+    public final class Subscription {
+
+        private final long memberId;
+
+        private final Subscriber subscriber;
+
+        private final Queue<NotificationDTO> queue = new ArrayDeque<>();
+
+        private boolean draining = true;
+
+        private boolean heartbeatPending;
+
+        private boolean cancelled;
+
+        private Subscription(long memberId, Subscriber subscriber) {
+            this.memberId = memberId;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Start delivering: first the given missed notifications, then the ones published since the subscription.
+         *
+         * @param missed the notifications to deliver first, oldest first.
+         */
+        public void start(List<NotificationDTO> missed) {
+            boolean overflow = false;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                Set<Long> missedIds = new HashSet<>();
+                for (NotificationDTO notification : missed) {
+                    missedIds.add(notification.getId());
+                }
+                Queue<NotificationDTO> published = new ArrayDeque<>(queue);
+                queue.clear();
+                queue.addAll(missed);
+                for (NotificationDTO notification : published) {
+                    if (!missedIds.contains(notification.getId())) {
+                        queue.add(notification);
+                    }
+                }
+                overflow = queue.size() > QUEUE_CAPACITY;
+            }
+            if (overflow) {
+                overflow();
+            } else {
+                executeDrain();
+            }
+        }
+
+        /**
+         * Stop receiving notifications. Notifications still queued are dropped.
+         */
+        public void cancel() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                queue.clear();
+            }
+            unregister(this);
+        }
+
+        /**
+         * Queue a heartbeat, unless one is already waiting to be sent.
+         */
+        public void heartbeat() {
+            boolean schedule;
+            synchronized (this) {
+                if (cancelled || heartbeatPending) {
+                    return;
+                }
+                heartbeatPending = true;
+                schedule = !draining;
+                draining = true;
+            }
+            if (schedule) {
+                executeDrain();
+            }
+        }
+
+        private void offer(NotificationDTO notification) {
+            boolean overflow = false;
+            boolean schedule = false;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (queue.size() >= QUEUE_CAPACITY) {
+                    overflow = true;
+                } else {
+                    queue.add(notification);
+                    schedule = !draining;
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                overflow();
+            } else if (schedule) {
+                executeDrain();
+            }
+        }
+
+        private void overflow() {
+            log.debug("Notification subscription of Member {} is too slow, cancelling it", memberId);
+            cancel();
+            subscriber.overflow();
+        }
+
+        private void executeDrain() {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                cancel();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                NotificationDTO notification;
+                synchronized (this) {
+                    notification = cancelled ? null : queue.poll();
+                    if (notification == null && (cancelled || !heartbeatPending)) {
+                        draining = false;
+                        return;
+                    }
+                    if (notification == null) {
+                        heartbeatPending = false;
+                    }
+                }
+                try {
+                    if (notification != null) {
+                        subscriber.deliver(notification);
+                    } else {
+                        subscriber.heartbeat();
+                    }
+                } catch (Exception e) {
+                    log.debug("Could not deliver to a notification subscription of Member {}: {}", memberId, e.getMessage());
+                    cancel();
+                }
+            }
+        }
+    }
+}
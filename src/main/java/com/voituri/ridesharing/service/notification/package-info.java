@@ -0,0 +1,4 @@
+/**
+ * In-process push of the new notifications to the live streams of their members.
+ */
+package com.voituri.ridesharing.service.notification;
@@ -0,0 +1,172 @@
+package com.voituri.ridesharing.service.recurrence;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.stream.LongStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expands the occurrences of recurring rides, on demand.
+ * <p>
+ * Occurrences are never stored in the database: they are computed from the {@link RideRecurrence} of a ride when a search
+ * or a match needs them. The occurrences of the next {@value #HORIZON_DAYS} days are cached per ride, which covers the
+ * usual search windows; windows outside of that horizon are expanded on the fly, over at most {@value #MAX_WINDOW_DAYS}
+ * days. The cache entry of a ride must be evicted whenever the ride is updated.
+ */
+@Component
+public class RideOccurrenceCache {
+
+    public static final String RIDE_OCCURRENCES_CACHE = "rideOccurrences";
+
+    /**
+     * Number of days ahead covered by the cached occurrences.
+     */
+    static final int HORIZON_DAYS = 120;
+
+    /**
+     * Maximal number of days expanded for a window outside of the cached horizon.
+     */
+    static final int MAX_WINDOW_DAYS = 366;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private static final long[] NONE = new long[0];
+
+    private final Logger log = LoggerFactory.getLogger(RideOccurrenceCache.class);
+
+    private final CacheManager cacheManager;
+
+    public RideOccurrenceCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Get the occurrences of a ride departing within a window.
+     *
+     * @param rideId the id of the ride.
+     * @param recurrence the recurrence rule of the ride.
+     * @param from the start of the window, in epoch seconds.
+     * @param to the end of the window, in epoch seconds.
+     * @return the departure times of the occurrences, in epoch seconds, in ascending order.
+     */
+    public long[] startsBetween(Long rideId, RideRecurrence recurrence, long from, long to) {
+        Occurrences occurrences = get(rideId, recurrence);
+        if (from >= occurrences.from() && to <= occurrences.to()) {
+            long[] starts = occurrences.starts();
+            return Arrays.copyOfRange(starts, lowerBound(starts, from), lowerBound(starts, to + 1));
+        }
+        return expand(recurrence, from, to);
+    }
+
+    /**
+     * Get the first occurrence of a ride departing within a window.
+     *
+     * @param rideId the id of the ride.
+     * @param recurrence the recurrence rule of the ride.
+     * @param from the start of the window, in epoch seconds.
+     * @param to the end of the window, in epoch seconds.
+     * @return the departure time of the occurrence in epoch seconds, if any.
+     */
+    public OptionalLong firstStartBetween(Long rideId, RideRecurrence recurrence, long from, long to) {
+        Occurrences occurrences = get(rideId, recurrence);
+        if (from >= occurrences.from() && from <= occurrences.to()) {
+            long[] starts = occurrences.starts();
+            int index = lowerBound(starts, from);
+            if (index < starts.length) {
+                return starts[index] <= to ? OptionalLong.of(starts[index]) : OptionalLong.empty();
+            }
+            from = occurrences.to() + 1;
+        }
+        long[] starts = expand(recurrence, from, to);
+        return starts.length > 0 ? OptionalLong.of(starts[0]) : OptionalLong.empty();
+    }
+
+    /**
+     * Forget the cached occurrences of a ride.
+     *
+     * @param rideId the id of the ride.
+     */
+    public void evict(Long rideId) {
+        cache().evict(rideId);
+    }
+
+    private Occurrences get(Long rideId, RideRecurrence recurrence) {
+        return cache()
+            .get(rideId, () -> {
+                long now = Instant.now().getEpochSecond();
+                long from = now - SECONDS_PER_DAY;
+                long to = now + HORIZON_DAYS * SECONDS_PER_DAY;
+                log.debug("Expanding the occurrences of Ride : {}", rideId);
+                return new Occurrences(from, to, expand(recurrence, from, to));
+            });
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(RIDE_OCCURRENCES_CACHE));
+    }
+
+    /**
+     * Compute the occurrences of a ride departing within a window, without cache.
+     *
+     * @param recurrence the recurrence rule of the ride.
+     * @param from the start of the window, in epoch seconds.
+     * @param to the end of the window, in epoch seconds.
+     * @return the departure times of the occurrences, in epoch seconds, in ascending order.
+     */
+    static long[] expand(RideRecurrence recurrence, long from, long to) {
+        ZonedDateTime start = recurrence.start();
+        long first = start.toEpochSecond();
+        from = Math.max(from, first);
+        to = Math.min(to, Math.min(recurrence.lastEnd() - recurrence.durationSeconds(), from + MAX_WINDOW_DAYS * SECONDS_PER_DAY));
+        if (from > to) {
+            return NONE;
+        }
+        ZoneId zone = start.getZone();
+        LocalDate startDay = start.toLocalDate();
+        LocalTime time = start.toLocalTime();
+        // One day of margin on each side, as the offset of the zone may change between the window and the occurrences
+        LocalDate day = Instant.ofEpochSecond(from).atZone(zone).toLocalDate().minusDays(1);
+        LocalDate lastDay = Instant.ofEpochSecond(to).atZone(zone).toLocalDate().plusDays(1);
+        if (day.isBefore(startDay)) {
+            day = startDay;
+        }
+        LongStream.Builder starts = LongStream.builder();
+        for (; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            if (day.equals(startDay) || recurrence.days().contains(dayOfWeek)) {
+                long departure = ZonedDateTime.of(day, time, zone).toEpochSecond();
+                if (departure >= from && departure <= to) {
+                    starts.add(departure);
+                }
+            }
+        }
+        return starts.build().toArray();
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record Occurrences(long from, long to, long[] starts) {}
+}
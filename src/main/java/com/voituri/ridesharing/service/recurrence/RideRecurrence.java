@@ -0,0 +1,78 @@
+package com.voituri.ridesharing.service.recurrence;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Recurrence rule of a ride: the ride leaves at the time of day of its first departure, on each of the given days of week,
+ * until a given date included (or forever).
+ * <p>
+ * The first departure is always an occurrence, even if its day of week is not part of the rule. Every occurrence lasts as
+ * long as the first one.
+ *
+ * @param start the first departure of the ride.
+ * @param durationSeconds the duration of each occurrence, in seconds.
+ * @param days the days of week the ride is repeated on.
+ * @param until the last day of the recurrence, or {@code null} if it never ends.
+ */
+public record RideRecurrence(ZonedDateTime start, long durationSeconds, Set<DayOfWeek> days, LocalDate until) {
+    /**
+     * Build the recurrence rule of a ride.
+     *
+     * @param recurring whether the ride is recurring.
+     * @param startTime the first departure of the ride.
+     * @param endTime the first arrival of the ride, or {@code null}.
+     * @param days the days of week the ride is repeated on, as a comma separated list of {@code MON} to {@code SUN}.
+     * @param until the last day of the recurrence, or {@code null}.
+     * @return the rule, or {@code null} if the ride only leaves once.
+     */
+    public static RideRecurrence of(Boolean recurring, ZonedDateTime startTime, ZonedDateTime endTime, String days, LocalDate until) {
+        if (!Boolean.TRUE.equals(recurring) || startTime == null || days == null || days.isBlank()) {
+            return null;
+        }
+        if (until != null && until.isBefore(startTime.toLocalDate())) {
+            return null;
+        }
+        Set<DayOfWeek> daysOfWeek = parseDays(days);
+        if (daysOfWeek.isEmpty()) {
+            return null;
+        }
+        long duration = endTime != null ? Math.max(0, endTime.toEpochSecond() - startTime.toEpochSecond()) : 0;
+        return new RideRecurrence(startTime, duration, daysOfWeek, until);
+    }
+
+    /**
+     * Parse a comma separated list of days of week, such as {@code MON,WED,FRI}. Unknown days are ignored.
+     *
+     * @param days the list to parse.
+     * @return the days of week.
+     */
+    public static Set<DayOfWeek> parseDays(String days) {
+        Set<DayOfWeek> result = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : days.split(",")) {
+            String name = day.trim().toUpperCase(Locale.ROOT);
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                if (dayOfWeek.name().startsWith(name) && name.length() >= 3) {
+                    result.add(dayOfWeek);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * End of the last occurrence.
+     *
+     * @return the end of the last occurrence in epoch seconds, or {@link Long#MAX_VALUE} if the ride is repeated forever.
+     */
+    public long lastEnd() {
+        if (until == null) {
+            return Long.MAX_VALUE;
+        }
+        return start.with(until).toEpochSecond() + durationSeconds;
+    }
+}
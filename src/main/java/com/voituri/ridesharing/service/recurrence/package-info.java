@@ -0,0 +1,4 @@
+/**
+ * Recurrence rules of the rides, and the lazy expansion of their occurrences.
+ */
+package com.voituri.ridesharing.service.recurrence;
@@ -0,0 +1,146 @@
+package com.voituri.ridesharing.web.filter;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limits the rate of the API requests with {@link TokenBuckets}, configured by {@code application.rate-limit}. A request
+ * over its limit is answered with a {@code 429 Too Many Requests} and a {@code Retry-After}.
+ * <p>
+ * Two instances are used: {@link #perIp} keeps one bucket per client IP and runs before the authentication, so that requests
+ * with forged or garbage tokens are limited too; {@link #perPrincipal} keeps one bucket per JWT subject and runs after it.
+ * <p>
+ * The client IP is the remote address of the request: behind a proxy, {@code server.forward-headers-strategy} must be set so
+ * that it is the address of the client and not of the proxy.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String METER_PREFIX = "http.rate-limit";
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY = (
+        "{\"title\":\"Too Many Requests\",\"status\":429,\"message\":\"error.http.429\"}"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private final String limit;
+
+    private final Function<HttpServletRequest, String> keyResolver;
+
+    private final TokenBuckets buckets;
+
+    private final Counter rejections;
+
+    /**
+     * Create the filter limiting the requests per client IP.
+     *
+     * @param applicationProperties the application properties.
+     * @param meterRegistry the meter registry.
+     * @return the filter.
+     */
+    public static RateLimitFilter perIp(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return perIp(applicationProperties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * Create the filter limiting the requests per JWT subject. The requests not authenticated by a JWT are let through.
+     *
+     * @param applicationProperties the application properties.
+     * @param meterRegistry the meter registry.
+     * @return the filter.
+     */
+    public static RateLimitFilter perPrincipal(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return perPrincipal(applicationProperties, meterRegistry, System::nanoTime);
+    }
+
+    static RateLimitFilter perIp(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        return new RateLimitFilter(
+            "ip",
+            HttpServletRequest::getRemoteAddr,
+            applicationProperties.getRateLimit().getPerIp(),
+            meterRegistry,
+            nanoTime
+        );
+    }
+
+    static RateLimitFilter perPrincipal(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        return new RateLimitFilter(
+            "principal",
+            request ->
+                SecurityContextHolder.getContext().getAuthentication() instanceof JwtAuthenticationToken authentication
+                    ? authentication.getName()
+                    : null,
+            applicationProperties.getRateLimit().getPerPrincipal(),
+            meterRegistry,
+            nanoTime
+        );
+    }
+
+    private RateLimitFilter(
+        String limit,
+        Function<HttpServletRequest, String> keyResolver,
+        ApplicationProperties.RateLimit.Bucket properties,
+        MeterRegistry meterRegistry,
+        LongSupplier nanoTime
+    ) {
+        this.limit = limit;
+        this.keyResolver = keyResolver;
+        this.buckets = new TokenBuckets(properties.getCapacity(), properties.getRefillPerSecond(), nanoTime);
+        this.rejections = Counter.builder(METER_PREFIX + ".rejected")
+            .description("Number of requests refused because their client exceeded its rate limit")
+            .tag("limit", limit)
+            .register(meterRegistry);
+        Gauge.builder(METER_PREFIX + ".buckets", buckets, TokenBuckets::size)
+            .description("Number of rate limiting buckets in use")
+            .tag("limit", limit)
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        // Both instances share this class, and must not skip each other
+        return super.getAlreadyFilteredAttributeName() + "." + limit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String key = keyResolver.apply(request);
+        long waitNanos = key != null ? buckets.tryConsume(key) : 0;
+        if (waitNanos > 0) {
+            rejections.increment();
+            reject(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        // Rounded up, so that a client retrying on time is let through
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+    }
+}
@@ -0,0 +1,85 @@
+package com.voituri.ridesharing.web.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets by key: each bucket holds up to {@code capacity} tokens, refilled at {@code refillPerSecond} tokens per
+ * second, and a request takes one token.
+ * <p>
+ * A bucket is kept as the single instant at which it will be full again (the generic cell rate algorithm), updated with a
+ * compare-and-set, so that neither taking a token nor refilling locks or allocates. A full bucket is the same as no bucket
+ * at all, so the buckets that are full again are dropped from the map as time passes, which bounds its size by the number of
+ * keys active over the last {@code capacity / refillPerSecond} seconds.
+ */
+final class TokenBuckets {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final ConcurrentMap<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+
+    /**
+     * Time to refill one token.
+     */
+    private final long intervalNanos;
+
+    /**
+     * Time to refill a bucket from empty: a request is accepted while its bucket is full again before now plus this.
+     */
+    private final long burstNanos;
+
+    private final LongSupplier nanoTime;
+
+    private final AtomicLong nextSweep;
+
+    TokenBuckets(int capacity, int refillPerSecond, LongSupplier nanoTime) {
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, refillPerSecond);
+        this.burstNanos = intervalNanos * Math.max(1, capacity);
+        this.nanoTime = nanoTime;
+        this.nextSweep = new AtomicLong(nanoTime.getAsLong() + SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @param key the key.
+     * @return {@code 0} if a token was taken, else the time in nanoseconds until one is available.
+     */
+    long tryConsume(String key) {
+        long now = nanoTime.getAsLong();
+        sweep(now);
+        AtomicLong bucket = fullAt.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = bucket.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return next - now - burstNanos;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of buckets that are not full.
+     */
+    int size() {
+        return fullAt.size();
+    }
+
+    /**
+     * Drop the full buckets, at most once every {@link #SWEEP_INTERVAL_NANOS}; a single caller sweeps, the others do not wait.
+     * A token taken concurrently from a bucket being dropped is forgotten, which grants at most one extra request.
+     */
+    private void sweep(long now) {
+        long scheduled = nextSweep.get();
+        if (now - scheduled < 0 || !nextSweep.compareAndSet(scheduled, now + SWEEP_INTERVAL_NANOS)) {
+            return;
+        }
+        fullAt.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+}
@@ -3,25 +3,33 @@ package com.voituri.ridesharing.web.rest;
 import static com.voituri.ridesharing.security.SecurityUtils.AUTHORITIES_KEY;
 import static com.voituri.ridesharing.security.SecurityUtils.JWT_ALGORITHM;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.voituri.ridesharing.config.ApplicationProperties;
+import com.voituri.ridesharing.service.RefreshTokenService;
 import com.voituri.ridesharing.web.rest.vm.LoginVM;
+import com.voituri.ridesharing.web.rest.vm.RefreshTokenVM;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.stream.Collectors;
+import java.util.Collection;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -29,11 +37,18 @@ import org.springframework.web.bind.annotation.*;
 
 /**
  * Controller to authenticate users.
+ * <p>
+ * Access tokens are short-lived, and renewed with the refresh token handed out with them.
  */
 @RestController
 @RequestMapping("/api")
 public class AuthenticateController {
 
+    /**
+     * Claim holding the session of the refresh token an access token was issued with.
+     */
+    public static final String SESSION_KEY = "sid";
+
     private final Logger log = LoggerFactory.getLogger(AuthenticateController.class);
 
     private final JwtEncoder jwtEncoder;
@@ -46,9 +61,20 @@ public class AuthenticateController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final RefreshTokenService refreshTokenService;
+
+    private final Duration accessTokenValidity;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        RefreshTokenService refreshTokenService,
+        ApplicationProperties applicationProperties
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.refreshTokenService = refreshTokenService;
+        this.accessTokenValidity = applicationProperties.getRefreshToken().getAccessTokenValidity();
     }
 
     @PostMapping("/authenticate")
@@ -60,10 +86,39 @@ public class AuthenticateController {
 
         Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = this.createToken(authentication, loginVM.isRememberMe());
+        RefreshTokenService.IssuedToken refreshToken = refreshTokenService.create(
+            authentication.getName(),
+            Duration.ofSeconds(loginVM.isRememberMe() ? tokenValidityInSecondsForRememberMe : tokenValidityInSeconds)
+        );
+        String jwt = this.createToken(
+            authentication.getName(),
+            authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList(),
+            refreshToken.session()
+        );
+        return tokenResponse(jwt, refreshToken);
+    }
+
+    /**
+     * {@code POST /authenticate/refresh} : exchange a refresh token for a new access token and a new refresh token.
+     *
+     * @param refreshTokenVM the refresh token, which cannot be used again.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the new tokens, or with status
+     * {@code 401 (Unauthorized)} if the refresh token is not valid.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        log.debug("REST request to refresh an access token");
+        RefreshTokenService.Rotation rotation = refreshTokenService
+            .rotate(refreshTokenVM.getRefreshToken())
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        String jwt = this.createToken(rotation.login(), rotation.authorities(), rotation.token().session());
+        return tokenResponse(jwt, rotation.token());
+    }
+
+    private static ResponseEntity<JWTToken> tokenResponse(String jwt, RefreshTokenService.IssuedToken refreshToken) {
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setBearerAuth(jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken.value()), httpHeaders, HttpStatus.OK);
     }
 
     /**
@@ -78,23 +133,33 @@ public class AuthenticateController {
         return request.getRemoteUser();
     }
 
-    public String createToken(Authentication authentication, boolean rememberMe) {
-        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(" "));
+    /**
+     * {@code POST /logout} : revoke the token of the current request, and the refresh tokens of its session, which are
+     * refused from then on.
+     *
+     * @param jwt the token of the current request.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal Jwt jwt) {
+        log.debug("REST request to revoke the token of the current user");
+        if (jwt != null) {
+            refreshTokenService.revoke(jwt.getClaimAsString(SESSION_KEY), jwt.getId(), jwt.getExpiresAt());
+        }
+        return ResponseEntity.noContent().build();
+    }
 
+    public String createToken(String login, Collection<String> authorities, String session) {
         Instant now = Instant.now();
-        Instant validity;
-        if (rememberMe) {
-            validity = now.plus(this.tokenValidityInSecondsForRememberMe, ChronoUnit.SECONDS);
-        } else {
-            validity = now.plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS);
-        }
 
         // @formatter:off
         JwtClaimsSet claims = JwtClaimsSet.builder()
+            .id(UUID.randomUUID().toString())
             .issuedAt(now)
-            .expiresAt(validity)
-            .subject(authentication.getName())
-            .claim(AUTHORITIES_KEY, authorities)
+            .expiresAt(now.plus(accessTokenValidity))
+            .subject(login)
+            .claim(AUTHORITIES_KEY, String.join(" ", authorities))
+            .claim(SESSION_KEY, session)
             .build();
 
         JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
@@ -104,12 +169,16 @@ public class AuthenticateController {
     /**
      * Object to return as body in JWT Authentication.
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     static class JWTToken {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -120,5 +189,14 @@ public class AuthenticateController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
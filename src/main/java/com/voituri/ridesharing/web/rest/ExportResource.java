@@ -0,0 +1,64 @@
+package com.voituri.ridesharing.web.rest;
+
+import com.voituri.ridesharing.security.AuthoritiesConstants;
+import com.voituri.ridesharing.service.ExportService;
+import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller streaming whole tables for analytics.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportResource {
+
+    private final Logger log = LoggerFactory.getLogger(ExportResource.class);
+
+    private static final String ENTITY_NAME = "export";
+
+    private final ExportService exportService;
+
+    public ExportResource(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * {@code GET  /export/:entity} : stream all the rows of an entity.
+     *
+     * @param entity the name of the entity to export: {@code rides}, {@code ratings} or {@code messages}.
+     * @param format the output format: {@code ndjson} (one JSON object per line) or {@code csv}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the rows streamed in body,
+     * or with status {@code 400 (Bad Request)} if the entity or the format is not supported.
+     */
+    @GetMapping("/{entity}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<StreamingResponseBody> exportEntity(
+        @PathVariable("entity") String entity,
+        @RequestParam(value = "format", defaultValue = "ndjson") String format
+    ) {
+        log.debug("REST request to export {} as {}", entity, format);
+        ExportService.ExportedEntity exportedEntity = ExportService.ExportedEntity.fromName(entity).orElseThrow(
+            () -> new BadRequestAlertException("Unsupported entity", ENTITY_NAME, "entityunsupported")
+        );
+        ExportService.Format exportFormat = ExportService.Format.fromName(format).orElseThrow(
+            () -> new BadRequestAlertException("Unsupported format", ENTITY_NAME, "formatunsupported")
+        );
+
+        StreamingResponseBody body = out -> exportService.export(exportedEntity, exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(entity + "." + exportFormat.getExtension()).build().toString()
+            )
+            .body(body);
+    }
+}
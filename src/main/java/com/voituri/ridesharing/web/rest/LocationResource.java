@@ -0,0 +1,46 @@
+package com.voituri.ridesharing.web.rest;
+
+import com.voituri.ridesharing.service.dto.LocationSuggestionDTO;
+import com.voituri.ridesharing.service.location.LocationTrie;
+import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the location names used by the {@link com.voituri.ridesharing.domain.Ride}s.
+ */
+@RestController
+@RequestMapping("/api/locations")
+public class LocationResource {
+
+    private final Logger log = LoggerFactory.getLogger(LocationResource.class);
+
+    private static final String ENTITY_NAME = "location";
+
+    private final LocationTrie locationTrie;
+
+    public LocationResource(LocationTrie locationTrie) {
+        this.locationTrie = locationTrie;
+    }
+
+    /**
+     * {@code GET  /locations/suggest} : suggest the most used locations starting with a prefix, ignoring case and accents.
+     *
+     * @param prefix the prefix typed by the user.
+     * @param limit the maximal number of suggestions.
+     * @return the list of suggestions, most used first, or with status {@code 400 (Bad Request)} if the limit is not valid.
+     */
+    @GetMapping("/suggest")
+    public List<LocationSuggestionDTO> suggestLocations(
+        @RequestParam("prefix") String prefix,
+        @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to suggest Locations : {}", prefix);
+        if (limit < 1 || limit > LocationTrie.MAX_SUGGESTIONS) {
+            throw new BadRequestAlertException("Invalid limit", ENTITY_NAME, "limitinvalid");
+        }
+        return locationTrie.suggest(prefix, limit);
+    }
+}
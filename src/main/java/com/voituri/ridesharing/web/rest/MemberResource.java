@@ -1,8 +1,12 @@
 package com.voituri.ridesharing.web.rest;
 
 import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.service.MemberReputationService;
 import com.voituri.ridesharing.service.MemberService;
+import com.voituri.ridesharing.service.dto.LeaderboardEntryDTO;
 import com.voituri.ridesharing.service.dto.MemberDTO;
+import com.voituri.ridesharing.service.dto.ReputationDTO;
+import com.voituri.ridesharing.service.leaderboard.DriverLeaderboard;
 import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -37,9 +41,20 @@ public class MemberResource {
 
     private final MemberRepository memberRepository;
 
-    public MemberResource(MemberService memberService, MemberRepository memberRepository) {
+    private final MemberReputationService memberReputationService;
+
+    private final DriverLeaderboard driverLeaderboard;
+
+    public MemberResource(
+        MemberService memberService,
+        MemberRepository memberRepository,
+        MemberReputationService memberReputationService,
+        DriverLeaderboard driverLeaderboard
+    ) {
         this.memberService = memberService;
         this.memberRepository = memberRepository;
+        this.memberReputationService = memberReputationService;
+        this.driverLeaderboard = driverLeaderboard;
     }
 
     /**
@@ -141,6 +156,25 @@ public class MemberResource {
         return memberService.findAll();
     }
 
+    /**
+     * {@code GET  /members/leaderboard} : get the best ranked drivers, by Bayesian-adjusted rating and completed rides.
+     *
+     * @param region the start location of the rides of the drivers, ignoring case and accents; all the regions if absent.
+     * @param limit the maximal number of drivers.
+     * @return the list of drivers, best first, or with status {@code 400 (Bad Request)} if the limit is not valid.
+     */
+    @GetMapping("/leaderboard")
+    public List<LeaderboardEntryDTO> getLeaderboard(
+        @RequestParam(value = "region", required = false) String region,
+        @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to get the leaderboard of region : {}", region);
+        if (limit < 1 || limit > DriverLeaderboard.MAX_LIMIT) {
+            throw new BadRequestAlertException("Invalid limit", ENTITY_NAME, "limitinvalid");
+        }
+        return driverLeaderboard.top(region != null && !region.isBlank() ? region : null, limit);
+    }
+
     /**
      * {@code GET  /members/:id} : get the "id" member.
      *
@@ -154,6 +188,18 @@ public class MemberResource {
         return ResponseUtil.wrapOrNotFound(memberDTO);
     }
 
+    /**
+     * {@code GET  /members/:id/reputation} : get the reputation of the "id" member.
+     *
+     * @param id the id of the member.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the reputation, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/reputation")
+    public ResponseEntity<ReputationDTO> getMemberReputation(@PathVariable("id") Long id) {
+        log.debug("REST request to get the reputation of Member : {}", id);
+        return ResponseUtil.wrapOrNotFound(memberReputationService.findByMember(id));
+    }
+
     /**
      * {@code DELETE  /members/:id} : delete the "id" member.
      *
@@ -4,6 +4,7 @@ import com.voituri.ridesharing.repository.MessageRepository;
 import com.voituri.ridesharing.service.MessageService;
 import com.voituri.ridesharing.service.dto.MessageDTO;
 import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
+import com.voituri.ridesharing.web.rest.util.KeysetPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -14,8 +15,11 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -44,9 +48,15 @@ public class MessageResource {
 
     /**
      * {@code POST  /messages} : Create a new message.
+     * <p>
+     * With write-behind, a {@code 202 (Accepted)} message is delivered at most once: it is inserted later, and is dropped, with
+     * an error log and the {@code message.write.failures} meter, if it cannot be inserted then, for instance because its ride
+     * was deleted meanwhile.
      *
      * @param messageDTO the messageDTO to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new messageDTO, or with status {@code 400 (Bad Request)} if the message has already an ID.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new messageDTO,
+     * or with status {@code 202 (Accepted)} and with body the queued messageDTO, without id, if write-behind is enabled,
+     * or with status {@code 400 (Bad Request)} if the message has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
@@ -56,6 +66,9 @@ public class MessageResource {
             throw new BadRequestAlertException("A new message cannot already have an ID", ENTITY_NAME, "idexists");
         }
         messageDTO = messageService.save(messageDTO);
+        if (messageDTO.getId() == null) {
+            return ResponseEntity.accepted().body(messageDTO);
+        }
         return ResponseEntity.created(new URI("/api/messages/" + messageDTO.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, messageDTO.getId().toString()))
             .body(messageDTO);
@@ -131,14 +144,45 @@ public class MessageResource {
     }
 
     /**
-     * {@code GET  /messages} : get all the messages.
+     * {@code GET  /messages} : get a page of the messages.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of messages in body.
+     * @param after the cursor returned with the previous page, if any.
+     * @param limit the maximal number of messages in the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of messages in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("")
-    public List<MessageDTO> getAllMessages() {
-        log.debug("REST request to get all Messages");
-        return messageService.findAll();
+    public ResponseEntity<List<MessageDTO>> getAllMessages(
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = "" + KeysetPaginationUtil.DEFAULT_LIMIT) int limit
+    ) {
+        log.debug("REST request to get a page of Messages");
+        KeysetPaginationUtil.Cursor cursor = decodeCursor(after);
+        int pageSize = KeysetPaginationUtil.sanitizeLimit(limit);
+        Slice<MessageDTO> page = messageService.findAllAfter(
+            cursor != null ? cursor.timestamp() : null,
+            cursor != null ? cursor.id() : null,
+            pageSize
+        );
+        String nextCursor = null;
+        if (page.hasNext()) {
+            MessageDTO last = page.getContent().get(page.getNumberOfElements() - 1);
+            nextCursor = KeysetPaginationUtil.encodeCursor(last.getTimestamp(), last.getId());
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            nextCursor,
+            pageSize
+        );
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    private KeysetPaginationUtil.Cursor decodeCursor(String after) {
+        try {
+            return KeysetPaginationUtil.decodeTimestampCursor(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
     }
 
     /**
@@ -1,13 +1,18 @@
 package com.voituri.ridesharing.web.rest;
 
+import com.voituri.ridesharing.repository.MemberRepository;
 import com.voituri.ridesharing.repository.NotificationRepository;
+import com.voituri.ridesharing.security.SecurityUtils;
 import com.voituri.ridesharing.service.NotificationService;
+import com.voituri.ridesharing.service.dto.BulkOperationResultDTO;
 import com.voituri.ridesharing.service.dto.NotificationDTO;
+import com.voituri.ridesharing.service.dto.NotificationSelectionDTO;
 import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -35,6 +40,11 @@ public class NotificationResource {
 
     private static final String ENTITY_NAME = "notification";
 
+    /**
+     * Maximal number of ids in the selection of a bulk operation.
+     */
+    static final int MAX_SELECTED_IDS = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +52,16 @@ public class NotificationResource {
 
     private final NotificationRepository notificationRepository;
 
-    public NotificationResource(NotificationService notificationService, NotificationRepository notificationRepository) {
+    private final MemberRepository memberRepository;
+
+    public NotificationResource(
+        NotificationService notificationService,
+        NotificationRepository notificationRepository,
+        MemberRepository memberRepository
+    ) {
         this.notificationService = notificationService;
         this.notificationRepository = notificationRepository;
+        this.memberRepository = memberRepository;
     }
 
     /**
@@ -177,4 +194,62 @@ public class NotificationResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * {@code POST  /notifications/read} : mark notifications of the current member as read, in one set-based update.
+     *
+     * @param selection the notifications to mark: the given ids, the ones sent before the given time, or all of them if
+     * the selection is empty or missing.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of notifications which were unread,
+     * or with status {@code 400 (Bad Request)} if the current user is not a member or the selection has too many ids.
+     */
+    @PostMapping("/read")
+    public ResponseEntity<BulkOperationResultDTO> markNotificationsRead(@RequestBody(required = false) NotificationSelectionDTO selection) {
+        log.debug("REST request to mark Notifications as read : {}", selection);
+        if (selection == null) {
+            selection = new NotificationSelectionDTO();
+        }
+        checkSelection(selection);
+        int count = notificationService.markRead(currentMemberId(), selection);
+        return ResponseEntity.ok(new BulkOperationResultDTO(count));
+    }
+
+    /**
+     * {@code DELETE  /notifications} : delete notifications of the current member, in one set-based delete.
+     *
+     * @param ids the ids of the notifications to delete.
+     * @param before the time before which the notifications to delete were sent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of deleted notifications,
+     * or with status {@code 400 (Bad Request)} if the current user is not a member, if neither {@code ids} nor {@code before}
+     * is given, or if too many ids are given.
+     */
+    @DeleteMapping("")
+    public ResponseEntity<BulkOperationResultDTO> deleteNotifications(
+        @RequestParam(value = "ids", required = false) List<Long> ids,
+        @RequestParam(value = "before", required = false) ZonedDateTime before
+    ) {
+        log.debug("REST request to delete Notifications : {} before {}", ids, before);
+        NotificationSelectionDTO selection = new NotificationSelectionDTO();
+        selection.setIds(ids);
+        selection.setBefore(before);
+        if (selection.isEmpty()) {
+            // Deleting everything takes an explicit "before"
+            throw new BadRequestAlertException("Empty selection", ENTITY_NAME, "selectionempty");
+        }
+        checkSelection(selection);
+        int count = notificationService.deleteAll(currentMemberId(), selection);
+        return ResponseEntity.ok(new BulkOperationResultDTO(count));
+    }
+
+    private static void checkSelection(NotificationSelectionDTO selection) {
+        if (selection.getIds() != null && selection.getIds().size() > MAX_SELECTED_IDS) {
+            throw new BadRequestAlertException("Too many ids", ENTITY_NAME, "idstoomany");
+        }
+    }
+
+    private long currentMemberId() {
+        return SecurityUtils.getCurrentUserLogin()
+            .flatMap(memberRepository::findIdByLogin)
+            .orElseThrow(() -> new BadRequestAlertException("The current user is not a member", ENTITY_NAME, "membernotfound"));
+    }
 }
@@ -0,0 +1,196 @@
+package com.voituri.ridesharing.web.rest;
+
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.security.SecurityUtils;
+import com.voituri.ridesharing.service.NotificationService;
+import com.voituri.ridesharing.service.dto.NotificationDTO;
+import com.voituri.ridesharing.service.notification.NotificationHub;
+import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller streaming the new {@link com.voituri.ridesharing.domain.Notification}s of the current member as
+ * Server-Sent Events.
+ * <p>
+ * Streams are served asynchronously, so an idle stream holds no request thread. Each event carries the id of its
+ * notification, which a reconnecting client sends back as {@code Last-Event-ID} to receive the notifications it missed.
+ * A comment is sent on every stream every {@value #HEARTBEAT_SECONDS} seconds, to keep proxies from closing idle
+ * connections and to detect the dead ones. Heartbeats are queued through the {@link NotificationHub} like the
+ * notifications, so a stream is only written by its own delivery thread and a stuck stream never delays the others. A
+ * write that does not progress fails after the server write timeout, which cancels the stream.
+ */
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationStreamResource {
+
+    /**
+     * Lifetime of a stream, after which the client reconnects.
+     */
+    static final long TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    static final long HEARTBEAT_SECONDS = 20;
+
+    /**
+     * Delay before a client reconnects to a closed stream.
+     */
+    static final long RECONNECT_MILLIS = 3000;
+
+    static final String EVENT_NAME = "notification";
+
+    private static final String ENTITY_NAME = "notification";
+
+    private final Logger log = LoggerFactory.getLogger(NotificationStreamResource.class);
+
+    private final NotificationService notificationService;
+
+    private final MemberRepository memberRepository;
+
+    private final Set<NotificationStream> streams = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService heartbeats;
+
+    public NotificationStreamResource(NotificationService notificationService, MemberRepository memberRepository) {
+        this.notificationService = notificationService;
+        this.memberRepository = memberRepository;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("notification-heartbeat-");
+        threadFactory.setDaemon(true);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.heartbeats.scheduleAtFixedRate(this::sendHeartbeats, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        streams.forEach(NotificationStream::close);
+    }
+
+    /**
+     * {@code GET  /notifications/stream} : stream the new notifications of the current member.
+     *
+     * @param lastEventId the id of the last notification received by the client, sent back by the browser on reconnection.
+     * @return the event stream, or with status {@code 400 (Bad Request)} if the current user is not a member.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("REST request to stream the Notifications of the current member after {}", lastEventId);
+        long memberId = SecurityUtils.getCurrentUserLogin()
+            .flatMap(memberRepository::findIdByLogin)
+            .orElseThrow(() -> new BadRequestAlertException("The current user is not a member", ENTITY_NAME, "membernotfound"));
+
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+        NotificationStream stream = new NotificationStream(emitter);
+        emitter.onCompletion(stream::cancel);
+        emitter.onError(e -> stream.cancel());
+        streams.add(stream);
+        stream.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+        stream.subscribed(notificationService.subscribe(memberId, parseLastEventId(lastEventId), stream));
+        return emitter;
+    }
+
+    /**
+     * Number of open streams.
+     *
+     * @return the number of streams.
+     */
+    public int size() {
+        return streams.size();
+    }
+
+    private void sendHeartbeats() {
+        for (NotificationStream stream : streams) {
+            NotificationHub.Subscription subscription = stream.subscription;
+            if (subscription != null) {
+                subscription.heartbeat();
+            }
+        }
+    }
+
+    static Long parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(lastEventId.strip());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private final class NotificationStream implements NotificationHub.Subscriber {
+
+        private final SseEmitter emitter;
+
+        private volatile NotificationHub.Subscription subscription;
+
+        private NotificationStream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void subscribed(NotificationHub.Subscription subscription) {
+            this.subscription = subscription;
+            if (!streams.contains(this)) {
+                // Closed while subscribing
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void deliver(NotificationDTO notification) throws IOException {
+            write(SseEmitter.event().id(notification.getId().toString()).name(EVENT_NAME).data(notification, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            write(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void overflow() {
+            close();
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) throws IOException {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                cancel();
+                throw e;
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Could not write to a notification stream: {}", e.getMessage());
+                cancel();
+            }
+        }
+
+        private void close() {
+            cancel();
+            emitter.complete();
+        }
+
+        private void cancel() {
+            streams.remove(this);
+            NotificationHub.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.voituri.ridesharing.repository.RatingRepository;
 import com.voituri.ridesharing.service.RatingService;
 import com.voituri.ridesharing.service.dto.RatingDTO;
 import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
+import com.voituri.ridesharing.web.rest.util.KeysetPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -14,8 +15,11 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -131,14 +135,40 @@ public class RatingResource {
     }
 
     /**
-     * {@code GET  /ratings} : get all the ratings.
+     * {@code GET  /ratings} : get a page of the ratings.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of ratings in body.
+     * @param after the cursor returned with the previous page, if any.
+     * @param limit the maximal number of ratings in the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of ratings in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("")
-    public List<RatingDTO> getAllRatings() {
-        log.debug("REST request to get all Ratings");
-        return ratingService.findAll();
+    public ResponseEntity<List<RatingDTO>> getAllRatings(
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = "" + KeysetPaginationUtil.DEFAULT_LIMIT) int limit
+    ) {
+        log.debug("REST request to get a page of Ratings");
+        KeysetPaginationUtil.Cursor cursor = decodeCursor(after);
+        int pageSize = KeysetPaginationUtil.sanitizeLimit(limit);
+        Slice<RatingDTO> page = ratingService.findAllAfter(cursor != null ? cursor.id() : null, pageSize);
+        String nextCursor = null;
+        if (page.hasNext()) {
+            nextCursor = KeysetPaginationUtil.encodeCursor(page.getContent().get(page.getNumberOfElements() - 1).getId());
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            nextCursor,
+            pageSize
+        );
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    private KeysetPaginationUtil.Cursor decodeCursor(String after) {
+        try {
+            return KeysetPaginationUtil.decodeIdCursor(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
     }
 
     /**
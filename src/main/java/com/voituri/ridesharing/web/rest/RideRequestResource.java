@@ -73,6 +73,7 @@ public class RideRequestResource {
      * @param rideRequestDTO the rideRequestDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated rideRequestDTO,
      * or with status {@code 400 (Bad Request)} if the rideRequestDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the ride has not enough seats left for the seats it now holds,
      * or with status {@code 500 (Internal Server Error)} if the rideRequestDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -107,6 +108,7 @@ public class RideRequestResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated rideRequestDTO,
      * or with status {@code 400 (Bad Request)} if the rideRequestDTO is not valid,
      * or with status {@code 404 (Not Found)} if the rideRequestDTO is not found,
+     * or with status {@code 409 (Conflict)} if the ride has not enough seats left for the seats it now holds,
      * or with status {@code 500 (Internal Server Error)} if the rideRequestDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -163,7 +165,7 @@ public class RideRequestResource {
     }
 
     /**
-     * {@code DELETE  /ride-requests/:id} : delete the "id" rideRequest.
+     * {@code DELETE  /ride-requests/:id} : delete the "id" rideRequest, giving back the seats it booked.
      *
      * @param id the id of the rideRequestDTO to delete.
      * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
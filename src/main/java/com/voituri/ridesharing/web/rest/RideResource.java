@@ -1,21 +1,35 @@
 package com.voituri.ridesharing.web.rest;
 
 import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.MessageService;
+import com.voituri.ridesharing.service.RideMatchingService;
+import com.voituri.ridesharing.service.RideQueryService;
+import com.voituri.ridesharing.service.RideRequestService;
 import com.voituri.ridesharing.service.RideService;
+import com.voituri.ridesharing.service.criteria.RideCriteria;
+import com.voituri.ridesharing.service.dto.MessageDTO;
 import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.dto.RideMatchDTO;
+import com.voituri.ridesharing.service.dto.RideRequestDTO;
+import com.voituri.ridesharing.service.geo.GeoUtils;
 import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
+import com.voituri.ridesharing.web.rest.util.KeysetPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -30,6 +44,16 @@ public class RideResource {
 
     private static final String ENTITY_NAME = "ride";
 
+    private static final double MAX_SEARCH_RADIUS_KM = 200;
+
+    private static final double MAX_CORRIDOR_KM = 50;
+
+    private static final int MAX_MATCHES = 100;
+
+    private static final int MAX_BOOKED_SEATS = 8;
+
+    private static final long MAX_OCCURRENCE_WINDOW_DAYS = 366;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -37,9 +61,28 @@ public class RideResource {
 
     private final RideRepository rideRepository;
 
-    public RideResource(RideService rideService, RideRepository rideRepository) {
+    private final RideMatchingService rideMatchingService;
+
+    private final RideRequestService rideRequestService;
+
+    private final RideQueryService rideQueryService;
+
+    private final MessageService messageService;
+
+    public RideResource(
+        RideService rideService,
+        RideRepository rideRepository,
+        RideMatchingService rideMatchingService,
+        RideRequestService rideRequestService,
+        RideQueryService rideQueryService,
+        MessageService messageService
+    ) {
         this.rideService = rideService;
         this.rideRepository = rideRepository;
+        this.rideMatchingService = rideMatchingService;
+        this.rideRequestService = rideRequestService;
+        this.rideQueryService = rideQueryService;
+        this.messageService = messageService;
     }
 
     /**
@@ -131,14 +174,147 @@ public class RideResource {
     }
 
     /**
-     * {@code GET  /rides} : get all the rides.
+     * {@code GET  /rides} : get a page of the rides.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rides in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor returned with the previous page, if any.
+     * @param limit the maximal number of rides in the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rides in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("")
-    public List<RideDTO> getAllRides() {
-        log.debug("REST request to get all Rides");
-        return rideService.findAll();
+    public ResponseEntity<List<RideDTO>> getAllRides(
+        RideCriteria criteria,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = "" + KeysetPaginationUtil.DEFAULT_LIMIT) int limit
+    ) {
+        log.debug("REST request to get Rides by criteria: {}", criteria);
+        KeysetPaginationUtil.Cursor cursor = decodeCursor(after);
+        int pageSize = KeysetPaginationUtil.sanitizeLimit(limit);
+        Slice<RideDTO> page = rideQueryService.findByCriteria(
+            criteria,
+            cursor != null ? cursor.timestamp() : null,
+            cursor != null ? cursor.id() : null,
+            pageSize
+        );
+        String nextCursor = null;
+        if (page.hasNext()) {
+            RideDTO last = page.getContent().get(page.getNumberOfElements() - 1);
+            nextCursor = KeysetPaginationUtil.encodeCursor(last.getStartTime(), last.getId());
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            nextCursor,
+            pageSize
+        );
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /rides/count} : count all the rides.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Long> countRides(RideCriteria criteria) {
+        log.debug("REST request to count Rides by criteria: {}", criteria);
+        return ResponseEntity.ok().body(rideQueryService.countByCriteria(criteria));
+    }
+
+    private KeysetPaginationUtil.Cursor decodeCursor(String after) {
+        try {
+            return KeysetPaginationUtil.decodeTimestampCursor(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /rides/search} : search the rides leaving around a point, and optionally arriving around another one.
+     *
+     * @param fromLat the latitude of the origin.
+     * @param fromLon the longitude of the origin.
+     * @param toLat the latitude of the destination.
+     * @param toLon the longitude of the destination.
+     * @param radiusKm the search radius around each endpoint, in kilometers.
+     * @param departAfter the earliest departure time.
+     * @param departBefore the latest departure time.
+     * @param limit the maximal number of rides, the ones leaving first.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rides in body,
+     * or with status {@code 400 (Bad Request)} if the search parameters are not valid.
+     */
+    @GetMapping("/search")
+    public List<RideDTO> searchRides(
+        @RequestParam("fromLat") double fromLat,
+        @RequestParam("fromLon") double fromLon,
+        @RequestParam(value = "toLat", required = false) Double toLat,
+        @RequestParam(value = "toLon", required = false) Double toLon,
+        @RequestParam(value = "radiusKm", defaultValue = "5") double radiusKm,
+        @RequestParam(value = "departAfter", required = false) ZonedDateTime departAfter,
+        @RequestParam(value = "departBefore", required = false) ZonedDateTime departBefore,
+        @RequestParam(value = "limit", defaultValue = "" + KeysetPaginationUtil.DEFAULT_LIMIT) int limit
+    ) {
+        log.debug("REST request to search Rides from ({}, {}) to ({}, {})", fromLat, fromLon, toLat, toLon);
+        if (
+            !GeoUtils.isValid(fromLat, fromLon) ||
+            (toLat == null) != (toLon == null) ||
+            (toLat != null && !GeoUtils.isValid(toLat, toLon))
+        ) {
+            throw new BadRequestAlertException("Invalid coordinates", ENTITY_NAME, "coordinatesinvalid");
+        }
+        if (!(radiusKm > 0 && radiusKm <= MAX_SEARCH_RADIUS_KM)) {
+            throw new BadRequestAlertException("Invalid search radius", ENTITY_NAME, "radiusinvalid");
+        }
+        int size = KeysetPaginationUtil.sanitizeLimit(limit);
+        return rideService.search(fromLat, fromLon, toLat, toLon, radiusKm, departAfter, departBefore, size);
+    }
+
+    /**
+     * {@code GET  /rides/match} : get the rides best matching a trip, best first.
+     *
+     * @param fromLat the latitude of the trip origin.
+     * @param fromLon the longitude of the trip origin.
+     * @param toLat the latitude of the trip destination.
+     * @param toLon the longitude of the trip destination.
+     * @param departAfter the start of the departure window.
+     * @param departBefore the end of the departure window.
+     * @param corridorKm the maximal distance between the trip endpoints and the ride route, in kilometers.
+     * @param limit the maximal number of matches.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matches in body,
+     * or with status {@code 400 (Bad Request)} if the trip is not valid.
+     */
+    @GetMapping("/match")
+    public List<RideMatchDTO> matchRides(
+        @RequestParam("fromLat") double fromLat,
+        @RequestParam("fromLon") double fromLon,
+        @RequestParam("toLat") double toLat,
+        @RequestParam("toLon") double toLon,
+        @RequestParam("departAfter") ZonedDateTime departAfter,
+        @RequestParam("departBefore") ZonedDateTime departBefore,
+        @RequestParam(value = "corridorKm", defaultValue = "3") double corridorKm,
+        @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        log.debug("REST request to match Rides from ({}, {}) to ({}, {})", fromLat, fromLon, toLat, toLon);
+        if (!GeoUtils.isValid(fromLat, fromLon) || !GeoUtils.isValid(toLat, toLon)) {
+            throw new BadRequestAlertException("Invalid coordinates", ENTITY_NAME, "coordinatesinvalid");
+        }
+        if (departBefore.isBefore(departAfter)) {
+            throw new BadRequestAlertException("Invalid departure window", ENTITY_NAME, "windowinvalid");
+        }
+        if (!(corridorKm > 0 && corridorKm <= MAX_CORRIDOR_KM)) {
+            throw new BadRequestAlertException("Invalid corridor width", ENTITY_NAME, "corridorinvalid");
+        }
+        return rideMatchingService.match(
+            fromLat,
+            fromLon,
+            toLat,
+            toLon,
+            departAfter,
+            departBefore,
+            corridorKm,
+            Math.max(1, Math.min(limit, MAX_MATCHES))
+        );
     }
 
     /**
@@ -154,6 +330,100 @@ public class RideResource {
         return ResponseUtil.wrapOrNotFound(rideDTO);
     }
 
+    /**
+     * {@code GET  /rides/:id/occurrences} : get the departures of the "id" ride within a window.
+     *
+     * @param id the id of the ride.
+     * @param from the start of the window.
+     * @param to the end of the window.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of departure times in body,
+     * or with status {@code 400 (Bad Request)} if the window is not valid,
+     * or with status {@code 404 (Not Found)} if the ride is not found.
+     */
+    @GetMapping("/{id}/occurrences")
+    public ResponseEntity<List<ZonedDateTime>> getRideOccurrences(
+        @PathVariable("id") Long id,
+        @RequestParam("from") ZonedDateTime from,
+        @RequestParam("to") ZonedDateTime to
+    ) {
+        log.debug("REST request to get the occurrences of Ride : {}", id);
+        if (to.isBefore(from) || to.isAfter(from.plusDays(MAX_OCCURRENCE_WINDOW_DAYS))) {
+            throw new BadRequestAlertException("Invalid window", ENTITY_NAME, "windowinvalid");
+        }
+        return ResponseUtil.wrapOrNotFound(rideService.findOccurrences(id, from, to));
+    }
+
+    /**
+     * {@code GET  /rides/:id/messages} : get a page of the messages of the "id" ride, newest first.
+     *
+     * @param id the id of the ride.
+     * @param before the cursor returned with the previous page, if any.
+     * @param limit the maximal number of messages in the page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of messages in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid,
+     * or with status {@code 404 (Not Found)} if the ride is not found.
+     */
+    @GetMapping("/{id}/messages")
+    public ResponseEntity<List<MessageDTO>> getRideMessages(
+        @PathVariable("id") Long id,
+        @RequestParam(value = "before", required = false) String before,
+        @RequestParam(value = "limit", defaultValue = "" + KeysetPaginationUtil.DEFAULT_LIMIT) int limit
+    ) {
+        log.debug("REST request to get a page of the Messages of Ride : {}", id);
+        KeysetPaginationUtil.Cursor cursor = decodeCursor(before);
+        if (!rideRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        int pageSize = KeysetPaginationUtil.sanitizeLimit(limit);
+        Slice<MessageDTO> page = messageService.findAllByRideBefore(
+            id,
+            cursor != null ? cursor.timestamp() : null,
+            cursor != null ? cursor.id() : null,
+            pageSize
+        );
+        String nextCursor = null;
+        if (page.hasNext()) {
+            MessageDTO last = page.getContent().get(page.getNumberOfElements() - 1);
+            nextCursor = KeysetPaginationUtil.encodeCursor(last.getTimestamp(), last.getId());
+        }
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            "before",
+            nextCursor,
+            pageSize
+        );
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code POST  /rides/:id/book} : book seats on the "id" ride.
+     *
+     * @param id the id of the ride to book.
+     * @param seats the number of seats to book.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the accepted rideRequestDTO,
+     * or with status {@code 400 (Bad Request)} if the number of seats is not valid,
+     * or with status {@code 404 (Not Found)} if the ride is not found,
+     * or with status {@code 409 (Conflict)} if the ride has not enough seats left.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/{id}/book")
+    public ResponseEntity<RideRequestDTO> bookRide(
+        @PathVariable("id") Long id,
+        @RequestParam(value = "seats", defaultValue = "1") int seats
+    ) throws URISyntaxException {
+        log.debug("REST request to book {} seats on Ride : {}", seats, id);
+        if (seats < 1 || seats > MAX_BOOKED_SEATS) {
+            throw new BadRequestAlertException("Invalid number of seats", ENTITY_NAME, "seatsinvalid");
+        }
+        Optional<RideRequestDTO> rideRequestDTO = rideRequestService.book(id, seats);
+        if (rideRequestDTO.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.created(new URI("/api/ride-requests/" + rideRequestDTO.get().getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, "rideRequest", rideRequestDTO.get().getId().toString()))
+            .body(rideRequestDTO.get());
+    }
+
     /**
      * {@code DELETE  /rides/:id} : delete the "id" ride.
      *
@@ -0,0 +1,201 @@
+package com.voituri.ridesharing.web.rest;
+
+import com.voituri.ridesharing.repository.SavedSearchRepository;
+import com.voituri.ridesharing.service.SavedSearchService;
+import com.voituri.ridesharing.service.dto.SavedSearchDTO;
+import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for managing {@link com.voituri.ridesharing.domain.SavedSearch}.
+ */
+@RestController
+@RequestMapping("/api/saved-searches")
+public class SavedSearchResource {
+
+    private final Logger log = LoggerFactory.getLogger(SavedSearchResource.class);
+
+    private static final String ENTITY_NAME = "savedSearch";
+
+    /**
+     * Maximal length of the departure window of a saved search, which bounds the number of time buckets it is indexed in.
+     */
+    static final Duration MAX_WINDOW = Duration.ofDays(7);
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final SavedSearchService savedSearchService;
+
+    private final SavedSearchRepository savedSearchRepository;
+
+    public SavedSearchResource(SavedSearchService savedSearchService, SavedSearchRepository savedSearchRepository) {
+        this.savedSearchService = savedSearchService;
+        this.savedSearchRepository = savedSearchRepository;
+    }
+
+    /**
+     * {@code POST  /saved-searches} : Create a new savedSearch.
+     *
+     * @param savedSearchDTO the savedSearchDTO to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new savedSearchDTO, or with status {@code 400 (Bad Request)} if the savedSearch has already an ID.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("")
+    public ResponseEntity<SavedSearchDTO> createSavedSearch(@Valid @RequestBody SavedSearchDTO savedSearchDTO)
+        throws URISyntaxException {
+        log.debug("REST request to save SavedSearch : {}", savedSearchDTO);
+        if (savedSearchDTO.getId() != null) {
+            throw new BadRequestAlertException("A new savedSearch cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        validateWindow(savedSearchDTO);
+        savedSearchDTO = savedSearchService.save(savedSearchDTO);
+        return ResponseEntity.created(new URI("/api/saved-searches/" + savedSearchDTO.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, savedSearchDTO.getId().toString()))
+            .body(savedSearchDTO);
+    }
+
+    /**
+     * {@code PUT  /saved-searches/:id} : Updates an existing savedSearch.
+     *
+     * @param id the id of the savedSearchDTO to save.
+     * @param savedSearchDTO the savedSearchDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated savedSearchDTO,
+     * or with status {@code 400 (Bad Request)} if the savedSearchDTO is not valid,
+     * or with status {@code 500 (Internal Server Error)} if the savedSearchDTO couldn't be updated.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<SavedSearchDTO> updateSavedSearch(
+        @PathVariable(value = "id", required = false) final Long id,
+        @Valid @RequestBody SavedSearchDTO savedSearchDTO
+    ) throws URISyntaxException {
+        log.debug("REST request to update SavedSearch : {}, {}", id, savedSearchDTO);
+        if (savedSearchDTO.getId() == null) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        if (!Objects.equals(id, savedSearchDTO.getId())) {
+            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
+        }
+
+        if (!savedSearchRepository.existsById(id)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+
+        validateWindow(savedSearchDTO);
+        savedSearchDTO = savedSearchService.update(savedSearchDTO);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, savedSearchDTO.getId().toString()))
+            .body(savedSearchDTO);
+    }
+
+    /**
+     * {@code PATCH  /saved-searches/:id} : Partial updates given fields of an existing savedSearch, field will ignore if it is null
+     *
+     * @param id the id of the savedSearchDTO to save.
+     * @param savedSearchDTO the savedSearchDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated savedSearchDTO,
+     * or with status {@code 400 (Bad Request)} if the savedSearchDTO is not valid,
+     * or with status {@code 404 (Not Found)} if the savedSearchDTO is not found,
+     * or with status {@code 500 (Internal Server Error)} if the savedSearchDTO couldn't be updated.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    public ResponseEntity<SavedSearchDTO> partialUpdateSavedSearch(
+        @PathVariable(value = "id", required = false) final Long id,
+        @NotNull @RequestBody SavedSearchDTO savedSearchDTO
+    ) throws URISyntaxException {
+        log.debug("REST request to partial update SavedSearch partially : {}, {}", id, savedSearchDTO);
+        if (savedSearchDTO.getId() == null) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        if (!Objects.equals(id, savedSearchDTO.getId())) {
+            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
+        }
+
+        if (!savedSearchRepository.existsById(id)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+
+        if (savedSearchDTO.getDepartAfter() != null && savedSearchDTO.getDepartBefore() != null) {
+            validateWindow(savedSearchDTO);
+        }
+
+        Optional<SavedSearchDTO> result = savedSearchService.partialUpdate(savedSearchDTO);
+
+        return ResponseUtil.wrapOrNotFound(
+            result,
+            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, savedSearchDTO.getId().toString())
+        );
+    }
+
+    /**
+     * {@code GET  /saved-searches} : get all the savedSearches.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of savedSearches in body.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<SavedSearchDTO>> getAllSavedSearches(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of SavedSearches");
+        Page<SavedSearchDTO> page = savedSearchService.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /saved-searches/:id} : get the "id" savedSearch.
+     *
+     * @param id the id of the savedSearchDTO to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the savedSearchDTO, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<SavedSearchDTO> getSavedSearch(@PathVariable("id") Long id) {
+        log.debug("REST request to get SavedSearch : {}", id);
+        Optional<SavedSearchDTO> savedSearchDTO = savedSearchService.findOne(id);
+        return ResponseUtil.wrapOrNotFound(savedSearchDTO);
+    }
+
+    /**
+     * {@code DELETE  /saved-searches/:id} : delete the "id" savedSearch.
+     *
+     * @param id the id of the savedSearchDTO to delete.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSavedSearch(@PathVariable("id") Long id) {
+        log.debug("REST request to delete SavedSearch : {}", id);
+        savedSearchService.delete(id);
+        return ResponseEntity.noContent()
+            .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
+    private static void validateWindow(SavedSearchDTO savedSearchDTO) {
+        if (
+            !savedSearchDTO.getDepartBefore().isAfter(savedSearchDTO.getDepartAfter()) ||
+            Duration.between(savedSearchDTO.getDepartAfter(), savedSearchDTO.getDepartBefore()).compareTo(MAX_WINDOW) > 0
+        ) {
+            throw new BadRequestAlertException("The departure window must be positive and at most 7 days long", ENTITY_NAME, "windowinvalid");
+        }
+    }
+}
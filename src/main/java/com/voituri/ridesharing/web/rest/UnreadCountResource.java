@@ -0,0 +1,69 @@
+package com.voituri.ridesharing.web.rest;
+
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.security.SecurityUtils;
+import com.voituri.ridesharing.service.UnreadCounters;
+import com.voituri.ridesharing.service.dto.UnreadCountsDTO;
+import com.voituri.ridesharing.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the badge counts of the current member, served from the {@link UnreadCounters}.
+ */
+@RestController
+@RequestMapping("/api/account")
+public class UnreadCountResource {
+
+    private final Logger log = LoggerFactory.getLogger(UnreadCountResource.class);
+
+    private static final String ENTITY_NAME = "unreadCounts";
+
+    static final int MAX_RIDES = 100;
+
+    private final UnreadCounters unreadCounters;
+
+    private final MemberRepository memberRepository;
+
+    private final RideRepository rideRepository;
+
+    public UnreadCountResource(UnreadCounters unreadCounters, MemberRepository memberRepository, RideRepository rideRepository) {
+        this.unreadCounters = unreadCounters;
+        this.memberRepository = memberRepository;
+        this.rideRepository = rideRepository;
+    }
+
+    /**
+     * {@code GET  /account/unread-counts} : get the number of unread notifications of the current member, and the number of
+     * messages of the given rides. A client shows the difference between the latter and the number it last displayed as the
+     * unread count of a chat. Only the rides that the current member drives or has requested are counted, the others are
+     * left out of the response.
+     *
+     * @param rides the ids of the rides whose chat the client follows.
+     * @return the counts, or with status {@code 400 (Bad Request)} if too many rides are given.
+     */
+    @GetMapping("/unread-counts")
+    public UnreadCountsDTO getUnreadCounts(@RequestParam(value = "rides", required = false) List<Long> rides) {
+        log.debug("REST request to get the unread counts of the current member");
+        if (rides != null && rides.size() > MAX_RIDES) {
+            throw new BadRequestAlertException("Too many rides", ENTITY_NAME, "ridestoomany");
+        }
+        UnreadCountsDTO counts = new UnreadCountsDTO();
+        SecurityUtils.getCurrentUserLogin()
+            .flatMap(memberRepository::findIdByLogin)
+            .ifPresent(memberId -> {
+                counts.setNotifications(unreadCounters.unreadNotifications(memberId));
+                List<Long> rideIds = rides == null ? List.of() : rides.stream().filter(Objects::nonNull).distinct().toList();
+                if (!rideIds.isEmpty()) {
+                    for (Long rideId : rideRepository.findIdsDrivenOrRequestedByMember(rideIds, memberId)) {
+                        counts.getRideMessages().put(rideId, unreadCounters.rideMessages(rideId));
+                    }
+                }
+            });
+        return counts;
+    }
+}
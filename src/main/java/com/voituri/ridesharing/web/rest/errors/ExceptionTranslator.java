@@ -2,6 +2,7 @@ package com.voituri.ridesharing.web.rest.errors;
 
 import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
 
+import com.voituri.ridesharing.security.PasswordHashingUnavailableException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
 import java.util.Arrays;
@@ -22,6 +23,7 @@ import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.lang.Nullable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -59,10 +61,23 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler
     public ResponseEntity<Object> handleAnyException(Throwable ex, NativeWebRequest request) {
+        ex = unwrapAuthenticationFailure(ex);
         ProblemDetailWithCause pdCause = wrapAndCustomizeProblem(ex, request);
         return handleExceptionInternal((Exception) ex, pdCause, buildHeaders(ex), HttpStatusCode.valueOf(pdCause.getStatus()), request);
     }
 
+    /**
+     * Spring Security wraps the failures of the user lookup of a login, including the timing attack mitigation of an unknown
+     * login, in an {@link InternalAuthenticationServiceException}: unwrap an overloaded password hashing pool so that every
+     * login answers 503 with a Retry-After, whether the user exists or not.
+     */
+    private static Throwable unwrapAuthenticationFailure(Throwable ex) {
+        if (ex instanceof InternalAuthenticationServiceException && ex.getCause() instanceof PasswordHashingUnavailableException) {
+            return ex.getCause();
+        }
+        return ex;
+    }
+
     @Nullable
     @Override
     protected ResponseEntity<Object> handleExceptionInternal(
@@ -90,6 +105,9 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (
             ex instanceof com.voituri.ridesharing.service.InvalidPasswordException
         ) return (ProblemDetailWithCause) new InvalidPasswordException().getBody();
+        if (
+            ex instanceof com.voituri.ridesharing.service.SeatsUnavailableException
+        ) return (ProblemDetailWithCause) new SeatsUnavailableAlertException().getBody();
 
         if (
             ex instanceof ErrorResponseException exp && exp.getBody() instanceof ProblemDetailWithCause problemDetailWithCause
@@ -214,6 +232,7 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (err instanceof AccessDeniedException) return HttpStatus.FORBIDDEN;
         if (err instanceof ConcurrencyFailureException) return HttpStatus.CONFLICT;
         if (err instanceof BadCredentialsException) return HttpStatus.UNAUTHORIZED;
+        if (err instanceof PasswordHashingUnavailableException) return HttpStatus.SERVICE_UNAVAILABLE;
         return null;
     }
 
@@ -223,6 +242,11 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
     }
 
     private HttpHeaders buildHeaders(Throwable err) {
+        if (err instanceof PasswordHashingUnavailableException passwordHashingUnavailableException) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(passwordHashingUnavailableException.getRetryAfter().toSeconds()));
+            return headers;
+        }
         return err instanceof BadRequestAlertException badRequestAlertException
             ? HeaderUtil.createFailureAlert(
                 applicationName,
@@ -0,0 +1,25 @@
+package com.voituri.ridesharing.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class SeatsUnavailableAlertException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SeatsUnavailableAlertException() {
+        super(
+            HttpStatus.CONFLICT,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.CONFLICT.value())
+                .withType(ErrorConstants.SEATS_UNAVAILABLE_TYPE)
+                .withTitle("Not enough seats available on this ride!")
+                .withProperty("message", "error.seatsunavailable")
+                .withProperty("params", "ride")
+                .build(),
+            null
+        );
+    }
+}
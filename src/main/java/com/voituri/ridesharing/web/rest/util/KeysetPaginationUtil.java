@@ -0,0 +1,167 @@
+package com.voituri.ridesharing.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ * <p>
+ * A page is requested with {@code ?after=<cursor>&limit=<size>}, where the cursor is the opaque value returned in the
+ * {@value #NEXT_CURSOR_HEADER} header (and in the {@code next} link) of the previous page. The cursor encodes the sort key
+ * of the last row of that page, so the next page is a seek on the index instead of an offset scan.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Clamp the requested page size between 1 and {@link #MAX_LIMIT}.
+     *
+     * @param limit the requested page size.
+     * @return the page size to use.
+     */
+    public static int sanitizeLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Encode the position of a row sorted by {@code (timestamp, id)}.
+     *
+     * @param timestamp the timestamp of the row.
+     * @param id the id of the row.
+     * @return the opaque cursor.
+     */
+    public static String encodeCursor(ZonedDateTime timestamp, Long id) {
+        return encode(timestamp.toInstant() + SEPARATOR + id);
+    }
+
+    /**
+     * Encode the position of a row sorted by {@code id}.
+     *
+     * @param id the id of the row.
+     * @return the opaque cursor.
+     */
+    public static String encodeCursor(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    /**
+     * Decode a cursor created by {@link #encodeCursor(ZonedDateTime, Long)}.
+     *
+     * @param cursor the opaque cursor, may be {@code null}.
+     * @return the decoded position, or {@code null} if no cursor was given.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    public static Cursor decodeTimestampCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String value = decode(cursor);
+        int separator = value.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return new Cursor(
+                ZonedDateTime.ofInstant(Instant.parse(value.substring(0, separator)), ZoneOffset.UTC),
+                Long.valueOf(value.substring(separator + 1))
+            );
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Decode a cursor created by {@link #encodeCursor(Long)}.
+     *
+     * @param cursor the opaque cursor, may be {@code null}.
+     * @return the decoded position, or {@code null} if no cursor was given.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    public static Cursor decodeIdCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new Cursor(null, Long.valueOf(decode(cursor)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Generate the keyset pagination headers: the {@value #NEXT_CURSOR_HEADER} header and a {@code next} link, when there is
+     * a next page.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param nextCursor the cursor of the next page, or {@code null} on the last page.
+     * @param limit the page size.
+     * @return the HTTP headers.
+     */
+    public static HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor, int limit) {
+        return generateKeysetPaginationHttpHeaders(uriBuilder, "after", nextCursor, limit);
+    }
+
+    /**
+     * Generate the keyset pagination headers, for a list paginated with another cursor parameter than {@code after}.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param cursorParam the name of the cursor query parameter, such as {@code before} for a list read backwards.
+     * @param nextCursor the cursor of the next page, or {@code null} on the last page.
+     * @param limit the page size.
+     * @return the HTTP headers.
+     */
+    public static HttpHeaders generateKeysetPaginationHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        String cursorParam,
+        String nextCursor,
+        int limit
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+            String link = uriBuilder
+                .replaceQueryParam(cursorParam, nextCursor)
+                .replaceQueryParam("limit", limit)
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B");
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * A decoded cursor.
+     *
+     * @param timestamp the timestamp of the last row of the previous page, {@code null} for id-only cursors.
+     * @param id the id of the last row of the previous page.
+     */
+    public record Cursor(ZonedDateTime timestamp, Long id) {}
+}
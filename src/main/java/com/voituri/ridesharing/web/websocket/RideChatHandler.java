@@ -0,0 +1,197 @@
+package com.voituri.ridesharing.web.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.security.SecurityUtils;
+import com.voituri.ridesharing.service.MessageService;
+import com.voituri.ridesharing.service.chat.RideChatHub;
+import com.voituri.ridesharing.service.dto.MessageDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriTemplate;
+
+/**
+ * WebSocket handler of the chat of a {@link com.voituri.ridesharing.domain.Ride}, at {@value #PATH}.
+ * <p>
+ * Only the driver of the ride and the members who requested it may connect. On connection, the client is subscribed to
+ * the {@link RideChatHub} and receives every new message of the ride, as a {@link MessageDTO}. A text frame sent by the
+ * client, {@code {"content": "..."}}, is saved as a new message of the ride through the {@link MessageService}, and so
+ * comes back to all the subscribers, the sender included. An invalid frame is answered with {@code {"error": "<key>"}}.
+ * <p>
+ * A connection that does not take its frames within {@value #SEND_TIME_LIMIT_MILLIS} ms, or lets more than
+ * {@value #BUFFER_SIZE_LIMIT} bytes pile up, is closed, so that it never holds a delivery thread of the hub.
+ */
+@Component
+public class RideChatHandler extends TextWebSocketHandler implements HandshakeInterceptor {
+
+    public static final String PATH = "/websocket/rides/{rideId}/chat";
+
+    static final int MAX_CONTENT_LENGTH = 255;
+
+    static final int SEND_TIME_LIMIT_MILLIS = 5_000;
+
+    static final int BUFFER_SIZE_LIMIT = 512 * 1024;
+
+    private static final UriTemplate PATH_TEMPLATE = new UriTemplate(PATH);
+
+    private static final String RIDE_ID_ATTRIBUTE = "rideId";
+
+    private static final String SUBSCRIPTION_ATTRIBUTE = RideChatHub.Subscription.class.getName();
+
+    private static final String SENDER_ATTRIBUTE = ConcurrentWebSocketSessionDecorator.class.getName();
+
+    private final Logger log = LoggerFactory.getLogger(RideChatHandler.class);
+
+    private final RideChatHub rideChatHub;
+
+    private final MessageService messageService;
+
+    private final RideRepository rideRepository;
+
+    private final MemberRepository memberRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public RideChatHandler(
+        RideChatHub rideChatHub,
+        MessageService messageService,
+        RideRepository rideRepository,
+        MemberRepository memberRepository,
+        ObjectMapper objectMapper
+    ) {
+        this.rideChatHub = rideChatHub;
+        this.messageService = messageService;
+        this.rideRepository = rideRepository;
+        this.memberRepository = memberRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean beforeHandshake(
+        ServerHttpRequest request,
+        ServerHttpResponse response,
+        WebSocketHandler wsHandler,
+        Map<String, Object> attributes
+    ) {
+        Long rideId = parseRideId(request.getURI().getPath());
+        if (rideId == null || !rideRepository.existsById(rideId)) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return false;
+        }
+        boolean participant = SecurityUtils.getCurrentUserLogin()
+            .flatMap(memberRepository::findIdByLogin)
+            .map(memberId -> !rideRepository.findIdsDrivenOrRequestedByMember(List.of(rideId), memberId).isEmpty())
+            .orElse(false);
+        if (!participant) {
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            return false;
+        }
+        attributes.put(RIDE_ID_ATTRIBUTE, rideId);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler, Exception exception) {
+        // Nothing to do
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        long rideId = (Long) session.getAttributes().get(RIDE_ID_ATTRIBUTE);
+        log.debug("Chat connection {} to Ride {}", session.getId(), rideId);
+        WebSocketSession sender = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MILLIS, BUFFER_SIZE_LIMIT);
+        session.getAttributes().put(SENDER_ATTRIBUTE, sender);
+        RideChatHub.Subscription subscription = rideChatHub.subscribe(
+            rideId,
+            new RideChatHub.Subscriber() {
+                @Override
+                public void deliver(MessageDTO message) throws IOException {
+                    sender.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+                }
+
+                @Override
+                public void overflow() {
+                    close(session, CloseStatus.SESSION_NOT_RELIABLE);
+                }
+            }
+        );
+        session.getAttributes().put(SUBSCRIPTION_ATTRIBUTE, subscription);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage frame) throws IOException {
+        ChatMessage chatMessage;
+        try {
+            chatMessage = objectMapper.readValue(frame.getPayload(), ChatMessage.class);
+        } catch (JsonProcessingException e) {
+            sendError(session, "frameinvalid");
+            return;
+        }
+        String content = chatMessage.content() != null ? chatMessage.content().strip() : "";
+        if (content.isEmpty() || content.length() > MAX_CONTENT_LENGTH) {
+            sendError(session, "contentinvalid");
+            return;
+        }
+        RideDTO ride = new RideDTO();
+        ride.setId((Long) session.getAttributes().get(RIDE_ID_ATTRIBUTE));
+        MessageDTO message = new MessageDTO();
+        message.setContent(content);
+        message.setTimestamp(ZonedDateTime.now());
+        message.setRide(ride);
+        messageService.save(message);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        log.debug("Chat connection {} closed: {}", session.getId(), status);
+        Object subscription = session.getAttributes().remove(SUBSCRIPTION_ATTRIBUTE);
+        if (subscription != null) {
+            ((RideChatHub.Subscription) subscription).cancel();
+        }
+    }
+
+    static Long parseRideId(String path) {
+        if (path == null || !PATH_TEMPLATE.matches(path)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(PATH_TEMPLATE.match(path).get(RIDE_ID_ATTRIBUTE));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void sendError(WebSocketSession session, String errorKey) throws IOException {
+        // The hub delivers from its own threads, so errors go through the same decorator to serialize the writes
+        WebSocketSession sender = (WebSocketSession) session.getAttributes().get(SENDER_ATTRIBUTE);
+        sender.sendMessage(new TextMessage(objectMapper.writeValueAsString(Map.of("error", errorKey))));
+    }
+
+    private void close(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Could not close chat connection {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private record ChatMessage(String content) {}
+}
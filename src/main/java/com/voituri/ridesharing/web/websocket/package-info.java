@@ -0,0 +1,4 @@
+/**
+ * WebSocket handlers.
+ */
+package com.voituri.ridesharing.web.websocket;
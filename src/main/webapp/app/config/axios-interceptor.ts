@@ -5,10 +5,35 @@ const TIMEOUT = 1 * 60 * 1000;
 axios.defaults.timeout = TIMEOUT;
 axios.defaults.baseURL = SERVER_API_URL;
 
+const AUTH_TOKEN_KEY = 'jhi-authenticationToken';
+const REFRESH_TOKEN_KEY = 'jhi-refreshToken';
+const REFRESH_URL = 'api/authenticate/refresh';
+
+// A refresh token can only be used once: concurrent requests share the same refresh
+let refreshing: Promise<string> | null = null;
+
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshing) {
+    const storage = Storage.local.get(REFRESH_TOKEN_KEY) ? Storage.local : Storage.session;
+    refreshing = axios
+      .post(REFRESH_URL, { refresh_token: storage.get(REFRESH_TOKEN_KEY) })
+      .then(response => {
+        storage.set(AUTH_TOKEN_KEY, response.data.id_token);
+        storage.set(REFRESH_TOKEN_KEY, response.data.refresh_token);
+        return response.data.id_token;
+      })
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
 const setupAxiosInterceptors = onUnauthenticated => {
   const onRequestSuccess = config => {
-    const token = Storage.local.get('jhi-authenticationToken') || Storage.session.get('jhi-authenticationToken');
-    if (token) {
+    const token = Storage.local.get(AUTH_TOKEN_KEY) || Storage.session.get(AUTH_TOKEN_KEY);
+    // An expired access token would get the refresh rejected
+    if (token && config.url !== REFRESH_URL) {
       config.headers.Authorization = `Bearer ${token}`;
     }
     return config;
@@ -16,6 +41,24 @@ const setupAxiosInterceptors = onUnauthenticated => {
   const onResponseSuccess = response => response;
   const onResponseError = err => {
     const status = err.status || (err.response ? err.response.status : 0);
+    const config = err.config;
+    if (config?.url === REFRESH_URL) {
+      return Promise.reject(err);
+    }
+    const hasRefreshToken = Storage.local.get(REFRESH_TOKEN_KEY) || Storage.session.get(REFRESH_TOKEN_KEY);
+    if (status === 401 && hasRefreshToken && config && !config.retried) {
+      return refreshAccessToken().then(
+        token => {
+          config.retried = true;
+          config.headers.Authorization = `Bearer ${token}`;
+          return axios(config);
+        },
+        () => {
+          onUnauthenticated();
+          return Promise.reject(err);
+        },
+      );
+    }
     if (status === 401) {
       onUnauthenticated();
     }
@@ -2,6 +2,7 @@ import axios from 'axios';
 import { createAsyncThunk, isFulfilled, isPending } from '@reduxjs/toolkit';
 import { ASC } from 'app/shared/util/pagination.constants';
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getAllPages } from 'app/shared/util/keyset-pagination';
 import { IQueryParams, createEntitySlice, EntityState, serializeAxiosError } from 'app/shared/reducers/reducer.utils';
 import { IMessage, defaultValue } from 'app/shared/model/message.model';
 
@@ -22,7 +23,7 @@ export const getEntities = createAsyncThunk(
   'message/fetch_entity_list',
   async ({ sort }: IQueryParams) => {
     const requestUrl = `${apiUrl}?${sort ? `sort=${sort}&` : ''}cacheBuster=${new Date().getTime()}`;
-    return axios.get<IMessage[]>(requestUrl);
+    return getAllPages<IMessage>(requestUrl);
   },
   { serializeError: serializeAxiosError },
 );
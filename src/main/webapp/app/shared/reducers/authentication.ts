@@ -7,6 +7,7 @@ import { setLocale } from 'app/shared/reducers/locale';
 import { serializeAxiosError } from './reducer.utils';
 
 const AUTH_TOKEN_KEY = 'jhi-authenticationToken';
+const REFRESH_TOKEN_KEY = 'jhi-refreshToken';
 
 export const initialState = {
   loading: false,
@@ -61,10 +62,11 @@ export const login: (username: string, password: string, rememberMe?: boolean) =
     const bearerToken = response?.headers?.authorization;
     if (bearerToken && bearerToken.slice(0, 7) === 'Bearer ') {
       const jwt = bearerToken.slice(7, bearerToken.length);
-      if (rememberMe) {
-        Storage.local.set(AUTH_TOKEN_KEY, jwt);
-      } else {
-        Storage.session.set(AUTH_TOKEN_KEY, jwt);
+      const storage = rememberMe ? Storage.local : Storage.session;
+      storage.set(AUTH_TOKEN_KEY, jwt);
+      // The short-lived access token is renewed with the refresh token, see the axios interceptor
+      if (response.data?.refresh_token) {
+        storage.set(REFRESH_TOKEN_KEY, response.data.refresh_token);
       }
     }
     dispatch(getSession());
@@ -77,6 +79,12 @@ export const clearAuthToken = () => {
   if (Storage.session.get(AUTH_TOKEN_KEY)) {
     Storage.session.remove(AUTH_TOKEN_KEY);
   }
+  if (Storage.local.get(REFRESH_TOKEN_KEY)) {
+    Storage.local.remove(REFRESH_TOKEN_KEY);
+  }
+  if (Storage.session.get(REFRESH_TOKEN_KEY)) {
+    Storage.session.remove(REFRESH_TOKEN_KEY);
+  }
 };
 
 export const logout: () => AppThunk = () => dispatch => {
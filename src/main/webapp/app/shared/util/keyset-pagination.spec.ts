@@ -0,0 +1,28 @@
+import axios from 'axios';
+import sinon from 'sinon';
+
+import { getAllPages } from './keyset-pagination';
+
+describe('Keyset pagination', () => {
+  describe('getAllPages', () => {
+    it('should return a single page as is', async () => {
+      const response = { data: [{ id: 1 }], headers: {} };
+      axios.get = sinon.stub().returns(Promise.resolve(response));
+
+      expect(await getAllPages('api/rides?cacheBuster=1')).toBe(response);
+      expect((axios.get as sinon.SinonStub).calledOnceWith('api/rides?cacheBuster=1&limit=100')).toBe(true);
+    });
+
+    it('should follow the next cursor until the last page', async () => {
+      const stub = sinon.stub();
+      stub.onFirstCall().returns(Promise.resolve({ data: [{ id: 1 }], headers: { 'x-next-cursor': 'MQ' } }));
+      stub.onSecondCall().returns(Promise.resolve({ data: [{ id: 2 }], headers: {} }));
+      axios.get = stub;
+
+      const result = await getAllPages('api/ratings');
+
+      expect(result.data).toEqual([{ id: 1 }, { id: 2 }]);
+      expect(stub.secondCall.args[0]).toBe('api/ratings?limit=100&after=MQ');
+    });
+  });
+});
@@ -0,0 +1,31 @@
+import axios, { AxiosResponse } from 'axios';
+
+export const NEXT_CURSOR_HEADER = 'x-next-cursor';
+export const KEYSET_PAGE_SIZE = 100;
+
+const getPage = <T>(url: string, cursor: string) => {
+  const separator = url.includes('?') ? '&' : '?';
+  return axios.get<T[]>(`${url}${separator}limit=${KEYSET_PAGE_SIZE}${cursor ? `&after=${encodeURIComponent(cursor)}` : ''}`);
+};
+
+/**
+ * Fetches every row of a keyset paginated list, following the cursor returned
+ * in the X-Next-Cursor header until the last page.
+ *
+ * @param url URL of the list, with its query parameters if any.
+ * @returns The response of the last page, with the rows of all the pages as data.
+ */
+export const getAllPages = async <T>(url: string): Promise<AxiosResponse<T[]>> => {
+  let response = await getPage<T>(url, null);
+  let cursor: string = response.headers?.[NEXT_CURSOR_HEADER];
+  if (!cursor) {
+    return response;
+  }
+  const data = [...response.data];
+  while (cursor) {
+    response = await getPage<T>(url, cursor);
+    data.push(...response.data);
+    cursor = response.headers?.[NEXT_CURSOR_HEADER];
+  }
+  return { ...response, data };
+};
@@ -60,7 +60,14 @@ public class RideAsserts {
             .satisfies(
                 e -> assertThat(e.getEndTime()).as("check endTime").usingComparator(zonedDataTimeSameInstant).isEqualTo(actual.getEndTime())
             )
-            .satisfies(e -> assertThat(e.getRecurring()).as("check recurring").isEqualTo(actual.getRecurring()));
+            .satisfies(e -> assertThat(e.getRecurring()).as("check recurring").isEqualTo(actual.getRecurring()))
+            .satisfies(e -> assertThat(e.getStartLatitude()).as("check startLatitude").isEqualTo(actual.getStartLatitude()))
+            .satisfies(e -> assertThat(e.getStartLongitude()).as("check startLongitude").isEqualTo(actual.getStartLongitude()))
+            .satisfies(e -> assertThat(e.getEndLatitude()).as("check endLatitude").isEqualTo(actual.getEndLatitude()))
+            .satisfies(e -> assertThat(e.getEndLongitude()).as("check endLongitude").isEqualTo(actual.getEndLongitude()))
+            .satisfies(e -> assertThat(e.getAvailableSeats()).as("check availableSeats").isEqualTo(actual.getAvailableSeats()))
+            .satisfies(e -> assertThat(e.getRecurrenceDays()).as("check recurrenceDays").isEqualTo(actual.getRecurrenceDays()))
+            .satisfies(e -> assertThat(e.getRecurrenceUntil()).as("check recurrenceUntil").isEqualTo(actual.getRecurrenceUntil()));
     }
 
     /**
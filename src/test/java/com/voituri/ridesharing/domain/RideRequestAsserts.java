@@ -55,7 +55,8 @@ public class RideRequestAsserts {
                         .as("check requestTime")
                         .usingComparator(zonedDataTimeSameInstant)
                         .isEqualTo(actual.getRequestTime())
-            );
+            )
+            .satisfies(e -> assertThat(e.getSeats()).as("check seats").isEqualTo(actual.getSeats()));
     }
 
     /**
@@ -67,6 +68,7 @@ public class RideRequestAsserts {
     public static void assertRideRequestUpdatableRelationshipsEquals(RideRequest expected, RideRequest actual) {
         assertThat(expected)
             .as("Verify RideRequest relationships")
-            .satisfies(e -> assertThat(e.getRide()).as("check ride").isEqualTo(actual.getRide()));
+            .satisfies(e -> assertThat(e.getRide()).as("check ride").isEqualTo(actual.getRide()))
+            .satisfies(e -> assertThat(e.getMember()).as("check member").isEqualTo(actual.getMember()));
     }
 }
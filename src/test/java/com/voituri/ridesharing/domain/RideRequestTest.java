@@ -1,5 +1,6 @@
 package com.voituri.ridesharing.domain;
 
+import static com.voituri.ridesharing.domain.MemberTestSamples.*;
 import static com.voituri.ridesharing.domain.RideRequestTestSamples.*;
 import static com.voituri.ridesharing.domain.RideTestSamples.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,4 +35,16 @@ class RideRequestTest {
         rideRequest.ride(null);
         assertThat(rideRequest.getRide()).isNull();
     }
+
+    @Test
+    void memberTest() {
+        RideRequest rideRequest = getRideRequestRandomSampleGenerator();
+        Member memberBack = getMemberRandomSampleGenerator();
+
+        rideRequest.setMember(memberBack);
+        assertThat(rideRequest.getMember()).isEqualTo(memberBack);
+
+        rideRequest.member(null);
+        assertThat(rideRequest.getMember()).isNull();
+    }
 }
@@ -0,0 +1,84 @@
+package com.voituri.ridesharing.domain;
+
+import static com.voituri.ridesharing.domain.AssertUtils.zonedDataTimeSameInstant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SavedSearchAsserts {
+
+    /**
+     * Asserts that the entity has all properties (fields/relationships) set.
+     *
+     * @param expected the expected entity
+     * @param actual the actual entity
+     */
+    public static void assertSavedSearchAllPropertiesEquals(SavedSearch expected, SavedSearch actual) {
+        assertSavedSearchAutoGeneratedPropertiesEquals(expected, actual);
+        assertSavedSearchAllUpdatablePropertiesEquals(expected, actual);
+    }
+
+    /**
+     * Asserts that the entity has all updatable properties (fields/relationships) set.
+     *
+     * @param expected the expected entity
+     * @param actual the actual entity
+     */
+    public static void assertSavedSearchAllUpdatablePropertiesEquals(SavedSearch expected, SavedSearch actual) {
+        assertSavedSearchUpdatableFieldsEquals(expected, actual);
+        assertSavedSearchUpdatableRelationshipsEquals(expected, actual);
+    }
+
+    /**
+     * Asserts that the entity has all the auto generated properties (fields/relationships) set.
+     *
+     * @param expected the expected entity
+     * @param actual the actual entity
+     */
+    public static void assertSavedSearchAutoGeneratedPropertiesEquals(SavedSearch expected, SavedSearch actual) {
+        assertThat(expected)
+            .as("Verify SavedSearch auto generated properties")
+            .satisfies(e -> assertThat(e.getId()).as("check id").isEqualTo(actual.getId()));
+    }
+
+    /**
+     * Asserts that the entity has all the updatable fields set.
+     *
+     * @param expected the expected entity
+     * @param actual the actual entity
+     */
+    public static void assertSavedSearchUpdatableFieldsEquals(SavedSearch expected, SavedSearch actual) {
+        assertThat(expected)
+            .as("Verify SavedSearch relevant properties")
+            .satisfies(e -> assertThat(e.getName()).as("check name").isEqualTo(actual.getName()))
+            .satisfies(e -> assertThat(e.getFromLatitude()).as("check fromLatitude").isEqualTo(actual.getFromLatitude()))
+            .satisfies(e -> assertThat(e.getFromLongitude()).as("check fromLongitude").isEqualTo(actual.getFromLongitude()))
+            .satisfies(e -> assertThat(e.getToLatitude()).as("check toLatitude").isEqualTo(actual.getToLatitude()))
+            .satisfies(e -> assertThat(e.getToLongitude()).as("check toLongitude").isEqualTo(actual.getToLongitude()))
+            .satisfies(e -> assertThat(e.getRadiusKm()).as("check radiusKm").isEqualTo(actual.getRadiusKm()))
+            .satisfies(
+                e ->
+                    assertThat(e.getDepartAfter())
+                        .as("check departAfter")
+                        .usingComparator(zonedDataTimeSameInstant)
+                        .isEqualTo(actual.getDepartAfter())
+            )
+            .satisfies(
+                e ->
+                    assertThat(e.getDepartBefore())
+                        .as("check departBefore")
+                        .usingComparator(zonedDataTimeSameInstant)
+                        .isEqualTo(actual.getDepartBefore())
+            );
+    }
+
+    /**
+     * Asserts that the entity has all the updatable relationships set.
+     *
+     * @param expected the expected entity
+     * @param actual the actual entity
+     */
+    public static void assertSavedSearchUpdatableRelationshipsEquals(SavedSearch expected, SavedSearch actual) {
+        assertThat(expected)
+            .as("Verify SavedSearch relationships")
+            .satisfies(e -> assertThat(e.getMember()).as("check member").isEqualTo(actual.getMember()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.voituri.ridesharing.domain;
+
+import static com.voituri.ridesharing.domain.MemberTestSamples.*;
+import static com.voituri.ridesharing.domain.SavedSearchTestSamples.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.voituri.ridesharing.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class SavedSearchTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(SavedSearch.class);
+        SavedSearch savedSearch1 = getSavedSearchSample1();
+        SavedSearch savedSearch2 = new SavedSearch();
+        assertThat(savedSearch1).isNotEqualTo(savedSearch2);
+
+        savedSearch2.setId(savedSearch1.getId());
+        assertThat(savedSearch1).isEqualTo(savedSearch2);
+
+        savedSearch2 = getSavedSearchSample2();
+        assertThat(savedSearch1).isNotEqualTo(savedSearch2);
+    }
+
+    @Test
+    void memberTest() {
+        SavedSearch savedSearch = getSavedSearchRandomSampleGenerator();
+        Member memberBack = getMemberRandomSampleGenerator();
+
+        savedSearch.setMember(memberBack);
+        assertThat(savedSearch.getMember()).isEqualTo(memberBack);
+
+        savedSearch.member(null);
+        assertThat(savedSearch.getMember()).isNull();
+    }
+}
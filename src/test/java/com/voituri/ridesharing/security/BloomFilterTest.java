@@ -0,0 +1,44 @@
+package com.voituri.ridesharing.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedValue() {
+        BloomFilter filter = new BloomFilter(1000, 0.001);
+        var values = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        values.forEach(filter::add);
+
+        assertThat(values).allMatch(filter::mightContain);
+        assertThat(filter.isSaturated()).isFalse();
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        IntStream.range(0, 1000).forEach(i -> filter.add(UUID.randomUUID().toString()));
+
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain(UUID.randomUUID().toString())).count();
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void countsDistinctInsertionsOnly() {
+        BloomFilter filter = new BloomFilter(2, 0.01);
+
+        filter.add("a");
+        filter.add("a");
+        filter.add("b");
+        assertThat(filter.isSaturated()).isFalse();
+
+        filter.add("c");
+        assertThat(filter.isSaturated()).isTrue();
+    }
+}
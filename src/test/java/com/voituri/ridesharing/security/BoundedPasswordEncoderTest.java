@@ -0,0 +1,140 @@
+package com.voituri.ridesharing.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private MeterRegistry meterRegistry;
+
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties.PasswordHashing properties = new ApplicationProperties.PasswordHashing();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void teardown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void delegatesToTheHashingThreads() {
+        release.countDown();
+
+        assertThat(encoder.encode("secret")).isEqualTo("{hashed}secret");
+        assertThat(encoder.matches("secret", "{hashed}secret")).isTrue();
+        assertThat(encoder.matches("wrong", "{hashed}secret")).isFalse();
+    }
+
+    @Test
+    void refusesPasswordChecksOnceTheQueueIsFull() throws Exception {
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("secret", "{hashed}secret"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("other"));
+        while (meterRegistry.get("security.password-hashing.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.matches("secret", "{hashed}secret"))
+            .isInstanceOf(PasswordHashingUnavailableException.class)
+            .extracting(e -> ((PasswordHashingUnavailableException) e).getRetryAfter())
+            .isEqualTo(Duration.ofSeconds(3));
+        assertThat(meterRegistry.get("security.password-hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}other");
+    }
+
+    @Test
+    void refusesTheLoginOfAnUnknownUserOnceTheQueueIsFull() throws Exception {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(login -> {
+            throw new UsernameNotFoundException("User " + login + " was not found");
+        });
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("secret", "{hashed}secret"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("other"));
+        while (meterRegistry.get("security.password-hashing.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // An unknown login still hashes a password against timing attacks, so it is refused like any other login
+        assertThatThrownBy(() -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("unknown", "secret")))
+            .isNotInstanceOf(BadCredentialsException.class)
+            .satisfiesAnyOf(
+                e -> assertThat(e).isInstanceOf(PasswordHashingUnavailableException.class),
+                e ->
+                    assertThat(e)
+                        .isInstanceOf(InternalAuthenticationServiceException.class)
+                        .hasCauseInstanceOf(PasswordHashingUnavailableException.class)
+            );
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}other");
+    }
+
+    @Test
+    void propagatesTheFailuresOfTheDelegate() {
+        release.countDown();
+
+        assertThatThrownBy(() -> encoder.encode(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (rawPassword == null) {
+                throw new IllegalArgumentException("rawPassword cannot be null");
+            }
+            await();
+            return "{hashed}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("{hashed}" + rawPassword);
+        }
+
+        private void await() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.voituri.ridesharing.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.voituri.ridesharing.security.JwtPrevalidator.Outcome;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class JwtPrevalidatorTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T10:00:00Z");
+
+    private static final String HEADER = "{\"alg\":\"HS512\"}";
+
+    private static final String SIGNATURE = "c2lnbmF0dXJl";
+
+    private final JwtPrevalidator prevalidator = new JwtPrevalidator(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofSeconds(60));
+
+    @Test
+    void acceptsWellFormedTokens() {
+        assertThat(prevalidator.check(token("{\"sub\":\"user\",\"exp\":" + NOW.plusSeconds(60).getEpochSecond() + "}"))).isEqualTo(
+            Outcome.WELL_FORMED
+        );
+        // Without expiry, or within the clock skew
+        assertThat(prevalidator.check(token("{\"sub\":\"user\"}"))).isEqualTo(Outcome.WELL_FORMED);
+        assertThat(prevalidator.check(token("{\"exp\" : " + NOW.minusSeconds(30).getEpochSecond() + "}"))).isEqualTo(Outcome.WELL_FORMED);
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        assertThat(prevalidator.check(token("{\"sub\":\"exp\",\"exp\":" + NOW.minusSeconds(61).getEpochSecond() + "}"))).isEqualTo(
+            Outcome.EXPIRED
+        );
+    }
+
+    @Test
+    void readsTheTopLevelExpiryOnly() {
+        long past = NOW.minusSeconds(61).getEpochSecond();
+        long future = NOW.plusSeconds(60).getEpochSecond();
+
+        assertThat(prevalidator.check(token("{\"act\":{\"exp\":" + past + "},\"exp\":" + future + "}"))).isEqualTo(Outcome.WELL_FORMED);
+        assertThat(prevalidator.check(token("{\"act\":[{\"exp\":" + past + "}]}"))).isEqualTo(Outcome.WELL_FORMED);
+        assertThat(prevalidator.check(token("{\"sub\":\"\\\"exp\\\":" + future + "\",\"exp\":" + past + "}"))).isEqualTo(
+            Outcome.EXPIRED
+        );
+    }
+
+    @Test
+    void leavesUnusualExpiriesToTheDecoder() {
+        assertThat(prevalidator.check(token("{\"exp\":1.5e3}"))).isEqualTo(Outcome.WELL_FORMED);
+        assertThat(prevalidator.check(token("{\"exp\":\"1000\"}"))).isEqualTo(Outcome.WELL_FORMED);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String token = token("{\"sub\":\"user\"}");
+
+        assertThat(prevalidator.check("")).isEqualTo(Outcome.MALFORMED);
+        assertThat(prevalidator.check("garbage")).isEqualTo(Outcome.MALFORMED);
+        assertThat(prevalidator.check("a.b")).isEqualTo(Outcome.MALFORMED);
+        assertThat(prevalidator.check(token.substring(1))).isEqualTo(Outcome.MALFORMED);
+        assertThat(prevalidator.check(token + "*")).isEqualTo(Outcome.MALFORMED);
+        assertThat(prevalidator.check(encode(HEADER) + ".bm90IGpzb24." + SIGNATURE)).isEqualTo(Outcome.MALFORMED);
+    }
+
+    @Test
+    void rejectsUnsupportedTokens() {
+        String token = token("{\"sub\":\"user\"}");
+
+        assertThat(prevalidator.check(token.substring(0, token.lastIndexOf('.') + 1))).isEqualTo(Outcome.UNSUPPORTED);
+        assertThat(prevalidator.check(token + ".a.b")).isEqualTo(Outcome.UNSUPPORTED);
+    }
+
+    private static String token(String payload) {
+        return encode(HEADER) + "." + encode(payload) + "." + SIGNATURE;
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
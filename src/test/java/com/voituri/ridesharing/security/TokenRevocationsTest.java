@@ -0,0 +1,73 @@
+package com.voituri.ridesharing.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import com.voituri.ridesharing.domain.RevokedToken;
+import com.voituri.ridesharing.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationsTest {
+
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocations tokenRevocations;
+
+    @BeforeEach
+    void setup() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        tokenRevocations = new TokenRevocations(revokedTokenRepository, new ApplicationProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void looksEveryTokenUpUntilTheFilterIsBuilt() {
+        when(revokedTokenRepository.existsById("revoked")).thenReturn(true);
+
+        assertThat(tokenRevocations.isRevoked("revoked")).isTrue();
+        assertThat(tokenRevocations.isRevoked("valid")).isFalse();
+        verify(revokedTokenRepository).existsById("valid");
+    }
+
+    @Test
+    void onlyLooksUpTheTokensInTheFilter() {
+        when(revokedTokenRepository.findJtisNotExpired(any())).thenReturn(List.of("revoked"));
+        when(revokedTokenRepository.existsById("revoked")).thenReturn(true);
+        tokenRevocations.rebuild();
+
+        assertThat(tokenRevocations.isRevoked("valid")).isFalse();
+        assertThat(tokenRevocations.isRevoked("revoked")).isTrue();
+        assertThat(tokenRevocations.isRevoked(null)).isFalse();
+        verify(revokedTokenRepository, never()).existsById("valid");
+    }
+
+    @Test
+    void addsLocalAndRemoteRevocationsToTheFilter() {
+        tokenRevocations.rebuild();
+
+        tokenRevocations.revoke("local", Instant.now().plusSeconds(60));
+        when(revokedTokenRepository.findJtisRevokedSince(any())).thenReturn(List.of("remote"));
+        tokenRevocations.sync();
+        when(revokedTokenRepository.existsById(anyString())).thenReturn(true);
+
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertThat(tokenRevocations.isRevoked("local")).isTrue();
+        assertThat(tokenRevocations.isRevoked("remote")).isTrue();
+    }
+
+    @Test
+    void ignoresExpiredTokens() {
+        tokenRevocations.revoke("expired", Instant.now().minusSeconds(1));
+
+        verify(revokedTokenRepository, never()).save(any(RevokedToken.class));
+    }
+}
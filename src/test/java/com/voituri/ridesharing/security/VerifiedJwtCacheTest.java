@@ -0,0 +1,149 @@
+package com.voituri.ridesharing.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+class VerifiedJwtCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T10:00:00Z");
+
+    private final MutableClock clock = new MutableClock();
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private VerifiedJwtCache cache;
+
+    @BeforeEach
+    void setup() {
+        clock.instant = NOW;
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getJwtCache().setMaxSize(10);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedJwtCache(applicationProperties, meterRegistry, clock);
+    }
+
+    @Test
+    void servesVerifiedTokensUntilTheyExpire() {
+        Jwt jwt = jwt("token", 60);
+        CountingDecoder decoder = new CountingDecoder(jwt);
+
+        assertThat(cache.get("token", decoder)).isSameAs(jwt);
+        assertThat(cache.get("token", decoder)).isSameAs(jwt);
+        assertThat(decoder.calls).isEqualTo(1);
+
+        clock.instant = NOW.plusSeconds(60);
+
+        assertThat(cache.get("token", decoder)).isSameAs(jwt);
+        assertThat(decoder.calls).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get("security.jwt.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.jwt.cache.requests").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheTokensWithoutExpiry() {
+        cache.get("token", token -> Jwt.withTokenValue(token).header("alg", "HS512").subject("user").build());
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void doesNotCacheTheFailuresOfTheDecoder() {
+        Function<String, Jwt> decoder = token -> {
+            throw new BadJwtException("Invalid signature");
+        };
+
+        assertThatThrownBy(() -> cache.get("token", decoder)).isInstanceOf(BadJwtException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void evictsTheTokensExpiringFirstWhenFull() {
+        for (int i = 0; i < 10; i++) {
+            cache.get("token-" + i, new CountingDecoder(jwt("token-" + i, 100 + i)));
+        }
+
+        cache.get("token-10", new CountingDecoder(jwt("token-10", 50)));
+
+        assertThat(cache.size()).isEqualTo(10);
+        CountingDecoder decoder = new CountingDecoder(jwt("token", 60));
+        cache.get("token-1", decoder);
+        cache.get("token-10", decoder);
+        assertThat(decoder.calls).isZero();
+        cache.get("token-0", decoder);
+        assertThat(decoder.calls).isEqualTo(1);
+    }
+
+    @Test
+    void bypassesTheCacheWhenDisabled() {
+        applicationProperties.getJwtCache().setEnabled(false);
+        CountingDecoder decoder = new CountingDecoder(jwt("token", 60));
+
+        cache.get("token", decoder);
+        cache.get("token", decoder);
+
+        assertThat(decoder.calls).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    private static Jwt jwt(String token, long validitySeconds) {
+        return Jwt.withTokenValue(token)
+            .header("alg", "HS512")
+            .subject("user")
+            .issuedAt(NOW)
+            .expiresAt(NOW.plusSeconds(validitySeconds))
+            .build();
+    }
+
+    private static final class CountingDecoder implements Function<String, Jwt> {
+
+        private final Jwt jwt;
+
+        private int calls;
+
+        private CountingDecoder(Jwt jwt) {
+            this.jwt = jwt;
+        }
+
+        @Override
+        public Jwt apply(String token) {
+            calls++;
+            return jwt;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.voituri.ridesharing.security.jwt;
 
+import com.voituri.ridesharing.config.ApplicationProperties;
 import com.voituri.ridesharing.config.SecurityConfiguration;
 import com.voituri.ridesharing.config.SecurityJwtConfiguration;
 import com.voituri.ridesharing.config.WebConfigurer;
 import com.voituri.ridesharing.management.SecurityMetersService;
+import com.voituri.ridesharing.security.TokenRevocations;
+import com.voituri.ridesharing.security.VerifiedJwtCache;
 import com.voituri.ridesharing.web.rest.AuthenticateController;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -21,10 +24,13 @@ import tech.jhipster.config.JHipsterProperties;
     },
     classes = {
         JHipsterProperties.class,
+        ApplicationProperties.class,
         WebConfigurer.class,
         SecurityConfiguration.class,
         SecurityJwtConfiguration.class,
         SecurityMetersService.class,
+        VerifiedJwtCache.class,
+        TokenRevocations.class,
         AuthenticateController.class,
         JwtAuthenticationTestUtils.class,
     }
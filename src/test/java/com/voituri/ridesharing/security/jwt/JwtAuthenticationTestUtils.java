@@ -5,6 +5,8 @@ import static com.voituri.ridesharing.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
+import com.voituri.ridesharing.repository.RevokedTokenRepository;
+import com.voituri.ridesharing.service.RefreshTokenService;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Instant;
@@ -12,6 +14,7 @@ import java.util.Collections;
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import org.mockito.Mockito;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.oauth2.jwt.JwsHeader;
@@ -35,6 +38,16 @@ public class JwtAuthenticationTestUtils {
         return new SimpleMeterRegistry();
     }
 
+    @Bean
+    private RevokedTokenRepository revokedTokenRepository() {
+        return Mockito.mock(RevokedTokenRepository.class);
+    }
+
+    @Bean
+    private RefreshTokenService refreshTokenService() {
+        return Mockito.mock(RefreshTokenService.class);
+    }
+
     public static String createValidToken(String jwtKey) {
         return createValidTokenForUser(jwtKey, "anonymous");
     }
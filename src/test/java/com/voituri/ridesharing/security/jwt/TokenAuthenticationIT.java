@@ -41,6 +41,16 @@ class TokenAuthenticationIT {
         expectUnauthorized(createExpiredToken(jwtKey));
     }
 
+    @Test
+    void testReturnFalseWhenJWTisRevoked() throws Exception {
+        String token = createValidToken(jwtKey);
+        expectOk(token);
+
+        mvc.perform(MockMvcRequestBuilders.post("/api/logout").header(AUTHORIZATION, BEARER + token)).andExpect(status().isNoContent());
+
+        expectUnauthorized(token);
+    }
+
     private void expectOk(String token) throws Exception {
         mvc.perform(MockMvcRequestBuilders.get("/api/authenticate").header(AUTHORIZATION, BEARER + token)).andExpect(status().isOk());
     }
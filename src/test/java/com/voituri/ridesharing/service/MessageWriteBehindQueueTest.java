@@ -0,0 +1,216 @@
+package com.voituri.ridesharing.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import com.voituri.ridesharing.domain.Message;
+import com.voituri.ridesharing.repository.MessageRepository;
+import com.voituri.ridesharing.service.chat.RideChatHub;
+import com.voituri.ridesharing.service.dto.MessageDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.mapper.MessageMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class MessageWriteBehindQueueTest {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ApplicationProperties applicationProperties;
+
+    private MessageRepository messageRepository;
+
+    private RideChatHub rideChatHub;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MessageWriteBehindQueue queue;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMessage().getWriteBehind().setEnabled(true);
+        messageRepository = mock(MessageRepository.class);
+        when(messageRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Message> saved = new ArrayList<>();
+            invocation.<Iterable<Message>>getArgument(0).forEach(message -> saved.add(message.id(sequence.incrementAndGet())));
+            return saved;
+        });
+        when(messageRepository.save(any(Message.class))).thenAnswer(invocation ->
+            invocation.<Message>getArgument(0).id(sequence.incrementAndGet())
+        );
+        rideChatHub = mock(RideChatHub.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void refusesMessagesWhenDisabled() {
+        applicationProperties.getMessage().getWriteBehind().setEnabled(false);
+        start();
+
+        assertThat(queue.isRunning()).isFalse();
+        assertThat(queue.offer(message("hello"))).isFalse();
+    }
+
+    @Test
+    void writesAFullBatchAtOnce() {
+        applicationProperties.getMessage().getWriteBehind().setBatchSize(2);
+        applicationProperties.getMessage().getWriteBehind().setFlushInterval(Duration.ofHours(1));
+        start();
+
+        assertThat(queue.offer(message("first"))).isTrue();
+        assertThat(queue.offer(message("second"))).isTrue();
+
+        verify(rideChatHub, timeout(5000).times(2)).publish(any(MessageDTO.class));
+        verify(messageRepository, times(1)).saveAll(anyIterable());
+        assertThat(meterRegistry.get("message.write.batch.size").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void writesAPartialBatchAfterTheFlushInterval() {
+        applicationProperties.getMessage().getWriteBehind().setFlushInterval(Duration.ofMillis(20));
+        start();
+
+        assertThat(queue.offer(message("alone"))).isTrue();
+
+        verify(rideChatHub, timeout(5000)).publish(any(MessageDTO.class));
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void flushesTheQueueOnStop() {
+        applicationProperties.getMessage().getWriteBehind().setFlushInterval(Duration.ofHours(1));
+        start();
+        queue.offer(message("first"));
+        queue.offer(message("second"));
+        queue.offer(message("third"));
+
+        queue.stop();
+
+        verify(rideChatHub, times(3)).publish(any(MessageDTO.class));
+        assertThat(queue.isRunning()).isFalse();
+        assertThat(queue.offer(message("late"))).isFalse();
+    }
+
+    @Test
+    void insertsTheRemainingMessagesOnStopWhenTheWriterIsLate() throws Exception {
+        applicationProperties.getMessage().getWriteBehind().setBatchSize(1);
+        applicationProperties.getMessage().getWriteBehind().setShutdownTimeout(Duration.ofMillis(50));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(messageRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Message> saved = new ArrayList<>();
+            invocation.<Iterable<Message>>getArgument(0).forEach(message -> saved.add(message.id(sequence.incrementAndGet())));
+            if (writing.getCount() > 0) {
+                // Only the first batch, inserted by the writer, is slow
+                writing.countDown();
+                release.await();
+            }
+            return saved;
+        });
+        start();
+        queue.offer(message("slow"));
+        writing.await();
+        queue.offer(message("first"));
+        queue.offer(message("second"));
+
+        queue.stop();
+
+        verify(rideChatHub, times(2)).publish(any(MessageDTO.class));
+        assertThat(queue.size()).isZero();
+        release.countDown();
+        verify(rideChatHub, timeout(5000).times(3)).publish(any(MessageDTO.class));
+    }
+
+    @Test
+    void refusesMessagesWhenTheQueueIsFull() throws Exception {
+        applicationProperties.getMessage().getWriteBehind().setQueueCapacity(1);
+        applicationProperties.getMessage().getWriteBehind().setBatchSize(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(messageRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return List.of();
+        });
+        start();
+
+        assertThat(queue.offer(message("written"))).isTrue();
+        writing.await();
+        assertThat(queue.offer(message("queued"))).isTrue();
+        assertThat(queue.offer(message("refused"))).isFalse();
+        release.countDown();
+    }
+
+    @Test
+    void insertsOneByOneWhenABatchFails() {
+        applicationProperties.getMessage().getWriteBehind().setBatchSize(2);
+        applicationProperties.getMessage().getWriteBehind().setFlushInterval(Duration.ofHours(1));
+        when(messageRepository.saveAll(anyIterable())).thenThrow(new IllegalStateException("constraint violation"));
+        when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            if ("invalid".equals(message.getContent())) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return message.id(sequence.incrementAndGet());
+        });
+        start();
+
+        queue.offer(message("valid"));
+        queue.offer(message("invalid"));
+        queue.stop();
+
+        ArgumentCaptor<MessageDTO> published = ArgumentCaptor.forClass(MessageDTO.class);
+        verify(rideChatHub).publish(published.capture());
+        assertThat(published.getValue().getContent()).isEqualTo("valid");
+        assertThat(published.getValue().getId()).isNotNull();
+        assertThat(meterRegistry.get("message.write.failures").counter().count()).isEqualTo(1);
+    }
+
+    private void start() {
+        queue = new MessageWriteBehindQueue(
+            applicationProperties,
+            messageRepository,
+            new MessageMapperImpl(),
+            mock(PlatformTransactionManager.class),
+            rideChatHub,
+            mock(UnreadCounters.class),
+            meterRegistry
+        );
+        queue.start();
+    }
+
+    private static MessageDTO message(String content) {
+        RideDTO ride = new RideDTO();
+        ride.setId(1L);
+        MessageDTO message = new MessageDTO();
+        message.setContent(content);
+        message.setTimestamp(ZonedDateTime.now());
+        message.setRide(ride);
+        return message;
+    }
+}
@@ -0,0 +1,139 @@
+package com.voituri.ridesharing.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.Notification;
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.NotificationRepository;
+import com.voituri.ridesharing.repository.RideRequestRepository;
+import com.voituri.ridesharing.service.NotificationFanOutService.PendingNotification;
+import com.voituri.ridesharing.service.NotificationFanOutService.RideEvent;
+import com.voituri.ridesharing.service.dto.MemberDTO;
+import com.voituri.ridesharing.service.dto.NotificationDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.mapper.NotificationMapperImpl;
+import com.voituri.ridesharing.service.notification.NotificationHub;
+import jakarta.persistence.EntityManager;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+class NotificationFanOutServiceTest {
+
+    private EntityManager entityManager;
+
+    private Session session;
+
+    private NotificationRepository notificationRepository;
+
+    private RideRequestRepository rideRequestRepository;
+
+    private UnreadCounters unreadCounters;
+
+    private NotificationHub notificationHub;
+
+    private NotificationFanOutService notificationFanOutService;
+
+    @BeforeEach
+    void setup() {
+        entityManager = mock(EntityManager.class);
+        session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getJdbcBatchSize()).thenReturn(null);
+        notificationRepository = mock(NotificationRepository.class);
+        MemberRepository memberRepository = mock(MemberRepository.class);
+        when(memberRepository.getReferenceById(anyLong())).thenAnswer(invocation -> new Member().id(invocation.getArgument(0)));
+        rideRequestRepository = mock(RideRequestRepository.class);
+        unreadCounters = mock(UnreadCounters.class);
+        notificationHub = mock(NotificationHub.class);
+        notificationFanOutService = new NotificationFanOutService(
+            entityManager,
+            notificationRepository,
+            new NotificationMapperImpl(),
+            memberRepository,
+            rideRequestRepository,
+            unreadCounters,
+            notificationHub
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void notifiesTheRequestersButNotTheDriver() {
+        RideDTO ride = ride(1L, 7L);
+        when(rideRequestRepository.findRequesterIdsByRideId(1L)).thenReturn(List.of(7L, 8L, 9L));
+
+        int created = notificationFanOutService.notifyRequesters(ride, RideEvent.CANCELLED);
+
+        assertThat(created).isEqualTo(2);
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(notification -> notification.getMember().getId()).containsExactly(8L, 9L);
+        assertThat(saved.getValue()).allSatisfy(notification -> {
+            assertThat(notification.getRead()).isFalse();
+            assertThat(notification.getMessage()).isEqualTo("Your ride from Paris to Lyon on 2030-01-01T08:00:00Z is cancelled");
+        });
+        verify(unreadCounters).addUnreadNotifications(8L, 1);
+        verify(unreadCounters).addUnreadNotifications(9L, 1);
+        verify(unreadCounters, never()).addUnreadNotifications(7L, 1);
+        // No transaction is active: the notifications are pushed right away
+        verify(notificationHub, times(2)).publish(any(NotificationDTO.class));
+    }
+
+    @Test
+    void insertsInLargerBatchesAndRestoresTheBatchSize() {
+        notificationFanOutService.create(List.of(new PendingNotification(8L, "hello")));
+
+        InOrder order = inOrder(session, notificationRepository, entityManager);
+        order.verify(session).setJdbcBatchSize(NotificationFanOutService.BATCH_SIZE);
+        order.verify(notificationRepository).saveAll(any());
+        order.verify(entityManager).flush();
+        order.verify(session).setJdbcBatchSize(null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void truncatesLongMessages() {
+        notificationFanOutService.create(List.of(new PendingNotification(8L, "x".repeat(NotificationFanOutService.MAX_MESSAGE_LENGTH + 10))));
+
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(saved.capture());
+        assertThat(saved.getValue().get(0).getMessage()).hasSize(NotificationFanOutService.MAX_MESSAGE_LENGTH);
+    }
+
+    @Test
+    void createsNothingWithoutRecipients() {
+        when(rideRequestRepository.findRequesterIdsByRideId(1L)).thenReturn(List.of(7L));
+
+        assertThat(notificationFanOutService.notifyRequesters(ride(1L, 7L), RideEvent.RESCHEDULED)).isZero();
+
+        verify(notificationRepository, never()).saveAll(any());
+        verify(entityManager, never()).flush();
+    }
+
+    private static RideDTO ride(Long id, Long driverId) {
+        MemberDTO driver = new MemberDTO();
+        driver.setId(driverId);
+        RideDTO ride = new RideDTO();
+        ride.setId(id);
+        ride.setStartLocation("Paris");
+        ride.setEndLocation("Lyon");
+        ride.setStartTime(ZonedDateTime.of(2030, 1, 1, 8, 0, 0, 0, ZoneOffset.UTC));
+        ride.setMember(driver);
+        return ride;
+    }
+}
@@ -0,0 +1,115 @@
+package com.voituri.ridesharing.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.Notification;
+import com.voituri.ridesharing.repository.NotificationBulkRepository.NotificationState;
+import com.voituri.ridesharing.repository.NotificationRepository;
+import com.voituri.ridesharing.service.dto.NotificationSelectionDTO;
+import com.voituri.ridesharing.service.mapper.NotificationMapperImpl;
+import com.voituri.ridesharing.service.notification.NotificationHub;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationServiceTest {
+
+    private static final long MEMBER_ID = 7L;
+
+    private NotificationRepository notificationRepository;
+
+    private UnreadCounters unreadCounters;
+
+    private Cache cache;
+
+    private org.hibernate.Cache hibernateCache;
+
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setup() {
+        notificationRepository = mock(NotificationRepository.class);
+        unreadCounters = mock(UnreadCounters.class);
+        cache = mock(Cache.class);
+        hibernateCache = mock(org.hibernate.Cache.class);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(hibernateCache);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        notificationService = new NotificationService(
+            notificationRepository,
+            new NotificationMapperImpl(),
+            unreadCounters,
+            mock(NotificationHub.class),
+            entityManager
+        );
+    }
+
+    @Test
+    void marksTheUnreadNotificationsReadAndEvictsOnlyThem() {
+        NotificationSelectionDTO selection = new NotificationSelectionDTO();
+        when(notificationRepository.findStatesByMember(MEMBER_ID, null, null)).thenReturn(
+            List.of(new NotificationState(1L, false), new NotificationState(2L, true), new NotificationState(3L, null))
+        );
+        when(notificationRepository.markReadByMember(MEMBER_ID, List.of(1L, 3L))).thenReturn(2);
+
+        assertThat(notificationService.markRead(MEMBER_ID, selection)).isEqualTo(2);
+
+        verify(unreadCounters).addUnreadNotifications(MEMBER_ID, -2);
+        verify(cache, atLeastOnce()).evict(Notification.class, 1L);
+        verify(cache, atLeastOnce()).evict(Notification.class, 3L);
+        verify(cache, never()).evict(Notification.class, 2L);
+        verify(hibernateCache, never()).evictCollectionData(any(), any());
+    }
+
+    @Test
+    void countsOnlyTheNotificationsNotMarkedConcurrently() {
+        when(notificationRepository.findStatesByMember(MEMBER_ID, null, null)).thenReturn(
+            List.of(new NotificationState(1L, false), new NotificationState(3L, null))
+        );
+        // Notification 1 was marked read by a concurrent call
+        when(notificationRepository.markReadByMember(MEMBER_ID, List.of(1L, 3L))).thenReturn(1);
+
+        assertThat(notificationService.markRead(MEMBER_ID, new NotificationSelectionDTO())).isEqualTo(1);
+
+        verify(unreadCounters).addUnreadNotifications(MEMBER_ID, -1);
+    }
+
+    @Test
+    void deletesTheSelectedNotificationsAndEvictsTheMemberCollection() {
+        NotificationSelectionDTO selection = new NotificationSelectionDTO();
+        selection.setIds(List.of(1L, 2L, 99L));
+        when(notificationRepository.findStatesByMember(MEMBER_ID, selection.getIds(), null)).thenReturn(
+            List.of(new NotificationState(1L, false), new NotificationState(2L, true))
+        );
+        when(notificationRepository.deleteByMember(MEMBER_ID, List.of(1L, 2L))).thenReturn(2);
+
+        assertThat(notificationService.deleteAll(MEMBER_ID, selection)).isEqualTo(2);
+
+        verify(unreadCounters).addUnreadNotifications(MEMBER_ID, -1);
+        verify(cache, atLeastOnce()).evict(Notification.class, 1L);
+        verify(cache, atLeastOnce()).evict(Notification.class, 2L);
+        verify(hibernateCache, atLeastOnce()).evictCollectionData(Member.class.getName() + ".notifications", MEMBER_ID);
+    }
+
+    @Test
+    void doesNothingWhenNothingIsSelected() {
+        when(notificationRepository.findStatesByMember(anyLong(), any(), any())).thenReturn(List.of());
+
+        assertThat(notificationService.markRead(MEMBER_ID, new NotificationSelectionDTO())).isZero();
+
+        verify(cache, never()).evict(any(), any());
+    }
+}
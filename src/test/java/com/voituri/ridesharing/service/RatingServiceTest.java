@@ -0,0 +1,93 @@
+package com.voituri.ridesharing.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.Rating;
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.MemberReputationRepository;
+import com.voituri.ridesharing.repository.RatingRepository;
+import com.voituri.ridesharing.service.dto.MemberDTO;
+import com.voituri.ridesharing.service.dto.RatingDTO;
+import com.voituri.ridesharing.service.leaderboard.DriverLeaderboard;
+import com.voituri.ridesharing.service.mapper.RatingMapperImpl;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RatingServiceTest {
+
+    private RatingRepository ratingRepository;
+
+    private MemberReputationRepository memberReputationRepository;
+
+    private RatingService ratingService;
+
+    @BeforeEach
+    void setup() {
+        ratingRepository = mock(RatingRepository.class);
+        when(ratingRepository.save(any(Rating.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        memberReputationRepository = mock(MemberReputationRepository.class);
+        ratingService = new RatingService(
+            ratingRepository,
+            new RatingMapperImpl(),
+            new MemberReputationService(memberReputationRepository, mock(MemberRepository.class), mock(DriverLeaderboard.class))
+        );
+    }
+
+    @Test
+    void savingARatingCountsIt() {
+        ratingService.save(rating(null, 4, 7L));
+
+        verify(memberReputationRepository).addRatings(7L, 4, 1);
+    }
+
+    @Test
+    void updatingTheScoreMovesTheRating() {
+        when(ratingRepository.findById(1L)).thenReturn(Optional.of(new Rating().id(1L).score(2).receiver(new Member().id(7L))));
+
+        ratingService.update(rating(1L, 5, 7L));
+
+        verify(memberReputationRepository).addRatings(7L, 2, -1);
+        verify(memberReputationRepository).addRatings(7L, 5, 1);
+    }
+
+    @Test
+    void updatingTheFeedbackOnlyLeavesTheReputationAlone() {
+        when(ratingRepository.findById(1L)).thenReturn(Optional.of(new Rating().id(1L).score(3).receiver(new Member().id(7L))));
+        RatingDTO patch = new RatingDTO();
+        patch.setId(1L);
+        patch.setFeedback("On time");
+
+        ratingService.partialUpdate(patch);
+
+        verify(memberReputationRepository, never()).addRatings(anyLong(), anyInt(), anyLong());
+    }
+
+    @Test
+    void deletingARatingUncountsIt() {
+        Rating rating = new Rating().id(1L).score(3).receiver(new Member().id(7L));
+        when(ratingRepository.findById(1L)).thenReturn(Optional.of(rating));
+
+        ratingService.delete(1L);
+
+        verify(ratingRepository).delete(rating);
+        verify(memberReputationRepository).addRatings(7L, 3, -1);
+    }
+
+    private static RatingDTO rating(Long id, int score, Long receiverId) {
+        RatingDTO rating = new RatingDTO();
+        rating.setId(id);
+        rating.setScore(score);
+        MemberDTO receiver = new MemberDTO();
+        receiver.setId(receiverId);
+        rating.setReceiver(receiver);
+        return rating;
+    }
+}
@@ -0,0 +1,102 @@
+package com.voituri.ridesharing.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.domain.Authority;
+import com.voituri.ridesharing.domain.RefreshToken;
+import com.voituri.ridesharing.domain.User;
+import com.voituri.ridesharing.repository.RefreshTokenRepository;
+import com.voituri.ridesharing.repository.UserRepository;
+import com.voituri.ridesharing.security.AuthoritiesConstants;
+import com.voituri.ridesharing.security.TokenRevocations;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class RefreshTokenServiceTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private UserRepository userRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        userRepository = mock(UserRepository.class);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, mock(TokenRevocations.class));
+        user = new User();
+        user.setId(1L);
+        user.setLogin("driver");
+        user.setActivated(true);
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        user.setAuthorities(Set.of(authority));
+    }
+
+    @Test
+    void storesOnlyTheHashOfNewTokens() {
+        when(userRepository.findOneByLogin("driver")).thenReturn(Optional.of(user));
+
+        RefreshTokenService.IssuedToken token = refreshTokenService.create("driver", Duration.ofDays(1));
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertThat(saved.getValue().getTokenHash()).isEqualTo(RefreshTokenService.hash(token.value())).isNotEqualTo(token.value());
+        assertThat(saved.getValue().getSession()).isEqualTo(token.session());
+    }
+
+    @Test
+    void rotatesATokenWithinItsSession() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        when(refreshTokenRepository.findOneByTokenHash(RefreshTokenService.hash("token"))).thenReturn(
+            Optional.of(new RefreshToken().id(1L).session("session").expiresAt(expiresAt).user(user))
+        );
+        when(refreshTokenRepository.revoke(1L)).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("token").orElseThrow();
+
+        assertThat(rotation.login()).isEqualTo("driver");
+        assertThat(rotation.authorities()).containsExactly(AuthoritiesConstants.USER);
+        assertThat(rotation.token().session()).isEqualTo("session");
+        assertThat(rotation.token().expiresAt()).isEqualTo(expiresAt);
+        assertThat(rotation.token().value()).isNotEqualTo("token");
+        verify(refreshTokenRepository, never()).revokeSession(any());
+    }
+
+    @Test
+    void revokesTheSessionOfATokenUsedTwice() {
+        when(refreshTokenRepository.findOneByTokenHash(RefreshTokenService.hash("token"))).thenReturn(
+            Optional.of(new RefreshToken().id(1L).session("session").expiresAt(Instant.now().plusSeconds(3600)).revoked(true).user(user))
+        );
+
+        assertThat(refreshTokenService.rotate("token")).isEmpty();
+
+        verify(refreshTokenRepository).revokeSession("session");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void refusesExpiredAndUnknownTokens() {
+        when(refreshTokenRepository.findOneByTokenHash(RefreshTokenService.hash("expired"))).thenReturn(
+            Optional.of(new RefreshToken().id(1L).session("session").expiresAt(Instant.now().minusSeconds(1)).user(user))
+        );
+
+        assertThat(refreshTokenService.rotate("expired")).isEmpty();
+        assertThat(refreshTokenService.rotate("unknown")).isEmpty();
+        verify(refreshTokenRepository, never()).revoke(anyLong());
+    }
+}
@@ -0,0 +1,123 @@
+package com.voituri.ridesharing.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.Message;
+import com.voituri.ridesharing.domain.Notification;
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.repository.MessageRepository;
+import com.voituri.ridesharing.repository.NotificationRepository;
+import com.voituri.ridesharing.repository.PurgeCandidate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class RetentionServiceTest {
+
+    private static final ZonedDateTime CUTOFF = ZonedDateTime.parse("2026-09-17T00:00:00Z");
+
+    private NotificationRepository notificationRepository;
+
+    private MessageRepository messageRepository;
+
+    private UnreadCounters unreadCounters;
+
+    private org.hibernate.Cache hibernateCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RetentionService retentionService;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getRetention().setChunkSize(2);
+        applicationProperties.getRetention().setPause(Duration.ZERO);
+        notificationRepository = mock(NotificationRepository.class);
+        messageRepository = mock(MessageRepository.class);
+        unreadCounters = mock(UnreadCounters.class);
+        hibernateCache = mock(org.hibernate.Cache.class);
+        Cache cache = mock(Cache.class);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(hibernateCache);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        meterRegistry = new SimpleMeterRegistry();
+        retentionService = new RetentionService(
+            applicationProperties,
+            notificationRepository,
+            messageRepository,
+            unreadCounters,
+            entityManagerFactory,
+            mock(PlatformTransactionManager.class),
+            meterRegistry
+        );
+    }
+
+    @Test
+    void purgesNotificationsInKeysetChunks() {
+        PurgeCandidate first = candidate(1L, 0, 7L);
+        PurgeCandidate second = candidate(2L, 1, 7L);
+        PurgeCandidate third = candidate(3L, 2, 8L);
+        when(notificationRepository.findReadBefore(CUTOFF, null, 2)).thenReturn(List.of(first, second));
+        when(notificationRepository.findReadBefore(CUTOFF, second, 2)).thenReturn(List.of(third));
+        when(notificationRepository.deleteByIds(List.of(1L, 2L))).thenReturn(2);
+        when(notificationRepository.deleteByIds(List.of(3L))).thenReturn(1);
+
+        assertThat(retentionService.purgeNotifications(CUTOFF)).isEqualTo(3);
+
+        verify(hibernateCache).evictEntityData(Notification.class, 3L);
+        verify(hibernateCache).evictCollectionData(Member.class.getName() + ".notifications", 7L);
+        verify(hibernateCache).evictCollectionData(Member.class.getName() + ".notifications", 8L);
+        assertThat(meterRegistry.get("retention.purged").tag("table", "notification").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("retention.chunk").tag("table", "notification").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void purgesMessagesOfArchivedRides() {
+        PurgeCandidate first = candidate(10L, 0, 4L);
+        PurgeCandidate second = candidate(11L, 1, 5L);
+        when(messageRepository.findArchivedRideIdsWithMessages(CUTOFF, null, 2)).thenReturn(List.of(4L, 5L));
+        when(messageRepository.findByRides(List.of(4L, 5L), null, 2)).thenReturn(List.of(first, second));
+        when(messageRepository.findByRides(List.of(4L, 5L), second, 2)).thenReturn(List.of());
+        when(messageRepository.deleteByIds(List.of(10L, 11L))).thenReturn(2);
+        when(messageRepository.findArchivedRideIdsWithMessages(CUTOFF, 5L, 2)).thenReturn(List.of());
+
+        assertThat(retentionService.purgeMessages(CUTOFF)).isEqualTo(2);
+
+        verify(unreadCounters).addRideMessages(4L, -1);
+        verify(unreadCounters).addRideMessages(5L, -1);
+        verify(hibernateCache).evictEntityData(Message.class, 10L);
+        verify(hibernateCache).evictCollectionData(Ride.class.getName() + ".messages", 5L);
+        assertThat(meterRegistry.get("retention.purged").tag("table", "message").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void purgesNothingWhenNothingExpired() {
+        when(notificationRepository.findReadBefore(any(), any(), any(Integer.class))).thenReturn(List.of());
+        when(messageRepository.findArchivedRideIdsWithMessages(any(), any(), any(Integer.class))).thenReturn(List.of());
+
+        retentionService.purge();
+
+        verify(unreadCounters, never()).addRideMessages(anyLong(), anyLong());
+        verify(messageRepository, never()).findByRides(any(), any(), any(Integer.class));
+        assertThat(meterRegistry.get("retention.purged").tag("table", "notification").counter().count()).isZero();
+    }
+
+    private static PurgeCandidate candidate(Long id, int minutes, Long ownerId) {
+        return new PurgeCandidate(id, CUTOFF.minusDays(1).plusMinutes(minutes), ownerId);
+    }
+}
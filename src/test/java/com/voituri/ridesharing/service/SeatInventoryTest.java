@@ -0,0 +1,91 @@
+package com.voituri.ridesharing.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.repository.RideRepository;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SeatInventoryTest {
+
+    private RideRepository rideRepository;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private SeatInventory seatInventory;
+
+    @BeforeEach
+    void setup() {
+        rideRepository = mock(RideRepository.class);
+        seatInventory = new SeatInventory(rideRepository, nanoTime::get);
+    }
+
+    @Test
+    void rejectsBookingsOnceSoldOut() {
+        when(rideRepository.findAvailableSeatsById(1L)).thenReturn(Optional.of(3));
+
+        assertThat(seatInventory.tryAcquire(1L, 2)).isTrue();
+        assertThat(seatInventory.tryAcquire(1L, 2)).isFalse();
+        assertThat(seatInventory.tryAcquire(1L, 1)).isTrue();
+        assertThat(seatInventory.tryAcquire(1L, 1)).isFalse();
+        verify(rideRepository, times(1)).findAvailableSeatsById(1L);
+    }
+
+    @Test
+    void letsTheDatabaseDecideForUnknownRides() {
+        when(rideRepository.findAvailableSeatsById(1L)).thenReturn(Optional.empty());
+
+        assertThat(seatInventory.tryAcquire(1L, 1)).isTrue();
+        assertThat(seatInventory.tryAcquire(1L, 1)).isTrue();
+    }
+
+    @Test
+    void reloadsEvictedCounters() {
+        when(rideRepository.findAvailableSeatsById(1L)).thenReturn(Optional.of(1), Optional.of(2));
+
+        assertThat(seatInventory.tryAcquire(1L, 1)).isTrue();
+        assertThat(seatInventory.tryAcquire(1L, 1)).isFalse();
+        seatInventory.evict(1L);
+        assertThat(seatInventory.tryAcquire(1L, 2)).isTrue();
+    }
+
+    @Test
+    void reloadsCountersOnceTheyAreStale() {
+        // Another instance gives a seat back meanwhile
+        when(rideRepository.findAvailableSeatsById(1L)).thenReturn(Optional.of(1), Optional.of(1));
+
+        assertThat(seatInventory.tryAcquire(1L, 1)).isTrue();
+        assertThat(seatInventory.tryAcquire(1L, 1)).isFalse();
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(SeatInventory.COUNTER_TTL_SECONDS));
+        assertThat(seatInventory.tryAcquire(1L, 1)).isTrue();
+        verify(rideRepository, times(2)).findAvailableSeatsById(1L);
+    }
+
+    @Test
+    void neverHandsOutMoreSeatsThanAvailableUnderContention() throws Exception {
+        when(rideRepository.findAvailableSeatsById(1L)).thenReturn(Optional.of(50));
+        AtomicInteger acquired = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            executor.execute(() -> {
+                if (seatInventory.tryAcquire(1L, 1)) {
+                    acquired.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(acquired.get()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,94 @@
+package com.voituri.ridesharing.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.repository.MessageRepository;
+import com.voituri.ridesharing.repository.NotificationRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UnreadCountersTest {
+
+    private NotificationRepository notificationRepository;
+
+    private MessageRepository messageRepository;
+
+    private UnreadCounters unreadCounters;
+
+    @BeforeEach
+    void setup() {
+        notificationRepository = mock(NotificationRepository.class);
+        messageRepository = mock(MessageRepository.class);
+        unreadCounters = new UnreadCounters(notificationRepository, messageRepository);
+    }
+
+    @Test
+    void countsReportedChanges() {
+        unreadCounters.addUnreadNotifications(1L, 1);
+        unreadCounters.addUnreadNotifications(1L, 1);
+        unreadCounters.addUnreadNotifications(2L, 1);
+        unreadCounters.addUnreadNotifications(1L, -1);
+        unreadCounters.addUnreadNotifications(null, 1);
+        unreadCounters.addRideMessages(10L, 3);
+
+        assertThat(unreadCounters.unreadNotifications(1L)).isEqualTo(1);
+        assertThat(unreadCounters.unreadNotifications(2L)).isEqualTo(1);
+        assertThat(unreadCounters.unreadNotifications(3L)).isZero();
+        assertThat(unreadCounters.rideMessages(10L)).isEqualTo(3);
+        assertThat(unreadCounters.rideMessages(null)).isZero();
+    }
+
+    @Test
+    void neverReportsNegativeCounts() {
+        unreadCounters.addUnreadNotifications(1L, -1);
+
+        assertThat(unreadCounters.unreadNotifications(1L)).isZero();
+    }
+
+    @Test
+    void reconcilesWithTheDatabase() {
+        unreadCounters.addUnreadNotifications(1L, 5);
+        unreadCounters.addUnreadNotifications(2L, 1);
+        unreadCounters.addRideMessages(10L, 1);
+        when(notificationRepository.countUnreadByMember()).thenReturn(List.of(memberCount(1L, 2), memberCount(3L, 4)));
+        when(messageRepository.countByRide()).thenReturn(List.of(rideCount(10L, 7)));
+
+        unreadCounters.reconcile();
+
+        assertThat(unreadCounters.unreadNotifications(1L)).isEqualTo(2);
+        assertThat(unreadCounters.unreadNotifications(2L)).isZero();
+        assertThat(unreadCounters.unreadNotifications(3L)).isEqualTo(4);
+        assertThat(unreadCounters.rideMessages(10L)).isEqualTo(7);
+    }
+
+    private static NotificationRepository.MemberCount memberCount(Long memberId, long count) {
+        return new NotificationRepository.MemberCount() {
+            @Override
+            public Long getMemberId() {
+                return memberId;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private static MessageRepository.RideCount rideCount(Long rideId, long count) {
+        return new MessageRepository.RideCount() {
+            @Override
+            public Long getRideId() {
+                return rideId;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.voituri.ridesharing.service.chat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.voituri.ridesharing.service.dto.MessageDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RideChatHubTest {
+
+    private ExecutorService executor;
+
+    private RideChatHub hub;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(2);
+        hub = new RideChatHub(executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void deliversMessagesToTheSubscribersOfTheirRide() throws Exception {
+        RecordingSubscriber ride1 = new RecordingSubscriber(2);
+        RecordingSubscriber ride2 = new RecordingSubscriber(1);
+        hub.subscribe(1L, ride1);
+        hub.subscribe(2L, ride2);
+
+        hub.publish(message(1L, "first"));
+        hub.publish(message(2L, "other"));
+        hub.publish(message(1L, "second"));
+
+        assertThat(ride1.await()).isTrue();
+        assertThat(ride2.await()).isTrue();
+        assertThat(ride1.contents()).containsExactly("first", "second");
+        assertThat(ride2.contents()).containsExactly("other");
+    }
+
+    @Test
+    void stopsDeliveringOnceCancelled() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        RideChatHub.Subscription subscription = hub.subscribe(1L, subscriber);
+        hub.publish(message(1L, "first"));
+        assertThat(subscriber.await()).isTrue();
+
+        subscription.cancel();
+        hub.publish(message(1L, "second"));
+
+        assertThat(hub.size()).isZero();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.contents()).containsExactly("first");
+    }
+
+    @Test
+    void cancelsASlowSubscriberWithoutDelayingTheOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean overflowed = new AtomicBoolean();
+        hub.subscribe(
+            1L,
+            new RideChatHub.Subscriber() {
+                @Override
+                public void deliver(MessageDTO message) throws InterruptedException {
+                    release.await();
+                }
+
+                @Override
+                public void overflow() {
+                    overflowed.set(true);
+                }
+            }
+        );
+        RecordingSubscriber fast = new RecordingSubscriber(0);
+        hub.subscribe(1L, fast);
+
+        for (int i = 0; i < RideChatHub.QUEUE_CAPACITY + 2; i++) {
+            hub.publish(message(1L, "message " + i));
+            // The fast subscriber keeps receiving while the slow one is stuck on its first message
+            assertThat(fast.awaitCount(i + 1)).isTrue();
+        }
+
+        assertThat(overflowed).isTrue();
+        assertThat(hub.size()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void cancelsASubscriberThatFailsToReceive() throws Exception {
+        CountDownLatch attempted = new CountDownLatch(1);
+        hub.subscribe(
+            1L,
+            new RideChatHub.Subscriber() {
+                @Override
+                public void deliver(MessageDTO message) throws Exception {
+                    attempted.countDown();
+                    throw new Exception("closed");
+                }
+
+                @Override
+                public void overflow() {}
+            }
+        );
+
+        hub.publish(message(1L, "first"));
+
+        assertThat(attempted.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(hub.size()).isZero();
+    }
+
+    private static MessageDTO message(Long rideId, String content) {
+        RideDTO ride = new RideDTO();
+        ride.setId(rideId);
+        MessageDTO message = new MessageDTO();
+        message.setContent(content);
+        message.setRide(ride);
+        return message;
+    }
+
+    private static final class RecordingSubscriber implements RideChatHub.Subscriber {
+
+        private final List<String> contents = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch received;
+
+        private RecordingSubscriber(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void deliver(MessageDTO message) {
+            contents.add(message.getContent());
+            received.countDown();
+        }
+
+        @Override
+        public void overflow() {}
+
+        private boolean await() throws InterruptedException {
+            return received.await(5, TimeUnit.SECONDS);
+        }
+
+        private boolean awaitCount(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (contents.size() < count) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(1);
+            }
+            return true;
+        }
+
+        private List<String> contents() {
+            return contents;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.voituri.ridesharing.service.criteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RideCriteriaTest {
+
+    @Test
+    void newRideCriteriaHasAllFiltersNullTest() {
+        var rideCriteria = new RideCriteria();
+        assertThat(rideCriteria.getId()).isNull();
+        assertThat(rideCriteria.getStartLocation()).isNull();
+        assertThat(rideCriteria.getStartTime()).isNull();
+        assertThat(rideCriteria.getMemberId()).isNull();
+        assertThat(rideCriteria.getDistinct()).isNull();
+    }
+
+    @Test
+    void rideCriteriaFluentMethodsCreatesFiltersTest() {
+        var rideCriteria = new RideCriteria();
+        rideCriteria.id();
+        rideCriteria.startLocation();
+        rideCriteria.startTime();
+        rideCriteria.recurring();
+        rideCriteria.memberId();
+        rideCriteria.distinct();
+
+        assertThat(rideCriteria.getId()).isNotNull();
+        assertThat(rideCriteria.getStartLocation()).isNotNull();
+        assertThat(rideCriteria.getStartTime()).isNotNull();
+        assertThat(rideCriteria.getRecurring()).isNotNull();
+        assertThat(rideCriteria.getMemberId()).isNotNull();
+        assertThat(rideCriteria.getDistinct()).isTrue();
+    }
+
+    @Test
+    void rideCriteriaCopyCreatesNullFilterTest() {
+        var rideCriteria = new RideCriteria();
+        var copy = rideCriteria.copy();
+
+        assertThat(copy).isNotSameAs(rideCriteria).isEqualTo(rideCriteria);
+        assertThat(copy.getStartLocation()).isNull();
+    }
+
+    @Test
+    void rideCriteriaCopyDuplicatesEveryExistingFilterTest() {
+        var rideCriteria = new RideCriteria();
+        rideCriteria.id().setEquals(1L);
+        rideCriteria.startLocation().setContains("lyon");
+        rideCriteria.memberId().setEquals(2L);
+        rideCriteria.distinct();
+        var copy = rideCriteria.copy();
+
+        assertThat(copy).isNotSameAs(rideCriteria).isEqualTo(rideCriteria).hasSameHashCodeAs(rideCriteria);
+        assertThat(copy.getStartLocation()).isNotSameAs(rideCriteria.getStartLocation());
+        assertThat(copy.toString()).isEqualTo(rideCriteria.toString());
+    }
+}
@@ -0,0 +1,129 @@
+package com.voituri.ridesharing.service.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.geo.RideIntervalIndex.RideInterval;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RideIntervalIndexTest {
+
+    private static final ZonedDateTime ORIGIN = ZonedDateTime.of(2024, 7, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private RideIntervalIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new RideIntervalIndex(mock(RideRepository.class));
+    }
+
+    @Test
+    void findsOverlappingIntervalsOrderedByStart() {
+        index.put(ride(1L, 60, 120L));
+        index.put(ride(2L, 0, 30L));
+        index.put(ride(3L, 100, null));
+        index.put(ride(4L, 200, 300L));
+
+        assertThat(index.overlapping(at(90), at(110)).stream().map(RideInterval::id)).containsExactly(1L, 3L);
+        assertThat(index.overlapping(at(30), at(60)).stream().map(RideInterval::id)).containsExactly(2L, 1L);
+        assertThat(index.overlapping(at(130), at(190))).isEmpty();
+    }
+
+    @Test
+    void ignoresRidesWithoutCoordinatesAndHandlesUpdates() {
+        RideDTO ride = ride(1L, 0, 60L);
+        ride.setEndLatitude(null);
+        index.put(ride);
+        assertThat(index.size()).isZero();
+
+        index.put(ride(1L, 0, 60L));
+        index.put(ride(1L, 120, 180L));
+        assertThat(index.overlapping(at(0), at(60))).isEmpty();
+        assertThat(index.overlapping(at(150), at(150)).stream().map(RideInterval::id)).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.size()).isZero();
+        assertThat(index.overlapping(at(150), at(150))).isEmpty();
+    }
+
+    @Test
+    void spansRecurringRidesUntilTheirLastOccurrence() {
+        RideDTO ride = ride(1L, 0, 60L);
+        ride.setRecurring(true);
+        ride.setRecurrenceDays("MON,TUE,WED,THU,FRI");
+        ride.setRecurrenceUntil(ORIGIN.toLocalDate().plusDays(10));
+        index.put(ride);
+        index.put(ride(2L, 0, 60L));
+
+        assertThat(index.overlapping(at(60 * 24 * 10), at(60 * 24 * 10 + 30)).stream().map(RideInterval::id)).containsExactly(1L);
+        assertThat(index.overlapping(at(60 * 24 * 11), at(60 * 24 * 12))).isEmpty();
+
+        ride.setRecurrenceUntil(null);
+        index.put(ride);
+        assertThat(index.overlapping(at(60 * 24 * 365), at(60 * 24 * 366)).stream().map(RideInterval::id)).containsExactly(1L);
+    }
+
+    @Test
+    void findsOpenEndedRecurringRidesByDayOfWeek() {
+        // ORIGIN is a Monday
+        RideDTO mondays = ride(1L, 0, 60L);
+        mondays.setRecurring(true);
+        mondays.setRecurrenceDays("MON");
+        index.put(mondays);
+        long monday = 60 * 24 * 364;
+        index.put(ride(2L, monday + 30, monday + 90L));
+
+        assertThat(index.overlapping(at(monday), at(monday + 60)).stream().map(RideInterval::id)).containsExactly(1L, 2L);
+        assertThat(index.overlapping(at(monday + 60 * 24 * 3 + 12 * 60), at(monday + 60 * 24 * 3 + 13 * 60))).isEmpty();
+        assertThat(index.overlapping(at(-60 * 24 * 7), at(-60 * 24 * 7 + 60))).isEmpty();
+
+        index.remove(1L);
+        assertThat(index.overlapping(at(monday), at(monday + 60)).stream().map(RideInterval::id)).containsExactly(2L);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomIntervals() {
+        Random random = new Random(42);
+        Map<Long, long[]> intervals = new HashMap<>();
+        for (long id = 1; id <= 2000; id++) {
+            long start = random.nextInt(10_000);
+            long end = start + random.nextInt(300);
+            intervals.put(id, new long[] { start, end });
+            index.put(ride(id, start, end));
+        }
+        for (long id = 1; id <= 2000; id += 3) {
+            intervals.remove(id);
+            index.remove(id);
+        }
+        for (int i = 0; i < 100; i++) {
+            long from = random.nextInt(10_000);
+            long to = from + random.nextInt(500);
+            long expected = intervals.values().stream().filter(interval -> interval[0] <= to && interval[1] >= from).count();
+            assertThat(index.overlapping(at(from), at(to))).hasSize((int) expected);
+        }
+    }
+
+    private static ZonedDateTime at(long minutes) {
+        return ORIGIN.plusMinutes(minutes);
+    }
+
+    private static RideDTO ride(Long id, long startMinutes, Long endMinutes) {
+        RideDTO ride = new RideDTO();
+        ride.setId(id);
+        ride.setStartTime(at(startMinutes));
+        ride.setEndTime(endMinutes != null ? at(endMinutes) : null);
+        ride.setStartLatitude(48.8566);
+        ride.setStartLongitude(2.3522);
+        ride.setEndLatitude(45.764);
+        ride.setEndLongitude(4.8357);
+        return ride;
+    }
+}
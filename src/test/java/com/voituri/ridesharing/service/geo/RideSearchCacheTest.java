@@ -0,0 +1,115 @@
+package com.voituri.ridesharing.service.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.geo.RideSearchCache.SearchKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RideSearchCacheTest {
+
+    private static final ZonedDateTime MORNING = ZonedDateTime.of(2024, 7, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    private SimpleMeterRegistry registry;
+
+    private RideSearchCache cache;
+
+    private AtomicInteger searches;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        cache = new RideSearchCache(registry);
+        searches = new AtomicInteger();
+    }
+
+    @Test
+    void normalizesSearchParameters() {
+        assertThat(RideSearchCache.key(48.856612, 2.352219, null, null, 10, MORNING, null)).isEqualTo(
+            RideSearchCache.key(48.85659, 2.35218, null, 4.8, 10.0002, MORNING.plusNanos(5), null)
+        );
+        assertThat(RideSearchCache.key(48.8566, 2.3522, null, null, 10, MORNING, null)).isNotEqualTo(
+            RideSearchCache.key(48.8566, 2.3522, null, null, 10, MORNING.plusSeconds(1), null)
+        );
+    }
+
+    @Test
+    void servesRepeatedSearchesFromTheCache() {
+        SearchKey paris = RideSearchCache.key(48.8566, 2.3522, null, null, 10, MORNING, MORNING.plusHours(4));
+
+        assertThat(search(paris, 1L, 2L)).containsExactly(1L, 2L);
+        assertThat(search(paris, 3L)).containsExactly(1L, 2L);
+
+        assertThat(searches.get()).isEqualTo(1);
+        assertThat(registry.get("ride.search.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(registry.get("ride.search.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(registry.get("ride.search.cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsOnlyTheSearchesAWrittenRideCanEnter() {
+        SearchKey paris = RideSearchCache.key(48.8566, 2.3522, null, null, 10, MORNING, MORNING.plusHours(4));
+        SearchKey parisEvening = RideSearchCache.key(48.8566, 2.3522, null, null, 10, MORNING.plusHours(10), MORNING.plusHours(12));
+        SearchKey marseille = RideSearchCache.key(43.2965, 5.3698, null, null, 10, MORNING, MORNING.plusHours(4));
+        search(paris);
+        search(parisEvening);
+        search(marseille);
+
+        cache.invalidate(ride(1L, 48.86, 2.35, MORNING.plusHours(1)));
+
+        assertThat(cache.size()).isEqualTo(2);
+        search(parisEvening);
+        search(marseille);
+        assertThat(searches.get()).isEqualTo(3);
+        assertThat(registry.get("ride.search.cache.invalidations").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsTheSearchesAMovedOrDeletedRideWasPartOf() {
+        SearchKey paris = RideSearchCache.key(48.8566, 2.3522, null, null, 10, MORNING, MORNING.plusHours(4));
+        SearchKey lyon = RideSearchCache.key(45.764, 4.8357, null, null, 10, MORNING, MORNING.plusHours(4));
+        search(paris, 1L);
+        search(lyon, 2L);
+
+        // Ride 1 moves from Paris to Marseille
+        cache.invalidate(ride(1L, 43.2965, 5.3698, MORNING.plusHours(1)));
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.invalidate(2L);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void doesNotCacheASearchRacingWithAWrite() {
+        SearchKey paris = RideSearchCache.key(48.8566, 2.3522, null, null, 10, MORNING, MORNING.plusHours(4));
+
+        cache.get(paris, () -> {
+            cache.invalidate(ride(1L, 48.86, 2.35, MORNING.plusHours(1)));
+            return List.of();
+        });
+
+        assertThat(cache.size()).isZero();
+    }
+
+    private List<Long> search(SearchKey key, Long... rideIds) {
+        return cache.get(key, () -> {
+            searches.incrementAndGet();
+            return List.of(rideIds);
+        });
+    }
+
+    private static RideDTO ride(Long id, double startLat, double startLon, ZonedDateTime startTime) {
+        RideDTO ride = new RideDTO();
+        ride.setId(id);
+        ride.setStartLatitude(startLat);
+        ride.setStartLongitude(startLon);
+        ride.setStartTime(startTime);
+        return ride;
+    }
+}
@@ -0,0 +1,100 @@
+package com.voituri.ridesharing.service.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.recurrence.RideOccurrenceCache;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class RideSpatialIndexTest {
+
+    private static final ZonedDateTime MORNING = ZonedDateTime.of(2024, 7, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    private RideSpatialIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new RideSpatialIndex(
+            mock(RideRepository.class),
+            new RideOccurrenceCache(new ConcurrentMapCacheManager(RideOccurrenceCache.RIDE_OCCURRENCES_CACHE))
+        );
+    }
+
+    @Test
+    void findsRidesWithinRadiusOrderedByDeparture() {
+        // Paris -> Lyon, leaving from two close points
+        index.put(ride(1L, 48.8566, 2.3522, 45.7640, 4.8357, MORNING.plusHours(1)));
+        index.put(ride(2L, 48.8606, 2.3376, 45.7600, 4.8400, MORNING));
+        // Marseille -> Nice
+        index.put(ride(3L, 43.2965, 5.3698, 43.7102, 7.2620, MORNING));
+
+        assertThat(index.search(48.8584, 2.2945, null, null, 10, null, null)).containsExactly(2L, 1L);
+        assertThat(index.search(43.3, 5.37, null, null, 10, null, null)).containsExactly(3L);
+    }
+
+    @Test
+    void filtersOnDestinationAndDepartureWindow() {
+        index.put(ride(1L, 48.8566, 2.3522, 45.7640, 4.8357, MORNING));
+        index.put(ride(2L, 48.8566, 2.3522, 47.2184, -1.5536, MORNING));
+        index.put(ride(3L, 48.8566, 2.3522, 45.7640, 4.8357, MORNING.plusDays(1)));
+
+        assertThat(index.search(48.85, 2.35, 45.76, 4.83, 5, MORNING.minusHours(1), MORNING.plusHours(1))).containsExactly(1L);
+        assertThat(index.search(48.85, 2.35, 45.76, 4.83, 5, null, null)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void keepsIndexUpToDateOnMoveAndRemove() {
+        index.put(ride(1L, 48.8566, 2.3522, null, null, MORNING));
+        assertThat(index.search(48.8566, 2.3522, null, null, 1, null, null)).containsExactly(1L);
+
+        index.put(ride(1L, 43.2965, 5.3698, null, null, MORNING));
+        assertThat(index.search(48.8566, 2.3522, null, null, 1, null, null)).isEmpty();
+        assertThat(index.search(43.2965, 5.3698, null, null, 1, null, null)).containsExactly(1L);
+
+        index.put(ride(1L, null, null, null, null, MORNING));
+        assertThat(index.size()).isZero();
+
+        index.put(ride(2L, 43.2965, 5.3698, null, null, MORNING));
+        index.remove(2L);
+        assertThat(index.search(43.2965, 5.3698, null, null, 1, null, null)).isEmpty();
+    }
+
+    @Test
+    void matchesRecurringRidesOnTheirOccurrences() {
+        // Every Monday and Wednesday of July 2024, MORNING being a Monday
+        RideDTO ride = ride(1L, 48.8566, 2.3522, 45.7640, 4.8357, MORNING);
+        ride.setRecurring(true);
+        ride.setRecurrenceDays("MON,WED");
+        ride.setRecurrenceUntil(LocalDate.of(2024, 7, 31));
+        index.put(ride);
+
+        ZonedDateTime wednesday = MORNING.plusDays(9);
+        assertThat(index.search(48.85, 2.35, null, null, 5, wednesday.minusHours(1), wednesday.plusHours(1))).containsExactly(1L);
+        assertThat(index.search(48.85, 2.35, null, null, 5, wednesday.minusDays(1), wednesday.minusHours(1))).isEmpty();
+        assertThat(index.search(48.85, 2.35, null, null, 5, MORNING.plusMonths(1), MORNING.plusMonths(2))).isEmpty();
+    }
+
+    @Test
+    void handlesTheAntimeridian() {
+        index.put(ride(1L, -16.5, 179.99, null, null, MORNING));
+        assertThat(index.search(-16.5, -179.99, null, null, 5, null, null)).containsExactly(1L);
+    }
+
+    private static RideDTO ride(Long id, Double startLat, Double startLon, Double endLat, Double endLon, ZonedDateTime startTime) {
+        RideDTO ride = new RideDTO();
+        ride.setId(id);
+        ride.setStartLatitude(startLat);
+        ride.setStartLongitude(startLon);
+        ride.setEndLatitude(endLat);
+        ride.setEndLongitude(endLon);
+        ride.setStartTime(startTime);
+        return ride;
+    }
+}
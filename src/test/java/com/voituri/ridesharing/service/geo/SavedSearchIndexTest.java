@@ -0,0 +1,103 @@
+package com.voituri.ridesharing.service.geo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.voituri.ridesharing.repository.SavedSearchRepository;
+import com.voituri.ridesharing.service.dto.MemberDTO;
+import com.voituri.ridesharing.service.dto.SavedSearchDTO;
+import com.voituri.ridesharing.service.geo.SavedSearchIndex.SavedSearchMatch;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SavedSearchIndexTest {
+
+    private static final ZonedDateTime MORNING = ZonedDateTime.of(2024, 7, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    private SavedSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new SavedSearchIndex(mock(SavedSearchRepository.class));
+    }
+
+    @Test
+    void matchesRidesLeavingWithinRadiusAndWindow() {
+        // Around Paris, between 7:00 and 10:00, any destination
+        index.put(savedSearch(1L, 10L, 48.8566, 2.3522, null, null, 10, MORNING.minusHours(1), MORNING.plusHours(2)));
+        // Around Marseille, same window
+        index.put(savedSearch(2L, 20L, 43.2965, 5.3698, null, null, 10, MORNING.minusHours(1), MORNING.plusHours(2)));
+
+        assertThat(index.percolate(48.8584, 2.2945, 45.7640, 4.8357, MORNING.toEpochSecond()))
+            .extracting(SavedSearchMatch::savedSearchId)
+            .containsExactly(1L);
+        assertThat(index.percolate(48.8584, 2.2945, 45.7640, 4.8357, MORNING.plusHours(3).toEpochSecond())).isEmpty();
+        assertThat(index.percolate(48.4, 2.3, 45.7640, 4.8357, MORNING.toEpochSecond())).isEmpty();
+    }
+
+    @Test
+    void checksTheDestinationWhenTheSearchHasOne() {
+        // Paris -> Lyon
+        index.put(savedSearch(1L, 10L, 48.8566, 2.3522, 45.7640, 4.8357, 15, MORNING, MORNING.plusHours(4)));
+
+        assertThat(index.percolate(48.86, 2.35, 45.76, 4.84, MORNING.plusHours(1).toEpochSecond()))
+            .extracting(SavedSearchMatch::memberId)
+            .containsExactly(10L);
+        // Paris -> Lille
+        assertThat(index.percolate(48.86, 2.35, 50.6292, 3.0573, MORNING.plusHours(1).toEpochSecond())).isEmpty();
+        assertThat(index.percolate(48.86, 2.35, null, null, MORNING.plusHours(1).toEpochSecond())).isEmpty();
+    }
+
+    @Test
+    void matchesAcrossCellAndBucketBoundaries() {
+        // Centered just below a cell boundary, with a window spanning several time buckets
+        index.put(savedSearch(1L, 10L, 47.24, 1.0, null, null, 5, MORNING.minusHours(5), MORNING.plusHours(20)));
+
+        assertThat(index.percolate(47.27, 1.0, null, null, MORNING.plusHours(19).toEpochSecond())).hasSize(1);
+        assertThat(index.percolate(47.21, 1.0, null, null, MORNING.minusHours(4).toEpochSecond())).hasSize(1);
+    }
+
+    @Test
+    void replacesAndRemovesSavedSearches() {
+        index.put(savedSearch(1L, 10L, 48.8566, 2.3522, null, null, 10, MORNING, MORNING.plusHours(2)));
+        index.put(savedSearch(1L, 10L, 43.2965, 5.3698, null, null, 10, MORNING, MORNING.plusHours(2)));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.percolate(48.8566, 2.3522, null, null, MORNING.plusHours(1).toEpochSecond())).isEmpty();
+        assertThat(index.percolate(43.2965, 5.3698, null, null, MORNING.plusHours(1).toEpochSecond())).hasSize(1);
+        assertThat(index.latestDeparture()).isEqualTo(MORNING.plusHours(2).toEpochSecond());
+
+        index.remove(1L);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.percolate(43.2965, 5.3698, null, null, MORNING.plusHours(1).toEpochSecond())).isEmpty();
+    }
+
+    private static SavedSearchDTO savedSearch(
+        Long id,
+        Long memberId,
+        double fromLat,
+        double fromLon,
+        Double toLat,
+        Double toLon,
+        double radiusKm,
+        ZonedDateTime departAfter,
+        ZonedDateTime departBefore
+    ) {
+        SavedSearchDTO savedSearch = new SavedSearchDTO();
+        savedSearch.setId(id);
+        savedSearch.setFromLatitude(fromLat);
+        savedSearch.setFromLongitude(fromLon);
+        savedSearch.setToLatitude(toLat);
+        savedSearch.setToLongitude(toLon);
+        savedSearch.setRadiusKm(radiusKm);
+        savedSearch.setDepartAfter(departAfter);
+        savedSearch.setDepartBefore(departBefore);
+        MemberDTO member = new MemberDTO();
+        member.setId(memberId);
+        savedSearch.setMember(member);
+        return savedSearch;
+    }
+}
@@ -0,0 +1,125 @@
+package com.voituri.ridesharing.service.leaderboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.repository.MemberReputationRepository;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.dto.LeaderboardEntryDTO;
+import com.voituri.ridesharing.service.dto.MemberDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DriverLeaderboardTest {
+
+    private MemberReputationRepository memberReputationRepository;
+
+    private RideRepository rideRepository;
+
+    private DriverLeaderboard leaderboard;
+
+    @BeforeEach
+    void setup() {
+        MemberRepository memberRepository = mock(MemberRepository.class);
+        when(memberRepository.findAllById(anyIterable())).thenAnswer(invocation ->
+            StreamSupport.stream(invocation.<Iterable<Long>>getArgument(0).spliterator(), false)
+                .map(id -> new Member().id(id).login("driver-" + id))
+                .toList()
+        );
+        memberReputationRepository = mock(MemberReputationRepository.class);
+        rideRepository = mock(RideRepository.class);
+        leaderboard = new DriverLeaderboard(memberReputationRepository, rideRepository, memberRepository);
+    }
+
+    @Test
+    void ranksByAdjustedRatingThenCompletedRides() {
+        leaderboard.put(ride(1L, 1L, "Lyon", -2));
+        leaderboard.put(ride(2L, 2L, "Lyon", -2));
+        leaderboard.put(ride(3L, 2L, "Paris", -1));
+        leaderboard.put(ride(4L, 3L, "Paris", -1));
+        // A few perfect ratings weigh less than many good ones
+        leaderboard.addRatings(1L, 5, 2);
+        leaderboard.addRatings(2L, 4, 40);
+
+        assertThat(leaderboard.top(null, 10))
+            .extracting(LeaderboardEntryDTO::getMemberId)
+            .containsExactly(2L, 1L, 3L);
+        LeaderboardEntryDTO first = leaderboard.top(null, 1).get(0);
+        assertThat(first.getRank()).isEqualTo(1);
+        assertThat(first.getLogin()).isEqualTo("driver-2");
+        assertThat(first.getCompletedRides()).isEqualTo(2);
+        assertThat(first.getMeanRating()).isEqualTo(4.0);
+    }
+
+    @Test
+    void ranksDriversByRegionIgnoringCaseAndAccents() {
+        leaderboard.put(ride(1L, 1L, "Orléans", -2));
+        leaderboard.put(ride(2L, 2L, "Tours", -2));
+        leaderboard.addRatings(2L, 5, 3);
+
+        assertThat(leaderboard.top("orleans", 10)).extracting(LeaderboardEntryDTO::getMemberId).containsExactly(1L);
+        assertThat(leaderboard.top("Bordeaux", 10)).isEmpty();
+    }
+
+    @Test
+    void onlyRanksDriversOnceTheirRideArrived() {
+        RideDTO upcoming = ride(1L, 1L, "Lyon", 2);
+        leaderboard.put(upcoming);
+        leaderboard.addRatings(1L, 5, 1);
+        assertThat(leaderboard.size()).isZero();
+
+        leaderboard.completeRidesArrivedBy(upcoming.getEndTime().toEpochSecond());
+
+        assertThat(leaderboard.top("Lyon", 10)).extracting(LeaderboardEntryDTO::getCompletedRides).containsExactly(1L);
+    }
+
+    @Test
+    void movesAndRemovesRidesIncrementally() {
+        leaderboard.put(ride(1L, 1L, "Lyon", -2));
+        leaderboard.put(ride(1L, 2L, "Lyon", -2));
+
+        assertThat(leaderboard.top(null, 10)).extracting(LeaderboardEntryDTO::getMemberId).containsExactly(2L);
+
+        leaderboard.remove(1L);
+
+        assertThat(leaderboard.top(null, 10)).isEmpty();
+        assertThat(leaderboard.top("Lyon", 10)).isEmpty();
+    }
+
+    @Test
+    void keepsTheChangesReportedWhileRebuilding() {
+        leaderboard.put(ride(1L, 1L, "Lyon", -2));
+        // Reported while the rebuild reads the database, after the ratings snapshot was taken
+        when(memberReputationRepository.findAll()).thenAnswer(invocation -> {
+            leaderboard.put(ride(2L, 2L, "Paris", -2));
+            leaderboard.addRatings(2L, 5, 3);
+            return List.of();
+        });
+        when(rideRepository.findAllDrives()).thenReturn(List.of());
+
+        leaderboard.rebuild();
+
+        assertThat(leaderboard.top(null, 10)).extracting(LeaderboardEntryDTO::getMemberId).containsExactly(2L);
+        assertThat(leaderboard.top(null, 1).get(0).getRatingCount()).isEqualTo(3);
+    }
+
+    private static RideDTO ride(Long id, Long driverId, String startLocation, int arrivalInHours) {
+        RideDTO ride = new RideDTO();
+        ride.setId(id);
+        ride.setStartLocation(startLocation);
+        ride.setStartTime(ZonedDateTime.now().plusHours(arrivalInHours - 1));
+        ride.setEndTime(ZonedDateTime.now().plusHours(arrivalInHours));
+        MemberDTO driver = new MemberDTO();
+        driver.setId(driverId);
+        ride.setMember(driver);
+        return ride;
+    }
+}
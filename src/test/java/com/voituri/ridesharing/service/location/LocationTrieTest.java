@@ -0,0 +1,75 @@
+package com.voituri.ridesharing.service.location;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.dto.LocationSuggestionDTO;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LocationTrieTest {
+
+    private LocationTrie trie;
+
+    @BeforeEach
+    void setup() {
+        trie = new LocationTrie(mock(RideRepository.class));
+    }
+
+    @Test
+    void foldsCaseAccentsAndWhitespace() {
+        assertThat(LocationTrie.fold("  Saint-Étienne   Châteaucreux ")).isEqualTo("saint-etienne chateaucreux");
+        assertThat(LocationTrie.fold(null)).isEmpty();
+    }
+
+    @Test
+    void suggestsLocationsByPrefixMostUsedFirst() {
+        trie.put(ride(1L, "Lyon", "Paris"));
+        trie.put(ride(2L, "Lyon Part-Dieu", "Paris"));
+        trie.put(ride(3L, "Lille", "Paris"));
+        trie.put(ride(4L, "Lyon", "Marseille"));
+
+        assertThat(trie.suggest("l", 10)).containsExactly(
+            new LocationSuggestionDTO("Lyon", 2),
+            new LocationSuggestionDTO("Lille", 1),
+            new LocationSuggestionDTO("Lyon Part-Dieu", 1)
+        );
+        assertThat(trie.suggest("LY", 1)).containsExactly(new LocationSuggestionDTO("Lyon", 2));
+        assertThat(trie.suggest("", 1)).containsExactly(new LocationSuggestionDTO("Paris", 3));
+        assertThat(trie.suggest("bordeaux", 10)).isEmpty();
+        assertThat(trie.size()).isEqualTo(5);
+    }
+
+    @Test
+    void groupsSpellingsAndSuggestsTheMostUsedOne() {
+        trie.put(ride(1L, "Orléans", "Tours"));
+        trie.put(ride(2L, "Orléans", "Tours"));
+        trie.put(ride(3L, "orleans", "Tours"));
+
+        assertThat(trie.suggest("orle", 10)).containsExactly(new LocationSuggestionDTO("Orléans", 3));
+    }
+
+    @Test
+    void updatesWeightsIncrementally() {
+        trie.put(ride(1L, "Nantes", "Rennes"));
+        trie.put(ride(2L, "Nantes", "Rennes"));
+        trie.put(ride(3L, "Nancy", "Metz"));
+
+        trie.put(ride(1L, "Nancy", "Metz"));
+        assertThat(trie.suggest("nan", 10)).containsExactly(new LocationSuggestionDTO("Nancy", 2), new LocationSuggestionDTO("Nantes", 1));
+
+        trie.remove(2L);
+        assertThat(trie.suggest("nan", 10)).containsExactly(new LocationSuggestionDTO("Nancy", 2));
+        assertThat(trie.suggest("r", 10)).isEmpty();
+    }
+
+    private static RideDTO ride(Long id, String startLocation, String endLocation) {
+        RideDTO ride = new RideDTO();
+        ride.setId(id);
+        ride.setStartLocation(startLocation);
+        ride.setEndLocation(endLocation);
+        return ride;
+    }
+}
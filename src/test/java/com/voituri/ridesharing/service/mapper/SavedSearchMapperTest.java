@@ -0,0 +1,24 @@
+package com.voituri.ridesharing.service.mapper;
+
+import static com.voituri.ridesharing.domain.SavedSearchAsserts.*;
+import static com.voituri.ridesharing.domain.SavedSearchTestSamples.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SavedSearchMapperTest {
+
+    private SavedSearchMapper savedSearchMapper;
+
+    @BeforeEach
+    void setUp() {
+        savedSearchMapper = new SavedSearchMapperImpl();
+    }
+
+    @Test
+    void shouldConvertToDtoAndBack() {
+        var expected = getSavedSearchSample1();
+        var actual = savedSearchMapper.toEntity(savedSearchMapper.toDto(expected));
+        assertSavedSearchAllPropertiesEquals(expected, actual);
+    }
+}
@@ -0,0 +1,178 @@
+package com.voituri.ridesharing.service.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.voituri.ridesharing.service.dto.MemberDTO;
+import com.voituri.ridesharing.service.dto.NotificationDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationHubTest {
+
+    private static final long HEARTBEAT_ID = -1L;
+
+    private ExecutorService executor;
+
+    private NotificationHub hub;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(2);
+        hub = new NotificationHub(executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void deliversNotificationsToTheSubscribersOfTheirMember() throws Exception {
+        RecordingSubscriber member1 = new RecordingSubscriber();
+        RecordingSubscriber member2 = new RecordingSubscriber();
+        hub.subscribe(1L, member1).start(List.of());
+        hub.subscribe(2L, member2).start(List.of());
+
+        hub.publish(notification(1L, 10L));
+        hub.publish(notification(2L, 11L));
+        hub.publish(notification(1L, 12L));
+
+        assertThat(member1.awaitCount(2)).isTrue();
+        assertThat(member2.awaitCount(1)).isTrue();
+        assertThat(member1.ids()).containsExactly(10L, 12L);
+        assertThat(member2.ids()).containsExactly(11L);
+    }
+
+    @Test
+    void deliversTheMissedNotificationsFirstAndOnlyOnce() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        NotificationHub.Subscription subscription = hub.subscribe(1L, subscriber);
+        // Published while the missed notifications are looked up, one of them being among them
+        hub.publish(notification(1L, 12L));
+        hub.publish(notification(1L, 13L));
+        assertThat(subscriber.ids()).isEmpty();
+
+        subscription.start(List.of(notification(1L, 11L), notification(1L, 12L)));
+        hub.publish(notification(1L, 14L));
+
+        assertThat(subscriber.awaitCount(4)).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.ids()).containsExactly(11L, 12L, 13L, 14L);
+    }
+
+    @Test
+    void stopsDeliveringOnceCancelled() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        NotificationHub.Subscription subscription = hub.subscribe(1L, subscriber);
+        subscription.start(List.of());
+        hub.publish(notification(1L, 10L));
+        assertThat(subscriber.awaitCount(1)).isTrue();
+
+        subscription.cancel();
+        hub.publish(notification(1L, 11L));
+
+        assertThat(hub.size()).isZero();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.ids()).containsExactly(10L);
+    }
+
+    @Test
+    void queuesHeartbeatsBehindTheNotificationsAndOnlyOnce() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        NotificationHub.Subscription subscription = hub.subscribe(1L, subscriber);
+        hub.publish(notification(1L, 10L));
+        subscription.heartbeat();
+        subscription.heartbeat();
+
+        subscription.start(List.of());
+
+        assertThat(subscriber.awaitCount(2)).isTrue();
+        subscription.heartbeat();
+        assertThat(subscriber.awaitCount(3)).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.ids()).containsExactly(10L, HEARTBEAT_ID, HEARTBEAT_ID);
+    }
+
+    @Test
+    void cancelsASubscriptionThatMissedTooMuch() {
+        AtomicBoolean overflowed = new AtomicBoolean();
+        NotificationHub.Subscription subscription = hub.subscribe(
+            1L,
+            new NotificationHub.Subscriber() {
+                @Override
+                public void deliver(NotificationDTO notification) {}
+
+                @Override
+                public void heartbeat() {}
+
+                @Override
+                public void overflow() {
+                    overflowed.set(true);
+                }
+            }
+        );
+        List<NotificationDTO> missed = new ArrayList<>();
+        for (long id = 1; id <= NotificationHub.QUEUE_CAPACITY; id++) {
+            missed.add(notification(1L, id));
+        }
+        hub.publish(notification(1L, NotificationHub.QUEUE_CAPACITY + 1L));
+
+        subscription.start(missed);
+
+        assertThat(overflowed).isTrue();
+        assertThat(hub.size()).isZero();
+    }
+
+    private static NotificationDTO notification(Long memberId, Long id) {
+        MemberDTO member = new MemberDTO();
+        member.setId(memberId);
+        NotificationDTO notification = new NotificationDTO();
+        notification.setId(id);
+        notification.setMember(member);
+        return notification;
+    }
+
+    private static final class RecordingSubscriber implements NotificationHub.Subscriber {
+
+        private final List<Long> ids = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void deliver(NotificationDTO notification) {
+            ids.add(notification.getId());
+        }
+
+        @Override
+        public void heartbeat() {
+            ids.add(HEARTBEAT_ID);
+        }
+
+        @Override
+        public void overflow() {}
+
+        private boolean awaitCount(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ids.size() < count) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(1);
+            }
+            return true;
+        }
+
+        private List<Long> ids() {
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.voituri.ridesharing.service.recurrence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class RideOccurrenceCacheTest {
+
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+
+    // A Thursday
+    private static final ZonedDateTime START = ZonedDateTime.of(2024, 3, 28, 8, 0, 0, 0, PARIS);
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private RideOccurrenceCache cache;
+
+    @BeforeEach
+    void setup() {
+        cacheManager = new ConcurrentMapCacheManager(RideOccurrenceCache.RIDE_OCCURRENCES_CACHE);
+        cache = new RideOccurrenceCache(cacheManager);
+    }
+
+    @Test
+    void parsesRecurrenceRules() {
+        assertThat(RideRecurrence.parseDays("MON, wed,FRI,xyz")).containsExactly(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY);
+        assertThat(RideRecurrence.of(false, START, START.plusHours(1), "MON", null)).isNull();
+        assertThat(RideRecurrence.of(true, START, START.plusHours(1), "", null)).isNull();
+        assertThat(RideRecurrence.of(true, START, START.plusHours(1), "MON", START.toLocalDate().minusDays(1))).isNull();
+        assertThat(RideRecurrence.of(true, START, START.plusHours(1), "MON", null).durationSeconds()).isEqualTo(3600);
+        assertThat(RideRecurrence.of(true, START, null, "MON", null).lastEnd()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void expandsOnTheRuleDaysAcrossDaylightSavingTime() {
+        RideRecurrence recurrence = new RideRecurrence(START, 3600, EnumSet.of(DayOfWeek.MONDAY), LocalDate.of(2024, 4, 8));
+
+        long[] starts = RideOccurrenceCache.expand(recurrence, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        // The first departure, then the Mondays after the switch to summer time, still at 08:00 local time
+        assertThat(starts).containsExactly(
+            START.toEpochSecond(),
+            ZonedDateTime.of(2024, 4, 1, 8, 0, 0, 0, PARIS).toEpochSecond(),
+            ZonedDateTime.of(2024, 4, 8, 8, 0, 0, 0, PARIS).toEpochSecond()
+        );
+    }
+
+    @Test
+    void servesUpcomingWindowsFromTheCache() {
+        ZonedDateTime start = ZonedDateTime.now(PARIS).truncatedTo(ChronoUnit.DAYS).minusWeeks(2).withHour(8);
+        RideRecurrence recurrence = new RideRecurrence(start, 1800, EnumSet.allOf(DayOfWeek.class), null);
+        ZonedDateTime tomorrow = start.plusWeeks(2).plusDays(1);
+
+        long[] starts = cache.startsBetween(1L, recurrence, tomorrow.minusHours(1).toEpochSecond(), tomorrow.plusDays(1).toEpochSecond());
+
+        assertThat(starts).containsExactly(tomorrow.toEpochSecond(), tomorrow.plusDays(1).toEpochSecond());
+        assertThat(cacheManager.getCache(RideOccurrenceCache.RIDE_OCCURRENCES_CACHE).get(1L)).isNotNull();
+        assertThat(cache.firstStartBetween(1L, recurrence, tomorrow.toEpochSecond() + 1, Long.MAX_VALUE)).hasValue(
+            tomorrow.plusDays(1).toEpochSecond()
+        );
+
+        // Far beyond the cached horizon
+        ZonedDateTime later = tomorrow.plusYears(1);
+        assertThat(cache.firstStartBetween(1L, recurrence, later.minusMinutes(1).toEpochSecond(), later.toEpochSecond())).hasValue(
+            later.toEpochSecond()
+        );
+
+        cache.evict(1L);
+        assertThat(cacheManager.getCache(RideOccurrenceCache.RIDE_OCCURRENCES_CACHE).get(1L)).isNull();
+    }
+}
@@ -0,0 +1,88 @@
+package com.voituri.ridesharing.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.voituri.ridesharing.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private MeterRegistry meterRegistry;
+
+    private RateLimitFilter ipFilter;
+
+    private RateLimitFilter principalFilter;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getRateLimit().getPerIp().setCapacity(3);
+        applicationProperties.getRateLimit().getPerIp().setRefillPerSecond(1);
+        applicationProperties.getRateLimit().getPerPrincipal().setCapacity(2);
+        applicationProperties.getRateLimit().getPerPrincipal().setRefillPerSecond(1);
+        meterRegistry = new SimpleMeterRegistry();
+        ipFilter = RateLimitFilter.perIp(applicationProperties, meterRegistry, now::get);
+        principalFilter = RateLimitFilter.perPrincipal(applicationProperties, meterRegistry, now::get);
+    }
+
+    @AfterEach
+    void teardown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void limitsTheRequestsOfAnIp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(perform("/api/rides", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = perform("/api/rides", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("error.http.429");
+        assertThat(perform("/api/rides", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("http.rate-limit.rejected").tag("limit", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void limitsTheRequestsOfAPrincipalAcrossIps() throws Exception {
+        SecurityContextHolder.getContext()
+            .setAuthentication(new JwtAuthenticationToken(Jwt.withTokenValue("token").header("alg", "HS512").subject("driver").build()));
+
+        assertThat(perform("/api/rides", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform("/api/rides", "10.0.0.2").getStatus()).isEqualTo(200);
+
+        assertThat(perform("/api/rides", "10.0.0.3").getStatus()).isEqualTo(429);
+        assertThat(meterRegistry.get("http.rate-limit.rejected").tag("limit", "principal").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyLimitsTheApi() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform("/index.html", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse perform(String uri, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        // As in the security filter chain, where the authentication runs in between
+        ipFilter.doFilter(request, response, (req, res) -> principalFilter.doFilter(req, res, new MockFilterChain()));
+        return response;
+    }
+}
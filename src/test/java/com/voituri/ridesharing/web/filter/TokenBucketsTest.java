@@ -0,0 +1,51 @@
+package com.voituri.ridesharing.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketsTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final TokenBuckets buckets = new TokenBuckets(3, 2, now::get);
+
+    @Test
+    void acceptsABurstUpToTheCapacity() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(buckets.tryConsume("client")).isZero();
+        }
+
+        assertThat(buckets.tryConsume("client")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(buckets.tryConsume("other")).isZero();
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryConsume("client");
+        }
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertThat(buckets.tryConsume("client")).isZero();
+        assertThat(buckets.tryConsume("client")).isPositive();
+    }
+
+    @Test
+    void dropsTheBucketsThatAreFullAgain() {
+        buckets.tryConsume("idle");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        buckets.tryConsume("busy");
+        assertThat(buckets.size()).isEqualTo(2);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 4; i++) {
+            buckets.tryConsume("busy");
+        }
+
+        assertThat(buckets.size()).isEqualTo(1);
+    }
+}
@@ -1,19 +1,23 @@
 package com.voituri.ridesharing.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.voituri.ridesharing.IntegrationTest;
 import com.voituri.ridesharing.domain.User;
 import com.voituri.ridesharing.repository.UserRepository;
 import com.voituri.ridesharing.web.rest.vm.LoginVM;
+import com.voituri.ridesharing.web.rest.vm.RefreshTokenVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -99,4 +103,87 @@ class AuthenticateControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    @Transactional
+    void testRefreshRotatesTheRefreshToken() throws Exception {
+        String refreshToken = authenticate("user-jwt-controller-refresh").get("refresh_token").asText();
+
+        JsonNode refreshed = refresh(refreshToken);
+
+        assertThat(refreshed.get("id_token").asText()).isNotEmpty();
+        assertThat(refreshed.get("refresh_token").asText()).isNotEqualTo(refreshToken);
+    }
+
+    @Test
+    @Transactional
+    void testRefreshTwiceRevokesTheSession() throws Exception {
+        String refreshToken = authenticate("user-jwt-controller-reuse").get("refresh_token").asText();
+        String rotated = refresh(refreshToken).get("refresh_token").asText();
+
+        RefreshTokenVM reused = new RefreshTokenVM();
+        reused.setRefreshToken(refreshToken);
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(reused)))
+            .andExpect(status().isUnauthorized());
+
+        RefreshTokenVM next = new RefreshTokenVM();
+        next.setRefreshToken(rotated);
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(next)))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    void testLogoutRevokesTheTokens() throws Exception {
+        JsonNode tokens = authenticate("user-jwt-controller-logout");
+
+        mockMvc
+            .perform(post("/api/logout").header("Authorization", "Bearer " + tokens.get("id_token").asText()))
+            .andExpect(status().isNoContent());
+
+        RefreshTokenVM refreshToken = new RefreshTokenVM();
+        refreshToken.setRefreshToken(tokens.get("refresh_token").asText());
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(refreshToken)))
+            .andExpect(status().isUnauthorized());
+        mockMvc
+            .perform(get("/api/account").header("Authorization", "Bearer " + tokens.get("id_token").asText()))
+            .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode authenticate(String username) throws Exception {
+        User user = new User();
+        user.setLogin(username);
+        user.setEmail(username + "@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword("test");
+        String response = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(login)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return om.readTree(response);
+    }
+
+    private JsonNode refresh(String refreshToken) throws Exception {
+        RefreshTokenVM refreshTokenVM = new RefreshTokenVM();
+        refreshTokenVM.setRefreshToken(refreshToken);
+        String response = mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(refreshTokenVM)))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Authorization", not(nullValue())))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return om.readTree(response);
+    }
 }
@@ -0,0 +1,89 @@
+package com.voituri.ridesharing.web.rest;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.voituri.ridesharing.IntegrationTest;
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.security.AuthoritiesConstants;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link ExportResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class ExportResourceIT {
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restExportMockMvc;
+
+    private Ride ride;
+
+    @BeforeEach
+    public void initTest() {
+        ride = rideRepository.saveAndFlush(RideResourceIT.createEntity(em));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        rideRepository.delete(ride);
+    }
+
+    @Test
+    void exportRidesAsNdjson() throws Exception {
+        MvcResult result = restExportMockMvc.perform(get("/api/export/rides")).andExpect(request().asyncStarted()).andReturn();
+
+        restExportMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(header().string("Content-Disposition", containsString("rides.ndjson")))
+            .andExpect(content().string(containsString("\"id\":" + ride.getId() + ",")));
+    }
+
+    @Test
+    void exportRidesAsCsv() throws Exception {
+        MvcResult result = restExportMockMvc
+            .perform(get("/api/export/rides").param("format", "csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restExportMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string(startsWith("id,startLocation,endLocation,startTime,")))
+            .andExpect(content().string(containsString("\r\n" + ride.getId() + ",")));
+    }
+
+    @Test
+    void exportUnsupportedEntity() throws Exception {
+        restExportMockMvc.perform(get("/api/export/users")).andExpect(status().isBadRequest());
+        restExportMockMvc.perform(get("/api/export/rides").param("format", "xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void exportIsForbiddenForUsers() throws Exception {
+        restExportMockMvc.perform(get("/api/export/rides")).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,86 @@
+package com.voituri.ridesharing.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voituri.ridesharing.IntegrationTest;
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.service.RideService;
+import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.mapper.RideMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link LocationResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class LocationResourceIT {
+
+    private static final String API_URL = "/api/locations/suggest";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private RideMapper rideMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private MockMvc restLocationMockMvc;
+
+    private Long insertedRideId;
+
+    @AfterEach
+    public void cleanup() {
+        if (insertedRideId != null) {
+            rideService.delete(insertedRideId);
+            insertedRideId = null;
+        }
+    }
+
+    @Test
+    void suggestLocationsOfSavedRides() throws Exception {
+        // Not transactional: the ride is only indexed once its creation is committed
+        Ride ride = RideResourceIT.createEntity(em).startLocation("Zürich HB").endLocation("Zug");
+        RideDTO rideDTO = om.readValue(
+            restLocationMockMvc
+                .perform(post("/api/rides").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(rideMapper.toDto(ride))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            RideDTO.class
+        );
+        insertedRideId = rideDTO.getId();
+
+        restLocationMockMvc
+            .perform(get(API_URL + "?prefix=zuri"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[0].location").value("Zürich HB"))
+            .andExpect(jsonPath("$.[0].rides").value(1));
+    }
+
+    @Test
+    @Transactional
+    void suggestLocationsWithInvalidLimit() throws Exception {
+        restLocationMockMvc.perform(get(API_URL + "?prefix=a&limit=0")).andExpect(status().isBadRequest());
+        restLocationMockMvc.perform(get(API_URL + "?prefix=a&limit=11")).andExpect(status().isBadRequest());
+    }
+}
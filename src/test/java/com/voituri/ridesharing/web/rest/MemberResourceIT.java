@@ -11,7 +11,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.voituri.ridesharing.IntegrationTest;
 import com.voituri.ridesharing.domain.Member;
 import com.voituri.ridesharing.repository.MemberRepository;
+import com.voituri.ridesharing.service.RatingService;
 import com.voituri.ridesharing.service.dto.MemberDTO;
+import com.voituri.ridesharing.service.dto.RatingDTO;
 import com.voituri.ridesharing.service.mapper.MemberMapper;
 import jakarta.persistence.EntityManager;
 import java.util.Random;
@@ -58,6 +60,9 @@ class MemberResourceIT {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private RatingService ratingService;
+
     @Autowired
     private MemberMapper memberMapper;
 
@@ -243,6 +248,68 @@ class MemberResourceIT {
             .andExpect(jsonPath("$.activated").value(DEFAULT_ACTIVATED.booleanValue()));
     }
 
+    @Test
+    @Transactional
+    void getMemberReputation() throws Exception {
+        // Initialize the database
+        insertedMember = memberRepository.saveAndFlush(member);
+        MemberDTO receiver = new MemberDTO();
+        receiver.setId(member.getId());
+        for (int score : new int[] { 5, 4, 5 }) {
+            RatingDTO rating = new RatingDTO();
+            rating.setScore(score);
+            rating.setReceiver(receiver);
+            ratingService.save(rating);
+        }
+        em.flush();
+
+        // Get the reputation
+        restMemberMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/reputation", member.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.memberId").value(member.getId().intValue()))
+            .andExpect(jsonPath("$.ratingCount").value(3))
+            .andExpect(jsonPath("$.scoreSum").value(14))
+            .andExpect(jsonPath("$.histogram.4").value(1))
+            .andExpect(jsonPath("$.histogram.5").value(2));
+
+        // The member carries its reputation too
+        restMemberMockMvc
+            .perform(get(ENTITY_API_URL_ID, member.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.reputation.ratingCount").value(3));
+    }
+
+    @Test
+    @Transactional
+    void getReputationOfANeverRatedMember() throws Exception {
+        // Initialize the database
+        insertedMember = memberRepository.saveAndFlush(member);
+
+        restMemberMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/reputation", member.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.ratingCount").value(0))
+            .andExpect(jsonPath("$.mean").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void getReputationOfANonExistingMember() throws Exception {
+        restMemberMockMvc.perform(get(ENTITY_API_URL_ID + "/reputation", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getLeaderboard() throws Exception {
+        restMemberMockMvc
+            .perform(get(ENTITY_API_URL + "/leaderboard?region=Lyon&limit=5"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE));
+        restMemberMockMvc.perform(get(ENTITY_API_URL + "/leaderboard?limit=0")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingMember() throws Exception {
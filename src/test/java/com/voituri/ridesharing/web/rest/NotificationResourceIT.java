@@ -10,6 +10,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.voituri.ridesharing.IntegrationTest;
+import com.voituri.ridesharing.domain.Member;
 import com.voituri.ridesharing.domain.Notification;
 import com.voituri.ridesharing.repository.NotificationRepository;
 import com.voituri.ridesharing.service.dto.NotificationDTO;
@@ -225,6 +226,68 @@ class NotificationResourceIT {
         restNotificationMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    @WithMockUser("bulk-reader")
+    void markNotificationsReadOfTheCurrentMember() throws Exception {
+        Member member = MemberResourceIT.createEntity(em).login("bulk-reader");
+        Member other = MemberResourceIT.createEntity(em).login("bulk-other");
+        em.persist(member);
+        em.persist(other);
+        Notification first = createEntity(em).member(member);
+        Notification second = createEntity(em).member(member);
+        Notification foreign = createEntity(em).member(other);
+        em.persist(first);
+        em.persist(second);
+        em.persist(foreign);
+        em.flush();
+
+        restNotificationMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/read")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"ids\":[" + first.getId() + "," + foreign.getId() + "]}")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(1));
+        restNotificationMockMvc.perform(post(ENTITY_API_URL + "/read")).andExpect(status().isOk()).andExpect(jsonPath("$.count").value(1));
+
+        em.clear();
+        assertThat(notificationRepository.findById(first.getId())).get().extracting(Notification::getRead).isEqualTo(true);
+        assertThat(notificationRepository.findById(second.getId())).get().extracting(Notification::getRead).isEqualTo(true);
+        assertThat(notificationRepository.findById(foreign.getId())).get().extracting(Notification::getRead).isEqualTo(false);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("bulk-deleter")
+    void deleteNotificationsOfTheCurrentMember() throws Exception {
+        Member member = MemberResourceIT.createEntity(em).login("bulk-deleter");
+        em.persist(member);
+        Notification old = createEntity(em).member(member);
+        Notification recent = createEntity(em).member(member).timestamp(UPDATED_TIMESTAMP);
+        em.persist(old);
+        em.persist(recent);
+        em.flush();
+
+        restNotificationMockMvc.perform(delete(ENTITY_API_URL)).andExpect(status().isBadRequest());
+        restNotificationMockMvc
+            .perform(delete(ENTITY_API_URL).param("before", DEFAULT_TIMESTAMP.plusDays(1).toOffsetDateTime().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(1));
+
+        em.clear();
+        assertThat(notificationRepository.findById(old.getId())).isEmpty();
+        assertThat(notificationRepository.findById(recent.getId())).isPresent();
+    }
+
+    @Test
+    @Transactional
+    void streamNotificationsOfANonMember() throws Exception {
+        // The mock user is not linked to any member
+        restNotificationMockMvc.perform(get(ENTITY_API_URL + "/stream")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void putExistingNotification() throws Exception {
@@ -4,18 +4,27 @@ import static com.voituri.ridesharing.domain.RideAsserts.*;
 import static com.voituri.ridesharing.web.rest.TestUtil.createUpdateProxyForBean;
 import static com.voituri.ridesharing.web.rest.TestUtil.sameInstant;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.voituri.ridesharing.IntegrationTest;
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.Message;
 import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.repository.MessageRepository;
+import com.voituri.ridesharing.repository.NotificationRepository;
 import com.voituri.ridesharing.repository.RideRepository;
+import com.voituri.ridesharing.service.RideRequestService;
 import com.voituri.ridesharing.service.dto.RideDTO;
+import com.voituri.ridesharing.service.dto.RideRequestDTO;
 import com.voituri.ridesharing.service.mapper.RideMapper;
 import jakarta.persistence.EntityManager;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -54,6 +63,27 @@ class RideResourceIT {
     private static final Boolean DEFAULT_RECURRING = false;
     private static final Boolean UPDATED_RECURRING = true;
 
+    private static final Double DEFAULT_START_LATITUDE = 48.8566D;
+    private static final Double UPDATED_START_LATITUDE = 43.2965D;
+
+    private static final Double DEFAULT_START_LONGITUDE = 2.3522D;
+    private static final Double UPDATED_START_LONGITUDE = 5.3698D;
+
+    private static final Double DEFAULT_END_LATITUDE = 45.764D;
+    private static final Double UPDATED_END_LATITUDE = 43.7102D;
+
+    private static final Double DEFAULT_END_LONGITUDE = 4.8357D;
+    private static final Double UPDATED_END_LONGITUDE = 7.262D;
+
+    private static final Integer DEFAULT_AVAILABLE_SEATS = 3;
+    private static final Integer UPDATED_AVAILABLE_SEATS = 4;
+
+    private static final String DEFAULT_RECURRENCE_DAYS = "MON,FRI";
+    private static final String UPDATED_RECURRENCE_DAYS = "TUE,WED,THU";
+
+    private static final LocalDate DEFAULT_RECURRENCE_UNTIL = LocalDate.ofEpochDay(0L);
+    private static final LocalDate UPDATED_RECURRENCE_UNTIL = LocalDate.now(ZoneId.systemDefault());
+
     private static final String ENTITY_API_URL = "/api/rides";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
 
@@ -69,6 +99,12 @@ class RideResourceIT {
     @Autowired
     private RideMapper rideMapper;
 
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -91,7 +127,14 @@ class RideResourceIT {
             .endLocation(DEFAULT_END_LOCATION)
             .startTime(DEFAULT_START_TIME)
             .endTime(DEFAULT_END_TIME)
-            .recurring(DEFAULT_RECURRING);
+            .recurring(DEFAULT_RECURRING)
+            .startLatitude(DEFAULT_START_LATITUDE)
+            .startLongitude(DEFAULT_START_LONGITUDE)
+            .endLatitude(DEFAULT_END_LATITUDE)
+            .endLongitude(DEFAULT_END_LONGITUDE)
+            .availableSeats(DEFAULT_AVAILABLE_SEATS)
+            .recurrenceDays(DEFAULT_RECURRENCE_DAYS)
+            .recurrenceUntil(DEFAULT_RECURRENCE_UNTIL);
         return ride;
     }
 
@@ -107,7 +150,14 @@ class RideResourceIT {
             .endLocation(UPDATED_END_LOCATION)
             .startTime(UPDATED_START_TIME)
             .endTime(UPDATED_END_TIME)
-            .recurring(UPDATED_RECURRING);
+            .recurring(UPDATED_RECURRING)
+            .startLatitude(UPDATED_START_LATITUDE)
+            .startLongitude(UPDATED_START_LONGITUDE)
+            .endLatitude(UPDATED_END_LATITUDE)
+            .endLongitude(UPDATED_END_LONGITUDE)
+            .availableSeats(UPDATED_AVAILABLE_SEATS)
+            .recurrenceDays(UPDATED_RECURRENCE_DAYS)
+            .recurrenceUntil(UPDATED_RECURRENCE_UNTIL);
         return ride;
     }
 
@@ -233,7 +283,186 @@ class RideResourceIT {
             .andExpect(jsonPath("$.[*].endLocation").value(hasItem(DEFAULT_END_LOCATION)))
             .andExpect(jsonPath("$.[*].startTime").value(hasItem(sameInstant(DEFAULT_START_TIME))))
             .andExpect(jsonPath("$.[*].endTime").value(hasItem(sameInstant(DEFAULT_END_TIME))))
-            .andExpect(jsonPath("$.[*].recurring").value(hasItem(DEFAULT_RECURRING.booleanValue())));
+            .andExpect(jsonPath("$.[*].recurring").value(hasItem(DEFAULT_RECURRING.booleanValue())))
+            .andExpect(jsonPath("$.[*].startLatitude").value(hasItem(DEFAULT_START_LATITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].startLongitude").value(hasItem(DEFAULT_START_LONGITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].endLatitude").value(hasItem(DEFAULT_END_LATITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].endLongitude").value(hasItem(DEFAULT_END_LONGITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].availableSeats").value(hasItem(DEFAULT_AVAILABLE_SEATS)))
+            .andExpect(jsonPath("$.[*].recurrenceDays").value(hasItem(DEFAULT_RECURRENCE_DAYS)))
+            .andExpect(jsonPath("$.[*].recurrenceUntil").value(hasItem(DEFAULT_RECURRENCE_UNTIL.toString())));
+    }
+
+    @Test
+    @Transactional
+    void getAllRidesWithKeysetPagination() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+        Ride laterRide = rideRepository.saveAndFlush(createEntity(em).startTime(DEFAULT_START_TIME.plusSeconds(1)));
+
+        String nextCursor = restRideMockMvc
+            .perform(get(ENTITY_API_URL + "?limit=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(ride.getId().intValue()))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andExpect(header().string("Link", containsString("rel=\"next\"")))
+            .andReturn()
+            .getResponse()
+            .getHeader("X-Next-Cursor");
+
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL).param("after", nextCursor).param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(laterRide.getId().intValue()));
+
+        restRideMockMvc.perform(get(ENTITY_API_URL).param("after", "not-a-cursor")).andExpect(status().isBadRequest());
+
+        rideRepository.delete(laterRide);
+    }
+
+    @Test
+    @Transactional
+    void getRidesByIdFiltering() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        Long id = ride.getId();
+
+        defaultRideFiltering("id.equals=" + id, "id.notEquals=" + id);
+
+        defaultRideFiltering("id.greaterThanOrEqual=" + id, "id.greaterThan=" + id);
+
+        defaultRideFiltering("id.lessThanOrEqual=" + id, "id.lessThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllRidesByStartLocationIsEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        // Get all the rideList where startLocation equals to
+        defaultRideFiltering("startLocation.equals=" + DEFAULT_START_LOCATION, "startLocation.equals=" + UPDATED_START_LOCATION);
+    }
+
+    @Test
+    @Transactional
+    void getAllRidesByStartLocationIsInShouldWork() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        // Get all the rideList where startLocation in
+        defaultRideFiltering(
+            "startLocation.in=" + DEFAULT_START_LOCATION + "," + UPDATED_START_LOCATION,
+            "startLocation.in=" + UPDATED_START_LOCATION
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllRidesByStartLocationContainsSomething() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        // Get all the rideList where startLocation contains
+        defaultRideFiltering("startLocation.contains=" + DEFAULT_START_LOCATION, "startLocation.contains=" + UPDATED_START_LOCATION);
+    }
+
+    @Test
+    @Transactional
+    void getAllRidesByStartTimeIsGreaterThanSomething() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        // Get all the rideList where startTime is greater than
+        defaultRideFiltering(
+            "startTime.greaterThan=" + DEFAULT_START_TIME.minusSeconds(1).toInstant(),
+            "startTime.greaterThan=" + DEFAULT_START_TIME.toInstant()
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllRidesByRecurringIsEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        // Get all the rideList where recurring equals to
+        defaultRideFiltering("recurring.equals=" + DEFAULT_RECURRING, "recurring.equals=" + UPDATED_RECURRING);
+    }
+
+    @Test
+    @Transactional
+    void getAllRidesByAvailableSeatsIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        // Get all the rideList where availableSeats is greater than or equal to
+        defaultRideFiltering(
+            "availableSeats.greaterThanOrEqual=" + DEFAULT_AVAILABLE_SEATS,
+            "availableSeats.greaterThanOrEqual=" + (DEFAULT_AVAILABLE_SEATS + 1)
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllRidesByMemberIsEqualToSomething() throws Exception {
+        Member member = MemberResourceIT.createEntity(em);
+        em.persist(member);
+        em.flush();
+        ride.setMember(member);
+        insertedRide = rideRepository.saveAndFlush(ride);
+        Long memberId = member.getId();
+        // Get all the rideList where member equals to memberId
+        defaultRideShouldBeFound("memberId.equals=" + memberId);
+
+        // Get all the rideList where member equals to (memberId + 1)
+        defaultRideShouldNotBeFound("memberId.equals=" + (memberId + 1));
+    }
+
+    private void defaultRideFiltering(String shouldBeFound, String shouldNotBeFound) throws Exception {
+        defaultRideShouldBeFound(shouldBeFound);
+        defaultRideShouldNotBeFound(shouldNotBeFound);
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultRideShouldBeFound(String filter) throws Exception {
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(ride.getId().intValue())))
+            .andExpect(jsonPath("$.[*].startLocation").value(hasItem(DEFAULT_START_LOCATION)))
+            .andExpect(jsonPath("$.[*].startTime").value(hasItem(sameInstant(DEFAULT_START_TIME))));
+
+        // Check, that the count call also returns 1
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultRideShouldNotBeFound(String filter) throws Exception {
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
     }
 
     @Test
@@ -252,7 +481,246 @@ class RideResourceIT {
             .andExpect(jsonPath("$.endLocation").value(DEFAULT_END_LOCATION))
             .andExpect(jsonPath("$.startTime").value(sameInstant(DEFAULT_START_TIME)))
             .andExpect(jsonPath("$.endTime").value(sameInstant(DEFAULT_END_TIME)))
-            .andExpect(jsonPath("$.recurring").value(DEFAULT_RECURRING.booleanValue()));
+            .andExpect(jsonPath("$.recurring").value(DEFAULT_RECURRING.booleanValue()))
+            .andExpect(jsonPath("$.startLatitude").value(DEFAULT_START_LATITUDE.doubleValue()))
+            .andExpect(jsonPath("$.startLongitude").value(DEFAULT_START_LONGITUDE.doubleValue()))
+            .andExpect(jsonPath("$.endLatitude").value(DEFAULT_END_LATITUDE.doubleValue()))
+            .andExpect(jsonPath("$.endLongitude").value(DEFAULT_END_LONGITUDE.doubleValue()))
+            .andExpect(jsonPath("$.availableSeats").value(DEFAULT_AVAILABLE_SEATS))
+            .andExpect(jsonPath("$.recurrenceDays").value(DEFAULT_RECURRENCE_DAYS))
+            .andExpect(jsonPath("$.recurrenceUntil").value(DEFAULT_RECURRENCE_UNTIL.toString()));
+    }
+
+    @Test
+    void searchRides() throws Exception {
+        // Initialize the database through the REST API, without a test transaction, so that the ride is indexed on commit
+        RideDTO rideDTO = om.readValue(
+            restRideMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(rideMapper.toDto(ride))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            RideDTO.class
+        );
+        insertedRide = rideMapper.toEntity(rideDTO);
+
+        restRideMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/search")
+                    .param("fromLat", "48.86")
+                    .param("fromLon", "2.35")
+                    .param("toLat", "45.76")
+                    .param("toLon", "4.83")
+                    .param("radiusKm", "5")
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(rideDTO.getId().intValue())));
+
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL + "/search").param("fromLat", "48.86").param("fromLon", "2.35").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1));
+
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL + "/search").param("fromLat", "43.30").param("fromLon", "5.37").param("radiusKm", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(rideDTO.getId().intValue()))));
+
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL + "/search").param("fromLat", "91").param("fromLon", "2.35"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void matchRides() throws Exception {
+        // Initialize the database through the REST API, without a test transaction, so that the ride is indexed on commit
+        ride.startTime(UPDATED_START_TIME).endTime(UPDATED_START_TIME.plusHours(4));
+        RideDTO rideDTO = om.readValue(
+            restRideMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(rideMapper.toDto(ride))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            RideDTO.class
+        );
+        insertedRide = rideMapper.toEntity(rideDTO);
+
+        // Paris -> Lyon, along the Paris -> Lyon ride
+        restRideMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/match")
+                    .param("fromLat", "48.80")
+                    .param("fromLon", "2.40")
+                    .param("toLat", "45.80")
+                    .param("toLon", "4.80")
+                    .param("departAfter", UPDATED_START_TIME.minusHours(1).toOffsetDateTime().toString())
+                    .param("departBefore", UPDATED_START_TIME.plusHours(1).toOffsetDateTime().toString())
+                    .param("corridorKm", "10")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].ride.id").value(hasItem(rideDTO.getId().intValue())));
+
+        // Lyon -> Paris is the opposite direction
+        restRideMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/match")
+                    .param("fromLat", "45.80")
+                    .param("fromLon", "4.80")
+                    .param("toLat", "48.80")
+                    .param("toLon", "2.40")
+                    .param("departAfter", UPDATED_START_TIME.minusHours(1).toOffsetDateTime().toString())
+                    .param("departBefore", UPDATED_START_TIME.plusHours(1).toOffsetDateTime().toString())
+                    .param("corridorKm", "10")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].ride.id").value(not(hasItem(rideDTO.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void getRideOccurrences() throws Exception {
+        // Initialize the database with a ride leaving on a Monday, repeated on Mondays and Fridays for two weeks
+        ZonedDateTime monday = ZonedDateTime.of(2024, 7, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+        ride.startTime(monday).endTime(monday.plusHours(4)).recurring(true).recurrenceUntil(monday.toLocalDate().plusDays(13));
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        restRideMockMvc
+            .perform(
+                get(ENTITY_API_URL_ID + "/occurrences", ride.getId())
+                    .param("from", monday.toOffsetDateTime().toString())
+                    .param("to", monday.plusMonths(1).toOffsetDateTime().toString())
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(4))
+            .andExpect(jsonPath("$.[1]").value(sameInstant(monday.plusDays(4))));
+
+        restRideMockMvc
+            .perform(
+                get(ENTITY_API_URL_ID + "/occurrences", ride.getId())
+                    .param("from", monday.toOffsetDateTime().toString())
+                    .param("to", monday.minusDays(1).toOffsetDateTime().toString())
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void rescheduleRideNotifiesItsRequesters() throws Exception {
+        // Initialize the database
+        Member requester = MemberResourceIT.createEntity(em);
+        em.persist(requester);
+        insertedRide = rideRepository.saveAndFlush(ride);
+        em.persist(RideRequestResourceIT.createEntity(em).ride(ride).member(requester));
+        em.flush();
+
+        Ride partialUpdatedRide = new Ride();
+        partialUpdatedRide.setId(ride.getId());
+        partialUpdatedRide.startTime(UPDATED_START_TIME);
+
+        restRideMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedRide.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedRide))
+            )
+            .andExpect(status().isOk());
+
+        assertThat(notificationRepository.findAll())
+            .filteredOn(notification -> requester.equals(notification.getMember()))
+            .singleElement()
+            .satisfies(notification -> assertThat(notification.getMessage()).contains("now leaves on"));
+    }
+
+    @Test
+    @Transactional
+    void bookRide() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        restRideMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/book", ride.getId()).param("seats", "2"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.status").value(RideRequestService.BOOKED_STATUS))
+            .andExpect(jsonPath("$.ride.id").value(ride.getId().intValue()));
+
+        // Only one seat is left
+        restRideMockMvc.perform(post(ENTITY_API_URL_ID + "/book", ride.getId()).param("seats", "2")).andExpect(status().isConflict());
+        restRideMockMvc.perform(post(ENTITY_API_URL_ID + "/book", ride.getId()).param("seats", "0")).andExpect(status().isBadRequest());
+        restRideMockMvc.perform(post(ENTITY_API_URL_ID + "/book", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        assertThat(rideRepository.findAvailableSeatsById(ride.getId())).contains(DEFAULT_AVAILABLE_SEATS - 2);
+    }
+
+    @Test
+    @Transactional
+    void cancelBookingGivesTheSeatsBack() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+
+        RideRequestDTO booking = om.readValue(
+            restRideMockMvc
+                .perform(post(ENTITY_API_URL_ID + "/book", ride.getId()).param("seats", "2"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.seats").value(2))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray(),
+            RideRequestDTO.class
+        );
+
+        restRideMockMvc
+            .perform(
+                patch("/api/ride-requests/{id}", booking.getId())
+                    .contentType("application/merge-patch+json")
+                    .content("{\"id\":" + booking.getId() + ",\"status\":\"CANCELLED\"}")
+            )
+            .andExpect(status().isOk());
+        assertThat(rideRepository.findAvailableSeatsById(ride.getId())).contains(DEFAULT_AVAILABLE_SEATS);
+
+        // Deleting the cancelled request does not give the seats back twice
+        restRideMockMvc.perform(delete("/api/ride-requests/{id}", booking.getId())).andExpect(status().isNoContent());
+        assertThat(rideRepository.findAvailableSeatsById(ride.getId())).contains(DEFAULT_AVAILABLE_SEATS);
+    }
+
+    @Test
+    @Transactional
+    void getRideMessagesWithSeekPagination() throws Exception {
+        // Initialize the database
+        insertedRide = rideRepository.saveAndFlush(ride);
+        Message older = messageRepository.saveAndFlush(new Message().content("older").timestamp(DEFAULT_START_TIME).ride(ride));
+        Message newer = messageRepository.saveAndFlush(
+            new Message().content("newer").timestamp(DEFAULT_START_TIME.plusSeconds(1)).ride(ride)
+        );
+
+        String nextCursor = restRideMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/messages", ride.getId()).param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(newer.getId().intValue()))
+            .andExpect(jsonPath("$.[0].content").value("newer"))
+            .andExpect(jsonPath("$.[0].ride.id").value(ride.getId().intValue()))
+            .andExpect(header().string("Link", containsString("before=")))
+            .andReturn()
+            .getResponse()
+            .getHeader("X-Next-Cursor");
+
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/messages", ride.getId()).param("before", nextCursor).param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(older.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        restRideMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/messages", ride.getId()).param("before", "not-a-cursor"))
+            .andExpect(status().isBadRequest());
+        restRideMockMvc.perform(get(ENTITY_API_URL_ID + "/messages", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        messageRepository.delete(older);
+        messageRepository.delete(newer);
     }
 
     @Test
@@ -279,16 +747,23 @@ class RideResourceIT {
             .endLocation(UPDATED_END_LOCATION)
             .startTime(UPDATED_START_TIME)
             .endTime(UPDATED_END_TIME)
-            .recurring(UPDATED_RECURRING);
+            .recurring(UPDATED_RECURRING)
+            .startLatitude(UPDATED_START_LATITUDE)
+            .startLongitude(UPDATED_START_LONGITUDE)
+            .endLatitude(UPDATED_END_LATITUDE)
+            .endLongitude(UPDATED_END_LONGITUDE)
+            .availableSeats(UPDATED_AVAILABLE_SEATS)
+            .recurrenceDays(UPDATED_RECURRENCE_DAYS)
+            .recurrenceUntil(UPDATED_RECURRENCE_UNTIL);
         RideDTO rideDTO = rideMapper.toDto(updatedRide);
 
         restRideMockMvc
             .perform(put(ENTITY_API_URL_ID, rideDTO.getId()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(rideDTO)))
             .andExpect(status().isOk());
 
-        // Validate the Ride in the database
+        // Validate the Ride in the database, the available seats are only changed by bookings
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
-        assertPersistedRideToMatchAllProperties(updatedRide);
+        assertPersistedRideToMatchAllProperties(updatedRide.availableSeats(DEFAULT_AVAILABLE_SEATS));
     }
 
     @Test
@@ -398,7 +873,14 @@ class RideResourceIT {
             .endLocation(UPDATED_END_LOCATION)
             .startTime(UPDATED_START_TIME)
             .endTime(UPDATED_END_TIME)
-            .recurring(UPDATED_RECURRING);
+            .recurring(UPDATED_RECURRING)
+            .startLatitude(UPDATED_START_LATITUDE)
+            .startLongitude(UPDATED_START_LONGITUDE)
+            .endLatitude(UPDATED_END_LATITUDE)
+            .endLongitude(UPDATED_END_LONGITUDE)
+            .availableSeats(UPDATED_AVAILABLE_SEATS)
+            .recurrenceDays(UPDATED_RECURRENCE_DAYS)
+            .recurrenceUntil(UPDATED_RECURRENCE_UNTIL);
 
         restRideMockMvc
             .perform(
@@ -411,7 +893,7 @@ class RideResourceIT {
         // Validate the Ride in the database
 
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
-        assertRideUpdatableFieldsEquals(partialUpdatedRide, getPersistedRide(partialUpdatedRide));
+        assertRideUpdatableFieldsEquals(partialUpdatedRide.availableSeats(DEFAULT_AVAILABLE_SEATS), getPersistedRide(partialUpdatedRide));
     }
 
     @Test
@@ -0,0 +1,481 @@
+package com.voituri.ridesharing.web.rest;
+
+import static com.voituri.ridesharing.domain.SavedSearchAsserts.*;
+import static com.voituri.ridesharing.web.rest.TestUtil.createUpdateProxyForBean;
+import static com.voituri.ridesharing.web.rest.TestUtil.sameInstant;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voituri.ridesharing.IntegrationTest;
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.domain.SavedSearch;
+import com.voituri.ridesharing.repository.NotificationRepository;
+import com.voituri.ridesharing.repository.SavedSearchRepository;
+import com.voituri.ridesharing.service.dto.SavedSearchDTO;
+import com.voituri.ridesharing.service.geo.SavedSearchIndex;
+import com.voituri.ridesharing.service.mapper.RideMapper;
+import com.voituri.ridesharing.service.mapper.SavedSearchMapper;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link SavedSearchResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SavedSearchResourceIT {
+
+    private static final String DEFAULT_NAME = "AAAAAAAAAA";
+    private static final String UPDATED_NAME = "BBBBBBBBBB";
+
+    private static final Double DEFAULT_FROM_LATITUDE = 48.8566D;
+    private static final Double UPDATED_FROM_LATITUDE = 43.2965D;
+
+    private static final Double DEFAULT_FROM_LONGITUDE = 2.3522D;
+    private static final Double UPDATED_FROM_LONGITUDE = 5.3698D;
+
+    private static final Double DEFAULT_TO_LATITUDE = 45.764D;
+    private static final Double UPDATED_TO_LATITUDE = 43.7102D;
+
+    private static final Double DEFAULT_TO_LONGITUDE = 4.8357D;
+    private static final Double UPDATED_TO_LONGITUDE = 7.262D;
+
+    private static final Double DEFAULT_RADIUS_KM = 10D;
+    private static final Double UPDATED_RADIUS_KM = 5D;
+
+    private static final ZonedDateTime DEFAULT_DEPART_AFTER = ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneOffset.UTC);
+    private static final ZonedDateTime UPDATED_DEPART_AFTER = ZonedDateTime.now(ZoneId.systemDefault()).withNano(0);
+
+    private static final ZonedDateTime DEFAULT_DEPART_BEFORE = DEFAULT_DEPART_AFTER.plusDays(1);
+    private static final ZonedDateTime UPDATED_DEPART_BEFORE = UPDATED_DEPART_AFTER.plusDays(2);
+
+    private static final String ENTITY_API_URL = "/api/saved-searches";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    private static Random random = new Random();
+    private static AtomicLong longCount = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SavedSearchMapper savedSearchMapper;
+
+    @Autowired
+    private SavedSearchIndex savedSearchIndex;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private RideMapper rideMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restSavedSearchMockMvc;
+
+    private SavedSearch savedSearch;
+
+    private SavedSearch insertedSavedSearch;
+
+    /**
+     * Create an entity for this test.
+     *
+     * This is a static method, as tests for other entities might also need it,
+     * if they test an entity which requires the current entity.
+     */
+    public static SavedSearch createEntity(EntityManager em) {
+        SavedSearch savedSearch = new SavedSearch()
+            .name(DEFAULT_NAME)
+            .fromLatitude(DEFAULT_FROM_LATITUDE)
+            .fromLongitude(DEFAULT_FROM_LONGITUDE)
+            .toLatitude(DEFAULT_TO_LATITUDE)
+            .toLongitude(DEFAULT_TO_LONGITUDE)
+            .radiusKm(DEFAULT_RADIUS_KM)
+            .departAfter(DEFAULT_DEPART_AFTER)
+            .departBefore(DEFAULT_DEPART_BEFORE);
+        return savedSearch;
+    }
+
+    /**
+     * Create an updated entity for this test.
+     *
+     * This is a static method, as tests for other entities might also need it,
+     * if they test an entity which requires the current entity.
+     */
+    public static SavedSearch createUpdatedEntity(EntityManager em) {
+        SavedSearch savedSearch = new SavedSearch()
+            .name(UPDATED_NAME)
+            .fromLatitude(UPDATED_FROM_LATITUDE)
+            .fromLongitude(UPDATED_FROM_LONGITUDE)
+            .toLatitude(UPDATED_TO_LATITUDE)
+            .toLongitude(UPDATED_TO_LONGITUDE)
+            .radiusKm(UPDATED_RADIUS_KM)
+            .departAfter(UPDATED_DEPART_AFTER)
+            .departBefore(UPDATED_DEPART_BEFORE);
+        return savedSearch;
+    }
+
+    @BeforeEach
+    public void initTest() {
+        savedSearch = createEntity(em);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (insertedSavedSearch != null) {
+            savedSearchRepository.delete(insertedSavedSearch);
+            savedSearchIndex.remove(insertedSavedSearch.getId());
+            insertedSavedSearch = null;
+        }
+    }
+
+    @Test
+    @Transactional
+    void createSavedSearch() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        // Create the SavedSearch
+        SavedSearchDTO savedSearchDTO = savedSearchMapper.toDto(savedSearch);
+        var returnedSavedSearchDTO = om.readValue(
+            restSavedSearchMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(savedSearchDTO)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            SavedSearchDTO.class
+        );
+
+        // Validate the SavedSearch in the database
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        var returnedSavedSearch = savedSearchMapper.toEntity(returnedSavedSearchDTO);
+        assertSavedSearchUpdatableFieldsEquals(returnedSavedSearch, getPersistedSavedSearch(returnedSavedSearch));
+
+        insertedSavedSearch = returnedSavedSearch;
+    }
+
+    @Test
+    @Transactional
+    void createSavedSearchWithExistingId() throws Exception {
+        // Create the SavedSearch with an existing ID
+        savedSearch.setId(1L);
+        SavedSearchDTO savedSearchDTO = savedSearchMapper.toDto(savedSearch);
+
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        // An entity with an existing ID cannot be created, so this API call must fail
+        restSavedSearchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(savedSearchDTO)))
+            .andExpect(status().isBadRequest());
+
+        // Validate the SavedSearch in the database
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void createSavedSearchWithInvalidWindow() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        savedSearch.setDepartBefore(DEFAULT_DEPART_AFTER);
+        restSavedSearchMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(savedSearchMapper.toDto(savedSearch)))
+            )
+            .andExpect(status().isBadRequest());
+
+        savedSearch.setDepartBefore(DEFAULT_DEPART_AFTER.plusDays(8));
+        restSavedSearchMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(savedSearchMapper.toDto(savedSearch)))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void checkFromLatitudeIsRequired() throws Exception {
+        long databaseSizeBeforeTest = getRepositoryCount();
+        // set the field null
+        savedSearch.setFromLatitude(null);
+
+        // Create the SavedSearch, which fails.
+        SavedSearchDTO savedSearchDTO = savedSearchMapper.toDto(savedSearch);
+
+        restSavedSearchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(savedSearchDTO)))
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeTest);
+    }
+
+    @Test
+    @Transactional
+    void checkRadiusKmIsRequired() throws Exception {
+        long databaseSizeBeforeTest = getRepositoryCount();
+        // set the field null
+        savedSearch.setRadiusKm(null);
+
+        // Create the SavedSearch, which fails.
+        SavedSearchDTO savedSearchDTO = savedSearchMapper.toDto(savedSearch);
+
+        restSavedSearchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(savedSearchDTO)))
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeTest);
+    }
+
+    @Test
+    @Transactional
+    void checkDepartAfterIsRequired() throws Exception {
+        long databaseSizeBeforeTest = getRepositoryCount();
+        // set the field null
+        savedSearch.setDepartAfter(null);
+
+        // Create the SavedSearch, which fails.
+        SavedSearchDTO savedSearchDTO = savedSearchMapper.toDto(savedSearch);
+
+        restSavedSearchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(savedSearchDTO)))
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeTest);
+    }
+
+    @Test
+    @Transactional
+    void getAllSavedSearches() throws Exception {
+        // Initialize the database
+        insertedSavedSearch = savedSearchRepository.saveAndFlush(savedSearch);
+
+        // Get all the savedSearchList
+        restSavedSearchMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(savedSearch.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].fromLatitude").value(hasItem(DEFAULT_FROM_LATITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].fromLongitude").value(hasItem(DEFAULT_FROM_LONGITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].toLatitude").value(hasItem(DEFAULT_TO_LATITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].toLongitude").value(hasItem(DEFAULT_TO_LONGITUDE.doubleValue())))
+            .andExpect(jsonPath("$.[*].radiusKm").value(hasItem(DEFAULT_RADIUS_KM.doubleValue())))
+            .andExpect(jsonPath("$.[*].departAfter").value(hasItem(sameInstant(DEFAULT_DEPART_AFTER))))
+            .andExpect(jsonPath("$.[*].departBefore").value(hasItem(sameInstant(DEFAULT_DEPART_BEFORE))));
+    }
+
+    @Test
+    @Transactional
+    void getSavedSearch() throws Exception {
+        // Initialize the database
+        insertedSavedSearch = savedSearchRepository.saveAndFlush(savedSearch);
+
+        // Get the savedSearch
+        restSavedSearchMockMvc
+            .perform(get(ENTITY_API_URL_ID, savedSearch.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(savedSearch.getId().intValue()))
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.fromLatitude").value(DEFAULT_FROM_LATITUDE.doubleValue()))
+            .andExpect(jsonPath("$.fromLongitude").value(DEFAULT_FROM_LONGITUDE.doubleValue()))
+            .andExpect(jsonPath("$.toLatitude").value(DEFAULT_TO_LATITUDE.doubleValue()))
+            .andExpect(jsonPath("$.toLongitude").value(DEFAULT_TO_LONGITUDE.doubleValue()))
+            .andExpect(jsonPath("$.radiusKm").value(DEFAULT_RADIUS_KM.doubleValue()))
+            .andExpect(jsonPath("$.departAfter").value(sameInstant(DEFAULT_DEPART_AFTER)))
+            .andExpect(jsonPath("$.departBefore").value(sameInstant(DEFAULT_DEPART_BEFORE)));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingSavedSearch() throws Exception {
+        // Get the savedSearch
+        restSavedSearchMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void putExistingSavedSearch() throws Exception {
+        // Initialize the database
+        insertedSavedSearch = savedSearchRepository.saveAndFlush(savedSearch);
+
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+
+        // Update the savedSearch
+        SavedSearch updatedSavedSearch = savedSearchRepository.findById(savedSearch.getId()).orElseThrow();
+        // Disconnect from session so that the updates on updatedSavedSearch are not directly saved in db
+        em.detach(updatedSavedSearch);
+        updatedSavedSearch
+            .name(UPDATED_NAME)
+            .fromLatitude(UPDATED_FROM_LATITUDE)
+            .fromLongitude(UPDATED_FROM_LONGITUDE)
+            .toLatitude(UPDATED_TO_LATITUDE)
+            .toLongitude(UPDATED_TO_LONGITUDE)
+            .radiusKm(UPDATED_RADIUS_KM)
+            .departAfter(UPDATED_DEPART_AFTER)
+            .departBefore(UPDATED_DEPART_BEFORE);
+        SavedSearchDTO savedSearchDTO = savedSearchMapper.toDto(updatedSavedSearch);
+
+        restSavedSearchMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, savedSearchDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(savedSearchDTO))
+            )
+            .andExpect(status().isOk());
+
+        // Validate the SavedSearch in the database
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+        assertPersistedSavedSearchToMatchAllProperties(updatedSavedSearch);
+    }
+
+    @Test
+    @Transactional
+    void putNonExistingSavedSearch() throws Exception {
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+        savedSearch.setId(longCount.incrementAndGet());
+
+        // Create the SavedSearch
+        SavedSearchDTO savedSearchDTO = savedSearchMapper.toDto(savedSearch);
+
+        // If the entity doesn't have an ID, it will throw BadRequestAlertException
+        restSavedSearchMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, savedSearchDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(savedSearchDTO))
+            )
+            .andExpect(status().isBadRequest());
+
+        // Validate the SavedSearch in the database
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateSavedSearchWithPatch() throws Exception {
+        // Initialize the database
+        insertedSavedSearch = savedSearchRepository.saveAndFlush(savedSearch);
+
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+
+        // Update the savedSearch using partial update
+        SavedSearch partialUpdatedSavedSearch = new SavedSearch();
+        partialUpdatedSavedSearch.setId(savedSearch.getId());
+
+        partialUpdatedSavedSearch.name(UPDATED_NAME).radiusKm(UPDATED_RADIUS_KM);
+
+        restSavedSearchMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedSavedSearch.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedSavedSearch))
+            )
+            .andExpect(status().isOk());
+
+        // Validate the SavedSearch in the database
+
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+        assertSavedSearchUpdatableFieldsEquals(
+            createUpdateProxyForBean(partialUpdatedSavedSearch, savedSearch),
+            getPersistedSavedSearch(savedSearch)
+        );
+    }
+
+    @Test
+    @Transactional
+    void deleteSavedSearch() throws Exception {
+        // Initialize the database
+        insertedSavedSearch = savedSearchRepository.saveAndFlush(savedSearch);
+
+        long databaseSizeBeforeDelete = getRepositoryCount();
+
+        // Delete the savedSearch
+        restSavedSearchMockMvc
+            .perform(delete(ENTITY_API_URL_ID, savedSearch.getId()).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNoContent());
+
+        // Validate the database contains one less item
+        assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
+    }
+
+    @Test
+    @Transactional
+    void notifyMatchingSavedSearchesOnNewRide() throws Exception {
+        Member member = MemberResourceIT.createEntity(em);
+        em.persist(member);
+        ZonedDateTime departure = ZonedDateTime.now(ZoneOffset.UTC).plusDays(30).truncatedTo(ChronoUnit.SECONDS);
+        savedSearch.member(member).departAfter(departure.minusHours(1)).departBefore(departure.plusHours(1));
+        insertedSavedSearch = savedSearchRepository.saveAndFlush(savedSearch);
+        // Saved searches are indexed once committed, which the test transaction never is
+        savedSearchIndex.put(savedSearchMapper.toDto(insertedSavedSearch));
+        long notificationsBefore = notificationRepository.count();
+
+        Ride ride = RideResourceIT.createEntity(em).recurring(false).startTime(departure).endTime(departure.plusHours(5));
+        restSavedSearchMockMvc
+            .perform(post("/api/rides").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(rideMapper.toDto(ride))))
+            .andExpect(status().isCreated());
+
+        assertThat(notificationRepository.count()).isEqualTo(notificationsBefore + 1);
+    }
+
+    protected long getRepositoryCount() {
+        return savedSearchRepository.count();
+    }
+
+    protected void assertIncrementedRepositoryCount(long countBefore) {
+        assertThat(countBefore + 1).isEqualTo(getRepositoryCount());
+    }
+
+    protected void assertDecrementedRepositoryCount(long countBefore) {
+        assertThat(countBefore - 1).isEqualTo(getRepositoryCount());
+    }
+
+    protected void assertSameRepositoryCount(long countBefore) {
+        assertThat(countBefore).isEqualTo(getRepositoryCount());
+    }
+
+    protected SavedSearch getPersistedSavedSearch(SavedSearch savedSearch) {
+        return savedSearchRepository.findById(savedSearch.getId()).orElseThrow();
+    }
+
+    protected void assertPersistedSavedSearchToMatchAllProperties(SavedSearch expectedSavedSearch) {
+        assertSavedSearchAllPropertiesEquals(expectedSavedSearch, getPersistedSavedSearch(expectedSavedSearch));
+    }
+
+    protected void assertPersistedSavedSearchToMatchUpdatableProperties(SavedSearch expectedSavedSearch) {
+        assertSavedSearchAllUpdatablePropertiesEquals(expectedSavedSearch, getPersistedSavedSearch(expectedSavedSearch));
+    }
+}
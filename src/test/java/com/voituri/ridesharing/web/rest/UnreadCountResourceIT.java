@@ -0,0 +1,81 @@
+package com.voituri.ridesharing.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.voituri.ridesharing.IntegrationTest;
+import com.voituri.ridesharing.domain.Member;
+import com.voituri.ridesharing.domain.Ride;
+import com.voituri.ridesharing.service.UnreadCounters;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link UnreadCountResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class UnreadCountResourceIT {
+
+    private static final String API_URL = "/api/account/unread-counts";
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restUnreadCountMockMvc;
+
+    @Test
+    @Transactional
+    @WithMockUser("unread-reader")
+    void getUnreadCountsOfTheRidesOfTheCurrentMember() throws Exception {
+        Member member = MemberResourceIT.createEntity(em).login("unread-reader");
+        Member other = MemberResourceIT.createEntity(em).login("unread-other");
+        em.persist(member);
+        em.persist(other);
+        Ride driven = RideResourceIT.createEntity(em).member(member);
+        Ride requested = RideResourceIT.createEntity(em).member(other);
+        Ride foreign = RideResourceIT.createEntity(em).member(other);
+        em.persist(driven);
+        em.persist(requested);
+        em.persist(foreign);
+        em.persist(RideRequestResourceIT.createEntity(em).ride(requested).member(member));
+        em.flush();
+
+        List<Long> rideIds = List.of(driven.getId(), requested.getId(), foreign.getId());
+        rideIds.forEach(rideId -> unreadCounters.addRideMessages(rideId, 2));
+        try {
+            restUnreadCountMockMvc
+                .perform(get(API_URL + "?rides=" + rideIds.stream().map(String::valueOf).collect(Collectors.joining(","))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.notifications").value(0))
+                .andExpect(jsonPath("$.rideMessages." + driven.getId()).value(2))
+                .andExpect(jsonPath("$.rideMessages." + requested.getId()).value(2))
+                .andExpect(jsonPath("$.rideMessages." + foreign.getId()).doesNotExist());
+        } finally {
+            rideIds.forEach(rideId -> unreadCounters.addRideMessages(rideId, -2));
+        }
+    }
+
+    @Test
+    void getUnreadCountsWithTooManyRides() throws Exception {
+        String rides = LongStream.rangeClosed(1, UnreadCountResource.MAX_RIDES + 1)
+            .mapToObj(Long::toString)
+            .collect(Collectors.joining(","));
+        restUnreadCountMockMvc.perform(get(API_URL + "?rides=" + rides)).andExpect(status().isBadRequest());
+    }
+}
@@ -1,11 +1,14 @@
 package com.voituri.ridesharing.web.rest.errors;
 
+import com.voituri.ridesharing.security.PasswordHashingUnavailableException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -46,6 +49,19 @@ public class ExceptionTranslatorTestController {
         throw new RuntimeException();
     }
 
+    @GetMapping("/password-hashing-unavailable")
+    public void passwordHashingUnavailable() {
+        throw new PasswordHashingUnavailableException(Duration.ofSeconds(2));
+    }
+
+    @GetMapping("/password-hashing-unavailable-during-user-lookup")
+    public void passwordHashingUnavailableDuringUserLookup() {
+        throw new InternalAuthenticationServiceException(
+            "User lookup failed",
+            new PasswordHashingUnavailableException(Duration.ofSeconds(2))
+        );
+    }
+
     public static class TestDTO {
 
         @NotNull
@@ -0,0 +1,64 @@
+package com.voituri.ridesharing.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+class KeysetPaginationUtilTest {
+
+    @Test
+    void timestampCursorRoundTrip() {
+        ZonedDateTime timestamp = ZonedDateTime.of(2024, 7, 1, 8, 30, 15, 123456000, ZoneId.of("Europe/Paris"));
+
+        KeysetPaginationUtil.Cursor cursor = KeysetPaginationUtil.decodeTimestampCursor(KeysetPaginationUtil.encodeCursor(timestamp, 42L));
+
+        assertThat(cursor.timestamp().toInstant()).isEqualTo(timestamp.toInstant());
+        assertThat(cursor.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void idCursorRoundTrip() {
+        assertThat(KeysetPaginationUtil.decodeIdCursor(KeysetPaginationUtil.encodeCursor(1500L)).id()).isEqualTo(1500L);
+        assertThat(KeysetPaginationUtil.decodeIdCursor(null)).isNull();
+    }
+
+    @Test
+    void rejectsInvalidCursors() {
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeTimestampCursor("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeTimestampCursor(KeysetPaginationUtil.encodeCursor(3L))).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeIdCursor("eA")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void generatesNextLinkOnlyWhenThereIsANextPage() {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString("http://localhost/api/rides?after=abc&limit=5");
+
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(uri, "next", 5);
+        assertThat(headers.getFirst(KeysetPaginationUtil.NEXT_CURSOR_HEADER)).isEqualTo("next");
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo("<http://localhost/api/rides?after=next&limit=5>; rel=\"next\"");
+
+        assertThat(KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(uri, null, 5)).isEmpty();
+    }
+
+    @Test
+    void generatesNextLinkWithTheGivenCursorParameter() {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString("http://localhost/api/rides/1/messages?before=abc");
+
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(uri, "before", "next", 5);
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo("<http://localhost/api/rides/1/messages?before=next&limit=5>; rel=\"next\"");
+    }
+
+    @Test
+    void clampsTheLimit() {
+        assertThat(KeysetPaginationUtil.sanitizeLimit(0)).isEqualTo(1);
+        assertThat(KeysetPaginationUtil.sanitizeLimit(20)).isEqualTo(20);
+        assertThat(KeysetPaginationUtil.sanitizeLimit(10_000)).isEqualTo(KeysetPaginationUtil.MAX_LIMIT);
+    }
+}